@@ -4,18 +4,29 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.chainlesschain.marketplace.dto.ApiResponse;
 import com.chainlesschain.marketplace.dto.PluginDTO;
 import com.chainlesschain.marketplace.dto.PluginQueryDTO;
+import com.chainlesschain.marketplace.dto.VersionDeltaDTO;
 import com.chainlesschain.marketplace.entity.Plugin;
+import com.chainlesschain.marketplace.entity.PluginVersionFile;
 import com.chainlesschain.marketplace.exception.ResourceNotFoundException;
-import com.chainlesschain.marketplace.service.FileStorageService;
+import com.chainlesschain.marketplace.service.ArtifactStoreService;
+import com.chainlesschain.marketplace.service.DownloadService;
+import com.chainlesschain.marketplace.service.PluginPackageService;
 import com.chainlesschain.marketplace.service.PluginService;
+import com.chainlesschain.marketplace.service.PluginVersionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Plugin Controller
@@ -30,7 +41,9 @@ import java.util.List;
 public class PluginController {
 
     private final PluginService pluginService;
-    private final FileStorageService fileStorageService;
+    private final PluginVersionService pluginVersionService;
+    private final ArtifactStoreService artifactStoreService;
+    private final DownloadService downloadService;
 
     /**
      * Get plugin list
@@ -79,19 +92,17 @@ public class PluginController {
     public ApiResponse<Plugin> createPlugin(
             @Valid @RequestPart("plugin") PluginDTO dto,
             @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) String integrity,
             Authentication authentication) {
         log.info("Create plugin: {}", dto.getPluginId());
 
         // Get user DID from authentication
         String userDid = authentication.getName();
 
-        // Upload file to MinIO storage
-        String objectName = "plugins/" + dto.getPluginId() + "/" + file.getOriginalFilename();
-        String fileUrl = fileStorageService.uploadFile(file, objectName);
-        Long fileSize = file.getSize();
-        String fileHash = fileStorageService.calculateFileHash(file);
+        // Stream file to content-addressed MinIO storage, hashing and checking it on the way
+        PluginPackageService.StoredPackage stored = artifactStoreService.storePackage(file, integrity);
 
-        Plugin plugin = pluginService.createPlugin(dto, userDid, fileUrl, fileSize, fileHash);
+        Plugin plugin = pluginService.createPlugin(dto, userDid, stored);
         return ApiResponse.success(plugin, "Plugin created successfully");
     }
 
@@ -167,25 +178,75 @@ public class PluginController {
     }
 
     /**
-     * Download plugin
+     * Download plugin: redirect to a presigned storage URL
      * GET /plugins/{id}/download
+     *
+     * Range requests are served by the storage behind the redirect. A matching If-None-Match
+     * returns 304 and is not counted as a download.
      */
     @GetMapping("/{id}/download")
-    public ApiResponse<String> downloadPlugin(
+    public ResponseEntity<Void> downloadPlugin(
             @PathVariable Long id,
-            @RequestParam(required = false) String version) {
+            @RequestParam(required = false) String version,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Download plugin: id={}, version={}", id, version);
 
-        Plugin plugin = pluginService.getPluginById(id);
-        if (plugin == null) {
-            throw new ResourceNotFoundException("Plugin", id.toString());
+        DownloadService.Download download = downloadService.resolve(id, version);
+        if (download.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(download.getEtag())
+                    .build();
         }
 
-        // Increment download count
-        pluginService.incrementDownloads(id);
+        downloadService.recordDownload(download);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.FOUND)
+                .location(URI.create(download.getUrl()))
+                .cacheControl(CacheControl.maxAge(download.getMaxAge(), TimeUnit.SECONDS).cachePrivate());
+        if (download.getEtag() != null) {
+            response.eTag(download.getEtag());
+        }
+        return response.build();
+    }
+
+    /**
+     * Get plugin download URL
+     * GET /plugins/{id}/download-url
+     */
+    @GetMapping("/{id}/download-url")
+    public ApiResponse<String> getDownloadUrl(
+            @PathVariable Long id,
+            @RequestParam(required = false) String version) {
+        log.info("Get download URL: id={}, version={}", id, version);
+
+        DownloadService.Download download = downloadService.resolve(id, version);
+        downloadService.recordDownload(download);
+        return ApiResponse.success("Download URL", download.getUrl());
+    }
 
-        // Return download URL
-        return ApiResponse.success("Download URL", plugin.getFileUrl());
+    /**
+     * Get version file manifest
+     * GET /plugins/{id}/versions/{version}/files
+     */
+    @GetMapping("/{id}/versions/{version}/files")
+    public ApiResponse<List<PluginVersionFile>> getVersionFiles(
+            @PathVariable Long id,
+            @PathVariable String version) {
+        log.info("Get version files: id={}, version={}", id, version);
+        return ApiResponse.success(pluginVersionService.getVersionFiles(id, version));
+    }
+
+    /**
+     * Get file delta from an installed version
+     * GET /plugins/{id}/versions/{version}/delta?from=
+     */
+    @GetMapping("/{id}/versions/{version}/delta")
+    public ApiResponse<VersionDeltaDTO> getVersionDelta(
+            @PathVariable Long id,
+            @PathVariable String version,
+            @RequestParam String from) {
+        log.info("Get version delta: id={}, from={}, to={}", id, from, version);
+        return ApiResponse.success(pluginVersionService.getVersionDelta(id, from, version));
     }
 
     /**
@@ -0,0 +1,31 @@
+package com.chainlesschain.marketplace.dto;
+
+import com.chainlesschain.marketplace.entity.PluginVersionFile;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Version Delta DTO
+ * 版本间文件差异（只需下载新增和变更的文件块）
+ */
+@Data
+public class VersionDeltaDTO {
+
+    private String fromVersion;
+
+    private String toVersion;
+
+    private List<PluginVersionFile> added;
+
+    private List<PluginVersionFile> changed;
+
+    private List<String> removed;
+
+    private Integer unchanged;
+
+    /**
+     * Bytes to fetch: added and changed files whose content is not already in the old version
+     */
+    private Long downloadSize;
+}
@@ -0,0 +1,27 @@
+package com.chainlesschain.marketplace.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Content-addressed Artifact Blob Entity
+ * 内容寻址制品块实体类（插件包及包内文件，按 SHA-256 存储一份）
+ *
+ * @author ChainlessChain Team
+ */
+@Data
+@TableName("artifact_blobs")
+public class ArtifactBlob {
+
+    @TableId(type = IdType.INPUT)
+    private String hash;  // SHA-256 (hex)
+
+    private Long size;
+
+    @TableField("created_at")
+    private LocalDateTime createdAt;
+
+    @TableField("last_referenced_at")
+    private LocalDateTime lastReferencedAt;
+}
@@ -63,6 +63,9 @@ public class Plugin {
     @TableField("file_hash")
     private String fileHash;
 
+    @TableField("file_integrity")
+    private String fileIntegrity;  // SRI, sha512-<base64>
+
     // Status
     private String status;  // pending, approved, rejected, suspended
 
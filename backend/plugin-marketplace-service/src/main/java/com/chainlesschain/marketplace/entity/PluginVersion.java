@@ -33,6 +33,12 @@ public class PluginVersion {
     @TableField("file_hash")
     private String fileHash;
 
+    @TableField("file_integrity")
+    private String fileIntegrity;  // SRI, sha512-<base64>
+
+    @TableField("package_hash")
+    private String packageHash;  // content-addressed package blob, null for legacy per-version objects
+
     private Integer downloads;
 
     private String status;  // active, deprecated, yanked
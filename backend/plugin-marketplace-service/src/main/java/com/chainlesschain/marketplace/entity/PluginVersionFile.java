@@ -0,0 +1,32 @@
+package com.chainlesschain.marketplace.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+/**
+ * Plugin Version File Entity
+ * 插件版本文件清单实体类（包内文件路径 -> 内容块）
+ *
+ * @author ChainlessChain Team
+ */
+@Data
+@TableName("plugin_version_files")
+public class PluginVersionFile {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    @TableField("version_id")
+    private Long versionId;
+
+    private String path;
+
+    @TableField("blob_hash")
+    private String blobHash;
+
+    private Long size;
+
+    // Transient fields (not in database)
+    @TableField(exist = false)
+    private String url;
+}
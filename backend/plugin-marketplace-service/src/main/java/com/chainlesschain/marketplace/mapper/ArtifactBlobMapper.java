@@ -0,0 +1,58 @@
+package com.chainlesschain.marketplace.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chainlesschain.marketplace.entity.ArtifactBlob;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * Artifact Blob Mapper
+ * 内容寻址制品块数据访问接口
+ *
+ * @author ChainlessChain Team
+ */
+@Mapper
+public interface ArtifactBlobMapper extends BaseMapper<ArtifactBlob> {
+
+    /**
+     * Blob is past the grace period and referenced by no live plugin, version or version file
+     */
+    String UNREFERENCED = "b.last_referenced_at < CURRENT_TIMESTAMP - make_interval(hours => #{graceHours}) " +
+            "AND NOT EXISTS (SELECT 1 FROM plugin_versions v WHERE v.package_hash = b.hash AND v.deleted = false) " +
+            "AND NOT EXISTS (SELECT 1 FROM plugin_version_files f JOIN plugin_versions v ON v.id = f.version_id " +
+            "WHERE f.blob_hash = b.hash AND v.deleted = false) " +
+            "AND NOT EXISTS (SELECT 1 FROM plugins p WHERE p.file_hash = b.hash AND p.deleted = false)";
+
+    /**
+     * Register blob, or refresh its last reference time if it is already known
+     */
+    @Insert("INSERT INTO artifact_blobs (hash, size) VALUES (#{hash}, #{size}) " +
+            "ON CONFLICT (hash) DO UPDATE SET last_referenced_at = CURRENT_TIMESTAMP")
+    int register(@Param("hash") String hash, @Param("size") Long size);
+
+    /**
+     * Refresh last reference time
+     *
+     * @return 0 if the blob is unknown
+     */
+    @Update("UPDATE artifact_blobs SET last_referenced_at = CURRENT_TIMESTAMP WHERE hash = #{hash}")
+    int touch(@Param("hash") String hash);
+
+    /**
+     * Find unreferenced blobs
+     */
+    @Select("SELECT b.hash FROM artifact_blobs b WHERE " + UNREFERENCED + " LIMIT #{limit}")
+    List<String> findUnreferenced(@Param("graceHours") int graceHours, @Param("limit") int limit);
+
+    /**
+     * Delete blob record if it is still unreferenced
+     */
+    @Delete("DELETE FROM artifact_blobs b WHERE b.hash = #{hash} AND " + UNREFERENCED)
+    int deleteIfUnreferenced(@Param("hash") String hash, @Param("graceHours") int graceHours);
+}
@@ -8,6 +8,7 @@ import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Plugin Mapper
@@ -19,10 +20,14 @@ import java.util.List;
 public interface PluginMapper extends BaseMapper<Plugin> {
 
     /**
-     * Increment download count
+     * Add buffered download counts (id -> count) in one statement
      */
-    @Update("UPDATE plugins SET downloads = downloads + 1 WHERE id = #{id}")
-    int incrementDownloads(@Param("id") Long id);
+    @Update("<script>" +
+            "UPDATE plugins SET downloads = downloads + v.n FROM (VALUES " +
+            "<foreach collection='counts' index='id' item='n' separator=','>(#{id}::BIGINT, #{n}::INTEGER)</foreach>" +
+            ") AS v(id, n) WHERE plugins.id = v.id" +
+            "</script>")
+    int addDownloads(@Param("counts") Map<Long, Long> counts);
 
     /**
      * Get featured plugins
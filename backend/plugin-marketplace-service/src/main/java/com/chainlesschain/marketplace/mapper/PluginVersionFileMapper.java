@@ -0,0 +1,40 @@
+package com.chainlesschain.marketplace.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chainlesschain.marketplace.entity.PluginVersionFile;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * Plugin Version File Mapper
+ * 插件版本文件清单数据访问接口
+ *
+ * @author ChainlessChain Team
+ */
+@Mapper
+public interface PluginVersionFileMapper extends BaseMapper<PluginVersionFile> {
+
+    /**
+     * Get files by version ID
+     */
+    @Select("SELECT * FROM plugin_version_files WHERE version_id = #{versionId} ORDER BY path")
+    List<PluginVersionFile> getFilesByVersionId(@Param("versionId") Long versionId);
+
+    /**
+     * Find another live version with the same package that already has a file manifest
+     */
+    @Select("SELECT v.id FROM plugin_versions v WHERE v.package_hash = #{packageHash} AND v.id <> #{excludeId} " +
+            "AND v.deleted = false AND EXISTS (SELECT 1 FROM plugin_version_files f WHERE f.version_id = v.id) LIMIT 1")
+    Long findIndexedVersionId(@Param("packageHash") String packageHash, @Param("excludeId") Long excludeId);
+
+    /**
+     * Copy the file manifest of one version to another
+     */
+    @Insert("INSERT INTO plugin_version_files (version_id, path, blob_hash, size) " +
+            "SELECT #{versionId}, path, blob_hash, size FROM plugin_version_files WHERE version_id = #{sourceVersionId}")
+    int copyFiles(@Param("versionId") Long versionId, @Param("sourceVersionId") Long sourceVersionId);
+}
@@ -8,6 +8,7 @@ import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Plugin Version Mapper
@@ -37,8 +38,12 @@ public interface PluginVersionMapper extends BaseMapper<PluginVersion> {
     PluginVersion getVersionByPluginIdAndVersion(@Param("pluginId") Long pluginId, @Param("version") String version);
 
     /**
-     * Increment download count
+     * Add buffered download counts (id -> count) in one statement
      */
-    @Update("UPDATE plugin_versions SET downloads = downloads + 1 WHERE id = #{id}")
-    int incrementDownloads(@Param("id") Long id);
+    @Update("<script>" +
+            "UPDATE plugin_versions SET downloads = downloads + v.n FROM (VALUES " +
+            "<foreach collection='counts' index='id' item='n' separator=','>(#{id}::BIGINT, #{n}::INTEGER)</foreach>" +
+            ") AS v(id, n) WHERE plugin_versions.id = v.id" +
+            "</script>")
+    int addDownloads(@Param("counts") Map<Long, Long> counts);
 }
@@ -0,0 +1,389 @@
+package com.chainlesschain.marketplace.service;
+
+import com.chainlesschain.marketplace.dto.VersionDeltaDTO;
+import com.chainlesschain.marketplace.entity.ArtifactBlob;
+import com.chainlesschain.marketplace.entity.PluginVersion;
+import com.chainlesschain.marketplace.entity.PluginVersionFile;
+import com.chainlesschain.marketplace.exception.BusinessException;
+import com.chainlesschain.marketplace.mapper.ArtifactBlobMapper;
+import com.chainlesschain.marketplace.mapper.PluginVersionFileMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Content-addressed Artifact Store Service
+ * 内容寻址制品存储服务
+ *
+ * Packages and every file inside a zip package are stored once in MinIO under their SHA-256
+ * (cas/sha256/{first two hex digits}/{hash}). Versions reference their package blob and a file manifest,
+ * so identical re-uploads cost nothing, mirrors only copy new blobs and updates can be served as
+ * a delta. Blobs no longer referenced are removed by a scheduled garbage collector.
+ *
+ * @author ChainlessChain Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArtifactStoreService {
+
+    private static final String OBJECT_PREFIX = "cas/sha256/";
+    private static final int MAX_PATH_LENGTH = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final PluginPackageService pluginPackageService;
+    private final ArtifactBlobMapper artifactBlobMapper;
+    private final PluginVersionFileMapper pluginVersionFileMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${marketplace.artifacts.max-unpacked-size:209715200}")
+    private long maxUnpackedSize;
+
+    @Value("${marketplace.artifacts.gc-grace-hours:24}")
+    private int gcGraceHours;
+
+    @Value("${marketplace.artifacts.gc-batch-size:500}")
+    private int gcBatchSize;
+
+    /**
+     * Object name of a blob
+     *
+     * @param hash SHA-256 (hex)
+     * @return Object name
+     */
+    public static String objectName(String hash) {
+        return OBJECT_PREFIX + hash.substring(0, 2) + "/" + hash;
+    }
+
+    /**
+     * Store plugin package as a content-addressed blob
+     *
+     * @param file         Plugin package
+     * @param expectedHash Expected SHA-256 (hex) or SRI value supplied by the uploader, optional
+     * @return Stored package
+     */
+    public PluginPackageService.StoredPackage storePackage(MultipartFile file, String expectedHash) {
+        PluginPackageService.StoredPackage stored =
+                pluginPackageService.storeByHash(file, ArtifactStoreService::objectName, expectedHash);
+        artifactBlobMapper.register(stored.getFileHash(), stored.getFileSize());
+        return stored;
+    }
+
+    /**
+     * Build the file manifest of a version: every file in its zip package is stored as a blob
+     *
+     * Versions sharing a package reuse the existing manifest. Indexing is best effort: a package
+     * that cannot be unpacked is still served as a whole, only without a manifest. It runs after the
+     * surrounding transaction commits, in a transaction of its own, so a storage or database failure
+     * while indexing never rolls back the version itself.
+     *
+     * @param version Plugin version with package hash
+     */
+    public void indexVersion(PluginVersion version) {
+        if (version.getPackageHash() == null) {
+            return;
+        }
+        afterCommit(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> index(version));
+            } catch (RuntimeException e) {
+                log.warn("Failed to index package {} of version {}: {}",
+                        version.getPackageHash(), version.getId(), e.getMessage());
+            }
+        });
+    }
+
+    private void index(PluginVersion version) {
+        String packageHash = version.getPackageHash();
+        Long sourceVersionId = pluginVersionFileMapper.findIndexedVersionId(packageHash, version.getId());
+        if (sourceVersionId != null) {
+            int copied = pluginVersionFileMapper.copyFiles(version.getId(), sourceVersionId);
+            log.info("Reused manifest of version {} for version {} ({} files)", sourceVersionId, version.getId(), copied);
+            return;
+        }
+
+        List<PluginVersionFile> files;
+        try {
+            files = unpack(packageHash, version.getId());
+        } catch (IOException e) {
+            log.warn("Failed to index package {} of version {}: {}", packageHash, version.getId(), e.getMessage());
+            return;
+        }
+        if (!files.isEmpty()) {
+            pluginVersionFileMapper.insert(files);
+        }
+        log.info("Indexed version {}: {} files", version.getId(), files.size());
+    }
+
+    /**
+     * Get the file manifest of a version
+     *
+     * @param versionId Version ID
+     * @return Files with blob URLs
+     */
+    public List<PluginVersionFile> getFiles(Long versionId) {
+        List<PluginVersionFile> files = pluginVersionFileMapper.getFilesByVersionId(versionId);
+        files.forEach(file -> file.setUrl(fileStorageService.getFileUrl(objectName(file.getBlobHash()))));
+        return files;
+    }
+
+    /**
+     * Compute the file delta between two versions
+     *
+     * @param from Installed version
+     * @param to   Target version
+     * @return Delta
+     */
+    public VersionDeltaDTO diff(PluginVersion from, PluginVersion to) {
+        List<PluginVersionFile> fromFiles = getFiles(from.getId());
+        List<PluginVersionFile> toFiles = getFiles(to.getId());
+        if (fromFiles.isEmpty() || toFiles.isEmpty()) {
+            throw new BusinessException("VERSION_NOT_INDEXED", "File manifest is not available for these versions");
+        }
+
+        Map<String, PluginVersionFile> previous = fromFiles.stream()
+                .collect(Collectors.toMap(PluginVersionFile::getPath, Function.identity()));
+        Set<String> previousBlobs = fromFiles.stream()
+                .map(PluginVersionFile::getBlobHash)
+                .collect(Collectors.toSet());
+
+        List<PluginVersionFile> added = new ArrayList<>();
+        List<PluginVersionFile> changed = new ArrayList<>();
+        Set<String> fetched = new HashSet<>();
+        long downloadSize = 0;
+        int unchanged = 0;
+        for (PluginVersionFile file : toFiles) {
+            PluginVersionFile old = previous.remove(file.getPath());
+            if (old != null && old.getBlobHash().equals(file.getBlobHash())) {
+                unchanged++;
+                continue;
+            }
+            (old == null ? added : changed).add(file);
+            if (!previousBlobs.contains(file.getBlobHash()) && fetched.add(file.getBlobHash())) {
+                downloadSize += file.getSize();
+            }
+        }
+
+        VersionDeltaDTO delta = new VersionDeltaDTO();
+        delta.setFromVersion(from.getVersion());
+        delta.setToVersion(to.getVersion());
+        delta.setAdded(added);
+        delta.setChanged(changed);
+        delta.setRemoved(previous.keySet().stream().sorted().toList());
+        delta.setUnchanged(unchanged);
+        delta.setDownloadSize(downloadSize);
+        return delta;
+    }
+
+    /**
+     * Remove blobs that are no longer referenced
+     */
+    @Scheduled(cron = "${marketplace.artifacts.gc-cron:0 30 3 * * *}")
+    public void collectGarbage() {
+        try {
+            int removed = collectUnreferencedBlobs() + collectOrphanObjects();
+            log.info("Artifact garbage collection removed {} blobs", removed);
+        } catch (Exception e) {
+            log.error("Artifact garbage collection failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Delete blobs whose records are past the grace period and no longer referenced
+     */
+    int collectUnreferencedBlobs() {
+        int removed = 0;
+        List<String> hashes;
+        do {
+            hashes = artifactBlobMapper.findUnreferenced(gcGraceHours, gcBatchSize);
+            for (String hash : hashes) {
+                // Re-checked in the delete, a new reference may have appeared meanwhile
+                if (artifactBlobMapper.deleteIfUnreferenced(hash, gcGraceHours) == 0) {
+                    continue;
+                }
+                try {
+                    fileStorageService.deleteFile(objectName(hash));
+                    removed++;
+                } catch (Exception e) {
+                    log.warn("Failed to delete blob {}: {}", hash, e.getMessage());
+                }
+            }
+        } while (hashes.size() == gcBatchSize);
+        return removed;
+    }
+
+    /**
+     * Delete blob objects without a record, e.g. left behind by a failed upload
+     */
+    int collectOrphanObjects() {
+        Instant cutoff = Instant.now().minus(Duration.ofHours(gcGraceHours));
+        List<String> objectNames = fileStorageService.listFiles(OBJECT_PREFIX, cutoff);
+        int removed = 0;
+        for (int i = 0; i < objectNames.size(); i += gcBatchSize) {
+            List<String> batch = objectNames.subList(i, Math.min(i + gcBatchSize, objectNames.size()));
+            Map<String, String> byHash = new HashMap<>();
+            batch.forEach(name -> byHash.put(name.substring(name.lastIndexOf('/') + 1), name));
+            artifactBlobMapper.selectBatchIds(byHash.keySet()).stream()
+                    .map(ArtifactBlob::getHash)
+                    .forEach(byHash::remove);
+            for (String objectName : byHash.values()) {
+                try {
+                    fileStorageService.deleteFile(objectName);
+                    removed++;
+                } catch (Exception e) {
+                    log.warn("Failed to delete orphan blob {}: {}", objectName, e.getMessage());
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Unpack a zip package into blobs, one entry at a time through a temporary file
+     *
+     * Entries are streamed from their local headers, which is not what upload validation checked:
+     * every entry must also be listed in the central directory and have a safe path.
+     */
+    private List<PluginVersionFile> unpack(String packageHash, Long versionId) throws IOException {
+        List<PluginVersionFile> files = new ArrayList<>();
+        Set<String> paths = new HashSet<>();
+        long unpacked = 0;
+        Path packageFile = Files.createTempFile("plugin-package", ".zip");
+        Path spool = Files.createTempFile("plugin-entry", ".tmp");
+        try {
+            try (InputStream inputStream = fileStorageService.downloadFile(objectName(packageHash))) {
+                Files.copy(inputStream, packageFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Set<String> directory = centralDirectory(packageFile);
+
+            try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(packageFile), StandardCharsets.ISO_8859_1)) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    if (!PluginPackageService.isSafeEntryName(entry.getName()) || !directory.contains(entry.getName())) {
+                        throw new BusinessException("INVALID_PACKAGE",
+                                "Plugin package contains an unexpected entry: " + entry.getName());
+                    }
+                    if (entry.isDirectory() || !paths.add(entry.getName())) {
+                        continue;
+                    }
+                    if (entry.getName().length() > MAX_PATH_LENGTH) {
+                        throw new BusinessException("INVALID_PACKAGE", "Plugin package entry path is too long");
+                    }
+
+                    MessageDigest digest = newDigest();
+                    long size;
+                    try (OutputStream out = Files.newOutputStream(spool)) {
+                        size = copy(zip, out, digest, maxUnpackedSize - unpacked);
+                    }
+                    unpacked += size;
+
+                    String hash = HexFormat.of().formatHex(digest.digest());
+                    storeBlob(hash, size, spool);
+
+                    PluginVersionFile file = new PluginVersionFile();
+                    file.setVersionId(versionId);
+                    file.setPath(entry.getName());
+                    file.setBlobHash(hash);
+                    file.setSize(size);
+                    files.add(file);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(spool);
+            Files.deleteIfExists(packageFile);
+        }
+        return files;
+    }
+
+    /**
+     * Entry names listed in the zip central directory (names decoded the same way as ZipInputStream)
+     */
+    private static Set<String> centralDirectory(Path packageFile) throws IOException {
+        Set<String> names = new HashSet<>();
+        try (ZipFile zipFile = new ZipFile(packageFile.toFile(), StandardCharsets.ISO_8859_1)) {
+            zipFile.stream().forEach(entry -> names.add(entry.getName()));
+        }
+        return names;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Upload a blob unless it is already stored
+     */
+    private void storeBlob(String hash, long size, Path content) throws IOException {
+        if (artifactBlobMapper.touch(hash) > 0) {
+            return;
+        }
+        try (InputStream inputStream = Files.newInputStream(content)) {
+            fileStorageService.uploadFile(inputStream, objectName(hash), "application/octet-stream", size);
+        }
+        artifactBlobMapper.register(hash, size);
+    }
+
+    private long copy(InputStream in, OutputStream out, MessageDigest digest, long limit) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            total += n;
+            if (total > limit) {
+                throw new BusinessException("PACKAGE_TOO_LARGE",
+                        "Unpacked plugin package exceeds the maximum size of " + maxUnpackedSize + " bytes");
+            }
+            digest.update(buffer, 0, n);
+            out.write(buffer, 0, n);
+        }
+        return total;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
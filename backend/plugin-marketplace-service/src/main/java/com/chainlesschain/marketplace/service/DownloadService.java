@@ -0,0 +1,169 @@
+package com.chainlesschain.marketplace.service;
+
+import com.chainlesschain.marketplace.entity.Plugin;
+import com.chainlesschain.marketplace.entity.PluginVersion;
+import com.chainlesschain.marketplace.exception.ResourceNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plugin Download Service
+ * 插件下载服务（预签名地址缓存 + 下载计数）
+ *
+ * Downloads are served by redirecting to a presigned storage URL. The URL for an object is reused
+ * for half of its validity, so repeated downloads of a release hit the same URL (and CDN cache
+ * entry) while every redirect still points at a URL that is valid for a while.
+ *
+ * @author ChainlessChain Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DownloadService {
+
+    /** Version alias sent by clients for the current version */
+    private static final String LATEST = "latest";
+
+    private final PluginService pluginService;
+    private final FileStorageService fileStorageService;
+    private final DownloadCounterService downloadCounterService;
+
+    @Value("${marketplace.downloads.url-ttl-minutes:60}")
+    private long urlTtlMinutes;
+
+    private final Map<String, PresignedUrl> urlCache = new ConcurrentHashMap<>();
+
+    /**
+     * Resolved download
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Download {
+        private final Long pluginId;
+        /** Null for plugins without version records */
+        private final Long versionId;
+        private final String version;
+        private final String url;
+        /** Strong ETag from the package SHA-256 */
+        private final String etag;
+        /** Seconds the URL stays valid for clients caching the redirect */
+        private final long maxAge;
+
+        /**
+         * Whether an If-None-Match header matches this download
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || etag == null) {
+                return false;
+            }
+            return Arrays.stream(ifNoneMatch.split(","))
+                    .map(String::trim)
+                    .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                    .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+        }
+    }
+
+    private record PresignedUrl(String url, Instant reuseUntil) {
+    }
+
+    /**
+     * Resolve the download of a plugin version
+     *
+     * @param pluginId Plugin ID
+     * @param version  Version string, current version if omitted, blank or "latest"
+     * @return Download
+     */
+    public Download resolve(Long pluginId, String version) {
+        Plugin plugin = pluginService.getPluginById(pluginId);
+        if (plugin == null) {
+            throw new ResourceNotFoundException("Plugin", pluginId.toString());
+        }
+
+        boolean current = version == null || version.isBlank() || LATEST.equals(version);
+        String wanted = current ? plugin.getVersion() : version;
+        PluginVersion pluginVersion = wanted == null || plugin.getVersions() == null ? null : plugin.getVersions().stream()
+                .filter(v -> wanted.equals(v.getVersion()))
+                .findFirst()
+                .orElse(null);
+        if (pluginVersion == null && !current && !version.equals(plugin.getVersion())) {
+            throw new ResourceNotFoundException("Version " + version + " not found for plugin " + pluginId);
+        }
+
+        String fileUrl = pluginVersion != null ? pluginVersion.getFileUrl() : plugin.getFileUrl();
+        String fileHash = pluginVersion != null ? pluginVersion.getFileHash() : plugin.getFileHash();
+        String packageHash = pluginVersion != null ? pluginVersion.getPackageHash() : null;
+        String etag = fileHash != null ? "\"" + fileHash + "\"" : null;
+        Long versionId = pluginVersion != null ? pluginVersion.getId() : null;
+
+        String objectName = objectName(fileUrl, packageHash);
+        if (objectName == null) {
+            // Hosted outside our storage
+            return new Download(pluginId, versionId, wanted, fileUrl, etag, 0);
+        }
+
+        PresignedUrl presigned = presign(objectName, plugin.getPluginId() + "-" + wanted + extension(fileUrl));
+        long maxAge = Math.max(0, Duration.between(Instant.now(), presigned.reuseUntil()).toSeconds());
+        return new Download(pluginId, versionId, wanted, presigned.url(), etag, maxAge);
+    }
+
+    /**
+     * Count a download
+     *
+     * @param download Download
+     */
+    public void recordDownload(Download download) {
+        downloadCounterService.record(download.getPluginId(), download.getVersionId());
+    }
+
+    /**
+     * Drop expired presigned URLs
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void evictExpiredUrls() {
+        Instant now = Instant.now();
+        urlCache.values().removeIf(url -> url.reuseUntil().isBefore(now));
+    }
+
+    private PresignedUrl presign(String objectName, String fileName) {
+        String key = objectName + "|" + fileName;
+        Instant now = Instant.now();
+        PresignedUrl cached = urlCache.get(key);
+        if (cached != null && cached.reuseUntil().isAfter(now)) {
+            return cached;
+        }
+        Duration ttl = Duration.ofMinutes(urlTtlMinutes);
+        String url = fileStorageService.getPresignedDownloadUrl(objectName, ttl, fileName);
+        PresignedUrl presigned = new PresignedUrl(url, now.plus(ttl.dividedBy(2)));
+        urlCache.put(key, presigned);
+        return presigned;
+    }
+
+    /**
+     * Object name in our bucket, or null for files hosted elsewhere
+     */
+    private String objectName(String fileUrl, String packageHash) {
+        if (packageHash != null) {
+            return ArtifactStoreService.objectName(packageHash);
+        }
+        String prefix = fileStorageService.getFileUrl("");
+        if (fileUrl != null && fileUrl.startsWith(prefix) && fileUrl.length() > prefix.length()) {
+            return fileUrl.substring(prefix.length());
+        }
+        return null;
+    }
+
+    private String extension(String fileUrl) {
+        return fileUrl != null && PluginPackageService.isTarball(fileUrl) ? ".tar.gz" : ".zip";
+    }
+}
@@ -3,6 +3,7 @@ package com.chainlesschain.marketplace.service;
 import io.minio.*;
 import io.minio.errors.*;
 import io.minio.http.Method;
+import io.minio.messages.Item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,9 +12,17 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
 import java.security.InvalidKeyException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -27,6 +36,11 @@ import java.util.concurrent.TimeUnit;
 @RequiredArgsConstructor
 public class FileStorageService {
 
+    /**
+     * Part size for uploads of unknown length (MinIO multipart upload)
+     */
+    private static final long MULTIPART_PART_SIZE = 10L * 1024 * 1024;
+
     private final MinioClient minioClient;
 
     @Value("${minio.bucket}")
@@ -99,7 +113,7 @@ public class FileStorageService {
      * @param inputStream Input stream
      * @param objectName  Object name
      * @param contentType Content type
-     * @param size        File size
+     * @param size        File size, or -1 if unknown (streamed as a multipart upload)
      * @return File URL
      */
     public String uploadFile(InputStream inputStream, String objectName, String contentType, long size) {
@@ -110,7 +124,7 @@ public class FileStorageService {
                     PutObjectArgs.builder()
                             .bucket(bucketName)
                             .object(objectName)
-                            .stream(inputStream, size, -1)
+                            .stream(inputStream, size, size < 0 ? MULTIPART_PART_SIZE : -1)
                             .contentType(contentType)
                             .build()
             );
@@ -144,6 +158,30 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Download a byte range of a file from MinIO
+     *
+     * @param objectName Object name
+     * @param offset     Start offset
+     * @param length     Number of bytes
+     * @return Input stream
+     */
+    public InputStream downloadFile(String objectName, long offset, long length) {
+        try {
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucketName)
+                            .object(objectName)
+                            .offset(offset)
+                            .length(length)
+                            .build()
+            );
+        } catch (Exception e) {
+            log.error("Failed to download file range: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to download file", e);
+        }
+    }
+
     /**
      * Delete file from MinIO
      *
@@ -184,6 +222,35 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * List files under a prefix last modified before the given time
+     *
+     * @param prefix         Object name prefix
+     * @param modifiedBefore Only files last modified before this time
+     * @return Object names
+     */
+    public List<String> listFiles(String prefix, Instant modifiedBefore) {
+        try {
+            List<String> objectNames = new ArrayList<>();
+            for (Result<Item> result : minioClient.listObjects(
+                    ListObjectsArgs.builder()
+                            .bucket(bucketName)
+                            .prefix(prefix)
+                            .recursive(true)
+                            .build()
+            )) {
+                Item item = result.get();
+                if (!item.isDir() && item.lastModified().toInstant().isBefore(modifiedBefore)) {
+                    objectNames.add(item.objectName());
+                }
+            }
+            return objectNames;
+        } catch (Exception e) {
+            log.error("Failed to list files: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to list files", e);
+        }
+    }
+
     /**
      * Get file URL
      *
@@ -202,15 +269,29 @@ public class FileStorageService {
      * @return Presigned URL
      */
     public String getPresignedDownloadUrl(String objectName) {
+        return getPresignedDownloadUrl(objectName, Duration.ofDays(7), null);
+    }
+
+    /**
+     * Get presigned download URL
+     *
+     * @param objectName Object name
+     * @param expiry     Validity
+     * @param fileName   File name for Content-Disposition, optional
+     * @return Presigned URL
+     */
+    public String getPresignedDownloadUrl(String objectName, Duration expiry, String fileName) {
         try {
-            return minioClient.getPresignedObjectUrl(
-                    GetPresignedObjectUrlArgs.builder()
-                            .method(Method.GET)
-                            .bucket(bucketName)
-                            .object(objectName)
-                            .expiry(7, TimeUnit.DAYS)
-                            .build()
-            );
+            GetPresignedObjectUrlArgs.Builder builder = GetPresignedObjectUrlArgs.builder()
+                    .method(Method.GET)
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .expiry((int) expiry.toSeconds(), TimeUnit.SECONDS);
+            if (fileName != null) {
+                builder.extraQueryParams(Map.of("response-content-disposition",
+                        "attachment; filename=\"" + fileName + "\""));
+            }
+            return minioClient.getPresignedObjectUrl(builder.build());
         } catch (Exception e) {
             log.error("Failed to generate presigned URL: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to generate download URL", e);
@@ -240,7 +321,7 @@ public class FileStorageService {
     }
 
     /**
-     * Calculate file hash (SHA-256)
+     * Calculate file hash (SHA-256), streaming the file instead of loading it into memory
      *
      * @param file File
      * @return Hash string
@@ -248,14 +329,10 @@ public class FileStorageService {
     public String calculateFileHash(MultipartFile file) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(file.getBytes());
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) hexString.append('0');
-                hexString.append(hex);
+            try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+                inputStream.transferTo(OutputStream.nullOutputStream());
             }
-            return hexString.toString();
+            return HexFormat.of().formatHex(digest.digest());
         } catch (Exception e) {
             log.error("Failed to calculate file hash: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to calculate file hash", e);
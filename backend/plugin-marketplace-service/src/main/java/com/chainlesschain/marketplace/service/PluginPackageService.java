@@ -0,0 +1,378 @@
+package com.chainlesschain.marketplace.service;
+
+import com.chainlesschain.marketplace.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Plugin Package Ingest Service
+ * 插件包上传服务（单次流式读取：边上传边计算哈希、限制大小，校验通过后再提交）
+ *
+ * @author ChainlessChain Team
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PluginPackageService {
+
+    private static final String STAGING_PREFIX = "staging/";
+
+    private static final String MANIFEST_FILE = "plugin.json";
+    private static final String NAMESPACED_MANIFEST_FILE = ".chainlesschain-plugin/plugin.json";
+    private static final String LEGACY_MANIFEST_FILE = "package.json";
+
+    private static final int EOCD_SIGNATURE = 0x06054b50;
+    private static final int EOCD_SIZE = 22;
+    private static final int MAX_ZIP_COMMENT = 0xFFFF;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int UTF8_FLAG = 1 << 11;
+
+    private final FileStorageService fileStorageService;
+
+    @Value("${marketplace.max-plugin-size:${marketplace.max-file-size:52428800}}")
+    private long maxPluginSize;
+
+    /**
+     * Stored plugin package
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class StoredPackage {
+        private final String objectName;
+        private final String fileUrl;
+        private final long fileSize;
+        /** SHA-256 (hex) */
+        private final String fileHash;
+        /** Subresource Integrity value (sha512-base64) */
+        private final String fileIntegrity;
+        /** Stored under its content hash (shared by identical uploads) */
+        private final boolean contentAddressed;
+    }
+
+    /**
+     * Store plugin package
+     *
+     * The upload is streamed once: it is hashed (SHA-256 and SHA-512) and size-checked while being
+     * written to a staging object, and copied to its final name only after the checks pass.
+     *
+     * @param file         Plugin package
+     * @param objectName   Final object name
+     * @param expectedHash Expected SHA-256 (hex) or SRI value supplied by the uploader, optional
+     * @return Stored package
+     */
+    public StoredPackage store(MultipartFile file, String objectName, String expectedHash) {
+        return store(file, objectName, hash -> objectName, false, expectedHash);
+    }
+
+    /**
+     * Store plugin package under a name derived from its SHA-256; if that object already exists
+     * the staged copy is dropped, so identical uploads are stored once
+     *
+     * @param file              Plugin package
+     * @param objectNameForHash Maps the SHA-256 (hex) to the object name
+     * @param expectedHash      Expected SHA-256 (hex) or SRI value supplied by the uploader, optional
+     * @return Stored package
+     */
+    public StoredPackage storeByHash(MultipartFile file, Function<String, String> objectNameForHash,
+                                     String expectedHash) {
+        return store(file, file.getOriginalFilename(), objectNameForHash, true, expectedHash);
+    }
+
+    private StoredPackage store(MultipartFile file, String fileName, Function<String, String> objectNameForHash,
+                                boolean contentAddressed, String expectedHash) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException("Plugin package cannot be empty");
+        }
+        if (file.getSize() > maxPluginSize) {
+            throw packageTooLarge();
+        }
+
+        MessageDigest sha256 = newDigest("SHA-256");
+        MessageDigest sha512 = newDigest("SHA-512");
+        String stagingName = STAGING_PREFIX + UUID.randomUUID() + ".upload";
+
+        long size;
+        try (SizeLimitedInputStream limited = new SizeLimitedInputStream(file.getInputStream(), maxPluginSize);
+             InputStream inputStream = new DigestInputStream(new DigestInputStream(limited, sha256), sha512)) {
+            fileStorageService.uploadFile(inputStream, stagingName, file.getContentType(), -1);
+            size = limited.getCount();
+        } catch (IOException e) {
+            discard(stagingName);
+            throw new RuntimeException("Failed to read plugin package", e);
+        } catch (RuntimeException e) {
+            discard(stagingName);
+            throw isSizeLimitExceeded(e) ? packageTooLarge() : e;
+        }
+
+        try {
+            byte[] sha256Bytes = sha256.digest();
+            String fileHash = HexFormat.of().formatHex(sha256Bytes);
+            String fileIntegrity = "sha512-" + Base64.getEncoder().encodeToString(sha512.digest());
+            verifyHash(expectedHash, sha256Bytes, fileHash, fileIntegrity);
+
+            if (!isTarball(fileName)) {
+                verifyZipManifest(stagingName, size);
+            }
+
+            String objectName = objectNameForHash.apply(fileHash);
+            if (contentAddressed && fileStorageService.fileExists(objectName)) {
+                log.info("Plugin package {} already stored, reusing it", objectName);
+            } else {
+                fileStorageService.copyFile(stagingName, objectName);
+                log.info("Stored plugin package {} ({} bytes, sha256={})", objectName, size, fileHash);
+            }
+            return new StoredPackage(objectName, fileStorageService.getFileUrl(objectName), size,
+                    fileHash, fileIntegrity, contentAddressed);
+        } finally {
+            discard(stagingName);
+        }
+    }
+
+    /**
+     * Compare the computed hashes with the one supplied by the uploader
+     */
+    private void verifyHash(String expectedHash, byte[] sha256Bytes, String fileHash, String fileIntegrity) {
+        if (expectedHash == null || expectedHash.isBlank()) {
+            return;
+        }
+        String expected = expectedHash.trim();
+        boolean matches;
+        if (expected.startsWith("sha512-")) {
+            matches = expected.equals(fileIntegrity);
+        } else if (expected.startsWith("sha256-")) {
+            matches = expected.equals("sha256-" + Base64.getEncoder().encodeToString(sha256Bytes));
+        } else {
+            matches = expected.equalsIgnoreCase(fileHash);
+        }
+        if (!matches) {
+            throw new BusinessException("PACKAGE_HASH_MISMATCH", "Plugin package hash does not match the expected value");
+        }
+    }
+
+    /**
+     * Check the zip central directory of the staged package: entry paths must stay inside the
+     * package and a plugin manifest must be present. Only the tail of the object is read back.
+     */
+    private void verifyZipManifest(String stagingName, long size) {
+        int tailLength = (int) Math.min(size, EOCD_SIZE + MAX_ZIP_COMMENT);
+        long tailOffset = size - tailLength;
+        ByteBuffer tail = read(stagingName, tailOffset, tailLength);
+
+        int eocd = findEndOfCentralDirectory(tail);
+        if (eocd < 0) {
+            throw new BusinessException("INVALID_PACKAGE", "Plugin package is not a valid zip archive");
+        }
+        int entries = Short.toUnsignedInt(tail.getShort(eocd + 10));
+        long directorySize = Integer.toUnsignedLong(tail.getInt(eocd + 12));
+        long directoryOffset = Integer.toUnsignedLong(tail.getInt(eocd + 16));
+        if (entries == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL) {
+            throw new BusinessException("INVALID_PACKAGE", "ZIP64 plugin packages are not supported");
+        }
+        if (directoryOffset + directorySize > tailOffset + eocd) {
+            throw new BusinessException("INVALID_PACKAGE", "Plugin package is not a valid zip archive");
+        }
+
+        ByteBuffer directory;
+        if (directoryOffset >= tailOffset) {
+            directory = tail.slice((int) (directoryOffset - tailOffset), (int) directorySize)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        } else {
+            directory = read(stagingName, directoryOffset, (int) directorySize);
+        }
+
+        boolean hasManifest = false;
+        int position = 0;
+        for (int i = 0; i < entries; i++) {
+            if (position + CENTRAL_HEADER_SIZE > directory.limit()
+                    || directory.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                throw new BusinessException("INVALID_PACKAGE", "Plugin package is not a valid zip archive");
+            }
+            int flags = Short.toUnsignedInt(directory.getShort(position + 8));
+            int nameLength = Short.toUnsignedInt(directory.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(directory.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(directory.getShort(position + 32));
+            if (position + CENTRAL_HEADER_SIZE + nameLength > directory.limit()) {
+                throw new BusinessException("INVALID_PACKAGE", "Plugin package is not a valid zip archive");
+            }
+
+            byte[] nameBytes = new byte[nameLength];
+            directory.get(position + CENTRAL_HEADER_SIZE, nameBytes);
+            String name = new String(nameBytes,
+                    (flags & UTF8_FLAG) != 0 ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+            if (!isSafeEntryName(name)) {
+                throw new BusinessException("INVALID_PACKAGE", "Plugin package contains an unsafe entry path: " + name);
+            }
+            hasManifest |= isManifest(name);
+
+            position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+
+        if (!hasManifest) {
+            throw new BusinessException("INVALID_PACKAGE", "Plugin package must contain a plugin.json manifest");
+        }
+    }
+
+    private int findEndOfCentralDirectory(ByteBuffer tail) {
+        for (int i = tail.limit() - EOCD_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == EOCD_SIGNATURE
+                    && i + EOCD_SIZE + Short.toUnsignedInt(tail.getShort(i + 20)) == tail.limit()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Entry path stays inside the package: relative, no backslashes or drive letters, no ".." segment
+     */
+    static boolean isSafeEntryName(String name) {
+        if (name.isEmpty() || name.startsWith("/") || name.contains("\\") || name.contains(":")) {
+            return false;
+        }
+        return Arrays.stream(name.split("/")).noneMatch(".."::equals);
+    }
+
+    /**
+     * Manifest at the package root, or inside a single top-level directory
+     */
+    private boolean isManifest(String name) {
+        int slash = name.indexOf('/');
+        return isRootManifest(name) || (slash > 0 && isRootManifest(name.substring(slash + 1)));
+    }
+
+    private boolean isRootManifest(String name) {
+        return MANIFEST_FILE.equals(name) || NAMESPACED_MANIFEST_FILE.equals(name)
+                || LEGACY_MANIFEST_FILE.equals(name);
+    }
+
+    /**
+     * Whether the package is a tarball (everything else is treated as a zip)
+     */
+    public static boolean isTarball(String fileName) {
+        if (fileName == null) {
+            return false;
+        }
+        String name = fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".tar.gz") || name.endsWith(".tgz");
+    }
+
+    private ByteBuffer read(String objectName, long offset, int length) {
+        try (InputStream inputStream = fileStorageService.downloadFile(objectName, offset, length)) {
+            byte[] bytes = inputStream.readNBytes(length);
+            if (bytes.length != length) {
+                throw new BusinessException("INVALID_PACKAGE", "Plugin package is not a valid zip archive");
+            }
+            return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read plugin package", e);
+        }
+    }
+
+    private void discard(String stagingName) {
+        try {
+            fileStorageService.deleteFile(stagingName);
+        } catch (Exception e) {
+            log.warn("Failed to delete staged plugin package {}: {}", stagingName, e.getMessage());
+        }
+    }
+
+    private BusinessException packageTooLarge() {
+        return new BusinessException("PACKAGE_TOO_LARGE",
+                "Plugin package exceeds the maximum size of " + maxPluginSize + " bytes");
+    }
+
+    private static boolean isSizeLimitExceeded(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SizeLimitExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " not available", e);
+        }
+    }
+
+    /**
+     * Counts bytes read and fails once the limit is exceeded
+     */
+    static class SizeLimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        SizeLimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                advance(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                advance(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            advance(skipped);
+            return skipped;
+        }
+
+        private void advance(long n) throws SizeLimitExceededException {
+            count += n;
+            if (count > limit) {
+                throw new SizeLimitExceededException();
+            }
+        }
+    }
+
+    static class SizeLimitExceededException extends IOException {
+        SizeLimitExceededException() {
+            super("Size limit exceeded");
+        }
+    }
+}
@@ -32,6 +32,7 @@ public class PluginService {
 
     private final PluginMapper pluginMapper;
     private final PluginVersionMapper pluginVersionMapper;
+    private final ArtifactStoreService artifactStoreService;
 
     /**
      * Get plugin list with pagination
@@ -121,6 +122,16 @@ public class PluginService {
     @Transactional
     @CacheEvict(value = "plugins", allEntries = true)
     public Plugin createPlugin(PluginDTO dto, String authorDid, String fileUrl, Long fileSize, String fileHash) {
+        return createPlugin(dto, authorDid,
+                new PluginPackageService.StoredPackage(null, fileUrl, fileSize, fileHash, null, false));
+    }
+
+    /**
+     * Create plugin from a stored package
+     */
+    @Transactional
+    @CacheEvict(value = "plugins", allEntries = true)
+    public Plugin createPlugin(PluginDTO dto, String authorDid, PluginPackageService.StoredPackage stored) {
         // Check if plugin ID already exists
         QueryWrapper<Plugin> wrapper = new QueryWrapper<>();
         wrapper.eq("plugin_id", dto.getPluginId());
@@ -142,9 +153,10 @@ public class PluginService {
         plugin.setHomepage(dto.getHomepage());
         plugin.setRepository(dto.getRepository());
         plugin.setLicense(dto.getLicense());
-        plugin.setFileUrl(fileUrl);
-        plugin.setFileSize(fileSize);
-        plugin.setFileHash(fileHash);
+        plugin.setFileUrl(stored.getFileUrl());
+        plugin.setFileSize(stored.getFileSize());
+        plugin.setFileHash(stored.getFileHash());
+        plugin.setFileIntegrity(stored.getFileIntegrity());
         plugin.setStatus("pending");
         plugin.setVerified(false);
         plugin.setFeatured(false);
@@ -163,12 +175,15 @@ public class PluginService {
         version.setPluginId(plugin.getId());
         version.setVersion(dto.getVersion());
         version.setChangelog("Initial release");
-        version.setFileUrl(fileUrl);
-        version.setFileSize(fileSize);
-        version.setFileHash(fileHash);
+        version.setFileUrl(stored.getFileUrl());
+        version.setFileSize(stored.getFileSize());
+        version.setFileHash(stored.getFileHash());
+        version.setFileIntegrity(stored.getFileIntegrity());
+        version.setPackageHash(stored.isContentAddressed() ? stored.getFileHash() : null);
         version.setDownloads(0);
         version.setStatus("active");
         pluginVersionMapper.insert(version);
+        artifactStoreService.indexVersion(version);
 
         log.info("Plugin created: {} by {}", plugin.getPluginId(), authorDid);
         return plugin;
@@ -285,12 +300,4 @@ public class PluginService {
     public List<Plugin> searchPlugins(String keyword, String category, Boolean verified, String sort) {
         return pluginMapper.searchPlugins(keyword, category, verified, sort);
     }
-
-    /**
-     * Increment download count
-     */
-    @Transactional
-    public void incrementDownloads(Long id) {
-        pluginMapper.incrementDownloads(id);
-    }
 }
@@ -1,13 +1,16 @@
 package com.chainlesschain.marketplace.service;
 
+import com.chainlesschain.marketplace.dto.VersionDeltaDTO;
 import com.chainlesschain.marketplace.entity.Plugin;
 import com.chainlesschain.marketplace.entity.PluginVersion;
+import com.chainlesschain.marketplace.entity.PluginVersionFile;
 import com.chainlesschain.marketplace.exception.BusinessException;
 import com.chainlesschain.marketplace.exception.ResourceNotFoundException;
 import com.chainlesschain.marketplace.mapper.PluginMapper;
 import com.chainlesschain.marketplace.mapper.PluginVersionMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -30,6 +33,7 @@ public class PluginVersionService {
     private final PluginMapper pluginMapper;
     private final PluginVersionMapper pluginVersionMapper;
     private final FileStorageService fileStorageService;
+    private final ArtifactStoreService artifactStoreService;
 
     private static final Pattern SEMVER_PATTERN = Pattern.compile(
             "^(0|[1-9]\\d*)\\.(0|[1-9]\\d*)\\.(0|[1-9]\\d*)" +
@@ -49,6 +53,7 @@ public class PluginVersionService {
      * @return Created version
      */
     @Transactional
+    @CacheEvict(value = "plugins", allEntries = true)
     public PluginVersion createVersion(Long pluginId, String version, MultipartFile file,
                                        String changelog, String authorDid) {
         // Validate plugin exists
@@ -82,27 +87,27 @@ public class PluginVersionService {
             }
         }
 
-        // Upload file
-        String objectName = String.format("plugins/%s/%s/%s-%s.zip",
-                plugin.getPluginId(), version, plugin.getPluginId(), version);
-        String fileUrl = fileStorageService.uploadFile(file, objectName);
-
-        // Calculate file hash
-        String fileHash = fileStorageService.calculateFileHash(file);
+        // Store package under its content hash (identical packages are stored once)
+        PluginPackageService.StoredPackage stored = artifactStoreService.storePackage(file, null);
 
         // Create version record
         PluginVersion pluginVersion = new PluginVersion();
         pluginVersion.setPluginId(pluginId);
         pluginVersion.setVersion(version);
-        pluginVersion.setFileUrl(fileUrl);
-        pluginVersion.setFileSize(file.getSize());
-        pluginVersion.setFileHash(fileHash);
+        pluginVersion.setFileUrl(stored.getFileUrl());
+        pluginVersion.setFileSize(stored.getFileSize());
+        pluginVersion.setFileHash(stored.getFileHash());
+        pluginVersion.setFileIntegrity(stored.getFileIntegrity());
+        pluginVersion.setPackageHash(stored.getFileHash());
         pluginVersion.setChangelog(changelog);
         pluginVersion.setDownloads(0);
         pluginVersion.setCreatedAt(LocalDateTime.now());
 
         pluginVersionMapper.insert(pluginVersion);
 
+        // Build per-file manifest for mirror sync and delta updates
+        artifactStoreService.indexVersion(pluginVersion);
+
         // Update plugin's current version
         plugin.setVersion(version);
         plugin.setUpdatedAt(LocalDateTime.now());
@@ -147,6 +152,29 @@ public class PluginVersionService {
         return pluginVersionMapper.getLatestVersion(pluginId);
     }
 
+    /**
+     * Get the file manifest of a version
+     *
+     * @param pluginId Plugin ID
+     * @param version  Version string
+     * @return Files with blob URLs
+     */
+    public List<PluginVersionFile> getVersionFiles(Long pluginId, String version) {
+        return artifactStoreService.getFiles(getVersion(pluginId, version).getId());
+    }
+
+    /**
+     * Get the file delta between two versions
+     *
+     * @param pluginId    Plugin ID
+     * @param fromVersion Installed version
+     * @param toVersion   Target version
+     * @return Delta
+     */
+    public VersionDeltaDTO getVersionDelta(Long pluginId, String fromVersion, String toVersion) {
+        return artifactStoreService.diff(getVersion(pluginId, fromVersion), getVersion(pluginId, toVersion));
+    }
+
     /**
      * Delete version
      *
@@ -155,6 +183,7 @@ public class PluginVersionService {
      * @param authorDid Author DID
      */
     @Transactional
+    @CacheEvict(value = "plugins", allEntries = true)
     public void deleteVersion(Long pluginId, String version, String authorDid) {
         // Validate plugin exists
         Plugin plugin = pluginMapper.selectById(pluginId);
@@ -176,12 +205,15 @@ public class PluginVersionService {
             throw new BusinessException("Cannot delete current version. Please set another version as current first.");
         }
 
-        // Delete file from storage
-        try {
-            String objectName = extractObjectName(pluginVersion.getFileUrl());
-            fileStorageService.deleteFile(objectName);
-        } catch (Exception e) {
-            log.warn("Failed to delete file from storage: {}", e.getMessage());
+        // Delete file from storage (content-addressed packages may be shared and are left to the
+        // artifact garbage collector)
+        if (pluginVersion.getPackageHash() == null) {
+            try {
+                String objectName = extractObjectName(pluginVersion.getFileUrl());
+                fileStorageService.deleteFile(objectName);
+            } catch (Exception e) {
+                log.warn("Failed to delete file from storage: {}", e.getMessage());
+            }
         }
 
         // Delete version record
@@ -198,6 +230,7 @@ public class PluginVersionService {
      * @param authorDid Author DID
      */
     @Transactional
+    @CacheEvict(value = "plugins", allEntries = true)
     public void setCurrentVersion(Long pluginId, String version, String authorDid) {
         // Validate plugin exists
         Plugin plugin = pluginMapper.selectById(pluginId);
@@ -221,20 +254,6 @@ public class PluginVersionService {
         log.info("Set version {} as current for plugin {}", version, pluginId);
     }
 
-    /**
-     * Increment version download count
-     *
-     * @param pluginId Plugin ID
-     * @param version  Version string
-     */
-    @Transactional
-    public void incrementDownloads(Long pluginId, String version) {
-        PluginVersion pluginVersion = pluginVersionMapper.getVersionByPluginIdAndVersion(pluginId, version);
-        if (pluginVersion != null) {
-            pluginVersionMapper.incrementDownloads(pluginVersion.getId());
-        }
-    }
-
     /**
      * Validate semantic version format
      *
@@ -29,6 +29,7 @@ CREATE TABLE plugins (
     file_url VARCHAR(500) NOT NULL,
     file_size BIGINT NOT NULL,
     file_hash VARCHAR(128) NOT NULL,
+    file_integrity VARCHAR(128),  -- SRI (sha512-<base64>)
 
     -- Status
     status VARCHAR(20) DEFAULT 'pending',  -- pending, approved, rejected, suspended
@@ -65,6 +66,7 @@ CREATE INDEX idx_plugins_featured ON plugins(featured);
 CREATE INDEX idx_plugins_downloads ON plugins(downloads DESC);
 CREATE INDEX idx_plugins_rating ON plugins(rating DESC);
 CREATE INDEX idx_plugins_created_at ON plugins(created_at DESC);
+CREATE INDEX idx_plugins_file_hash ON plugins(file_hash);
 
 -- ============================================================
 -- Table: plugin_versions
@@ -78,6 +80,8 @@ CREATE TABLE plugin_versions (
     file_url VARCHAR(500) NOT NULL,
     file_size BIGINT NOT NULL,
     file_hash VARCHAR(128) NOT NULL,
+    file_integrity VARCHAR(128),  -- SRI (sha512-<base64>)
+    package_hash VARCHAR(64),  -- artifact_blobs.hash of the package, NULL for legacy per-version objects
     downloads INTEGER DEFAULT 0,
     status VARCHAR(20) DEFAULT 'active',  -- active, deprecated, yanked
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
@@ -90,6 +94,37 @@ CREATE TABLE plugin_versions (
 CREATE INDEX idx_plugin_versions_plugin_id ON plugin_versions(plugin_id);
 CREATE INDEX idx_plugin_versions_version ON plugin_versions(version);
 CREATE INDEX idx_plugin_versions_created_at ON plugin_versions(created_at DESC);
+CREATE INDEX idx_plugin_versions_package_hash ON plugin_versions(package_hash);
+
+-- ============================================================
+-- Table: artifact_blobs
+-- Description: Content-addressed blobs in MinIO (cas/sha256/<xx>/<hash>),
+--              both whole packages and the files inside them
+-- ============================================================
+CREATE TABLE artifact_blobs (
+    hash VARCHAR(64) PRIMARY KEY,  -- SHA-256 (hex)
+    size BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    last_referenced_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_artifact_blobs_last_referenced_at ON artifact_blobs(last_referenced_at);
+
+-- ============================================================
+-- Table: plugin_version_files
+-- Description: File manifest of a plugin version (path -> blob)
+-- ============================================================
+CREATE TABLE plugin_version_files (
+    id BIGSERIAL PRIMARY KEY,
+    version_id BIGINT NOT NULL REFERENCES plugin_versions(id) ON DELETE CASCADE,
+    path VARCHAR(1000) NOT NULL,
+    blob_hash VARCHAR(64) NOT NULL,
+    size BIGINT NOT NULL,
+
+    UNIQUE(version_id, path)
+);
+
+CREATE INDEX idx_plugin_version_files_blob_hash ON plugin_version_files(blob_hash);
 
 -- ============================================================
 -- Table: plugin_ratings
@@ -3,7 +3,11 @@ package com.chainlesschain.marketplace.controller;
 import com.chainlesschain.marketplace.dto.ApiResponse;
 import com.chainlesschain.marketplace.dto.PluginDTO;
 import com.chainlesschain.marketplace.entity.Plugin;
+import com.chainlesschain.marketplace.service.ArtifactStoreService;
+import com.chainlesschain.marketplace.service.DownloadService;
+import com.chainlesschain.marketplace.service.PluginPackageService;
 import com.chainlesschain.marketplace.service.PluginService;
+import com.chainlesschain.marketplace.service.PluginVersionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -44,6 +48,15 @@ class PluginControllerTest {
     @MockBean
     private PluginService pluginService;
 
+    @MockBean
+    private PluginVersionService pluginVersionService;
+
+    @MockBean
+    private ArtifactStoreService artifactStoreService;
+
+    @MockBean
+    private DownloadService downloadService;
+
     private Plugin testPlugin;
     private PluginDTO testPluginDTO;
 
@@ -159,7 +172,10 @@ class PluginControllerTest {
                 "test content".getBytes()
         );
 
-        when(pluginService.createPlugin(any(), anyString(), anyString(), anyLong(), anyString()))
+        when(artifactStoreService.storePackage(any(), any()))
+                .thenReturn(new PluginPackageService.StoredPackage("cas/sha256/ab/abc123",
+                        "http://minio/plugins/cas/sha256/ab/abc123", 12L, "abc123", "sha512-abc", true));
+        when(pluginService.createPlugin(any(), anyString(), any(PluginPackageService.StoredPackage.class)))
                 .thenReturn(testPlugin);
 
         // When & Then
@@ -171,7 +187,7 @@ class PluginControllerTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data.name").value("Test Plugin"));
 
-        verify(pluginService, times(1)).createPlugin(any(), anyString(), anyString(), anyLong(), anyString());
+        verify(pluginService, times(1)).createPlugin(any(), anyString(), any(PluginPackageService.StoredPackage.class));
     }
 
     @Test
@@ -210,18 +226,33 @@ class PluginControllerTest {
     void testDownloadPlugin_Success() throws Exception {
         // Given
         String downloadUrl = "https://example.com/plugin.zip";
-        when(pluginService.getDownloadUrl(1L, "1.0.0")).thenReturn(downloadUrl);
-        doNothing().when(pluginService).incrementDownloads(1L);
+        DownloadService.Download download = new DownloadService.Download(
+                1L, 10L, "1.0.0", downloadUrl, "\"abc123\"", 1800);
+        when(downloadService.resolve(1L, "1.0.0")).thenReturn(download);
 
         // When & Then
         mockMvc.perform(get("/plugins/1/download")
                         .param("version", "1.0.0"))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.success").value(true))
-                .andExpect(jsonPath("$.data").value(downloadUrl));
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", downloadUrl))
+                .andExpect(header().string("ETag", "\"abc123\""));
+
+        verify(downloadService, times(1)).recordDownload(download);
+    }
+
+    @Test
+    void testDownloadPlugin_NotModified() throws Exception {
+        // Given
+        DownloadService.Download download = new DownloadService.Download(
+                1L, 10L, "1.0.0", "https://example.com/plugin.zip", "\"abc123\"", 1800);
+        when(downloadService.resolve(1L, null)).thenReturn(download);
+
+        // When & Then
+        mockMvc.perform(get("/plugins/1/download")
+                        .header("If-None-Match", "\"abc123\""))
+                .andExpect(status().isNotModified());
 
-        verify(pluginService, times(1)).getDownloadUrl(1L, "1.0.0");
-        verify(pluginService, times(1)).incrementDownloads(1L);
+        verify(downloadService, never()).recordDownload(any());
     }
 
     @Test
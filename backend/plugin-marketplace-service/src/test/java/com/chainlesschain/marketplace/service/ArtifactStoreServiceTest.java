@@ -0,0 +1,318 @@
+package com.chainlesschain.marketplace.service;
+
+import com.chainlesschain.marketplace.dto.VersionDeltaDTO;
+import com.chainlesschain.marketplace.entity.ArtifactBlob;
+import com.chainlesschain.marketplace.entity.PluginVersion;
+import com.chainlesschain.marketplace.entity.PluginVersionFile;
+import com.chainlesschain.marketplace.mapper.ArtifactBlobMapper;
+import com.chainlesschain.marketplace.mapper.PluginVersionFileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Artifact Store Service Unit Tests
+ * 内容寻址制品存储服务单元测试
+ *
+ * @author ChainlessChain Team
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ArtifactStoreServiceTest {
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private PluginPackageService pluginPackageService;
+
+    @Mock
+    private ArtifactBlobMapper artifactBlobMapper;
+
+    @Mock
+    private PluginVersionFileMapper pluginVersionFileMapper;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    private ArtifactStoreService artifactStoreService;
+
+    @Captor
+    private ArgumentCaptor<Collection<PluginVersionFile>> filesCaptor;
+
+    /** In-memory object store and blob table backing the mocks */
+    private final Map<String, byte[]> objects = new HashMap<>();
+    private final Map<String, Long> blobs = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(artifactStoreService, "maxUnpackedSize", 1024L * 1024);
+        ReflectionTestUtils.setField(artifactStoreService, "gcGraceHours", 24);
+        ReflectionTestUtils.setField(artifactStoreService, "gcBatchSize", 2);
+
+        when(fileStorageService.uploadFile(any(InputStream.class), anyString(), anyString(), anyLong()))
+                .thenAnswer(invocation -> {
+                    InputStream inputStream = invocation.getArgument(0);
+                    objects.put(invocation.getArgument(1), inputStream.readAllBytes());
+                    return "http://minio/plugins/" + invocation.getArgument(1);
+                });
+        when(fileStorageService.downloadFile(anyString()))
+                .thenAnswer(invocation -> new ByteArrayInputStream(objects.get(invocation.<String>getArgument(0))));
+        when(fileStorageService.getFileUrl(anyString()))
+                .thenAnswer(invocation -> "http://minio/plugins/" + invocation.getArgument(0));
+        when(pluginVersionFileMapper.findIndexedVersionId(anyString(), anyLong())).thenReturn(null);
+        when(artifactBlobMapper.touch(anyString()))
+                .thenAnswer(invocation -> blobs.containsKey(invocation.<String>getArgument(0)) ? 1 : 0);
+        when(artifactBlobMapper.register(anyString(), anyLong()))
+                .thenAnswer(invocation -> {
+                    blobs.put(invocation.getArgument(0), invocation.getArgument(1));
+                    return 1;
+                });
+    }
+
+    @Test
+    void testIndexVersion_StoresEachFileOnce() throws Exception {
+        // Given: two identical files and one already stored
+        byte[] zip = zip(Map.of(
+                "plugin.json", "{}",
+                "a.js", "same",
+                "b.js", "same",
+                "c.js", "known"));
+        String packageHash = sha256(zip);
+        objects.put(ArtifactStoreService.objectName(packageHash), zip);
+        blobs.put(sha256("known".getBytes(StandardCharsets.UTF_8)), 5L);
+
+        // When
+        artifactStoreService.indexVersion(version(1L, "1.0.0", packageHash));
+
+        // Then
+        verify(pluginVersionFileMapper).insert(filesCaptor.capture());
+        List<PluginVersionFile> files = new ArrayList<>(filesCaptor.getValue());
+        assertEquals(4, files.size());
+        assertTrue(files.stream().allMatch(file -> file.getVersionId() == 1L));
+        verify(fileStorageService, times(2)).uploadFile(any(InputStream.class), anyString(), anyString(), anyLong());
+        assertArrayEquals("same".getBytes(StandardCharsets.UTF_8),
+                objects.get(ArtifactStoreService.objectName(sha256("same".getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    @Test
+    void testIndexVersion_ReusesExistingManifest() {
+        // Given
+        when(pluginVersionFileMapper.findIndexedVersionId("abcd", 2L)).thenReturn(1L);
+
+        // When
+        artifactStoreService.indexVersion(version(2L, "1.0.1", "abcd"));
+
+        // Then
+        verify(pluginVersionFileMapper).copyFiles(2L, 1L);
+        verify(fileStorageService, never()).downloadFile(anyString());
+    }
+
+    @Test
+    void testIndexVersion_NotAZipIsSkipped() {
+        // Given
+        objects.put(ArtifactStoreService.objectName("abcd"), "not a zip".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        artifactStoreService.indexVersion(version(1L, "1.0.0", "abcd"));
+
+        // Then
+        verify(pluginVersionFileMapper, never()).insert(anyCollection());
+    }
+
+    @Test
+    void testIndexVersion_UnsafeEntryPathIsRejected() throws Exception {
+        // Given
+        byte[] zip = zip(Map.of("plugin.json", "{}", "../escape.js", "x"));
+        String packageHash = sha256(zip);
+        objects.put(ArtifactStoreService.objectName(packageHash), zip);
+
+        // When
+        artifactStoreService.indexVersion(version(1L, "1.0.0", packageHash));
+
+        // Then
+        verify(pluginVersionFileMapper, never()).insert(anyCollection());
+    }
+
+    @Test
+    void testIndexVersion_EntryMissingFromCentralDirectoryIsRejected() throws Exception {
+        // Given: the local header says hidden.js, the central directory says listed.js
+        byte[] zip = zip(Map.of("plugin.json", "{}", "hidden.js", "x"));
+        byte[] name = "hidden.js".getBytes(StandardCharsets.ISO_8859_1);
+        int central = lastIndexOf(zip, name);
+        System.arraycopy("listed.js".getBytes(StandardCharsets.ISO_8859_1), 0, zip, central, name.length);
+        String packageHash = sha256(zip);
+        objects.put(ArtifactStoreService.objectName(packageHash), zip);
+
+        // When
+        artifactStoreService.indexVersion(version(1L, "1.0.0", packageHash));
+
+        // Then
+        verify(pluginVersionFileMapper, never()).insert(anyCollection());
+    }
+
+    @Test
+    void testIndexVersion_StorageFailureIsSwallowed() {
+        // Given
+        doThrow(new RuntimeException("MinIO unavailable")).when(fileStorageService).downloadFile(anyString());
+
+        // When / Then
+        assertDoesNotThrow(() -> artifactStoreService.indexVersion(version(1L, "1.0.0", "abcd")));
+        verify(pluginVersionFileMapper, never()).insert(anyCollection());
+    }
+
+    @Test
+    void testIndexVersion_RunsAfterCommit() throws Exception {
+        // Given
+        byte[] zip = zip(Map.of("plugin.json", "{}"));
+        String packageHash = sha256(zip);
+        objects.put(ArtifactStoreService.objectName(packageHash), zip);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            artifactStoreService.indexVersion(version(1L, "1.0.0", packageHash));
+
+            // Then: nothing happens until the surrounding transaction commits
+            verify(pluginVersionFileMapper, never()).insert(anyCollection());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(pluginVersionFileMapper).insert(anyCollection());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testDiff() {
+        // Given
+        when(pluginVersionFileMapper.getFilesByVersionId(1L)).thenReturn(new ArrayList<>(List.of(
+                file("plugin.json", "m1", 10), file("a.js", "a1", 100), file("old.js", "o1", 50))));
+        when(pluginVersionFileMapper.getFilesByVersionId(2L)).thenReturn(new ArrayList<>(List.of(
+                file("plugin.json", "m2", 10), file("a.js", "a1", 100), file("renamed.js", "o1", 50),
+                file("new.js", "n1", 30))));
+
+        // When
+        VersionDeltaDTO delta = artifactStoreService.diff(version(1L, "1.0.0", "p1"), version(2L, "1.1.0", "p2"));
+
+        // Then
+        assertEquals(1, delta.getUnchanged());
+        assertEquals(List.of("plugin.json"), delta.getChanged().stream().map(PluginVersionFile::getPath).toList());
+        assertEquals(List.of("renamed.js", "new.js"), delta.getAdded().stream().map(PluginVersionFile::getPath).toList());
+        assertEquals(List.of("old.js"), delta.getRemoved());
+        // renamed.js reuses content already present in the old version
+        assertEquals(40L, delta.getDownloadSize());
+        assertNotNull(delta.getAdded().get(0).getUrl());
+    }
+
+    @Test
+    void testCollectUnreferencedBlobs() {
+        // Given
+        when(artifactBlobMapper.findUnreferenced(24, 2))
+                .thenReturn(List.of("aa11", "bb22"))
+                .thenReturn(List.of("cc33"));
+        when(artifactBlobMapper.deleteIfUnreferenced(anyString(), eq(24))).thenReturn(1);
+        // Referenced again since it was found
+        when(artifactBlobMapper.deleteIfUnreferenced("bb22", 24)).thenReturn(0);
+
+        // When
+        int removed = artifactStoreService.collectUnreferencedBlobs();
+
+        // Then
+        assertEquals(2, removed);
+        verify(fileStorageService).deleteFile(ArtifactStoreService.objectName("aa11"));
+        verify(fileStorageService).deleteFile(ArtifactStoreService.objectName("cc33"));
+        verify(fileStorageService, never()).deleteFile(ArtifactStoreService.objectName("bb22"));
+    }
+
+    @Test
+    void testCollectOrphanObjects() {
+        // Given
+        when(fileStorageService.listFiles(eq("cas/sha256/"), any())).thenReturn(List.of(
+                ArtifactStoreService.objectName("aa11"), ArtifactStoreService.objectName("bb22")));
+        ArtifactBlob known = new ArtifactBlob();
+        known.setHash("aa11");
+        when(artifactBlobMapper.selectBatchIds(anyCollection())).thenReturn(List.of(known));
+
+        // When
+        int removed = artifactStoreService.collectOrphanObjects();
+
+        // Then
+        assertEquals(1, removed);
+        verify(fileStorageService).deleteFile(ArtifactStoreService.objectName("bb22"));
+        verify(fileStorageService, never()).deleteFile(ArtifactStoreService.objectName("aa11"));
+    }
+
+    private static PluginVersion version(Long id, String version, String packageHash) {
+        PluginVersion pluginVersion = new PluginVersion();
+        pluginVersion.setId(id);
+        pluginVersion.setVersion(version);
+        pluginVersion.setPackageHash(packageHash);
+        return pluginVersion;
+    }
+
+    private static PluginVersionFile file(String path, String blobHash, long size) {
+        PluginVersionFile file = new PluginVersionFile();
+        file.setPath(path);
+        file.setBlobHash(blobHash);
+        file.setSize(size);
+        return file;
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+
+    private static int lastIndexOf(byte[] data, byte[] pattern) {
+        for (int i = data.length - pattern.length; i >= 0; i--) {
+            if (Arrays.equals(data, i, i + pattern.length, pattern, 0, pattern.length)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("pattern not found");
+    }
+
+    private static byte[] zip(Map<String, String> entries) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,211 @@
+package com.chainlesschain.marketplace.service;
+
+import com.chainlesschain.marketplace.entity.Plugin;
+import com.chainlesschain.marketplace.entity.PluginVersion;
+import com.chainlesschain.marketplace.exception.ResourceNotFoundException;
+import com.chainlesschain.marketplace.mapper.PluginMapper;
+import com.chainlesschain.marketplace.mapper.PluginVersionMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Download Service Unit Tests
+ * 插件下载服务单元测试
+ *
+ * @author ChainlessChain Team
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DownloadServiceTest {
+
+    @Mock
+    private PluginService pluginService;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private DownloadCounterService downloadCounterService;
+
+    @InjectMocks
+    private DownloadService downloadService;
+
+    private Plugin testPlugin;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(downloadService, "urlTtlMinutes", 60L);
+
+        PluginVersion legacyVersion = new PluginVersion();
+        legacyVersion.setId(10L);
+        legacyVersion.setVersion("1.0.0");
+        legacyVersion.setFileUrl("http://minio:9000/plugins/plugins/test-plugin/plugin.zip");
+        legacyVersion.setFileHash("legacyhash");
+
+        PluginVersion currentVersion = new PluginVersion();
+        currentVersion.setId(11L);
+        currentVersion.setVersion("1.1.0");
+        currentVersion.setFileUrl("http://minio:9000/plugins/cas/sha256/ab/abcd");
+        currentVersion.setFileHash("abcd");
+        currentVersion.setPackageHash("abcd");
+
+        testPlugin = new Plugin();
+        testPlugin.setId(1L);
+        testPlugin.setPluginId("test-plugin");
+        testPlugin.setVersion("1.1.0");
+        testPlugin.setVersions(List.of(currentVersion, legacyVersion));
+
+        when(pluginService.getPluginById(1L)).thenReturn(testPlugin);
+        when(fileStorageService.getFileUrl("")).thenReturn("http://minio:9000/plugins/");
+        when(fileStorageService.getPresignedDownloadUrl(anyString(), any(Duration.class), anyString()))
+                .thenAnswer(invocation -> "http://minio:9000/plugins/" + invocation.getArgument(0) + "?sig="
+                        + System.nanoTime());
+    }
+
+    @Test
+    void testResolve_CurrentVersion() {
+        // When
+        DownloadService.Download download = downloadService.resolve(1L, null);
+
+        // Then
+        assertEquals(11L, download.getVersionId());
+        assertEquals("\"abcd\"", download.getEtag());
+        assertTrue(download.getUrl().startsWith("http://minio:9000/plugins/cas/sha256/ab/abcd?"));
+        assertTrue(download.getMaxAge() > 0 && download.getMaxAge() <= 1800);
+        verify(fileStorageService).getPresignedDownloadUrl("cas/sha256/ab/abcd", Duration.ofMinutes(60),
+                "test-plugin-1.1.0.zip");
+    }
+
+    @Test
+    void testResolve_LegacyObject() {
+        // When
+        DownloadService.Download download = downloadService.resolve(1L, "1.0.0");
+
+        // Then
+        assertEquals(10L, download.getVersionId());
+        verify(fileStorageService).getPresignedDownloadUrl(eq("plugins/test-plugin/plugin.zip"),
+                any(Duration.class), eq("test-plugin-1.0.0.zip"));
+    }
+
+    @Test
+    void testResolve_ReusesPresignedUrl() {
+        // When
+        String first = downloadService.resolve(1L, null).getUrl();
+        String second = downloadService.resolve(1L, null).getUrl();
+
+        // Then
+        assertEquals(first, second);
+        verify(fileStorageService, times(1)).getPresignedDownloadUrl(anyString(), any(Duration.class), anyString());
+    }
+
+    @Test
+    void testResolve_ExternalUrl() {
+        // Given
+        Plugin external = new Plugin();
+        external.setId(2L);
+        external.setPluginId("translator");
+        external.setVersion("1.0.0");
+        external.setFileUrl("https://plugins.chainlesschain.com/files/translator-1.0.0.zip");
+        external.setFileHash("abc123hash");
+        when(pluginService.getPluginById(2L)).thenReturn(external);
+
+        // When
+        DownloadService.Download download = downloadService.resolve(2L, null);
+
+        // Then
+        assertEquals(external.getFileUrl(), download.getUrl());
+        assertNull(download.getVersionId());
+        verify(fileStorageService, never()).getPresignedDownloadUrl(anyString(), any(Duration.class), any());
+    }
+
+    @Test
+    void testResolve_LatestAlias() {
+        // When
+        DownloadService.Download download = downloadService.resolve(1L, "latest");
+
+        // Then
+        assertEquals(11L, download.getVersionId());
+        assertEquals("1.1.0", download.getVersion());
+        assertEquals(11L, downloadService.resolve(1L, " ").getVersionId());
+    }
+
+    @Test
+    void testResolve_UnknownVersion() {
+        assertThrows(ResourceNotFoundException.class, () -> downloadService.resolve(1L, "9.9.9"));
+    }
+
+    @Test
+    void testDownload_MatchesIfNoneMatch() {
+        DownloadService.Download download = downloadService.resolve(1L, null);
+
+        assertTrue(download.matches("\"abcd\""));
+        assertTrue(download.matches("W/\"other\", \"abcd\""));
+        assertTrue(download.matches("*"));
+        assertFalse(download.matches("\"other\""));
+        assertFalse(download.matches(null));
+    }
+
+    @Test
+    void testRecordDownload() {
+        // When
+        downloadService.recordDownload(downloadService.resolve(1L, "1.0.0"));
+
+        // Then
+        verify(downloadCounterService).record(1L, 10L);
+    }
+
+    @Test
+    void testCounter_FlushesBatchedCounts() {
+        // Given
+        PluginMapper pluginMapper = mock(PluginMapper.class);
+        PluginVersionMapper pluginVersionMapper = mock(PluginVersionMapper.class);
+        DownloadCounterService counter = new DownloadCounterService(pluginMapper, pluginVersionMapper);
+        for (int i = 0; i < 3; i++) {
+            counter.record(1L, 10L);
+        }
+        counter.record(2L, null);
+
+        // When
+        counter.flush();
+        counter.flush();
+
+        // Then: one statement per table, nothing left for the second flush
+        verify(pluginMapper, times(1)).addDownloads(Map.of(1L, 3L, 2L, 1L));
+        verify(pluginVersionMapper, times(1)).addDownloads(Map.of(10L, 3L));
+    }
+
+    @Test
+    void testCounter_KeepsCountsWhenFlushFails() {
+        // Given
+        PluginMapper pluginMapper = mock(PluginMapper.class);
+        PluginVersionMapper pluginVersionMapper = mock(PluginVersionMapper.class);
+        DownloadCounterService counter = new DownloadCounterService(pluginMapper, pluginVersionMapper);
+        when(pluginMapper.addDownloads(anyMap()))
+                .thenThrow(new RuntimeException("database unavailable"))
+                .thenReturn(1);
+        counter.record(1L, null);
+        counter.flush();
+        counter.record(1L, null);
+
+        // When
+        counter.flush();
+
+        // Then
+        verify(pluginMapper).addDownloads(Map.of(1L, 2L));
+    }
+}
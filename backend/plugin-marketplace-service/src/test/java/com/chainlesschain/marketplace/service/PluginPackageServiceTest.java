@@ -0,0 +1,222 @@
+package com.chainlesschain.marketplace.service;
+
+import com.chainlesschain.marketplace.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Plugin Package Service Unit Tests
+ * 插件包上传服务单元测试
+ *
+ * @author ChainlessChain Team
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class PluginPackageServiceTest {
+
+    private static final String OBJECT_NAME = "plugins/test-plugin/1.0.0/test-plugin-1.0.0.zip";
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @InjectMocks
+    private PluginPackageService pluginPackageService;
+
+    /** In-memory object store backing the mocked storage service */
+    private final Map<String, byte[]> objects = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(pluginPackageService, "maxPluginSize", 1024L * 1024);
+
+        when(fileStorageService.uploadFile(any(InputStream.class), anyString(), any(), eq(-1L)))
+                .thenAnswer(invocation -> {
+                    InputStream inputStream = invocation.getArgument(0);
+                    try {
+                        objects.put(invocation.getArgument(1), inputStream.readAllBytes());
+                    } catch (Exception e) {
+                        throw new RuntimeException("Failed to upload file", e);
+                    }
+                    return "http://minio/plugins/" + invocation.getArgument(1);
+                });
+        when(fileStorageService.downloadFile(anyString(), anyLong(), anyLong()))
+                .thenAnswer(invocation -> {
+                    byte[] data = objects.get(invocation.<String>getArgument(0));
+                    int offset = (int) invocation.<Long>getArgument(1).longValue();
+                    int length = (int) invocation.<Long>getArgument(2).longValue();
+                    return new ByteArrayInputStream(Arrays.copyOfRange(data, offset, offset + length));
+                });
+        doAnswer(invocation -> objects.put(invocation.getArgument(1), objects.get(invocation.<String>getArgument(0))))
+                .when(fileStorageService).copyFile(anyString(), anyString());
+        doAnswer(invocation -> objects.remove(invocation.<String>getArgument(0)))
+                .when(fileStorageService).deleteFile(anyString());
+        when(fileStorageService.getFileUrl(anyString()))
+                .thenAnswer(invocation -> "http://minio/plugins/" + invocation.getArgument(0));
+    }
+
+    @Test
+    void testStore_Success() throws Exception {
+        // Given
+        byte[] zip = zip("test-plugin/plugin.json", "test-plugin/index.js");
+        MockMultipartFile file = new MockMultipartFile("file", "test-plugin.zip", "application/zip", zip);
+
+        // When
+        PluginPackageService.StoredPackage stored = pluginPackageService.store(file, OBJECT_NAME, null);
+
+        // Then
+        assertEquals(zip.length, stored.getFileSize());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(zip)), stored.getFileHash());
+        assertEquals("sha512-" + Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-512").digest(zip)),
+                stored.getFileIntegrity());
+        assertEquals("http://minio/plugins/" + OBJECT_NAME, stored.getFileUrl());
+        assertArrayEquals(zip, objects.get(OBJECT_NAME));
+        assertEquals(1, objects.size());
+        assertFalse(stored.isContentAddressed());
+    }
+
+    @Test
+    void testStoreByHash_ReusesExistingObject() throws Exception {
+        // Given
+        byte[] zip = zip("plugin.json");
+        String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(zip));
+        objects.put("cas/" + hash, zip);
+        when(fileStorageService.fileExists("cas/" + hash)).thenReturn(true);
+        MockMultipartFile file = new MockMultipartFile("file", "test-plugin.zip", "application/zip", zip);
+
+        // When
+        PluginPackageService.StoredPackage stored = pluginPackageService.storeByHash(file, h -> "cas/" + h, null);
+
+        // Then
+        assertEquals("cas/" + hash, stored.getObjectName());
+        assertTrue(stored.isContentAddressed());
+        verify(fileStorageService, never()).copyFile(anyString(), anyString());
+        assertEquals(1, objects.size());
+    }
+
+    @Test
+    void testStore_ExpectedHashMatches() throws Exception {
+        // Given
+        byte[] zip = zip("plugin.json");
+        MockMultipartFile file = new MockMultipartFile("file", "test-plugin.zip", "application/zip", zip);
+        String integrity = "sha256-" + Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(zip));
+
+        // When
+        PluginPackageService.StoredPackage stored = pluginPackageService.store(file, OBJECT_NAME, integrity);
+
+        // Then
+        assertNotNull(stored);
+        assertTrue(objects.containsKey(OBJECT_NAME));
+    }
+
+    @Test
+    void testStore_HashMismatch() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "test-plugin.zip", "application/zip", zip("plugin.json"));
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> pluginPackageService.store(file, OBJECT_NAME, "0".repeat(64)));
+        assertEquals("PACKAGE_HASH_MISMATCH", exception.getCode());
+        verify(fileStorageService, never()).copyFile(anyString(), anyString());
+        assertTrue(objects.isEmpty());
+    }
+
+    @Test
+    void testStore_MissingManifest() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "test-plugin.zip", "application/zip", zip("index.js"));
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> pluginPackageService.store(file, OBJECT_NAME, null));
+        assertEquals("INVALID_PACKAGE", exception.getCode());
+        verify(fileStorageService, never()).copyFile(anyString(), anyString());
+        assertTrue(objects.isEmpty());
+    }
+
+    @Test
+    void testStore_UnsafeEntryPath() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "test-plugin.zip", "application/zip",
+                zip("plugin.json", "../evil.js"));
+
+        // When & Then
+        assertThrows(BusinessException.class, () -> pluginPackageService.store(file, OBJECT_NAME, null));
+        assertTrue(objects.isEmpty());
+    }
+
+    @Test
+    void testStore_NotAZip() {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("file", "test-plugin.zip", "application/zip",
+                "not a zip archive".getBytes(StandardCharsets.UTF_8));
+
+        // When & Then
+        assertThrows(BusinessException.class, () -> pluginPackageService.store(file, OBJECT_NAME, null));
+        assertTrue(objects.isEmpty());
+    }
+
+    @Test
+    void testStore_SizeLimitEnforcedWhileStreaming() throws Exception {
+        // Given: declared size is small, actual stream exceeds the limit
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.isEmpty()).thenReturn(false);
+        when(file.getSize()).thenReturn(16L);
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[2 * 1024 * 1024]));
+
+        // When & Then
+        BusinessException exception = assertThrows(BusinessException.class,
+                () -> pluginPackageService.store(file, OBJECT_NAME, null));
+        assertEquals("PACKAGE_TOO_LARGE", exception.getCode());
+        verify(fileStorageService, never()).copyFile(anyString(), anyString());
+    }
+
+    @Test
+    void testStore_DeclaredSizeTooLarge() {
+        // Given
+        ReflectionTestUtils.setField(pluginPackageService, "maxPluginSize", 8L);
+        MockMultipartFile file = new MockMultipartFile("file", "test-plugin.zip", "application/zip", new byte[16]);
+
+        // When & Then
+        assertThrows(BusinessException.class, () -> pluginPackageService.store(file, OBJECT_NAME, null));
+        verify(fileStorageService, never()).uploadFile(any(InputStream.class), anyString(), any(), anyLong());
+    }
+
+    private static byte[] zip(String... entries) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (String entry : entries) {
+                zip.putNextEntry(new ZipEntry(entry));
+                zip.write(("// " + entry).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return out.toByteArray();
+    }
+}
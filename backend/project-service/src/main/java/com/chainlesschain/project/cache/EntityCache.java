@@ -0,0 +1,182 @@
+package com.chainlesschain.project.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.Cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * MyBatis 二级缓存实现（按 Mapper 命名空间），用于读多写少的实体表。
+ *
+ * <p>通过 Mapper 上的 {@code @CacheNamespace(implementation = EntityCache.class)} 启用：
+ * 同一命名空间内的 insert/update/delete 在事务提交时由 MyBatis 调用 {@link #clear()}，
+ * 即写穿失效；{@link #clear()} 同时经 {@link #setInvalidationPublisher 失效广播} 通知集群内
+ * 其它实例清空本地副本（见 EntityCacheInvalidationBroker）。
+ *
+ * <p>自定义缓存实现不会被 MyBatis 套上序列化/淘汰装饰器，因此本类自行：
+ * 按 LRU 限制条目数（maxSize）、按 TTL（ttlSeconds）过期，并以序列化副本存取，
+ * 避免调用方修改返回的实体对象污染缓存。值不可序列化时直接不缓存。
+ */
+@Slf4j
+public class EntityCache implements Cache {
+
+    private static final Map<String, EntityCache> INSTANCES = new ConcurrentHashMap<>();
+    private static volatile Consumer<String> invalidationPublisher;
+
+    private final String id;
+    private int maxSize = 1000;
+    private long ttlSeconds = 300;
+    private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public EntityCache(String id) {
+        this.id = id;
+        INSTANCES.put(id, this);
+    }
+
+    /**
+     * 设置集群失效广播（参数为命名空间）；null 表示仅本地失效
+     */
+    public static void setInvalidationPublisher(Consumer<String> publisher) {
+        invalidationPublisher = publisher;
+    }
+
+    /**
+     * 处理来自其它实例的失效通知：只清本地，不再广播
+     */
+    public static void clearLocal(String namespace) {
+        EntityCache cache = INSTANCES.get(namespace);
+        if (cache != null) {
+            cache.clearEntries();
+        }
+    }
+
+    static Map<String, EntityCache> instances() {
+        return INSTANCES;
+    }
+
+    /** 由 @CacheNamespace 的 @Property(name = "maxSize") 注入 */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /** 由 @CacheNamespace 的 @Property(name = "ttlSeconds") 注入 */
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public void putObject(Object key, Object value) {
+        byte[] bytes = serialize(value);
+        if (bytes == null) {
+            return;
+        }
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+        synchronized (entries) {
+            entries.put(key, new Entry(bytes, expiresAt));
+            if (entries.size() > maxSize) {
+                var eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    @Override
+    public Object getObject(Object key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return deserialize(entry.value);
+    }
+
+    @Override
+    public Object removeObject(Object key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        clearEntries();
+        Consumer<String> publisher = invalidationPublisher;
+        if (publisher != null) {
+            try {
+                publisher.accept(id);
+            } catch (Exception e) {
+                // 广播失败时其它实例依赖 TTL 兜底
+                log.warn("实体缓存失效广播失败: namespace={}, error={}", id, e.getMessage());
+            }
+        }
+    }
+
+    private void clearEntries() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    private byte[] serialize(Object value) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+            out.writeObject(value);
+        } catch (IOException e) {
+            log.debug("实体缓存跳过不可序列化的值: namespace={}, error={}", id, e.getMessage());
+            return null;
+        }
+        return buffer.toByteArray();
+    }
+
+    private Object deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("实体缓存反序列化失败: namespace=" + id, e);
+        }
+    }
+
+    private record Entry(byte[] value, long expiresAt) {
+    }
+}
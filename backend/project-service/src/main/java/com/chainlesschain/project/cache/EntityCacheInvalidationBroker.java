@@ -0,0 +1,71 @@
+package com.chainlesschain.project.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 实体缓存的集群失效广播（Redis Pub/Sub）。
+ *
+ * <p>本实例的命名空间被清空时发布 {@code <nodeId>|<namespace>}；收到其它实例的消息时只清本地，
+ * 自己发出的消息忽略。Redis 不可用时发布失败只记日志，其它实例依赖缓存 TTL 兜底。
+ *
+ * <p>除 MyBatis 命名空间外，其它本地缓存（如 ProjectSnapshotCache）可以用自己的命名空间前缀
+ * 经 {@link #publish} 广播，并通过 {@link #addListener} 接收远端失效。
+ */
+@Slf4j
+public class EntityCacheInvalidationBroker implements MessageListener {
+
+    public static final String CHANNEL = "project-service:entity-cache:invalidate";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    public EntityCacheInvalidationBroker(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 注册远端失效监听（参数为命名空间）
+     */
+    public void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 广播命名空间失效
+     */
+    public void publish(String namespace) {
+        redisTemplate.convertAndSend(CHANNEL, nodeId + "|" + namespace);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf('|');
+        if (separator < 0) {
+            return;
+        }
+        if (nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        String namespace = body.substring(separator + 1);
+        EntityCache.clearLocal(namespace);
+        for (Consumer<String> listener : listeners) {
+            listener.accept(namespace);
+        }
+        log.debug("收到实体缓存失效通知: namespace={}", namespace);
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+}
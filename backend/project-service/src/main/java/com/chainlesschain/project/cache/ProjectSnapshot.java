@@ -0,0 +1,230 @@
+package com.chainlesschain.project.cache;
+
+import com.chainlesschain.project.dto.ProjectTreeNode;
+import com.chainlesschain.project.entity.Project;
+import com.chainlesschain.project.entity.ProjectFile;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 项目文件树快照（不可变）：路径、大小、哈希等元数据，不含文件内容。
+ *
+ * <p>文件按 updatedAt 倒序排列（与原 getProject 查询一致）。摘要为各文件条目摘要的异或，
+ * 增删改单个文件时只需异或进/出该条目即可增量维护；ETag 由项目元数据摘要与文件摘要拼成，
+ * 因此与实例、重启无关，同一状态在集群内得到同一 ETag。
+ */
+public final class ProjectSnapshot {
+
+    private static final Comparator<FileEntry> ORDER = Comparator
+            .comparing(FileEntry::updatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(FileEntry::id, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final String projectId;
+    private final List<FileEntry> files;
+    private final long digest;
+    private volatile ProjectTreeNode tree;
+
+    private ProjectSnapshot(String projectId, List<FileEntry> files, long digest) {
+        this.projectId = projectId;
+        this.files = files;
+        this.digest = digest;
+    }
+
+    public static ProjectSnapshot of(String projectId, Collection<FileEntry> entries) {
+        List<FileEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(ORDER);
+        long digest = 0L;
+        for (FileEntry entry : sorted) {
+            digest ^= entry.digest();
+        }
+        return new ProjectSnapshot(projectId, List.copyOf(sorted), digest);
+    }
+
+    /**
+     * 新增或替换一个文件条目，返回新快照
+     */
+    public ProjectSnapshot withFile(FileEntry entry) {
+        List<FileEntry> next = new ArrayList<>(files.size() + 1);
+        long nextDigest = digest;
+        for (FileEntry existing : files) {
+            if (existing.id() != null && existing.id().equals(entry.id())) {
+                nextDigest ^= existing.digest();
+            } else {
+                next.add(existing);
+            }
+        }
+        next.add(entry);
+        next.sort(ORDER);
+        return new ProjectSnapshot(projectId, List.copyOf(next), nextDigest ^ entry.digest());
+    }
+
+    /**
+     * 移除一个文件条目，返回新快照；不存在时返回自身
+     */
+    public ProjectSnapshot withoutFile(String fileId) {
+        List<FileEntry> next = new ArrayList<>(files.size());
+        long nextDigest = digest;
+        for (FileEntry existing : files) {
+            if (existing.id() != null && existing.id().equals(fileId)) {
+                nextDigest ^= existing.digest();
+            } else {
+                next.add(existing);
+            }
+        }
+        if (next.size() == files.size()) {
+            return this;
+        }
+        return new ProjectSnapshot(projectId, List.copyOf(next), nextDigest);
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    public List<FileEntry> getFiles() {
+        return files;
+    }
+
+    public long getDigest() {
+        return digest;
+    }
+
+    /**
+     * 结合项目元数据生成强 ETag
+     */
+    public String etag(Project project) {
+        String meta = String.join("|",
+                String.valueOf(project.getId()),
+                String.valueOf(project.getUserId()),
+                String.valueOf(project.getName()),
+                String.valueOf(project.getDescription()),
+                String.valueOf(project.getProjectType()),
+                String.valueOf(project.getStatus()),
+                String.valueOf(project.getRootPath()),
+                String.valueOf(project.getFileCount()),
+                String.valueOf(project.getTotalSize()),
+                String.valueOf(project.getCoverImageUrl()),
+                String.valueOf(project.getTags()),
+                String.valueOf(project.getCreatedAt()),
+                String.valueOf(project.getUpdatedAt()));
+        return "\"" + Long.toHexString(digest64(meta)) + "-" + Long.toHexString(digest) + "\"";
+    }
+
+    /**
+     * 按路径组装的目录树（首次访问时构建并随快照缓存）
+     */
+    public ProjectTreeNode tree() {
+        ProjectTreeNode result = tree;
+        if (result == null) {
+            result = buildTree();
+            tree = result;
+        }
+        return result;
+    }
+
+    private ProjectTreeNode buildTree() {
+        DirNode root = new DirNode("", "");
+        for (FileEntry entry : files) {
+            String path = entry.filePath() != null ? entry.filePath() : entry.fileName();
+            if (path == null) {
+                continue;
+            }
+            String[] segments = path.replace('\\', '/').split("/");
+            DirNode dir = root;
+            StringBuilder prefix = new StringBuilder();
+            for (int i = 0; i < segments.length - 1; i++) {
+                if (segments[i].isEmpty()) {
+                    continue;
+                }
+                if (prefix.length() > 0) {
+                    prefix.append('/');
+                }
+                prefix.append(segments[i]);
+                String name = segments[i];
+                String dirPath = prefix.toString();
+                dir = dir.dirs.computeIfAbsent(name, n -> new DirNode(n, dirPath));
+            }
+            dir.files.add(entry);
+        }
+        return root.toNode();
+    }
+
+    private static final class DirNode {
+        private final String name;
+        private final String path;
+        private final Map<String, DirNode> dirs = new LinkedHashMap<>();
+        private final List<FileEntry> files = new ArrayList<>();
+
+        private DirNode(String name, String path) {
+            this.name = name;
+            this.path = path;
+        }
+
+        private ProjectTreeNode toNode() {
+            ProjectTreeNode node = new ProjectTreeNode();
+            node.setName(name);
+            node.setPath(path);
+            node.setDirectory(true);
+            dirs.values().stream()
+                    .sorted(Comparator.comparing(d -> d.name))
+                    .forEach(d -> node.getChildren().add(d.toNode()));
+            files.stream()
+                    .sorted(Comparator.comparing(FileEntry::fileName, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .forEach(f -> node.getChildren().add(f.toTreeNode()));
+            return node;
+        }
+    }
+
+    static long digest64(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(hash, 0, Long.BYTES).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 快照中的单个文件条目
+     */
+    public record FileEntry(String id, String filePath, String fileName, String fileType, String language,
+                            Long fileSize, String contentHash, Integer version, String commitHash,
+                            String generatedBy, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+        public static FileEntry from(ProjectFile file) {
+            return new FileEntry(file.getId(), file.getFilePath(), file.getFileName(), file.getFileType(),
+                    file.getLanguage(), file.getFileSize(), file.getContentHash(), file.getVersion(),
+                    file.getCommitHash(), file.getGeneratedBy(), file.getCreatedAt(), file.getUpdatedAt());
+        }
+
+        long digest() {
+            return digest64(String.join("|", String.valueOf(id), String.valueOf(filePath), String.valueOf(fileName),
+                    String.valueOf(fileType), String.valueOf(language), String.valueOf(fileSize),
+                    String.valueOf(contentHash), String.valueOf(version), String.valueOf(commitHash),
+                    String.valueOf(generatedBy), String.valueOf(updatedAt)));
+        }
+
+        ProjectTreeNode toTreeNode() {
+            ProjectTreeNode node = new ProjectTreeNode();
+            node.setName(fileName);
+            node.setPath(filePath);
+            node.setDirectory(false);
+            node.setFileId(id);
+            node.setFileType(fileType);
+            node.setFileSize(fileSize);
+            node.setContentHash(contentHash);
+            node.setUpdatedAt(updatedAt);
+            return node;
+        }
+    }
+}
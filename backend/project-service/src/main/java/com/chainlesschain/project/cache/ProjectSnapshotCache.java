@@ -0,0 +1,205 @@
+package com.chainlesschain.project.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.chainlesschain.project.entity.ProjectFile;
+import com.chainlesschain.project.mapper.ProjectFileMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.UnaryOperator;
+
+/**
+ * 项目文件树快照缓存
+ *
+ * 首次读取时从 project_files 加载元数据列（不含 content）构建快照，之后由文件写操作在事务提交后
+ * 增量更新；其它实例经 EntityCacheInvalidationBroker 收到失效后丢弃本地快照，下次读取时重建。
+ * 按项目数做 LRU，并以 TTL 兜底广播丢失的情况。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectSnapshotCache {
+
+    static final String NAMESPACE_PREFIX = "project-snapshot:";
+    private static final int STRIPES = 64;
+
+    private final ProjectFileMapper projectFileMapper;
+
+    @Autowired(required = false)
+    private EntityCacheInvalidationBroker invalidationBroker;
+
+    @Value("${project.snapshot.max-projects:500}")
+    private int maxProjects = 500;
+
+    @Value("${project.snapshot.ttl-seconds:600}")
+    private long ttlSeconds = 600;
+
+    private final LinkedHashMap<String, Holder> snapshots = new LinkedHashMap<>(64, 0.75f, true);
+    /** 按项目分段的写入序号：加载期间若有写入提交，则放弃缓存加载结果，避免覆盖增量更新 */
+    private final AtomicLongArray mutations = new AtomicLongArray(STRIPES);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (invalidationBroker != null) {
+            invalidationBroker.addListener(namespace -> {
+                if (namespace.startsWith(NAMESPACE_PREFIX)) {
+                    evictLocal(namespace.substring(NAMESPACE_PREFIX.length()));
+                }
+            });
+        }
+    }
+
+    /**
+     * 获取项目快照，未命中或过期时从数据库加载
+     */
+    public ProjectSnapshot get(String projectId) {
+        long now = System.currentTimeMillis();
+        synchronized (snapshots) {
+            Holder holder = snapshots.get(projectId);
+            if (holder != null && holder.expiresAt > now) {
+                hits.incrementAndGet();
+                return holder.snapshot;
+            }
+        }
+
+        int stripe = stripe(projectId);
+        long mutationSeq = mutations.get(stripe);
+        ProjectSnapshot snapshot = load(projectId);
+        loads.incrementAndGet();
+
+        synchronized (snapshots) {
+            if (mutations.get(stripe) == mutationSeq) {
+                put(projectId, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * 文件新增/更新后调用：事务提交后增量更新本地快照并广播失效
+     */
+    public void fileChanged(ProjectFile file) {
+        if (file == null || file.getProjectId() == null || file.getId() == null) {
+            return;
+        }
+        ProjectSnapshot.FileEntry entry = ProjectSnapshot.FileEntry.from(file);
+        afterCommit(file.getProjectId(), snapshot -> snapshot.withFile(entry));
+    }
+
+    /**
+     * 文件删除后调用
+     */
+    public void fileDeleted(String projectId, String fileId) {
+        if (projectId == null || fileId == null) {
+            return;
+        }
+        afterCommit(projectId, snapshot -> snapshot.withoutFile(fileId));
+    }
+
+    /**
+     * 批量变更或无法增量表达的变更（导入、同步、删除项目）后调用：整体失效
+     */
+    public void evict(String projectId) {
+        if (projectId == null) {
+            return;
+        }
+        afterCommit(projectId, snapshot -> null);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getLoads() {
+        return loads.get();
+    }
+
+    int size() {
+        synchronized (snapshots) {
+            return snapshots.size();
+        }
+    }
+
+    private ProjectSnapshot load(String projectId) {
+        List<ProjectFile> files = projectFileMapper.selectList(
+                new LambdaQueryWrapper<ProjectFile>()
+                        .select(ProjectFile::getId, ProjectFile::getProjectId, ProjectFile::getFilePath,
+                                ProjectFile::getFileName, ProjectFile::getFileType, ProjectFile::getLanguage,
+                                ProjectFile::getFileSize, ProjectFile::getContentHash, ProjectFile::getVersion,
+                                ProjectFile::getCommitHash, ProjectFile::getGeneratedBy,
+                                ProjectFile::getCreatedAt, ProjectFile::getUpdatedAt)
+                        .eq(ProjectFile::getProjectId, projectId)
+        );
+        return ProjectSnapshot.of(projectId, files.stream().map(ProjectSnapshot.FileEntry::from).toList());
+    }
+
+    private void afterCommit(String projectId, UnaryOperator<ProjectSnapshot> update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(projectId, update);
+                }
+            });
+        } else {
+            apply(projectId, update);
+        }
+    }
+
+    private void apply(String projectId, UnaryOperator<ProjectSnapshot> update) {
+        synchronized (snapshots) {
+            mutations.incrementAndGet(stripe(projectId));
+            Holder holder = snapshots.get(projectId);
+            if (holder != null) {
+                ProjectSnapshot next = update.apply(holder.snapshot);
+                if (next == null) {
+                    snapshots.remove(projectId);
+                } else {
+                    put(projectId, next);
+                }
+            }
+        }
+        if (invalidationBroker != null) {
+            try {
+                invalidationBroker.publish(NAMESPACE_PREFIX + projectId);
+            } catch (Exception e) {
+                log.warn("项目快照失效广播失败: projectId={}, error={}", projectId, e.getMessage());
+            }
+        }
+    }
+
+    private void evictLocal(String projectId) {
+        synchronized (snapshots) {
+            mutations.incrementAndGet(stripe(projectId));
+            snapshots.remove(projectId);
+        }
+    }
+
+    private void put(String projectId, ProjectSnapshot snapshot) {
+        snapshots.put(projectId, new Holder(snapshot, System.currentTimeMillis() + ttlSeconds * 1000));
+        if (snapshots.size() > maxProjects) {
+            var eldest = snapshots.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static int stripe(String projectId) {
+        return (projectId.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    private record Holder(ProjectSnapshot snapshot, long expiresAt) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.chainlesschain.project.config;
+
+import com.chainlesschain.project.datasource.DataSourceRoutingProperties;
+import com.chainlesschain.project.datasource.ReadWriteRoutingDataSource;
+import com.chainlesschain.project.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 读写分离数据源配置（datasource.routing.enabled=true 时生效）
+ *
+ * 主库沿用 spring.datasource.* 与 spring.datasource.hikari.* 配置，副本各自独立连接池。
+ * 对外暴露的 @Primary DataSource 为 LazyConnectionDataSourceProxy，Flyway / MyBatis /
+ * 事务管理器均通过它取连接；Flyway 迁移不在只读事务中，始终走主库。
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                                 DataSourceRoutingProperties routingProperties,
+                                                                 Environment environment,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName(ReadWriteRoutingDataSource.PRIMARY_KEY);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<DataSourceRoutingProperties.Replica> replicaConfigs = routingProperties.getReplicas();
+        for (int i = 0; i < replicaConfigs.size(); i++) {
+            DataSourceRoutingProperties.Replica config = replicaConfigs.get(i);
+            if (!StringUtils.hasText(config.getUrl())) {
+                continue;
+            }
+            String key = ReadWriteRoutingDataSource.REPLICA_KEY_PREFIX + i;
+            replicas.put(key, buildReplica(key, config, primary));
+        }
+
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(replicas, routingProperties.getMaxReplicaLagMs());
+        lagMonitor.start(routingProperties.getLagCheckIntervalMs());
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicas, lagMonitor);
+        meterRegistry.ifAvailable(routing::bindMetrics);
+
+        log.info("读写分离已启用: replicas={}, maxReplicaLagMs={}, readYourWritesWindowMs={}",
+                replicas.keySet(), routingProperties.getMaxReplicaLagMs(),
+                routingProperties.getReadYourWritesWindowMs());
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    private static HikariDataSource buildReplica(String key, DataSourceRoutingProperties.Replica config,
+                                                 HikariDataSource primary) {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName(key);
+        replica.setDriverClassName(primary.getDriverClassName());
+        replica.setJdbcUrl(config.getUrl());
+        replica.setUsername(StringUtils.hasText(config.getUsername()) ? config.getUsername() : primary.getUsername());
+        replica.setPassword(config.getPassword() != null ? config.getPassword() : primary.getPassword());
+        replica.setMaximumPoolSize(config.getMaximumPoolSize());
+        replica.setMinimumIdle(config.getMinimumIdle());
+        replica.setConnectionTimeout(primary.getConnectionTimeout());
+        replica.setIdleTimeout(primary.getIdleTimeout());
+        replica.setMaxLifetime(primary.getMaxLifetime());
+        replica.setConnectionTestQuery(primary.getConnectionTestQuery());
+        replica.setReadOnly(true);
+        return replica;
+    }
+}
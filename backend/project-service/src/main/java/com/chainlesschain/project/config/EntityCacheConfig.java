@@ -0,0 +1,45 @@
+package com.chainlesschain.project.config;
+
+import com.chainlesschain.project.cache.EntityCache;
+import com.chainlesschain.project.cache.EntityCacheInvalidationBroker;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * 实体二级缓存的集群失效配置
+ *
+ * 缓存本身由 Mapper 上的 @CacheNamespace(implementation = EntityCache.class) 声明；
+ * 这里只负责把命名空间失效事件经 Redis 广播给其它实例。单实例部署可设置
+ * entity-cache.cluster-invalidation=false 关闭广播。
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "entity-cache", name = "cluster-invalidation", havingValue = "true", matchIfMissing = true)
+public class EntityCacheConfig implements DisposableBean {
+
+    @Bean
+    public EntityCacheInvalidationBroker entityCacheInvalidationBroker(StringRedisTemplate stringRedisTemplate) {
+        EntityCacheInvalidationBroker broker = new EntityCacheInvalidationBroker(stringRedisTemplate);
+        EntityCache.setInvalidationPublisher(broker::publish);
+        return broker;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer entityCacheListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                      EntityCacheInvalidationBroker broker) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(broker, new ChannelTopic(EntityCacheInvalidationBroker.CHANNEL));
+        return container;
+    }
+
+    @Override
+    public void destroy() {
+        EntityCache.setInvalidationPublisher(null);
+    }
+}
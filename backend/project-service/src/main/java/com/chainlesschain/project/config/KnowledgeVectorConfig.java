@@ -0,0 +1,22 @@
+package com.chainlesschain.project.config;
+
+import com.chainlesschain.project.vector.EmbeddingProvider;
+import com.chainlesschain.project.vector.HashingEmbeddingProvider;
+import com.chainlesschain.project.vector.KnowledgeVectorProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 知识库向量索引配置
+ * 未注册其它 EmbeddingProvider 时使用本地哈希向量化
+ */
+@Configuration
+public class KnowledgeVectorConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(EmbeddingProvider.class)
+    public EmbeddingProvider embeddingProvider(KnowledgeVectorProperties properties) {
+        return new HashingEmbeddingProvider(properties.getDimension());
+    }
+}
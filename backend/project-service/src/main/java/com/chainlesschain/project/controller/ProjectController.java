@@ -6,6 +6,10 @@ import com.chainlesschain.project.security.ProjectAccessGuard;
 import com.chainlesschain.project.service.ProjectService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -63,16 +67,44 @@ public class ProjectController {
      * 获取项目详情
      */
     @GetMapping("/{projectId}")
-    public ApiResponse<ProjectResponse> getProject(
+    public ResponseEntity<ApiResponse<ProjectResponse>> getProject(
             @PathVariable String projectId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             Authentication authentication) {
         accessGuard.assertCanAccessProject(projectId, authentication);
         try {
+            // 项目未变化时直接 304，客户端复用本地缓存
+            String etag = projectService.getProjectEtag(projectId);
+            if (etag != null && etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             ProjectResponse response = projectService.getProject(projectId);
-            return ApiResponse.success(response);
+            return withEtag(etag).body(ApiResponse.success(response));
         } catch (Exception e) {
             log.error("获取项目详情失败", e);
-            return ApiResponse.error(e.getMessage());
+            return ResponseEntity.ok(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 获取项目文件树（不含文件内容）
+     */
+    @GetMapping("/{projectId}/tree")
+    public ResponseEntity<ApiResponse<ProjectTreeNode>> getProjectTree(
+            @PathVariable String projectId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
+        accessGuard.assertCanAccessProject(projectId, authentication);
+        try {
+            String etag = projectService.getProjectEtag(projectId);
+            if (etag != null && etag.equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            ProjectTreeNode tree = projectService.getProjectTree(projectId);
+            return withEtag(etag).body(ApiResponse.success(tree));
+        } catch (Exception e) {
+            log.error("获取项目文件树失败", e);
+            return ResponseEntity.ok(ApiResponse.error(e.getMessage()));
         }
     }
 
@@ -172,6 +204,15 @@ public class ProjectController {
         }
     }
 
+    private ResponseEntity.BodyBuilder withEtag(String etag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (etag != null) {
+            // no-cache：允许客户端缓存，但每次都需携带 If-None-Match 重新校验
+            builder.eTag(etag).cacheControl(CacheControl.noCache().cachePrivate());
+        }
+        return builder;
+    }
+
     /**
      * 健康检查
      */
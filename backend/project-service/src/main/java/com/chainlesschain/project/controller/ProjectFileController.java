@@ -2,6 +2,7 @@ package com.chainlesschain.project.controller;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.chainlesschain.project.dto.ApiResponse;
+import com.chainlesschain.project.dto.FileBatchCreateResponse;
 import com.chainlesschain.project.dto.FileCreateRequest;
 import com.chainlesschain.project.dto.FileUpdateRequest;
 import com.chainlesschain.project.dto.ProjectFileDTO;
@@ -78,12 +79,15 @@ public class ProjectFileController {
      * 批量创建文件
      */
     @PostMapping("/batch")
-    public ApiResponse<List<ProjectFileDTO>> batchCreateFiles(
+    public ApiResponse<FileBatchCreateResponse> batchCreateFiles(
             @PathVariable String projectId,
             @RequestBody List<FileCreateRequest> files) {
         try {
-            List<ProjectFileDTO> result = projectFileService.batchCreateFiles(projectId, files);
-            return ApiResponse.success("批量创建文件成功", result);
+            FileBatchCreateResponse result = projectFileService.batchCreateFiles(projectId, files);
+            String message = result.getFailed().isEmpty()
+                    ? "批量创建文件成功"
+                    : "批量创建文件部分成功: 成功 " + result.getCreated().size() + ", 失败 " + result.getFailed().size();
+            return ApiResponse.success(message, result);
         } catch (Exception e) {
             log.error("批量创建文件失败", e);
             return ApiResponse.error(e.getMessage());
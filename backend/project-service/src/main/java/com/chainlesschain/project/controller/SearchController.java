@@ -59,6 +59,21 @@ public class SearchController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 知识库语义检索（本地向量索引）
+     */
+    @GetMapping("/semantic")
+    @Operation(summary = "语义检索", description = "基于本地向量索引检索语义相近的知识库条目")
+    public ResponseEntity<?> semanticSearch(@RequestParam String query,
+                                            @RequestParam(defaultValue = "10") Integer k,
+                                            Authentication authentication) {
+        List<SearchResponse.SearchResult> results = searchService.semanticSearch(query, k, authentication);
+        return ResponseEntity.ok(Map.of(
+            "query", query,
+            "results", results
+        ));
+    }
+
     /**
      * 清除搜索缓存
      */
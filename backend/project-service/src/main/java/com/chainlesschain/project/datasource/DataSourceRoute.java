@@ -0,0 +1,9 @@
+package com.chainlesschain.project.datasource;
+
+/**
+ * 数据源路由目标
+ */
+public enum DataSourceRoute {
+    PRIMARY,  // 主库（读写）
+    REPLICA   // 只读副本
+}
@@ -0,0 +1,63 @@
+package com.chainlesschain.project.datasource;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * 当前线程的显式路由声明（栈结构，支持嵌套；内层声明覆盖外层）。
+ *
+ * <p>优先级：显式声明 &gt; {@code @Transactional(readOnly = true)} &gt; 主库。
+ * 读己之写（read-your-writes）场景用 {@link #onPrimary} 强制回主库，即使外层是
+ * {@code @ReadReplica} 或只读事务。由于数据源被 LazyConnectionDataSourceProxy 包装，
+ * 物理连接在第一条语句执行时才获取，因此在事务方法体内声明路由同样生效。
+ */
+public final class DataSourceRoutingContext {
+
+    private static final ThreadLocal<Deque<DataSourceRoute>> ROUTES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private DataSourceRoutingContext() {
+    }
+
+    /**
+     * 当前显式路由；未声明时返回 null
+     */
+    public static DataSourceRoute current() {
+        return ROUTES.get().peek();
+    }
+
+    public static void push(DataSourceRoute route) {
+        ROUTES.get().push(route);
+    }
+
+    public static void pop() {
+        Deque<DataSourceRoute> routes = ROUTES.get();
+        routes.poll();
+        if (routes.isEmpty()) {
+            ROUTES.remove();
+        }
+    }
+
+    /**
+     * 在只读副本上执行（用于单个 mapper 调用的显式路由）
+     */
+    public static <T> T onReplica(Supplier<T> action) {
+        return with(DataSourceRoute.REPLICA, action);
+    }
+
+    /**
+     * 强制在主库上执行
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        return with(DataSourceRoute.PRIMARY, action);
+    }
+
+    private static <T> T with(DataSourceRoute route, Supplier<T> action) {
+        push(route);
+        try {
+            return action.get();
+        } finally {
+            pop();
+        }
+    }
+}
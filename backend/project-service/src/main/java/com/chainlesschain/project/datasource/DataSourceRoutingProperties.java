@@ -0,0 +1,83 @@
+package com.chainlesschain.project.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离配置，对应 {@code application.yml} 中的 {@code datasource.routing.*}。
+ *
+ * <p>{@code enabled=false}（默认）时沿用 Spring Boot 自动配置的单一主库数据源，
+ * 行为与之前完全一致。启用后主库仍由 {@code spring.datasource.*} 描述，
+ * 副本由 {@link #replicas} 列表描述（用户名/密码缺省时继承主库）。
+ */
+@Component
+@ConfigurationProperties(prefix = "datasource.routing")
+public class DataSourceRoutingProperties {
+
+    /** 总开关 */
+    private boolean enabled = false;
+
+    /** 只读副本列表 */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /** 副本复制延迟超过该值（毫秒）即暂时摘除，读请求回落到其它副本或主库 */
+    private long maxReplicaLagMs = 5000L;
+
+    /** 复制延迟探测间隔（毫秒） */
+    private long lagCheckIntervalMs = 5000L;
+
+    /**
+     * 读己之写窗口（毫秒）：调用方写入后在该窗口内的读请求固定走主库。
+     * 应不小于 {@link #maxReplicaLagMs}，否则可能读到写入前的副本数据。
+     */
+    private long readYourWritesWindowMs = 10000L;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public List<Replica> getReplicas() { return replicas; }
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas == null ? new ArrayList<>() : replicas;
+    }
+
+    public long getMaxReplicaLagMs() { return maxReplicaLagMs; }
+    public void setMaxReplicaLagMs(long maxReplicaLagMs) { this.maxReplicaLagMs = maxReplicaLagMs; }
+
+    public long getLagCheckIntervalMs() { return lagCheckIntervalMs; }
+    public void setLagCheckIntervalMs(long lagCheckIntervalMs) { this.lagCheckIntervalMs = lagCheckIntervalMs; }
+
+    public long getReadYourWritesWindowMs() { return readYourWritesWindowMs; }
+    public void setReadYourWritesWindowMs(long readYourWritesWindowMs) {
+        this.readYourWritesWindowMs = readYourWritesWindowMs;
+    }
+
+    /**
+     * 单个副本连接配置
+     */
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 20;
+        private int minimumIdle = 5;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public int getMaximumPoolSize() { return maximumPoolSize; }
+        public void setMaximumPoolSize(int maximumPoolSize) { this.maximumPoolSize = maximumPoolSize; }
+
+        public int getMinimumIdle() { return minimumIdle; }
+        public void setMinimumIdle(int minimumIdle) { this.minimumIdle = minimumIdle; }
+    }
+}
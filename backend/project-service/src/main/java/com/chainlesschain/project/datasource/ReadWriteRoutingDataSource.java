@@ -0,0 +1,169 @@
+package com.chainlesschain.project.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离路由数据源。
+ *
+ * <p>路由规则：{@link DataSourceRoutingContext} 显式声明优先；否则只读事务
+ * （{@code @Transactional(readOnly = true)}）走副本；其余一律走主库。副本按轮询选择，
+ * 跳过 {@link ReplicaLagMonitor} 判定为延迟超限/不可达的副本，全部不可用时回落主库。
+ *
+ * <p>必须由 LazyConnectionDataSourceProxy 包装后使用：事务管理器在 doBegin 时即取连接，
+ * 此时只读标记尚未写入 TransactionSynchronizationManager，延迟取连接才能拿到正确的路由。
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY_KEY = "primary";
+    public static final String REPLICA_KEY_PREFIX = "replica-";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final ReplicaLagMonitor lagMonitor;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private Counter primaryRoutes;
+    private Counter replicaRoutes;
+    private Counter fallbackRoutes;
+
+    public ReadWriteRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                      ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.replicaKeys = new ArrayList<>(this.replicas.keySet());
+        this.lagMonitor = lagMonitor;
+
+        Map<Object, Object> targets = new HashMap<>(this.replicas);
+        targets.put(PRIMARY_KEY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * 注册路由计数、各连接池饱和度与副本延迟指标
+     */
+    public void bindMetrics(MeterRegistry registry) {
+        primaryRoutes = Counter.builder("datasource.routing.requests").tag("target", PRIMARY_KEY)
+                .description("路由到主库的连接获取次数").register(registry);
+        replicaRoutes = Counter.builder("datasource.routing.requests").tag("target", "replica")
+                .description("路由到副本的连接获取次数").register(registry);
+        fallbackRoutes = Counter.builder("datasource.routing.replica.fallback")
+                .description("副本全部不可用而回落主库的读请求次数").register(registry);
+
+        registerSaturation(registry, PRIMARY_KEY, primary);
+        replicas.forEach((key, dataSource) -> {
+            registerSaturation(registry, key, dataSource);
+            Gauge.builder("datasource.routing.replica.lag", lagMonitor, m -> lagMs(m, key))
+                    .tag("pool", key).baseUnit("milliseconds")
+                    .description("副本复制延迟（探测失败记为 -1）").register(registry);
+        });
+    }
+
+    private static double lagMs(ReplicaLagMonitor monitor, String key) {
+        long lag = monitor.getLagMs(key);
+        return lag == ReplicaLagMonitor.UNREACHABLE ? -1 : lag;
+    }
+
+    private static void registerSaturation(MeterRegistry registry, String key, DataSource dataSource) {
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            return;
+        }
+        Gauge.builder("datasource.routing.pool.saturation", hikari, ReadWriteRoutingDataSource::saturation)
+                .tag("pool", key)
+                .description("活跃连接数 / 最大连接数").register(registry);
+        Gauge.builder("datasource.routing.pool.pending", hikari, ReadWriteRoutingDataSource::pending)
+                .tag("pool", key)
+                .description("等待获取连接的线程数").register(registry);
+    }
+
+    static double saturation(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        int max = hikari.getMaximumPoolSize();
+        return pool == null || max <= 0 ? 0 : (double) pool.getActiveConnections() / max;
+    }
+
+    static double pending(HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DataSourceRoute route = DataSourceRoutingContext.current();
+        if (route == null) {
+            route = TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                    ? DataSourceRoute.REPLICA : DataSourceRoute.PRIMARY;
+        }
+        if (route == DataSourceRoute.REPLICA) {
+            String replica = selectReplica();
+            if (replica != null) {
+                increment(replicaRoutes);
+                return replica;
+            }
+            increment(fallbackRoutes);
+        }
+        increment(primaryRoutes);
+        return PRIMARY_KEY;
+    }
+
+    /**
+     * 轮询选择一个可用副本；无可用副本时返回 null
+     */
+    String selectReplica() {
+        int size = replicaKeys.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (lagMonitor.isAvailable(key)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        lagMonitor.destroy();
+        replicas.values().forEach(ReadWriteRoutingDataSource::closeQuietly);
+        closeQuietly(primary);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            try {
+                hikari.close();
+            } catch (Exception e) {
+                log.warn("关闭连接池失败: pool={}, error={}", hikari.getPoolName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.chainlesschain.project.datasource;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读己之写跟踪：记录调用方最近一次写入时间，窗口期内该调用方的读请求应固定走主库，
+ * 避免副本复制延迟导致"刚上传的数据下载不到"。
+ *
+ * <p>仅保存在本实例内存中——同一调用方的上传与下载通常命中同一实例（粘性会话），
+ * 跨实例时最坏情况是读到副本上延迟不超过 maxReplicaLagMs 的数据。
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    /** 超过该条目数时清理过期记录，防止无界增长 */
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final DataSourceRoutingProperties properties;
+    private final Map<String, Long> primaryUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(DataSourceRoutingProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * 记录一次写入
+     */
+    public void markWrite(String key) {
+        if (!properties.isEnabled() || key == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        primaryUntil.put(key, now + properties.getReadYourWritesWindowMs());
+        if (primaryUntil.size() > PURGE_THRESHOLD) {
+            primaryUntil.values().removeIf(until -> until <= now);
+        }
+    }
+
+    /**
+     * 该调用方当前的读请求是否必须走主库
+     */
+    public boolean requiresPrimary(String key) {
+        if (!properties.isEnabled() || key == null) {
+            return false;
+        }
+        Long until = primaryUntil.get(key);
+        if (until == null) {
+            return false;
+        }
+        if (until <= System.currentTimeMillis()) {
+            primaryUntil.remove(key, until);
+            return false;
+        }
+        return true;
+    }
+}
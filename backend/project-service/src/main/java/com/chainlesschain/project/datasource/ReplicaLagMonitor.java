@@ -0,0 +1,116 @@
+package com.chainlesschain.project.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 副本复制延迟探测。
+ *
+ * <p>定期在每个副本上查询 PostgreSQL 回放延迟；延迟超过阈值或探测失败的副本被标记为
+ * 不可用，{@link ReadWriteRoutingDataSource} 不再向其路由读请求，直到下一次探测恢复。
+ * WAL 已全部回放（receive LSN == replay LSN）时视为零延迟，避免主库空闲时
+ * {@code pg_last_xact_replay_timestamp()} 停滞导致的误判。
+ */
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+
+    static final String LAG_QUERY =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() "
+                    + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+                    + "ELSE COALESCE(EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000, 0) "
+                    + "END";
+
+    /** 探测失败时记录的延迟值 */
+    static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final Map<String, DataSource> replicas;
+    private final long maxLagMs;
+    private final Map<String, Long> lagByReplica = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, long maxLagMs) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxLagMs = maxLagMs;
+        // 首次探测前按可用处理，避免启动阶段所有读请求都压到主库
+        this.replicas.keySet().forEach(key -> lagByReplica.put(key, 0L));
+    }
+
+    /**
+     * 启动周期探测
+     */
+    public void start(long intervalMs) {
+        if (replicas.isEmpty() || intervalMs <= 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkAll, 0, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    void checkAll() {
+        replicas.forEach((key, dataSource) -> recordLag(key, probe(key, dataSource)));
+    }
+
+    private long probe(String key, DataSource dataSource) {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(LAG_QUERY)) {
+            return rs.next() ? Math.max(0L, rs.getLong(1)) : UNREACHABLE;
+        } catch (Exception e) {
+            log.warn("副本延迟探测失败: replica={}, error={}", key, e.getMessage());
+            return UNREACHABLE;
+        }
+    }
+
+    void recordLag(String key, long lagMs) {
+        Long previous = lagByReplica.put(key, lagMs);
+        boolean wasAvailable = previous != null && previous <= maxLagMs;
+        boolean available = lagMs <= maxLagMs;
+        if (wasAvailable && !available) {
+            log.warn("副本延迟超限，暂时摘除: replica={}, lagMs={}, maxLagMs={}", key, lagMs, maxLagMs);
+        } else if (!wasAvailable && available) {
+            log.info("副本恢复可用: replica={}, lagMs={}", key, lagMs);
+        }
+    }
+
+    /**
+     * 副本当前是否可接收读请求
+     */
+    public boolean isAvailable(String key) {
+        Long lag = lagByReplica.get(key);
+        return lag != null && lag <= maxLagMs;
+    }
+
+    /**
+     * 最近一次探测到的延迟（毫秒），探测失败为 {@link #UNREACHABLE}
+     */
+    public long getLagMs(String key) {
+        return lagByReplica.getOrDefault(key, UNREACHABLE);
+    }
+
+    public Map<String, Long> snapshot() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(lagByReplica));
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.chainlesschain.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量创建文件响应DTO
+ */
+@Data
+public class FileBatchCreateResponse {
+
+    /**
+     * 请求的文件总数
+     */
+    private int total;
+
+    /**
+     * 创建成功的文件（不含content）
+     */
+    private List<ProjectFileDTO> created = new ArrayList<>();
+
+    /**
+     * 校验未通过而跳过的文件
+     */
+    private List<Failure> failed = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+        /**
+         * 在请求列表中的下标
+         */
+        private int index;
+        private String filePath;
+        private String reason;
+    }
+}
@@ -45,6 +45,7 @@ public class ProjectResponse {
         private String filePath;
         private String fileType;
         private Long fileSize;
+        private String contentHash;
         private LocalDateTime updatedAt;
     }
 }
@@ -0,0 +1,32 @@
+package com.chainlesschain.project.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 项目文件树节点DTO（不含文件内容）
+ */
+@Data
+public class ProjectTreeNode {
+
+    private String name;
+
+    private String path;
+
+    private boolean directory;
+
+    // 以下字段仅文件节点有值
+    private String fileId;
+
+    private String fileType;
+
+    private Long fileSize;
+
+    private String contentHash;
+
+    private LocalDateTime updatedAt;
+
+    private List<ProjectTreeNode> children = new ArrayList<>();
+}
@@ -2,6 +2,7 @@ package com.chainlesschain.project.entity;
 
 import com.baomidou.mybatisplus.annotation.*;
 import lombok.Data;
+import java.io.Serializable;
 import java.time.LocalDateTime;
 
 /**
@@ -9,7 +10,9 @@ import java.time.LocalDateTime;
  */
 @Data
 @TableName("projects")
-public class Project {
+public class Project implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     @TableId(type = IdType.ASSIGN_UUID)
     private String id;
@@ -2,6 +2,7 @@ package com.chainlesschain.project.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.chainlesschain.project.entity.FileVersion;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -38,4 +39,17 @@ public interface FileVersionMapper extends BaseMapper<FileVersion> {
         @Param("fileId") String fileId,
         @Param("version") int version
     );
+
+    /**
+     * 多行插入版本记录；调用方负责填充 id、时间戳并控制单批行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO file_versions (id, file_id, project_id, version, content, content_hash, file_size, " +
+            "commit_hash, created_by, message, created_at, device_id) VALUES " +
+            "<foreach collection='versions' item='v' separator=','>" +
+            "(#{v.id}, #{v.fileId}, #{v.projectId}, #{v.version}, #{v.content}, #{v.contentHash}, #{v.fileSize}, " +
+            "#{v.commitHash}, #{v.createdBy}, #{v.message}, #{v.createdAt}, #{v.deviceId})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("versions") List<FileVersion> versions);
 }
@@ -3,10 +3,27 @@ package com.chainlesschain.project.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.chainlesschain.project.entity.KnowledgeItem;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 知识库条目 Mapper
  */
 @Mapper
 public interface KnowledgeItemMapper extends BaseMapper<KnowledgeItem> {
+
+    /**
+     * 按 id 键集分页查询某时间之后软删除的条目 id（用于向量索引补录删除）
+     */
+    @Select("<script>"
+            + "SELECT id FROM knowledge_items WHERE deleted = 1 AND updated_at &gt;= #{since}"
+            + "<if test='afterId != null'> AND id &gt; #{afterId}</if>"
+            + " ORDER BY id LIMIT #{limit}"
+            + "</script>")
+    List<String> selectDeletedIdsSince(@Param("since") LocalDateTime since,
+                                       @Param("afterId") String afterId,
+                                       @Param("limit") int limit);
 }
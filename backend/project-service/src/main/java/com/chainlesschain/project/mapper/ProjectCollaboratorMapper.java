@@ -1,12 +1,19 @@
 package com.chainlesschain.project.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chainlesschain.project.cache.EntityCache;
 import com.chainlesschain.project.entity.ProjectCollaborator;
+import org.apache.ibatis.annotations.CacheNamespace;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Property;
 
 /**
  * 项目协作者Mapper
  */
 @Mapper
+@CacheNamespace(implementation = EntityCache.class, properties = {
+        @Property(name = "maxSize", value = "5000"),
+        @Property(name = "ttlSeconds", value = "300")
+})
 public interface ProjectCollaboratorMapper extends BaseMapper<ProjectCollaborator> {
 }
@@ -2,10 +2,13 @@ package com.chainlesschain.project.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.chainlesschain.project.entity.ProjectFile;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Update;
 
+import java.util.List;
+
 /**
  * 项目文件Mapper
  */
@@ -38,4 +41,18 @@ public interface ProjectFileMapper extends BaseMapper<ProjectFile> {
     int updateByIdAndVersion(@Param("id") String id,
                               @Param("expectedVersion") Integer expectedVersion,
                               @Param("file") ProjectFile file);
+
+    /**
+     * 多行插入（批量创建文件）；调用方负责填充 id、时间戳并控制单批行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO project_files (id, project_id, file_path, file_name, file_type, language, file_size, " +
+            "content, content_hash, version, generated_by, sync_status, device_id, created_at, updated_at, deleted) VALUES " +
+            "<foreach collection='files' item='f' separator=','>" +
+            "(#{f.id}, #{f.projectId}, #{f.filePath}, #{f.fileName}, #{f.fileType}, #{f.language}, #{f.fileSize}, " +
+            "#{f.content}, #{f.contentHash}, #{f.version}, #{f.generatedBy}, #{f.syncStatus}, #{f.deviceId}, " +
+            "#{f.createdAt}, #{f.updatedAt}, 0)" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("files") List<ProjectFile> files);
 }
@@ -1,12 +1,30 @@
 package com.chainlesschain.project.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chainlesschain.project.cache.EntityCache;
 import com.chainlesschain.project.entity.Project;
+import org.apache.ibatis.annotations.CacheNamespace;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Property;
+import org.apache.ibatis.annotations.Update;
 
 /**
  * 项目Mapper
  */
 @Mapper
+@CacheNamespace(implementation = EntityCache.class, properties = {
+        @Property(name = "maxSize", value = "2000"),
+        @Property(name = "ttlSeconds", value = "300")
+})
 public interface ProjectMapper extends BaseMapper<Project> {
+
+    /**
+     * 在数据库端重算项目文件数与总大小（不把文件行拉回应用）
+     */
+    @Update("UPDATE projects SET " +
+            "file_count = (SELECT COUNT(*) FROM project_files WHERE project_id = #{projectId} AND deleted = 0), " +
+            "total_size = (SELECT COALESCE(SUM(file_size), 0) FROM project_files WHERE project_id = #{projectId} AND deleted = 0) " +
+            "WHERE id = #{projectId}")
+    int refreshFileStats(@Param("projectId") String projectId);
 }
@@ -1,9 +1,13 @@
 package com.chainlesschain.project.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chainlesschain.project.cache.EntityCache;
 import com.chainlesschain.project.entity.Role;
+import org.apache.ibatis.annotations.CacheNamespace;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Property;
 import org.apache.ibatis.annotations.Select;
 
 import java.util.List;
@@ -12,6 +16,10 @@ import java.util.List;
  * 角色Mapper
  */
 @Mapper
+@CacheNamespace(implementation = EntityCache.class, properties = {
+        @Property(name = "maxSize", value = "200"),
+        @Property(name = "ttlSeconds", value = "600")
+})
 public interface RoleMapper extends BaseMapper<Role> {
 
     /**
@@ -22,7 +30,10 @@ public interface RoleMapper extends BaseMapper<Role> {
 
     /**
      * 根据用户ID查询角色列表
+     *
+     * user_roles 不归本命名空间维护，写入时不会触发失效，因此该查询不走二级缓存
      */
+    @Options(useCache = false)
     @Select("SELECT r.* FROM roles r " +
             "INNER JOIN user_roles ur ON r.id = ur.role_id " +
             "WHERE ur.user_id = #{userId} AND r.deleted = 0")
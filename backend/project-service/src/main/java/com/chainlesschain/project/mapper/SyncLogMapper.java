@@ -3,10 +3,19 @@ package com.chainlesschain.project.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.chainlesschain.project.entity.SyncLog;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
 
 /**
  * 同步日志 Mapper
  */
 @Mapper
 public interface SyncLogMapper extends BaseMapper<SyncLog> {
+
+    /**
+     * 当前连接可见数据的时间水位（毫秒）：副本为最后回放事务的提交时间，主库为当前事务开始时间。
+     * 在此之前提交的行对随后的查询一定可见；副本启动后尚未回放任何事务时返回 null。
+     */
+    @Select("SELECT CAST(EXTRACT(EPOCH FROM CASE WHEN pg_is_in_recovery() THEN pg_last_xact_replay_timestamp() "
+            + "ELSE now() END) * 1000 AS BIGINT)")
+    Long selectVisibleUntilMillis();
 }
@@ -1,15 +1,23 @@
 package com.chainlesschain.project.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chainlesschain.project.cache.EntityCache;
 import com.chainlesschain.project.entity.User;
+import org.apache.ibatis.annotations.CacheNamespace;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Property;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 
 /**
  * 用户Mapper
  */
 @Mapper
+@CacheNamespace(implementation = EntityCache.class, properties = {
+        @Property(name = "maxSize", value = "2000"),
+        @Property(name = "ttlSeconds", value = "300")
+})
 public interface UserMapper extends BaseMapper<User> {
 
     /**
@@ -33,7 +41,7 @@ public interface UserMapper extends BaseMapper<User> {
     /**
      * 更新最后登录信息
      */
-    @Select("UPDATE users SET last_login_at = #{loginTime}, last_login_ip = #{loginIp} WHERE id = #{userId}")
+    @Update("UPDATE users SET last_login_at = #{loginTime}, last_login_ip = #{loginIp} WHERE id = #{userId}")
     void updateLastLogin(@Param("userId") String userId,
                         @Param("loginTime") String loginTime,
                         @Param("loginIp") String loginIp);
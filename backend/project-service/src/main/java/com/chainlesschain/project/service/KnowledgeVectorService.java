@@ -0,0 +1,347 @@
+package com.chainlesschain.project.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.chainlesschain.project.entity.KnowledgeItem;
+import com.chainlesschain.project.mapper.KnowledgeItemMapper;
+import com.chainlesschain.project.vector.EmbeddingProvider;
+import com.chainlesschain.project.vector.HnswIndex;
+import com.chainlesschain.project.vector.KnowledgeVectorProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 知识库本地语义检索服务
+ *
+ * 维护 KnowledgeItem 的本地 HNSW 向量索引：启动时加载快照并补录快照之后的变更（首次启动全量构建），
+ * 运行期由写路径在事务提交后增量更新，后台线程定期刷盘并在删除比例过高时整体重建。
+ * 索引按代目录存放（gen-时间戳），CURRENT 文件指向当前代，重建完成后原子切换。
+ */
+@Slf4j
+@Service
+public class KnowledgeVectorService implements InitializingBean, DisposableBean {
+
+    private static final String CURRENT_FILE = "CURRENT";
+    private static final String PROVIDER_FILE = "provider";
+    private static final int BATCH_SIZE = 500;
+    /** 补录时向前多取的时间，覆盖快照与数据库时钟的偏差 */
+    private static final long CATCH_UP_SLACK_MS = 60_000L;
+    private static final long RANDOM_SEED = 42L;
+
+    private final KnowledgeVectorProperties properties;
+    private final EmbeddingProvider embeddingProvider;
+    private final KnowledgeItemMapper knowledgeItemMapper;
+
+    private volatile HnswIndex index;
+    private volatile boolean ready;
+    private final AtomicLong pendingWrites = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private ScheduledExecutorService executor;
+
+    public KnowledgeVectorService(KnowledgeVectorProperties properties,
+                                  EmbeddingProvider embeddingProvider,
+                                  KnowledgeItemMapper knowledgeItemMapper) {
+        this.properties = properties;
+        this.embeddingProvider = embeddingProvider;
+        this.knowledgeItemMapper = knowledgeItemMapper;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "knowledge-vector-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 加载/构建可能较慢，放到后台线程，不阻塞应用启动；构建完成前语义检索返回空
+        executor.execute(this::bootstrap);
+        long interval = properties.getFlushIntervalMs();
+        executor.scheduleWithFixedDelay(this::maintain, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 索引是否可用
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 事务提交后更新索引（无事务时立即更新），避免回滚的数据进入索引
+     */
+    public void indexAfterCommit(KnowledgeItem item) {
+        if (!properties.isEnabled() || item == null || item.getId() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index(item);
+                }
+            });
+        } else {
+            index(item);
+        }
+    }
+
+    /**
+     * 写入或删除单个条目（deleted=1 视为删除）
+     */
+    public void index(KnowledgeItem item) {
+        HnswIndex current = index;
+        if (current == null) {
+            return;
+        }
+        try {
+            if (item.getDeleted() != null && item.getDeleted() == 1) {
+                current.remove(item.getId());
+            } else {
+                current.add(item.getId(), item.getUserId(), embeddingProvider.embed(textOf(item)));
+            }
+            pendingWrites.incrementAndGet();
+        } catch (Exception e) {
+            // 索引失败不影响写路径；下次重建/补录会修正
+            log.warn("知识库向量索引更新失败: id={}, error={}", item.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 语义检索
+     *
+     * @param text   查询文本
+     * @param k      返回条数
+     * @param scopes 允许的用户 id 集合；null 表示不限（仅 dev-mode 使用）
+     * @return 按相似度降序的命中；索引不可用时返回空列表
+     */
+    public List<HnswIndex.SearchHit> query(String text, int k, Collection<String> scopes) {
+        HnswIndex current = index;
+        if (!ready || current == null || !StringUtils.hasText(text)) {
+            return List.of();
+        }
+        return current.search(embeddingProvider.embed(text), k, properties.getEfSearch(), scopes);
+    }
+
+    String textOf(KnowledgeItem item) {
+        String title = item.getTitle() == null ? "" : item.getTitle();
+        String content = item.getContent() == null ? "" : item.getContent();
+        String text = title + "\n" + content;
+        return text.length() > properties.getMaxTextLength() ? text.substring(0, properties.getMaxTextLength()) : text;
+    }
+
+    // ==================== 生命周期 ====================
+
+    private void bootstrap() {
+        Path root = Paths.get(properties.getPath());
+        try {
+            Path current = currentGeneration(root);
+            if (current != null && providerMatches(current)) {
+                try {
+                    HnswIndex loaded = openIndex(current);
+                    index = loaded;
+                    long since = loaded.getCheckpointMillis() - CATCH_UP_SLACK_MS;
+                    int caughtUp = indexFromDatabase(loaded, loaded.getCheckpointMillis() == 0 ? null : since);
+                    int removed = loaded.getCheckpointMillis() == 0 ? 0 : removeDeletedFromDatabase(loaded, since);
+                    ready = true;
+                    log.info("知识库向量索引已加载: size={}, 补录={}, 补删={}", loaded.size(), caughtUp, removed);
+                    return;
+                } catch (IllegalStateException e) {
+                    log.warn("知识库向量索引快照不可用，重建: {}", e.getMessage());
+                }
+            }
+            rebuild(root);
+        } catch (Exception e) {
+            log.error("知识库向量索引初始化失败，语义检索不可用: {}", e.getMessage(), e);
+        }
+    }
+
+    private void maintain() {
+        HnswIndex current = index;
+        if (!ready || current == null) {
+            return;
+        }
+        try {
+            if (current.deletedRatio() > properties.getCompactDeletedRatio()) {
+                rebuild(Paths.get(properties.getPath()));
+            } else if (pendingWrites.getAndSet(0) > 0) {
+                current.save();
+            }
+        } catch (Exception e) {
+            log.warn("知识库向量索引维护失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 在新一代目录中全量构建，完成后切换并清理旧目录
+     */
+    void rebuild(Path root) throws IOException {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long startedAt = System.currentTimeMillis();
+            Path generation = root.resolve("gen-" + startedAt);
+            Files.createDirectories(generation);
+            Files.writeString(generation.resolve(PROVIDER_FILE), providerTag(), StandardCharsets.UTF_8);
+            HnswIndex fresh = openIndex(generation);
+            int total = indexFromDatabase(fresh, null);
+            // 构建期间旧索引上的增量写入与删除按时间补录到新索引
+            indexFromDatabase(fresh, startedAt - CATCH_UP_SLACK_MS);
+            removeDeletedFromDatabase(fresh, startedAt - CATCH_UP_SLACK_MS);
+            fresh.save();
+
+            Path tmp = root.resolve(CURRENT_FILE + ".tmp");
+            Files.writeString(tmp, generation.getFileName().toString(), StandardCharsets.UTF_8);
+            Files.move(tmp, root.resolve(CURRENT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            HnswIndex previous = index;
+            index = fresh;
+            ready = true;
+            pendingWrites.set(0);
+            if (previous != null) {
+                previous.close();
+            }
+            deleteStaleGenerations(root, generation);
+            log.info("知识库向量索引重建完成: size={}, 耗时={}ms", total, System.currentTimeMillis() - startedAt);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * 按 id 键集分页从数据库读取条目写入索引
+     *
+     * @param sinceMillis 仅处理该时间之后更新的条目；null 表示全量
+     */
+    private int indexFromDatabase(HnswIndex target, Long sinceMillis) throws IOException {
+        LocalDateTime since = sinceMillis == null ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(sinceMillis), ZoneId.systemDefault());
+        String lastId = null;
+        int count = 0;
+        while (true) {
+            LambdaQueryWrapper<KnowledgeItem> wrapper = new LambdaQueryWrapper<>();
+            wrapper.select(KnowledgeItem::getId, KnowledgeItem::getTitle, KnowledgeItem::getContent,
+                            KnowledgeItem::getUserId)
+                    .ge(since != null, KnowledgeItem::getUpdatedAt, since)
+                    .gt(lastId != null, KnowledgeItem::getId, lastId)
+                    .orderByAsc(KnowledgeItem::getId)
+                    .last("LIMIT " + BATCH_SIZE);
+            List<KnowledgeItem> batch = knowledgeItemMapper.selectList(wrapper);
+            for (KnowledgeItem item : batch) {
+                target.add(item.getId(), item.getUserId(), embeddingProvider.embed(textOf(item)));
+            }
+            count += batch.size();
+            if (batch.size() < BATCH_SIZE) {
+                return count;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+    }
+
+    /**
+     * 移除指定时间之后被软删除的条目：索引停机或重建期间的删除不会经过写路径，
+     * 而 {@link #indexFromDatabase} 只能看到仍存在的行
+     *
+     * @return 实际从索引中移除的条目数
+     */
+    private int removeDeletedFromDatabase(HnswIndex target, long sinceMillis) {
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(sinceMillis), ZoneId.systemDefault());
+        String lastId = null;
+        int removed = 0;
+        while (true) {
+            List<String> ids = knowledgeItemMapper.selectDeletedIdsSince(since, lastId, BATCH_SIZE);
+            for (String id : ids) {
+                if (target.remove(id)) {
+                    removed++;
+                }
+            }
+            if (ids.size() < BATCH_SIZE) {
+                return removed;
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private HnswIndex openIndex(Path generation) throws IOException {
+        return HnswIndex.open(generation, embeddingProvider.dimension(), properties.getM(),
+                properties.getEfConstruction(), RANDOM_SEED);
+    }
+
+    private String providerTag() {
+        return embeddingProvider.name() + ":" + embeddingProvider.dimension();
+    }
+
+    private boolean providerMatches(Path generation) throws IOException {
+        Path file = generation.resolve(PROVIDER_FILE);
+        return Files.exists(file) && providerTag().equals(Files.readString(file, StandardCharsets.UTF_8).trim());
+    }
+
+    private static Path currentGeneration(Path root) throws IOException {
+        Path pointer = root.resolve(CURRENT_FILE);
+        if (!Files.exists(pointer)) {
+            return null;
+        }
+        Path generation = root.resolve(Files.readString(pointer, StandardCharsets.UTF_8).trim());
+        return Files.isDirectory(generation) ? generation : null;
+    }
+
+    private static void deleteStaleGenerations(Path root, Path keep) {
+        try (var entries = Files.list(root)) {
+            entries.filter(p -> Files.isDirectory(p) && p.getFileName().toString().startsWith("gen-") && !p.equals(keep))
+                    .forEach(p -> {
+                        try {
+                            FileSystemUtils.deleteRecursively(p);
+                        } catch (IOException e) {
+                            log.warn("清理旧向量索引目录失败: {}", p);
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("列出向量索引目录失败: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        HnswIndex current = index;
+        if (current == null) {
+            return;
+        }
+        try {
+            if (ready && pendingWrites.get() > 0) {
+                current.save();
+            }
+            current.close();
+        } catch (IOException e) {
+            log.warn("关闭知识库向量索引失败: {}", e.getMessage());
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.chainlesschain.project.service;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.IdWorker;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.chainlesschain.project.cache.ProjectSnapshot;
+import com.chainlesschain.project.cache.ProjectSnapshotCache;
+import com.chainlesschain.project.dto.FileBatchCreateResponse;
 import com.chainlesschain.project.dto.FileCreateRequest;
 import com.chainlesschain.project.dto.FileUpdateRequest;
 import com.chainlesschain.project.dto.ProjectFileDTO;
@@ -17,14 +20,20 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * 项目文件服务
@@ -34,16 +43,28 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProjectFileService {
 
+    /** 单条多行 INSERT 的最大行数（PostgreSQL 单语句绑定参数上限 65535） */
+    private static final int BULK_INSERT_CHUNK = 500;
+    /** 批量创建时文件数达到该值才并行解码与哈希 */
+    private static final int PARALLEL_HASH_THRESHOLD = 64;
+
     private final ProjectFileMapper projectFileMapper;
     private final ProjectMapper projectMapper;
     private final FileVersionMapper fileVersionMapper;
 
+    @Autowired(required = false)
+    private ProjectSnapshotCache snapshotCache;
+
     /**
      * 获取项目文件列表
      */
     public Page<ProjectFileDTO> listFiles(String projectId, String fileType, int pageNum, int pageSize) {
         log.info("获取项目文件列表: projectId={}, fileType={}, page={}/{}", projectId, fileType, pageNum, pageSize);
 
+        if (snapshotCache != null) {
+            return listFilesFromSnapshot(snapshotCache.get(projectId), fileType, pageNum, pageSize);
+        }
+
         LambdaQueryWrapper<ProjectFile> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(ProjectFile::getProjectId, projectId);
 
@@ -66,6 +87,25 @@ public class ProjectFileService {
         return dtoPage;
     }
 
+    /**
+     * 基于项目快照过滤、分页（顺序与数据库查询一致：updatedAt 倒序）
+     */
+    private Page<ProjectFileDTO> listFilesFromSnapshot(ProjectSnapshot snapshot, String fileType, int pageNum, int pageSize) {
+        boolean filterType = fileType != null && !fileType.trim().isEmpty();
+        List<ProjectSnapshot.FileEntry> matched = snapshot.getFiles().stream()
+                .filter(entry -> !filterType || fileType.equals(entry.fileType()))
+                .collect(Collectors.toList());
+
+        Page<ProjectFileDTO> dtoPage = new Page<>(pageNum, pageSize);
+        dtoPage.setTotal(matched.size());
+        int from = (int) Math.min((long) Math.max(pageNum - 1, 0) * pageSize, matched.size());
+        int to = (int) Math.min((long) from + pageSize, matched.size());
+        dtoPage.setRecords(matched.subList(from, to).stream()
+                .map(entry -> toDTO(snapshot.getProjectId(), entry))
+                .collect(Collectors.toList()));
+        return dtoPage;
+    }
+
     /**
      * 获取单个文件详情（包含内容）
      */
@@ -118,6 +158,7 @@ public class ProjectFileService {
                 : request.getContent().getBytes(StandardCharsets.UTF_8).length;
             file.setFileSize(fileSize);
         }
+        file.setContentHash(calculateContentHash(request.getContent()));
 
         projectFileMapper.insert(file);
 
@@ -126,6 +167,9 @@ public class ProjectFileService {
 
         // 更新项目统计
         updateProjectStats(projectId);
+        if (snapshotCache != null) {
+            snapshotCache.fileChanged(file);
+        }
 
         log.info("文件创建成功: fileId={}", file.getId());
         return toDTO(file);
@@ -133,23 +177,145 @@ public class ProjectFileService {
 
     /**
      * 批量创建文件
+     *
+     * 先整体校验，校验失败的条目跳过并在结果中报告；其余条目在一个事务内以多行 INSERT 写入文件与初始版本，
+     * 内容解码与哈希在文件较多时按 CPU 核数并行，最后只做一次项目统计。
      */
     @Transactional
-    public List<ProjectFileDTO> batchCreateFiles(String projectId, List<FileCreateRequest> files) {
+    public FileBatchCreateResponse batchCreateFiles(String projectId, List<FileCreateRequest> files) {
         log.info("批量创建文件: projectId={}, count={}", projectId, files.size());
 
-        List<ProjectFileDTO> result = new ArrayList<>();
-        for (FileCreateRequest request : files) {
+        Project project = projectMapper.selectById(projectId);
+        if (project == null) {
+            throw new RuntimeException("项目不存在: " + projectId);
+        }
+
+        FileBatchCreateResponse response = new FileBatchCreateResponse();
+        response.setTotal(files.size());
+
+        // 1. 字段与批内路径重复校验
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        Set<String> seenPaths = new HashSet<>();
+        for (int i = 0; i < files.size(); i++) {
+            FileCreateRequest request = files.get(i);
+            String reason = validateBatchRequest(request, seenPaths);
+            if (reason != null) {
+                response.getFailed().add(new FileBatchCreateResponse.Failure(
+                        i, request != null ? request.getFilePath() : null, reason));
+            } else {
+                acceptedIndexes.add(i);
+            }
+        }
+
+        // 2. 构建实体（Base64 解码、大小与哈希计算）
+        LocalDateTime now = LocalDateTime.now();
+        int accepted = acceptedIndexes.size();
+        ProjectFile[] built = new ProjectFile[accepted];
+        String[] errors = new String[accepted];
+        IntStream range = IntStream.range(0, accepted);
+        if (accepted >= PARALLEL_HASH_THRESHOLD) {
+            range = range.parallel();
+        }
+        range.forEach(i -> {
             try {
-                ProjectFileDTO dto = createFile(projectId, request);
-                result.add(dto);
-            } catch (Exception e) {
-                log.error("创建文件失败: {}", request.getFilePath(), e);
-                // 继续处理其他文件
+                built[i] = buildBatchFile(projectId, files.get(acceptedIndexes.get(i)), now);
+            } catch (IllegalArgumentException e) {
+                errors[i] = "Base64 内容无法解码";
             }
+        });
+
+        List<ProjectFile> toInsert = new ArrayList<>(accepted);
+        List<FileVersion> versions = new ArrayList<>(accepted);
+        for (int i = 0; i < accepted; i++) {
+            if (errors[i] != null) {
+                int index = acceptedIndexes.get(i);
+                response.getFailed().add(new FileBatchCreateResponse.Failure(index, files.get(index).getFilePath(), errors[i]));
+                continue;
+            }
+            toInsert.add(built[i]);
+            versions.add(buildInitialVersion(built[i], now));
         }
+        response.getFailed().sort(Comparator.comparingInt(FileBatchCreateResponse.Failure::getIndex));
 
-        return result;
+        if (toInsert.isEmpty()) {
+            return response;
+        }
+
+        // 3. 多行写入，单条语句行数受限于绑定参数上限
+        for (int from = 0; from < toInsert.size(); from += BULK_INSERT_CHUNK) {
+            projectFileMapper.insertBatch(toInsert.subList(from, Math.min(from + BULK_INSERT_CHUNK, toInsert.size())));
+        }
+        for (int from = 0; from < versions.size(); from += BULK_INSERT_CHUNK) {
+            fileVersionMapper.insertBatch(versions.subList(from, Math.min(from + BULK_INSERT_CHUNK, versions.size())));
+        }
+
+        // 4. 一次统计；快照整体失效
+        projectMapper.refreshFileStats(projectId);
+        if (snapshotCache != null) {
+            snapshotCache.evict(projectId);
+        }
+
+        response.setCreated(toInsert.stream().map(this::toDTO).collect(Collectors.toList()));
+        log.info("批量创建文件完成: projectId={}, created={}, failed={}",
+                projectId, toInsert.size(), response.getFailed().size());
+        return response;
+    }
+
+    private String validateBatchRequest(FileCreateRequest request, Set<String> seenPaths) {
+        if (request == null) {
+            return "请求为空";
+        }
+        if (request.getFilePath() == null || request.getFilePath().isBlank()) {
+            return "文件路径不能为空";
+        }
+        if (request.getFileName() == null || request.getFileName().isBlank()) {
+            return "文件名不能为空";
+        }
+        if (request.getFileType() == null || request.getFileType().isBlank()) {
+            return "文件类型不能为空";
+        }
+        if (!seenPaths.add(request.getFilePath())) {
+            return "批内文件路径重复";
+        }
+        return null;
+    }
+
+    private ProjectFile buildBatchFile(String projectId, FileCreateRequest request, LocalDateTime now) {
+        ProjectFile file = new ProjectFile();
+        file.setId(IdWorker.get32UUID());
+        file.setProjectId(projectId);
+        file.setFilePath(request.getFilePath());
+        file.setFileName(request.getFileName());
+        file.setFileType(request.getFileType());
+        file.setLanguage(request.getLanguage());
+        file.setContent(request.getContent());
+        file.setGeneratedBy(request.getGeneratedBy() != null ? request.getGeneratedBy() : "user");
+        file.setVersion(1);
+        file.setCreatedAt(now);
+        file.setUpdatedAt(now);
+        if (request.getContent() != null) {
+            long fileSize = Boolean.TRUE.equals(request.getIsBase64())
+                ? Base64.getDecoder().decode(request.getContent()).length
+                : request.getContent().getBytes(StandardCharsets.UTF_8).length;
+            file.setFileSize(fileSize);
+        }
+        file.setContentHash(calculateContentHash(request.getContent()));
+        return file;
+    }
+
+    private FileVersion buildInitialVersion(ProjectFile file, LocalDateTime now) {
+        FileVersion version = new FileVersion();
+        version.setId(IdWorker.get32UUID());
+        version.setFileId(file.getId());
+        version.setProjectId(file.getProjectId());
+        version.setVersion(file.getVersion());
+        version.setContent(file.getContent());
+        version.setContentHash(file.getContentHash());
+        version.setFileSize(file.getFileSize());
+        version.setCreatedBy(file.getGeneratedBy());
+        version.setMessage("Initial version");
+        version.setCreatedAt(now);
+        return version;
     }
 
     /**
@@ -178,6 +344,7 @@ public class ProjectFileService {
                 ? Base64.getDecoder().decode(request.getContent()).length
                 : request.getContent().getBytes(StandardCharsets.UTF_8).length;
             file.setFileSize(fileSize);
+            file.setContentHash(calculateContentHash(request.getContent()));
         }
 
         // 版本号递增（version 列 schema 可空：V002 DEFAULT 1、无 NOT NULL，拆箱前兜底防 NPE）
@@ -193,6 +360,9 @@ public class ProjectFileService {
 
         // 更新项目统计
         updateProjectStats(projectId);
+        if (snapshotCache != null) {
+            snapshotCache.fileChanged(file);
+        }
 
         log.info("文件更新成功: fileId={}, newVersion={}", fileId, file.getVersion());
         return toDTO(file);
@@ -218,6 +388,9 @@ public class ProjectFileService {
 
         // 更新项目统计
         updateProjectStats(projectId);
+        if (snapshotCache != null) {
+            snapshotCache.fileDeleted(projectId, fileId);
+        }
 
         log.info("文件删除成功: fileId={}", fileId);
     }
@@ -295,6 +468,7 @@ public class ProjectFileService {
      * 获取文件版本历史
      * 从 file_versions 表查询完整的版本历史记录
      */
+    @Transactional(readOnly = true)
     public List<ProjectFileDTO> getFileVersions(String projectId, String fileId, int limit) {
         log.info("获取文件版本历史: projectId={}, fileId={}, limit={}", projectId, fileId, limit);
 
@@ -376,6 +550,9 @@ public class ProjectFileService {
 
         // 保存恢复操作作为新版本
         saveFileVersion(file, "user", "Restored from version " + targetVersion.getVersion());
+        if (snapshotCache != null) {
+            snapshotCache.fileChanged(file);
+        }
 
         log.info("文件版本恢复成功: fileId={}, restoredFromVersion={}, newVersion={}",
                 fileId, targetVersion.getVersion(), file.getVersion());
@@ -438,4 +615,21 @@ public class ProjectFileService {
         // content需要显式设置，默认不返回
         return dto;
     }
+
+    private ProjectFileDTO toDTO(String projectId, ProjectSnapshot.FileEntry entry) {
+        ProjectFileDTO dto = new ProjectFileDTO();
+        dto.setId(entry.id());
+        dto.setProjectId(projectId);
+        dto.setFilePath(entry.filePath());
+        dto.setFileName(entry.fileName());
+        dto.setFileType(entry.fileType());
+        dto.setLanguage(entry.language());
+        dto.setFileSize(entry.fileSize());
+        dto.setVersion(entry.version());
+        dto.setCommitHash(entry.commitHash());
+        dto.setGeneratedBy(entry.generatedBy());
+        dto.setCreatedAt(entry.createdAt());
+        dto.setUpdatedAt(entry.updatedAt());
+        return dto;
+    }
 }
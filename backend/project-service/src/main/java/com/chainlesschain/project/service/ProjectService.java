@@ -3,9 +3,12 @@ package com.chainlesschain.project.service;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.toolkit.IdWorker;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.chainlesschain.project.cache.ProjectSnapshot;
+import com.chainlesschain.project.cache.ProjectSnapshotCache;
 import com.chainlesschain.project.client.AiServiceClient;
 import com.chainlesschain.project.dto.ProjectCreateRequest;
 import com.chainlesschain.project.dto.ProjectResponse;
+import com.chainlesschain.project.dto.ProjectTreeNode;
 import com.chainlesschain.project.dto.TaskExecuteRequest;
 import com.chainlesschain.project.entity.*;
 import com.chainlesschain.project.mapper.*;
@@ -14,6 +17,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,6 +45,9 @@ public class ProjectService {
     private final AiServiceClient aiServiceClient;
     private final ObjectMapper objectMapper;
 
+    @Autowired(required = false)
+    private ProjectSnapshotCache snapshotCache;
+
     @Value("${project.storage.root-path:/data/projects}")
     private String projectsRootPath;
 
@@ -207,6 +214,14 @@ public class ProjectService {
             throw new RuntimeException("项目不存在");
         }
 
+        if (snapshotCache != null) {
+            ProjectResponse response = buildProjectResponse(project, null);
+            response.setFiles(snapshotCache.get(projectId).getFiles().stream()
+                    .map(this::toFileInfo)
+                    .collect(Collectors.toList()));
+            return response;
+        }
+
         List<ProjectFile> files = projectFileMapper.selectList(
                 new LambdaQueryWrapper<ProjectFile>()
                         .eq(ProjectFile::getProjectId, projectId)
@@ -216,9 +231,38 @@ public class ProjectService {
         return buildProjectResponse(project, files);
     }
 
+    /**
+     * 获取项目详情的 ETag（项目元数据 + 文件树快照），未启用快照缓存时返回 null
+     */
+    public String getProjectEtag(String projectId) {
+        if (snapshotCache == null) {
+            return null;
+        }
+        Project project = projectMapper.selectById(projectId);
+        if (project == null) {
+            throw new RuntimeException("项目不存在");
+        }
+        return snapshotCache.get(projectId).etag(project);
+    }
+
+    /**
+     * 获取项目文件树（不含文件内容）
+     */
+    public ProjectTreeNode getProjectTree(String projectId) {
+        if (snapshotCache != null) {
+            return snapshotCache.get(projectId).tree();
+        }
+        List<ProjectFile> files = projectFileMapper.selectList(
+                new LambdaQueryWrapper<ProjectFile>()
+                        .eq(ProjectFile::getProjectId, projectId)
+        );
+        return ProjectSnapshot.of(projectId, files.stream().map(ProjectSnapshot.FileEntry::from).toList()).tree();
+    }
+
     /**
      * 获取项目列表
      */
+    @Transactional(readOnly = true)
     public Page<ProjectResponse> listProjects(String userId, int pageNum, int pageSize) {
         Page<Project> page = new Page<>(pageNum, pageSize);
         Page<Project> projectPage = projectMapper.selectPage(page,
@@ -287,6 +331,9 @@ public class ProjectService {
 
         // 删除项目记录
         projectMapper.deleteById(projectId);
+        if (snapshotCache != null) {
+            snapshotCache.evict(projectId);
+        }
 
         log.info("项目已删除: {}", projectId);
     }
@@ -403,22 +450,25 @@ public class ProjectService {
         // 添加文件列表
         if (files != null) {
             response.setFiles(files.stream()
-                    .map(file -> {
-                        ProjectResponse.FileInfo fileInfo = new ProjectResponse.FileInfo();
-                        fileInfo.setId(file.getId());
-                        fileInfo.setFileName(file.getFileName());
-                        fileInfo.setFilePath(file.getFilePath());
-                        fileInfo.setFileType(file.getFileType());
-                        fileInfo.setFileSize(file.getFileSize());
-                        fileInfo.setUpdatedAt(file.getUpdatedAt());
-                        return fileInfo;
-                    })
+                    .map(file -> toFileInfo(ProjectSnapshot.FileEntry.from(file)))
                     .collect(Collectors.toList()));
         }
 
         return response;
     }
 
+    private ProjectResponse.FileInfo toFileInfo(ProjectSnapshot.FileEntry file) {
+        ProjectResponse.FileInfo fileInfo = new ProjectResponse.FileInfo();
+        fileInfo.setId(file.id());
+        fileInfo.setFileName(file.fileName());
+        fileInfo.setFilePath(file.filePath());
+        fileInfo.setFileType(file.fileType());
+        fileInfo.setFileSize(file.fileSize());
+        fileInfo.setContentHash(file.contentHash());
+        fileInfo.setUpdatedAt(file.updatedAt());
+        return fileInfo;
+    }
+
     /**
      * 导出项目
      */
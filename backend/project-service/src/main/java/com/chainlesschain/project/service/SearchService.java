@@ -15,16 +15,20 @@ import com.chainlesschain.project.mapper.KnowledgeItemMapper;
 import com.chainlesschain.project.mapper.ProjectCommentMapper;
 import com.chainlesschain.project.mapper.ProjectFileMapper;
 import com.chainlesschain.project.security.ProjectAccessGuard;
+import com.chainlesschain.project.vector.HnswIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -56,6 +60,9 @@ public class SearchService {
     @Autowired(required = false)
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired(required = false)
+    private KnowledgeVectorService knowledgeVectorService;
+
     private static final String SEARCH_CACHE_PREFIX = "search:";
     private static final long CACHE_EXPIRATION = 300; // 5分钟
     private static final int MAX_SNIPPET_LENGTH = 200;
@@ -97,6 +104,7 @@ public class SearchService {
     /**
      * 执行搜索（按调用方身份强制限定范围）。
      */
+    @Transactional(readOnly = true)
     public SearchResponse search(SearchRequest request, Authentication authentication) {
         long startTime = System.currentTimeMillis();
         Scope scope = resolveScope(authentication);
@@ -275,27 +283,85 @@ public class SearchService {
                 .last("LIMIT " + MAX_RESULTS_PER_TYPE);
 
         List<KnowledgeItem> items = knowledgeItemMapper.selectList(wrapper);
+        Set<String> matchedIds = new HashSet<>();
         for (KnowledgeItem item : items) {
-            SearchResult result = new SearchResult();
-            result.setId(item.getId());
-            result.setType("post");
-            result.setTitle(item.getTitle());
-            String snippet = StringUtils.hasText(item.getContent())
-                    ? truncate(item.getContent(), MAX_SNIPPET_LENGTH)
-                    : item.getTitle();
-            result.setSnippet(snippet);
-            result.setHighlight(highlightKeyword(snippet, keyword));
             // 标题匹配权重更高
             boolean titleMatch = item.getTitle() != null && item.getTitle().toLowerCase().contains((keyword == null ? "" : keyword.toLowerCase()));
-            result.setScore(titleMatch ? 0.88 : 0.72);
-            result.setCreatedAt(formatDateTime(item.getCreatedAt()));
-            result.setAuthor(item.getUserId());
-            results.add(result);
+            results.add(toPostResult(item, keyword, titleMatch ? 0.88 : 0.72));
+            matchedIds.add(item.getId());
+        }
+
+        // 补充语义相近但未命中关键词的条目（本地向量索引未启用时为空）
+        for (SearchResult semantic : semanticPostResults(keyword, semanticScopes(request, scope), MAX_RESULTS_PER_TYPE)) {
+            if (matchedIds.add(semantic.getId())) {
+                results.add(semantic);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * 语义检索知识库条目（本地向量索引，按调用方身份限定范围）
+     */
+    @Transactional(readOnly = true)
+    public List<SearchResult> semanticSearch(String query, int limit, Authentication authentication) {
+        Scope scope = resolveScope(authentication);
+        int k = Math.min(Math.max(1, limit), MAX_RESULTS_PER_TYPE);
+        return semanticPostResults(query, semanticScopes(null, scope), k);
+    }
+
+    /**
+     * 语义检索的用户范围：认证调用方强制为其身份集合；dev-mode 退回客户端可选过滤
+     */
+    private Set<String> semanticScopes(SearchRequest request, Scope scope) {
+        if (scope.enforce) {
+            return scope.identities;
         }
+        return request != null && StringUtils.hasText(request.getUserId()) ? Set.of(request.getUserId()) : null;
+    }
 
+    private List<SearchResult> semanticPostResults(String query, Set<String> userIds, int k) {
+        if (knowledgeVectorService == null || !knowledgeVectorService.isReady() || !StringUtils.hasText(query)) {
+            return new ArrayList<>();
+        }
+        List<HnswIndex.SearchHit> hits = knowledgeVectorService.query(query, k, userIds);
+        if (hits.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // 以数据库为准回填（过滤已删除条目，并再次校验归属，索引仅作候选召回）
+        Map<String, KnowledgeItem> items = knowledgeItemMapper.selectBatchIds(
+                        hits.stream().map(HnswIndex.SearchHit::id).collect(Collectors.toList()))
+                .stream()
+                .filter(item -> userIds == null || userIds.contains(item.getUserId()))
+                .collect(Collectors.toMap(KnowledgeItem::getId, item -> item, (a, b) -> a));
+        List<SearchResult> results = new ArrayList<>();
+        for (HnswIndex.SearchHit hit : hits) {
+            KnowledgeItem item = items.get(hit.id());
+            if (item != null && hit.score() > 0) {
+                // 语义命中得分映射到 (0.5, 0.85]，排在关键词标题命中之后
+                results.add(toPostResult(item, query, 0.5 + 0.35 * hit.score()));
+            }
+        }
         return results;
     }
 
+    private SearchResult toPostResult(KnowledgeItem item, String keyword, double score) {
+        SearchResult result = new SearchResult();
+        result.setId(item.getId());
+        result.setType("post");
+        result.setTitle(item.getTitle());
+        String snippet = StringUtils.hasText(item.getContent())
+                ? truncate(item.getContent(), MAX_SNIPPET_LENGTH)
+                : item.getTitle();
+        result.setSnippet(snippet);
+        result.setHighlight(highlightKeyword(snippet, keyword));
+        result.setScore(score);
+        result.setCreatedAt(formatDateTime(item.getCreatedAt()));
+        result.setAuthor(item.getUserId());
+        return result;
+    }
+
     /**
      * 搜索项目评论（调用方作者发表的 或 调用方可访问项目内的评论）
      */
@@ -429,6 +495,7 @@ public class SearchService {
     /**
      * 获取搜索建议（供Controller调用，按调用方身份限定）
      */
+    @Transactional(readOnly = true)
     public List<String> getSuggestions(String keyword, Authentication authentication) {
         return generateSuggestions(keyword, resolveScope(authentication));
     }
@@ -2,15 +2,20 @@ package com.chainlesschain.project.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.chainlesschain.project.cache.ProjectSnapshotCache;
+import com.chainlesschain.project.datasource.DataSourceRoutingContext;
+import com.chainlesschain.project.datasource.ReadYourWritesTracker;
 import com.chainlesschain.project.dto.ConflictResolutionDTO;
 import com.chainlesschain.project.dto.SyncRequestDTO;
 import com.chainlesschain.project.dto.SyncResponseDTO;
 import com.chainlesschain.project.entity.*;
 import com.chainlesschain.project.mapper.*;
 import com.chainlesschain.project.security.ProjectAccessGuard;
+import com.chainlesschain.project.service.KnowledgeVectorService;
 import com.chainlesschain.project.service.SyncService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -67,6 +72,21 @@ public class SyncServiceImpl implements SyncService {
     @Autowired(required = false)
     private RedisTemplate<String, Object> redisTemplate;
 
+    @Autowired(required = false)
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired(required = false)
+    private KnowledgeVectorService knowledgeVectorService;
+
+    @Autowired(required = false)
+    private ProjectSnapshotCache projectSnapshotCache;
+
+    /**
+     * 增量下载游标的安全边际（毫秒），覆盖长事务与应用/数据库时钟偏差
+     */
+    @Value("${sync.watermark-safety-margin-ms:5000}")
+    private long watermarkSafetyMarginMs;
+
     private final TransactionTemplate requiresNewTransactionTemplate;
 
     // 构造函数，创建独立事务的 TransactionTemplate
@@ -159,6 +179,11 @@ public class SyncServiceImpl implements SyncService {
             }
         }
 
+        // 读己之写：本次有写入时，调用方随后的增量下载在窗口期内固定走主库
+        if (successCount > 0 && readYourWritesTracker != null) {
+            readYourWritesTracker.markWrite(readYourWritesKey(authentication, request.getDeviceId()));
+        }
+
         long executionTime = System.currentTimeMillis() - startTime;
         log.info("[SyncService] 批量上传完成: success={}, failed={}, conflict={}, denied={}, time={}ms",
             successCount, failedCount, conflictCount, deniedCount, executionTime);
@@ -245,6 +270,7 @@ public class SyncServiceImpl implements SyncService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public SyncResponseDTO downloadIncremental(String tableName, Long lastSyncedAt, String deviceId,
                                                Authentication authentication) {
         long startTime = System.currentTimeMillis();
@@ -267,8 +293,16 @@ public class SyncServiceImpl implements SyncService {
         long lastSyncedMillis = lastSyncedAt == null ? 0L : lastSyncedAt;
 
         try {
-            // 根据表名查询增量数据
-            List<Map<String, Object>> records = queryIncrementalData(tableName, lastSyncTime, deviceId, authentication);
+            // 根据表名查询增量数据（只读事务走副本；调用方刚上传过则回主库，保证读己之写）
+            boolean readPrimary = readYourWritesTracker != null
+                && readYourWritesTracker.requiresPrimary(readYourWritesKey(authentication, deviceId));
+            IncrementalRead read = readPrimary
+                ? DataSourceRoutingContext.onPrimary(
+                    () -> readIncremental(tableName, lastSyncTime, deviceId, authentication))
+                : readIncremental(tableName, lastSyncTime, deviceId, authentication);
+            List<Map<String, Object>> records = read.records();
+            String cursorField = cursorColumn(tableName).equals("created_at") ? "createdAt" : "updatedAt";
+            long maxCursorMillis = lastSyncedMillis;
 
             for (Map<String, Object> record : records) {
                 Integer deleted = (Integer) record.get("deleted");
@@ -281,6 +315,7 @@ public class SyncServiceImpl implements SyncService {
 
                 record.put("createdAt", createdAtMillis != null ? createdAtMillis : 0L);
                 record.put("updatedAt", updatedAtMillis != null ? updatedAtMillis : 0L);
+                maxCursorMillis = Math.max(maxCursorMillis, (Long) record.get(cursorField));
 
                 if (deleted != null && deleted == 1) {
                     // 已删除的记录
@@ -297,7 +332,8 @@ public class SyncServiceImpl implements SyncService {
                 }
             }
 
-            response.setServerTimestamp(System.currentTimeMillis());
+            response.setServerTimestamp(
+                syncWatermark(lastSyncedMillis, read.visibleUntilMillis(), maxCursorMillis));
             stats.setExecutionTimeMs(System.currentTimeMillis() - startTime);
             response.setStats(stats);
 
@@ -361,6 +397,9 @@ public class SyncServiceImpl implements SyncService {
                     }
                 }
                 processRecordInTransaction(resolution.getTableName(), resolution.getMergedData(), resolution.getDeviceId());
+                if (readYourWritesTracker != null) {
+                    readYourWritesTracker.markWrite(readYourWritesKey(authentication, resolution.getDeviceId()));
+                }
             }
 
             // 记录冲突解决日志（独立事务）
@@ -379,6 +418,16 @@ public class SyncServiceImpl implements SyncService {
 
     // ==================== 私有辅助方法 ====================
 
+    /**
+     * 读己之写跟踪键：已认证调用方按用户（同一用户的多设备共享），否则按设备
+     */
+    private String readYourWritesKey(Authentication authentication, String deviceId) {
+        if (accessGuard != null && accessGuard.isCallerAuthenticated(authentication)) {
+            return "u:" + authentication.getName();
+        }
+        return deviceId != null ? "d:" + deviceId : null;
+    }
+
     /**
      * 插入或更新记录
      *
@@ -412,6 +461,46 @@ public class SyncServiceImpl implements SyncService {
         }
     }
 
+    /**
+     * 一次增量读取：数据行与读取前的可见性水位（同一连接上获取）
+     */
+    private record IncrementalRead(List<Map<String, Object>> records, Long visibleUntilMillis) {
+    }
+
+    /**
+     * 先取可见性水位再查数据，两者走同一路由（副本或主库）
+     */
+    private IncrementalRead readIncremental(String tableName, LocalDateTime lastSyncTime,
+                                            String deviceId, Authentication authentication) {
+        Long visibleUntil = syncLogMapper.selectVisibleUntilMillis();
+        return new IncrementalRead(queryIncrementalData(tableName, lastSyncTime, deviceId, authentication),
+            visibleUntil);
+    }
+
+    /**
+     * 下一次增量下载的游标（serverTimestamp）。
+     *
+     * <p>不能用应用服务器时钟：只读事务可能路由到有复制延迟的副本，延迟窗口内在主库提交的行
+     * 时间戳早于此刻，客户端下次以此为游标将永远错过它们。这里以本次读取所在数据库的可见性
+     * 水位为准（副本回放到的提交时间 / 主库事务开始时间），减去安全边际以覆盖长事务与时钟
+     * 偏差；取不到水位时退回本次结果中游标列的最大值减安全边际。游标不会倒退，边际窗口内
+     * 的行可能被重复下发，客户端按 id 幂等覆盖。
+     */
+    private long syncWatermark(long lastSyncedMillis, Long visibleUntilMillis, long maxCursorMillis) {
+        long watermark = visibleUntilMillis != null && visibleUntilMillis > 0
+            ? visibleUntilMillis - watermarkSafetyMarginMs
+            : maxCursorMillis - watermarkSafetyMarginMs;
+        return Math.max(lastSyncedMillis, watermark);
+    }
+
+    /**
+     * 增量查询的游标列
+     */
+    private static String cursorColumn(String tableName) {
+        return "project_conversations".equals(tableName) || "messages".equals(tableName)
+            ? "created_at" : "updated_at";
+    }
+
     /**
      * 查询增量数据
      */
@@ -718,6 +807,10 @@ public class SyncServiceImpl implements SyncService {
             log.debug("[SyncService] 更新 ProjectFile: id={}, version={}->{}", id, expectedVersion, newVersion);
         }
 
+        // 同步写入只携带部分列，快照整体失效后按需重建
+        if (projectSnapshotCache != null) {
+            projectSnapshotCache.evict(file.getProjectId());
+        }
         return false;
     }
 
@@ -1012,6 +1105,10 @@ public class SyncServiceImpl implements SyncService {
             knowledgeItemMapper.updateById(item);
             log.debug("[SyncService] 更新 KnowledgeItem: id={}", id);
         }
+        // 事务提交后同步更新本地向量索引（未启用时为 no-op）
+        if (knowledgeVectorService != null) {
+            knowledgeVectorService.indexAfterCommit(item);
+        }
 
         return false;
     }
@@ -0,0 +1,25 @@
+package com.chainlesschain.project.vector;
+
+/**
+ * 文本向量化提供者。
+ *
+ * <p>默认实现为无网络依赖的 {@link HashingEmbeddingProvider}；注册其它 EmbeddingProvider
+ * Bean（例如调用远端模型服务）即可替换。更换提供者或维度后，本地索引会在启动时自动重建。
+ */
+public interface EmbeddingProvider {
+
+    /**
+     * 提供者标识，写入索引元数据用于判断是否需要重建
+     */
+    String name();
+
+    /**
+     * 向量维度
+     */
+    int dimension();
+
+    /**
+     * 将文本转换为 L2 归一化的向量；空文本返回全零向量
+     */
+    float[] embed(String text);
+}
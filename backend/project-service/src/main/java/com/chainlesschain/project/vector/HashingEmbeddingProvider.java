@@ -0,0 +1,109 @@
+package com.chainlesschain.project.vector;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * 确定性的本地哈希向量化（feature hashing），无需网络与模型文件。
+ *
+ * <p>特征：拉丁字母/数字按单词切分（权重 1），CJK 等其它字符取单字与相邻双字组合
+ * （双字权重更高，近似中文分词效果）。每个特征经 FNV-1a 哈希映射到一个维度并按哈希位决定正负号，
+ * 最后 L2 归一化。相同文本在任何节点上得到相同向量，适合单机部署与测试；语义能力弱于神经网络模型。
+ */
+public class HashingEmbeddingProvider implements EmbeddingProvider {
+
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float CJK_UNIGRAM_WEIGHT = 0.5f;
+    private static final float CJK_BIGRAM_WEIGHT = 1.0f;
+
+    private final int dimension;
+
+    public HashingEmbeddingProvider(int dimension) {
+        if (dimension <= 0) {
+            throw new IllegalArgumentException("dimension 必须为正数: " + dimension);
+        }
+        this.dimension = dimension;
+    }
+
+    @Override
+    public String name() {
+        return "hashing-v1";
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimension];
+        if (text == null || text.isEmpty()) {
+            return vector;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        int previousCjk = -1;
+        for (int i = 0; i < normalized.length(); ) {
+            int cp = normalized.codePointAt(i);
+            i += Character.charCount(cp);
+            if (Character.isLetterOrDigit(cp) && Character.UnicodeScript.of(cp) == Character.UnicodeScript.LATIN
+                    || Character.isDigit(cp)) {
+                word.appendCodePoint(cp);
+                previousCjk = -1;
+                continue;
+            }
+            flushWord(word, vector);
+            if (Character.isLetter(cp)) {
+                addFeature(new String(Character.toChars(cp)), CJK_UNIGRAM_WEIGHT, vector);
+                if (previousCjk >= 0) {
+                    addFeature(new StringBuilder().appendCodePoint(previousCjk).appendCodePoint(cp).toString(),
+                            CJK_BIGRAM_WEIGHT, vector);
+                }
+                previousCjk = cp;
+            } else {
+                previousCjk = -1;
+            }
+        }
+        flushWord(word, vector);
+        normalize(vector);
+        return vector;
+    }
+
+    private void flushWord(StringBuilder word, float[] vector) {
+        if (word.length() > 0) {
+            addFeature(word.toString(), WORD_WEIGHT, vector);
+            word.setLength(0);
+        }
+    }
+
+    private void addFeature(String feature, float weight, float[] vector) {
+        int hash = fnv1a(feature);
+        int bucket = Math.floorMod(hash, dimension);
+        // 用与桶无关的高位决定符号，降低哈希碰撞带来的系统性偏差
+        vector[bucket] += (hash >>> 31) == 0 ? weight : -weight;
+    }
+
+    static void normalize(float[] vector) {
+        double norm = 0;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        if (norm == 0) {
+            return;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+    }
+
+    private static int fnv1a(String feature) {
+        int hash = 0x811C9DC5;
+        for (byte b : feature.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,605 @@
+package com.chainlesschain.project.vector;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * HNSW（Hierarchical Navigable Small World）近似最近邻索引，度量为余弦相似度
+ * （入库向量须已 L2 归一化）。
+ *
+ * <p>持久化分两部分：向量本体写入内存映射文件 {@code vectors.bin}（{@link MappedVectorStore}），
+ * 图结构与条目元数据在 {@link #save} 时整体写入 {@code graph.bin}（先写临时文件再原子替换）。
+ * 重新打开时向量文件按图快照的节点数截断，快照之后写入的条目由调用方按
+ * {@link #getCheckpointMillis} 之后的增量重新补录。
+ *
+ * <p>更新同一 id 时旧节点只做删除标记（HNSW 不支持原地修改），检索时跳过；
+ * 删除比例过高时由调用方重建索引（{@link #deletedRatio}）。
+ *
+ * <p>范围过滤：按条目的 scope（所属用户）过滤。允许范围内的存活条目较少时直接精确扫描，
+ * 避免带过滤的图检索在小范围上召回率下降；否则在图上检索并扩大候选集。
+ */
+public class HnswIndex implements Closeable {
+
+    static final String VECTOR_FILE = "vectors.bin";
+    static final String GRAPH_FILE = "graph.bin";
+
+    private static final int GRAPH_MAGIC = 0x484E5357; // "HNSW"
+    private static final int GRAPH_VERSION = 1;
+
+    /** 允许范围内存活条目不超过该值时走精确扫描 */
+    private static final int EXACT_SCAN_THRESHOLD = 2048;
+
+    private final Path directory;
+    private final int dimension;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final MappedVectorStore vectors;
+    private final Random random;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<String, Integer> nodeById = new HashMap<>();
+    private final Map<String, Set<Integer>> liveNodesByScope = new HashMap<>();
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    private int deletedCount;
+    private long checkpointMillis;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private HnswIndex(Path directory, int dimension, int m, int efConstruction, long seed,
+                      MappedVectorStore vectors) {
+        this.directory = directory;
+        this.dimension = dimension;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.vectors = vectors;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * 打开目录下的索引；目录为空时创建新索引。维度或 M 与快照不一致时抛出 IllegalStateException，
+     * 由调用方清空目录后重建。
+     */
+    public static HnswIndex open(Path directory, int dimension, int m, int efConstruction, long seed)
+            throws IOException {
+        Files.createDirectories(directory);
+        MappedVectorStore vectors = MappedVectorStore.open(directory.resolve(VECTOR_FILE), dimension);
+        HnswIndex index = new HnswIndex(directory, dimension, m, efConstruction, seed, vectors);
+        try {
+            Path graph = directory.resolve(GRAPH_FILE);
+            if (Files.exists(graph)) {
+                index.load(graph);
+            }
+            vectors.truncate(index.nodes.size());
+            return index;
+        } catch (IOException | RuntimeException e) {
+            vectors.close();
+            throw e;
+        }
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /** 存活条目数 */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public double deletedRatio() {
+        lock.readLock().lock();
+        try {
+            return nodes.isEmpty() ? 0 : (double) deletedCount / nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 最近一次 {@link #save} 的时间（毫秒），从未保存为 0 */
+    public long getCheckpointMillis() {
+        return checkpointMillis;
+    }
+
+    public boolean contains(String id) {
+        lock.readLock().lock();
+        try {
+            return nodeById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 写入或替换条目
+     *
+     * @param id     条目 id
+     * @param scope  所属范围（用户 id），可为 null
+     * @param vector 已归一化的向量
+     */
+    public void add(String id, String scope, float[] vector) throws IOException {
+        lock.writeLock().lock();
+        try {
+            markDeleted(id);
+            int node = vectors.append(vector);
+            int level = randomLevel();
+            nodes.add(new Node(id, scope, level, m, maxM0));
+            nodeById.put(id, node);
+            liveNodesByScope.computeIfAbsent(scope, k -> new LinkedHashSet<>()).add(node);
+            link(node, vector, level);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除条目（标记删除）
+     */
+    public boolean remove(String id) {
+        lock.writeLock().lock();
+        try {
+            return markDeleted(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 检索最相似的 k 个条目
+     *
+     * @param query  已归一化的查询向量
+     * @param k      返回条数
+     * @param ef     检索候选集大小（越大召回越高、越慢）
+     * @param scopes 允许的范围集合；null 表示不过滤
+     */
+    public List<SearchHit> search(float[] query, int k, int ef, Collection<String> scopes) {
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("查询向量维度不匹配: expected=" + dimension + ", actual=" + query.length);
+        }
+        if (k <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return List.of();
+            }
+            if (scopes != null) {
+                int allowed = 0;
+                for (String scope : scopes) {
+                    Set<Integer> live = liveNodesByScope.get(scope);
+                    allowed += live == null ? 0 : live.size();
+                }
+                if (allowed == 0) {
+                    return List.of();
+                }
+                if (allowed <= Math.max(EXACT_SCAN_THRESHOLD, ef)) {
+                    return exactScan(query, k, scopes);
+                }
+            }
+            return graphSearch(query, k, Math.max(ef, k), scopes == null ? null : Set.copyOf(scopes));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 精确检索（全量扫描），用于小范围过滤与召回率基准
+     */
+    public List<SearchHit> exactSearch(float[] query, int k, Collection<String> scopes) {
+        lock.readLock().lock();
+        try {
+            return exactScan(query, k, scopes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 将图结构写入快照并刷盘向量文件
+     */
+    public void save() throws IOException {
+        lock.readLock().lock();
+        try {
+            vectors.force();
+            long now = System.currentTimeMillis();
+            Path tmp = directory.resolve(GRAPH_FILE + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                out.writeInt(GRAPH_MAGIC);
+                out.writeInt(GRAPH_VERSION);
+                out.writeInt(dimension);
+                out.writeInt(m);
+                out.writeLong(now);
+                out.writeInt(nodes.size());
+                out.writeInt(entryPoint);
+                out.writeInt(maxLevel);
+                for (Node node : nodes) {
+                    out.writeUTF(node.id);
+                    out.writeBoolean(node.scope != null);
+                    if (node.scope != null) {
+                        out.writeUTF(node.scope);
+                    }
+                    out.writeBoolean(node.deleted);
+                    out.writeInt(node.level());
+                    for (int l = 0; l <= node.level(); l++) {
+                        out.writeInt(node.counts[l]);
+                        for (int i = 0; i < node.counts[l]; i++) {
+                            out.writeInt(node.links[l][i]);
+                        }
+                    }
+                }
+            }
+            Files.move(tmp, directory.resolve(GRAPH_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            checkpointMillis = now;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            vectors.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ==================== 构图 ====================
+
+    private int randomLevel() {
+        double r = 1.0 - random.nextDouble(); // (0, 1]
+        return (int) Math.floor(-Math.log(r) * levelMultiplier);
+    }
+
+    private void link(int node, float[] vector, int level) {
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+        int current = entryPoint;
+        for (int l = maxLevel; l > level; l--) {
+            current = greedyClosest(vector, current, l);
+        }
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            PriorityQueue<Candidate> found = searchLayer(vector, List.of(current), efConstruction, l);
+            List<Candidate> neighbours = selectNeighbours(found, l == 0 ? maxM0 : m);
+            Node self = nodes.get(node);
+            for (Candidate neighbour : neighbours) {
+                self.addLink(l, neighbour.node);
+                connectBack(neighbour.node, node, l);
+            }
+            current = closest(found).node;
+        }
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+
+    /**
+     * 反向连边；邻居表已满时用启发式重新挑选
+     */
+    private void connectBack(int from, int to, int level) {
+        Node node = nodes.get(from);
+        if (node.addLink(level, to)) {
+            return;
+        }
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Candidate.FARTHEST_FIRST);
+        candidates.add(new Candidate(to, 1f - vectors.dot(from, to)));
+        for (int i = 0; i < node.counts[level]; i++) {
+            int neighbour = node.links[level][i];
+            candidates.add(new Candidate(neighbour, 1f - vectors.dot(from, neighbour)));
+        }
+        List<Candidate> kept = selectNeighbours(candidates, node.links[level].length);
+        node.counts[level] = 0;
+        for (Candidate candidate : kept) {
+            node.addLink(level, candidate.node);
+        }
+    }
+
+    /**
+     * 论文中的邻居选择启发式：优先保留与已选邻居不"同方向"的候选，提升图的连通性
+     */
+    private List<Candidate> selectNeighbours(PriorityQueue<Candidate> candidates, int max) {
+        List<Candidate> sorted = new ArrayList<>(candidates);
+        sorted.sort(Candidate.CLOSEST_FIRST);
+        List<Candidate> selected = new ArrayList<>(max);
+        List<Candidate> pruned = new ArrayList<>();
+        for (Candidate candidate : sorted) {
+            if (selected.size() >= max) {
+                break;
+            }
+            boolean keep = true;
+            for (Candidate chosen : selected) {
+                if (1f - vectors.dot(candidate.node, chosen.node) < candidate.distance) {
+                    keep = false;
+                    break;
+                }
+            }
+            if (keep) {
+                selected.add(candidate);
+            } else {
+                pruned.add(candidate);
+            }
+        }
+        // 补足到 max，避免稀疏区域的节点度数过低
+        for (int i = 0; i < pruned.size() && selected.size() < max; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    // ==================== 检索 ====================
+
+    private List<SearchHit> graphSearch(float[] query, int k, int ef, Set<String> scopes) {
+        int current = entryPoint;
+        for (int l = maxLevel; l > 0; l--) {
+            current = greedyClosest(query, current, l);
+        }
+        // 带过滤时扩大候选集，补偿被过滤掉的节点
+        int effectiveEf = scopes == null && deletedCount == 0 ? ef : ef * 2;
+        PriorityQueue<Candidate> found = searchLayer(query, List.of(current), effectiveEf, 0);
+        List<Candidate> sorted = new ArrayList<>(found);
+        sorted.sort(Candidate.CLOSEST_FIRST);
+        List<SearchHit> hits = new ArrayList<>(k);
+        for (Candidate candidate : sorted) {
+            Node node = nodes.get(candidate.node);
+            if (node.deleted || (scopes != null && !scopes.contains(node.scope))) {
+                continue;
+            }
+            hits.add(new SearchHit(node.id, node.scope, 1f - candidate.distance));
+            if (hits.size() == k) {
+                break;
+            }
+        }
+        return hits;
+    }
+
+    private List<SearchHit> exactScan(float[] query, int k, Collection<String> scopes) {
+        PriorityQueue<Candidate> top = new PriorityQueue<>(Candidate.FARTHEST_FIRST);
+        Iterable<Integer> candidates = scopes == null ? nodeById.values() : scopedNodes(scopes);
+        for (int node : candidates) {
+            top.add(new Candidate(node, distance(query, node)));
+            if (top.size() > k) {
+                top.poll();
+            }
+        }
+        List<Candidate> sorted = new ArrayList<>(top);
+        sorted.sort(Candidate.CLOSEST_FIRST);
+        List<SearchHit> hits = new ArrayList<>(sorted.size());
+        for (Candidate candidate : sorted) {
+            Node node = nodes.get(candidate.node);
+            hits.add(new SearchHit(node.id, node.scope, 1f - candidate.distance));
+        }
+        return hits;
+    }
+
+    private List<Integer> scopedNodes(Collection<String> scopes) {
+        List<Integer> result = new ArrayList<>();
+        for (String scope : new LinkedHashSet<>(scopes)) {
+            Set<Integer> live = liveNodesByScope.get(scope);
+            if (live != null) {
+                result.addAll(live);
+            }
+        }
+        return result;
+    }
+
+    private int greedyClosest(float[] query, int start, int level) {
+        int current = start;
+        float currentDistance = distance(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            Node node = nodes.get(current);
+            if (level > node.level()) {
+                break;
+            }
+            for (int i = 0; i < node.counts[level]; i++) {
+                int neighbour = node.links[level][i];
+                float d = distance(query, neighbour);
+                if (d < currentDistance) {
+                    currentDistance = d;
+                    current = neighbour;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 单层贪心扩展检索，返回最近的 ef 个候选（大顶堆，堆顶为最远）
+     */
+    private PriorityQueue<Candidate> searchLayer(float[] query, List<Integer> entries, int ef, int level) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(Candidate.CLOSEST_FIRST);
+        PriorityQueue<Candidate> found = new PriorityQueue<>(Candidate.FARTHEST_FIRST);
+        for (int entry : entries) {
+            Candidate candidate = new Candidate(entry, distance(query, entry));
+            visited.set(entry);
+            candidates.add(candidate);
+            found.add(candidate);
+        }
+        while (!candidates.isEmpty()) {
+            Candidate nearest = candidates.poll();
+            if (nearest.distance > found.peek().distance && found.size() >= ef) {
+                break;
+            }
+            Node node = nodes.get(nearest.node);
+            for (int i = 0; i < node.counts[level]; i++) {
+                int neighbour = node.links[level][i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                float d = distance(query, neighbour);
+                if (found.size() < ef || d < found.peek().distance) {
+                    Candidate candidate = new Candidate(neighbour, d);
+                    candidates.add(candidate);
+                    found.add(candidate);
+                    if (found.size() > ef) {
+                        found.poll();
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private static Candidate closest(PriorityQueue<Candidate> found) {
+        Candidate best = null;
+        for (Candidate candidate : found) {
+            if (best == null || candidate.distance < best.distance) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private float distance(float[] query, int node) {
+        return 1f - vectors.dot(node, query);
+    }
+
+    private boolean markDeleted(String id) {
+        Integer previous = nodeById.remove(id);
+        if (previous == null) {
+            return false;
+        }
+        Node node = nodes.get(previous);
+        node.deleted = true;
+        Set<Integer> live = liveNodesByScope.get(node.scope);
+        if (live != null) {
+            live.remove(previous);
+            if (live.isEmpty()) {
+                liveNodesByScope.remove(node.scope);
+            }
+        }
+        deletedCount++;
+        return true;
+    }
+
+    private void load(Path graph) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(graph), 1 << 16))) {
+            if (in.readInt() != GRAPH_MAGIC || in.readInt() != GRAPH_VERSION) {
+                throw new IllegalStateException("图快照格式不匹配: " + graph);
+            }
+            int fileDimension = in.readInt();
+            int fileM = in.readInt();
+            if (fileDimension != dimension || fileM != m) {
+                throw new IllegalStateException("图快照参数不匹配: dimension=" + fileDimension + ", m=" + fileM);
+            }
+            checkpointMillis = in.readLong();
+            int count = in.readInt();
+            if (count > vectors.size()) {
+                throw new IllegalStateException("图快照节点数超过向量文件条数: " + count + " > " + vectors.size());
+            }
+            entryPoint = in.readInt();
+            maxLevel = in.readInt();
+            for (int n = 0; n < count; n++) {
+                String id = in.readUTF();
+                String scope = in.readBoolean() ? in.readUTF() : null;
+                boolean deleted = in.readBoolean();
+                Node node = new Node(id, scope, in.readInt(), m, maxM0);
+                for (int l = 0; l <= node.level(); l++) {
+                    int linkCount = in.readInt();
+                    for (int i = 0; i < linkCount; i++) {
+                        node.addLink(l, in.readInt());
+                    }
+                }
+                node.deleted = deleted;
+                nodes.add(node);
+                if (deleted) {
+                    deletedCount++;
+                } else {
+                    nodeById.put(id, n);
+                    liveNodesByScope.computeIfAbsent(scope, k -> new LinkedHashSet<>()).add(n);
+                }
+            }
+        }
+    }
+
+    // ==================== 内部结构 ====================
+
+    private static final class Node {
+        final String id;
+        final String scope;
+        final int[][] links;
+        final int[] counts;
+        boolean deleted;
+
+        Node(String id, String scope, int level, int m, int maxM0) {
+            this.id = id;
+            this.scope = scope;
+            this.links = new int[level + 1][];
+            this.counts = new int[level + 1];
+            for (int l = 0; l <= level; l++) {
+                links[l] = new int[l == 0 ? maxM0 : m];
+            }
+        }
+
+        int level() {
+            return links.length - 1;
+        }
+
+        /**
+         * 追加邻居；已满返回 false
+         */
+        boolean addLink(int level, int neighbour) {
+            if (counts[level] == links[level].length) {
+                return false;
+            }
+            links[level][counts[level]++] = neighbour;
+            return true;
+        }
+    }
+
+    private record Candidate(int node, float distance) {
+        static final Comparator<Candidate> CLOSEST_FIRST = Comparator.comparingDouble(Candidate::distance);
+        static final Comparator<Candidate> FARTHEST_FIRST = CLOSEST_FIRST.reversed();
+    }
+
+    /**
+     * 检索命中
+     *
+     * @param id    条目 id
+     * @param scope 所属范围
+     * @param score 余弦相似度
+     */
+    public record SearchHit(String id, String scope, float score) {
+    }
+}
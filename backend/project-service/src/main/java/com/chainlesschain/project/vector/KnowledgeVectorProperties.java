@@ -0,0 +1,69 @@
+package com.chainlesschain.project.vector;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 知识库本地向量索引配置，对应 {@code application.yml} 中的 {@code knowledge.vector.*}。
+ *
+ * <p>{@code enabled=false}（默认）时不建索引，语义检索接口返回空结果，
+ * 关键词搜索行为与之前一致。
+ */
+@Component
+@ConfigurationProperties(prefix = "knowledge.vector")
+public class KnowledgeVectorProperties {
+
+    /** 总开关 */
+    private boolean enabled = false;
+
+    /** 索引文件目录 */
+    private String path = "/data/vector-index";
+
+    /** 默认哈希向量化的维度（自定义 EmbeddingProvider 时以其维度为准） */
+    private int dimension = 256;
+
+    /** HNSW 每层最大邻居数 M（第 0 层为 2M） */
+    private int m = 16;
+
+    /** 构图候选集大小 */
+    private int efConstruction = 200;
+
+    /** 检索候选集大小 */
+    private int efSearch = 64;
+
+    /** 图快照刷盘间隔（毫秒） */
+    private long flushIntervalMs = 30000L;
+
+    /** 删除标记比例超过该值时后台重建索引 */
+    private double compactDeletedRatio = 0.3;
+
+    /** 参与向量化的最大字符数（标题 + 正文） */
+    private int maxTextLength = 8000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getPath() { return path; }
+    public void setPath(String path) { this.path = path; }
+
+    public int getDimension() { return dimension; }
+    public void setDimension(int dimension) { this.dimension = dimension; }
+
+    public int getM() { return m; }
+    public void setM(int m) { this.m = m; }
+
+    public int getEfConstruction() { return efConstruction; }
+    public void setEfConstruction(int efConstruction) { this.efConstruction = efConstruction; }
+
+    public int getEfSearch() { return efSearch; }
+    public void setEfSearch(int efSearch) { this.efSearch = efSearch; }
+
+    public long getFlushIntervalMs() { return flushIntervalMs; }
+    public void setFlushIntervalMs(long flushIntervalMs) { this.flushIntervalMs = flushIntervalMs; }
+
+    public double getCompactDeletedRatio() { return compactDeletedRatio; }
+    public void setCompactDeletedRatio(double compactDeletedRatio) { this.compactDeletedRatio = compactDeletedRatio; }
+
+    public int getMaxTextLength() { return maxTextLength; }
+    public void setMaxTextLength(int maxTextLength) { this.maxTextLength = maxTextLength; }
+}
@@ -0,0 +1,162 @@
+package com.chainlesschain.project.vector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 基于内存映射文件的定长向量存储。
+ *
+ * <p>文件布局：16 字节头（magic、维度、条数、保留）+ 连续的 float[dimension] 记录。
+ * 容量不足时按倍数扩容并重新映射；检索直接读取映射区，不在堆上保留向量副本。
+ * 非线程安全，由 {@link HnswIndex} 的读写锁保护。
+ */
+class MappedVectorStore implements Closeable {
+
+    private static final int MAGIC = 0x56454353; // "VECS"
+    private static final int HEADER_BYTES = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+    /** 单个 MappedByteBuffer 上限 2GB */
+    private static final long MAX_MAPPED_BYTES = Integer.MAX_VALUE;
+
+    private final FileChannel channel;
+    private final int dimension;
+    private final int recordBytes;
+    private MappedByteBuffer buffer;
+    private FloatBuffer floats;
+    private int capacity;
+    private int count;
+
+    private MappedVectorStore(FileChannel channel, int dimension) {
+        this.channel = channel;
+        this.dimension = dimension;
+        this.recordBytes = dimension * Float.BYTES;
+    }
+
+    /**
+     * 打开（或创建）向量文件；已有文件维度不一致时抛出 IllegalStateException
+     */
+    static MappedVectorStore open(Path file, int dimension) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedVectorStore store = new MappedVectorStore(channel, dimension);
+        try {
+            if (channel.size() >= HEADER_BYTES) {
+                store.remap(Math.max(INITIAL_CAPACITY, store.capacityOf(channel.size())));
+                if (store.buffer.getInt(0) != MAGIC || store.buffer.getInt(4) != dimension) {
+                    throw new IllegalStateException("向量文件格式或维度不匹配: " + file);
+                }
+                store.count = store.buffer.getInt(8);
+            } else {
+                store.remap(INITIAL_CAPACITY);
+                store.buffer.putInt(0, MAGIC);
+                store.buffer.putInt(4, dimension);
+                store.writeCount(0);
+            }
+            return store;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * 追加一条向量，返回其下标
+     */
+    int append(float[] vector) throws IOException {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("向量维度不匹配: expected=" + dimension + ", actual=" + vector.length);
+        }
+        if (count == capacity) {
+            remap(capacity * 2);
+        }
+        floats.put(count * dimension, vector);
+        writeCount(count + 1);
+        return count - 1;
+    }
+
+    float[] get(int index) {
+        float[] vector = new float[dimension];
+        floats.get(index * dimension, vector);
+        return vector;
+    }
+
+    /**
+     * 与查询向量的内积（向量均已归一化，即余弦相似度）
+     */
+    float dot(int index, float[] query) {
+        int base = index * dimension;
+        float sum = 0f;
+        for (int i = 0; i < dimension; i++) {
+            sum += floats.get(base + i) * query[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 两条已存向量的内积
+     */
+    float dot(int a, int b) {
+        int baseA = a * dimension;
+        int baseB = b * dimension;
+        float sum = 0f;
+        for (int i = 0; i < dimension; i++) {
+            sum += floats.get(baseA + i) * floats.get(baseB + i);
+        }
+        return sum;
+    }
+
+    /**
+     * 丢弃下标 &gt;= size 的记录（用于与图快照对齐）
+     */
+    void truncate(int size) {
+        if (size < count) {
+            writeCount(size);
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    private void writeCount(int newCount) {
+        count = newCount;
+        buffer.putInt(8, newCount);
+    }
+
+    private int capacityOf(long fileBytes) {
+        return (int) ((fileBytes - HEADER_BYTES) / recordBytes);
+    }
+
+    private void remap(int newCapacity) throws IOException {
+        long bytes = HEADER_BYTES + (long) newCapacity * recordBytes;
+        if (bytes > MAX_MAPPED_BYTES) {
+            throw new IllegalStateException("向量文件超过单映射上限: capacity=" + newCapacity);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        floats = buffer.slice(HEADER_BYTES, (int) bytes - HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        capacity = newCapacity;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        channel.close();
+    }
+}
@@ -0,0 +1,111 @@
+package com.chainlesschain.project.cache;
+
+import com.chainlesschain.project.entity.Project;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 实体二级缓存测试
+ */
+class EntityCacheTest {
+
+    @AfterEach
+    void tearDown() {
+        EntityCache.setInvalidationPublisher(null);
+    }
+
+    @Test
+    void testReturnsIsolatedCopies() {
+        EntityCache cache = new EntityCache("test.copy");
+        Project project = new Project();
+        project.setId("p1");
+        project.setName("原始名称");
+        cache.putObject("k", project);
+
+        Project cached = (Project) cache.getObject("k");
+        cached.setName("被调用方修改");
+        project.setName("源对象修改");
+
+        assertEquals("原始名称", ((Project) cache.getObject("k")).getName());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        EntityCache cache = new EntityCache("test.lru");
+        cache.setMaxSize(2);
+        cache.putObject("a", "A");
+        cache.putObject("b", "B");
+        cache.getObject("a");
+        cache.putObject("c", "C");
+
+        assertEquals(2, cache.getSize());
+        assertEquals("A", cache.getObject("a"));
+        assertNull(cache.getObject("b"));
+        assertEquals("C", cache.getObject("c"));
+    }
+
+    @Test
+    void testExpiredEntryIsMiss() {
+        EntityCache cache = new EntityCache("test.ttl");
+        cache.setTtlSeconds(0);
+        cache.putObject("k", "v");
+
+        assertNull(cache.getObject("k"));
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void testSkipsNonSerializableValues() {
+        EntityCache cache = new EntityCache("test.nonserializable");
+        cache.putObject("k", new Object());
+
+        assertEquals(0, cache.getSize());
+        assertNull(cache.getObject("k"));
+    }
+
+    @Test
+    void testClearPublishesNamespace() {
+        List<String> published = new ArrayList<>();
+        EntityCache.setInvalidationPublisher(published::add);
+        EntityCache cache = new EntityCache("test.publish");
+        cache.putObject("k", "v");
+
+        cache.clear();
+
+        assertEquals(0, cache.getSize());
+        assertEquals(List.of("test.publish"), published);
+    }
+
+    @Test
+    void testClearSurvivesPublisherFailure() {
+        EntityCache.setInvalidationPublisher(namespace -> {
+            throw new IllegalStateException("redis down");
+        });
+        EntityCache cache = new EntityCache("test.publish-failure");
+        cache.putObject("k", "v");
+
+        assertDoesNotThrow(cache::clear);
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    void testClearLocalDoesNotPublish() {
+        List<String> published = new ArrayList<>();
+        EntityCache.setInvalidationPublisher(published::add);
+        EntityCache cache = new EntityCache("test.remote");
+        cache.putObject("k", "v");
+
+        EntityCache.clearLocal("test.remote");
+        EntityCache.clearLocal("test.unknown");
+
+        assertEquals(0, cache.getSize());
+        assertTrue(published.isEmpty());
+    }
+}
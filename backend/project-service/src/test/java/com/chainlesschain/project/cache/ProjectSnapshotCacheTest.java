@@ -0,0 +1,129 @@
+package com.chainlesschain.project.cache;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.chainlesschain.project.entity.ProjectFile;
+import com.chainlesschain.project.mapper.ProjectFileMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 项目快照缓存测试
+ */
+class ProjectSnapshotCacheTest {
+
+    private ProjectFileMapper projectFileMapper;
+    private EntityCacheInvalidationBroker broker;
+    private ProjectSnapshotCache cache;
+
+    @BeforeAll
+    static void initTableInfo() {
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), ProjectFile.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        projectFileMapper = mock(ProjectFileMapper.class);
+        broker = mock(EntityCacheInvalidationBroker.class);
+        cache = new ProjectSnapshotCache(projectFileMapper);
+        ReflectionTestUtils.setField(cache, "invalidationBroker", broker);
+        cache.init();
+    }
+
+    private static ProjectFile file(String id, String path, long size) {
+        ProjectFile file = new ProjectFile();
+        file.setId(id);
+        file.setProjectId("p1");
+        file.setFilePath(path);
+        file.setFileName(path);
+        file.setFileSize(size);
+        return file;
+    }
+
+    @Test
+    void testLoadsOnceThenServesFromCache() {
+        when(projectFileMapper.selectList(any())).thenReturn(new ArrayList<>(List.of(file("a", "a.txt", 1))));
+
+        ProjectSnapshot first = cache.get("p1");
+        ProjectSnapshot second = cache.get("p1");
+
+        assertSame(first, second);
+        assertEquals(1, cache.getLoads());
+        assertEquals(1, cache.getHits());
+        verify(projectFileMapper, times(1)).selectList(any());
+    }
+
+    @Test
+    void testAppliesFileChangesIncrementally() {
+        when(projectFileMapper.selectList(any())).thenReturn(new ArrayList<>(List.of(file("a", "a.txt", 1))));
+        cache.get("p1");
+
+        cache.fileChanged(file("b", "b.txt", 2));
+        cache.fileDeleted("p1", "a");
+
+        ProjectSnapshot snapshot = cache.get("p1");
+        assertEquals(List.of("b"), snapshot.getFiles().stream().map(ProjectSnapshot.FileEntry::id).toList());
+        verify(projectFileMapper, times(1)).selectList(any());
+        verify(broker, times(2)).publish(ProjectSnapshotCache.NAMESPACE_PREFIX + "p1");
+    }
+
+    @Test
+    void testEvictForcesReload() {
+        when(projectFileMapper.selectList(any())).thenReturn(new ArrayList<>());
+        cache.get("p1");
+
+        cache.evict("p1");
+        cache.get("p1");
+
+        verify(projectFileMapper, times(2)).selectList(any());
+    }
+
+    @Test
+    void testRemoteInvalidationEvictsLocalSnapshot() {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Consumer<String>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(broker).addListener(listener.capture());
+        when(projectFileMapper.selectList(any())).thenReturn(new ArrayList<>());
+        cache.get("p1");
+
+        listener.getValue().accept(ProjectSnapshotCache.NAMESPACE_PREFIX + "p1");
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testDoesNotCacheLoadRacingWithWrite() {
+        when(projectFileMapper.selectList(any())).thenAnswer(invocation -> {
+            // 加载期间另一个请求提交了写入
+            cache.fileChanged(file("b", "b.txt", 2));
+            return new ArrayList<>(List.of(file("a", "a.txt", 1)));
+        });
+
+        cache.get("p1");
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedProject() {
+        ReflectionTestUtils.setField(cache, "maxProjects", 1);
+        when(projectFileMapper.selectList(any())).thenReturn(new ArrayList<>());
+
+        cache.get("p1");
+        cache.get("p2");
+
+        assertEquals(1, cache.size());
+    }
+}
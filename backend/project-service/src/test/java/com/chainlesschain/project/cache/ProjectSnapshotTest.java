@@ -0,0 +1,96 @@
+package com.chainlesschain.project.cache;
+
+import com.chainlesschain.project.dto.ProjectTreeNode;
+import com.chainlesschain.project.entity.Project;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 项目文件树快照测试
+ */
+class ProjectSnapshotTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private static ProjectSnapshot.FileEntry entry(String id, String path, long size, int minutes) {
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        return new ProjectSnapshot.FileEntry(id, path, name, "txt", null, size, "hash-" + id + "-" + size,
+                1, null, "user", BASE, BASE.plusMinutes(minutes));
+    }
+
+    private static Project project() {
+        Project project = new Project();
+        project.setId("p1");
+        project.setName("项目");
+        project.setFileCount(2L);
+        return project;
+    }
+
+    @Test
+    void testOrdersByUpdatedAtDesc() {
+        ProjectSnapshot snapshot = ProjectSnapshot.of("p1", List.of(
+                entry("a", "a.txt", 1, 1),
+                entry("b", "b.txt", 1, 3),
+                entry("c", "c.txt", 1, 2)));
+
+        assertEquals(List.of("b", "c", "a"), snapshot.getFiles().stream().map(ProjectSnapshot.FileEntry::id).toList());
+    }
+
+    @Test
+    void testIncrementalDigestMatchesFullBuild() {
+        ProjectSnapshot base = ProjectSnapshot.of("p1", List.of(entry("a", "a.txt", 1, 1), entry("b", "b.txt", 2, 2)));
+
+        ProjectSnapshot incremental = base
+                .withFile(entry("b", "b.txt", 5, 3))
+                .withFile(entry("c", "dir/c.txt", 7, 4))
+                .withoutFile("a");
+        ProjectSnapshot rebuilt = ProjectSnapshot.of("p1", List.of(entry("b", "b.txt", 5, 3), entry("c", "dir/c.txt", 7, 4)));
+
+        assertEquals(rebuilt.getDigest(), incremental.getDigest());
+        assertEquals(rebuilt.getFiles(), incremental.getFiles());
+        assertEquals(rebuilt.etag(project()), incremental.etag(project()));
+    }
+
+    @Test
+    void testEtagChangesWithFilesAndMetadata() {
+        ProjectSnapshot snapshot = ProjectSnapshot.of("p1", List.of(entry("a", "a.txt", 1, 1)));
+        String etag = snapshot.etag(project());
+
+        assertNotEquals(etag, snapshot.withFile(entry("a", "a.txt", 2, 1)).etag(project()));
+        Project renamed = project();
+        renamed.setName("改名");
+        assertNotEquals(etag, snapshot.etag(renamed));
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+    }
+
+    @Test
+    void testWithoutMissingFileReturnsSameSnapshot() {
+        ProjectSnapshot snapshot = ProjectSnapshot.of("p1", List.of(entry("a", "a.txt", 1, 1)));
+        assertSame(snapshot, snapshot.withoutFile("missing"));
+    }
+
+    @Test
+    void testBuildsNestedTree() {
+        ProjectSnapshot snapshot = ProjectSnapshot.of("p1", List.of(
+                entry("a", "index.html", 10, 1),
+                entry("b", "src/app.js", 20, 2),
+                entry("c", "src/lib/util.js", 30, 3)));
+
+        ProjectTreeNode root = snapshot.tree();
+
+        assertTrue(root.isDirectory());
+        assertEquals(2, root.getChildren().size());
+        ProjectTreeNode src = root.getChildren().get(0);
+        assertEquals("src", src.getPath());
+        assertTrue(src.isDirectory());
+        assertEquals("src/lib", src.getChildren().get(0).getPath());
+        assertEquals("util.js", src.getChildren().get(0).getChildren().get(0).getName());
+        assertEquals("app.js", src.getChildren().get(1).getName());
+        assertEquals(Long.valueOf(10), root.getChildren().get(1).getFileSize());
+        assertSame(root, snapshot.tree());
+    }
+}
@@ -0,0 +1,117 @@
+package com.chainlesschain.project.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 读写分离路由测试
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private ReplicaLagMonitor lagMonitor;
+    private ReadWriteRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", mock(DataSource.class));
+        replicas.put("replica-1", mock(DataSource.class));
+        lagMonitor = new ReplicaLagMonitor(replicas, 1000L);
+        routing = new ReadWriteRoutingDataSource(mock(DataSource.class), replicas, lagMonitor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testDefaultsToPrimary() {
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY_KEY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testReadOnlyTransactionRoutesToReplicasRoundRobin() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Object first = routing.determineCurrentLookupKey();
+        Object second = routing.determineCurrentLookupKey();
+
+        assertTrue(first.toString().startsWith(ReadWriteRoutingDataSource.REPLICA_KEY_PREFIX));
+        assertTrue(second.toString().startsWith(ReadWriteRoutingDataSource.REPLICA_KEY_PREFIX));
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void testExplicitRouteOverridesTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Object key = DataSourceRoutingContext.onPrimary(routing::determineCurrentLookupKey);
+
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY_KEY, key);
+        assertNull(DataSourceRoutingContext.current());
+    }
+
+    @Test
+    void testNestedRoutesRestoreOuterRoute() {
+        Object key = DataSourceRoutingContext.onReplica(() -> {
+            DataSourceRoutingContext.onPrimary(routing::determineCurrentLookupKey);
+            return routing.determineCurrentLookupKey();
+        });
+
+        assertTrue(key.toString().startsWith(ReadWriteRoutingDataSource.REPLICA_KEY_PREFIX));
+    }
+
+    @Test
+    void testLaggingReplicaIsSkipped() {
+        lagMonitor.recordLag("replica-0", 5000L);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica-1", DataSourceRoutingContext.onReplica(routing::determineCurrentLookupKey));
+        }
+    }
+
+    @Test
+    void testFallsBackToPrimaryWhenNoReplicaAvailable() {
+        lagMonitor.recordLag("replica-0", ReplicaLagMonitor.UNREACHABLE);
+        lagMonitor.recordLag("replica-1", 5000L);
+
+        assertEquals(ReadWriteRoutingDataSource.PRIMARY_KEY,
+                DataSourceRoutingContext.onReplica(routing::determineCurrentLookupKey));
+
+        lagMonitor.recordLag("replica-1", 0L);
+        assertEquals("replica-1", DataSourceRoutingContext.onReplica(routing::determineCurrentLookupKey));
+    }
+
+    @Test
+    void testReadYourWritesWindow() {
+        DataSourceRoutingProperties properties = new DataSourceRoutingProperties();
+        properties.setEnabled(true);
+        properties.setReadYourWritesWindowMs(60_000L);
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(properties);
+
+        tracker.markWrite("u:alice");
+
+        assertTrue(tracker.requiresPrimary("u:alice"));
+        assertFalse(tracker.requiresPrimary("u:bob"));
+        assertFalse(tracker.requiresPrimary(null));
+    }
+
+    @Test
+    void testReadYourWritesDisabledWhenRoutingOff() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(new DataSourceRoutingProperties());
+
+        tracker.markWrite("u:alice");
+
+        assertFalse(tracker.requiresPrimary("u:alice"));
+    }
+}
@@ -2,6 +2,7 @@ package com.chainlesschain.project.service;
 
 import com.baomidou.mybatisplus.core.toolkit.IdWorker;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.chainlesschain.project.dto.FileBatchCreateResponse;
 import com.chainlesschain.project.dto.FileCreateRequest;
 import com.chainlesschain.project.dto.FileUpdateRequest;
 import com.chainlesschain.project.dto.ProjectFileDTO;
@@ -25,6 +26,8 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -195,14 +198,13 @@ class ProjectFileServiceTest {
     @Test
     void testBatchCreateFiles_Success() {
         when(projectMapper.selectById(testProjectId)).thenReturn(testProject);
-        when(projectFileMapper.insert(any(ProjectFile.class))).thenReturn(1);
-        when(projectFileMapper.selectList(any())).thenReturn(Arrays.asList(testFile));
 
         // 准备请求
         FileCreateRequest request1 = new FileCreateRequest();
         request1.setFilePath("File1.java");
         request1.setFileName("File1.java");
         request1.setFileType("java");
+        request1.setContent("class File1 {}");
 
         FileCreateRequest request2 = new FileCreateRequest();
         request2.setFilePath("File2.java");
@@ -212,14 +214,88 @@ class ProjectFileServiceTest {
         List<FileCreateRequest> requests = Arrays.asList(request1, request2);
 
         // 执行测试
-        List<ProjectFileDTO> results = projectFileService.batchCreateFiles(testProjectId, requests);
+        FileBatchCreateResponse results = projectFileService.batchCreateFiles(testProjectId, requests);
 
         // 验证结果
         assertNotNull(results);
-        assertEquals(2, results.size());
+        assertEquals(2, results.getTotal());
+        assertEquals(2, results.getCreated().size());
+        assertTrue(results.getFailed().isEmpty());
+        assertEquals(14L, results.getCreated().get(0).getFileSize());
+
+        // 验证调用：一次多行插入文件、一次多行插入版本、一次统计，不逐条插入
+        verify(projectFileMapper, times(1)).insertBatch(anyList());
+        verify(fileVersionMapper, times(1)).insertBatch(anyList());
+        verify(projectMapper, times(1)).refreshFileStats(testProjectId);
+        verify(projectFileMapper, never()).insert(any(ProjectFile.class));
+        verify(projectFileMapper, never()).selectList(any());
+    }
 
-        // 验证调用
-        verify(projectFileMapper, times(2)).insert(any(ProjectFile.class));
+    @Test
+    void testBatchCreateFiles_ReportsPartialFailures() {
+        when(projectMapper.selectById(testProjectId)).thenReturn(testProject);
+
+        FileCreateRequest valid = new FileCreateRequest();
+        valid.setFilePath("a.txt");
+        valid.setFileName("a.txt");
+        valid.setFileType("txt");
+
+        FileCreateRequest missingType = new FileCreateRequest();
+        missingType.setFilePath("b.txt");
+        missingType.setFileName("b.txt");
+
+        FileCreateRequest duplicate = new FileCreateRequest();
+        duplicate.setFilePath("a.txt");
+        duplicate.setFileName("a.txt");
+        duplicate.setFileType("txt");
+
+        FileCreateRequest badBase64 = new FileCreateRequest();
+        badBase64.setFilePath("c.png");
+        badBase64.setFileName("c.png");
+        badBase64.setFileType("png");
+        badBase64.setIsBase64(true);
+        badBase64.setContent("!!not-base64!!");
+
+        FileBatchCreateResponse results = projectFileService.batchCreateFiles(testProjectId,
+                Arrays.asList(valid, missingType, duplicate, badBase64));
+
+        assertEquals(4, results.getTotal());
+        assertEquals(1, results.getCreated().size());
+        assertEquals(Arrays.asList(1, 2, 3), results.getFailed().stream()
+                .map(FileBatchCreateResponse.Failure::getIndex).toList());
+        verify(projectFileMapper, times(1)).insertBatch(argThat(list -> list.size() == 1));
+    }
+
+    @Test
+    void testBatchCreateFiles_ChunksLargeBatches() {
+        when(projectMapper.selectById(testProjectId)).thenReturn(testProject);
+
+        List<FileCreateRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            FileCreateRequest request = new FileCreateRequest();
+            request.setFilePath("src/file" + i + ".js");
+            request.setFileName("file" + i + ".js");
+            request.setFileType("js");
+            request.setContent("console.log(" + i + ");");
+            requests.add(request);
+        }
+
+        FileBatchCreateResponse results = projectFileService.batchCreateFiles(testProjectId, requests);
+
+        assertEquals(1200, results.getCreated().size());
+        assertEquals("src/file0.js", results.getCreated().get(0).getFilePath());
+        verify(projectFileMapper, times(3)).insertBatch(anyList());
+        verify(fileVersionMapper, times(3)).insertBatch(anyList());
+        verify(projectMapper, times(1)).refreshFileStats(testProjectId);
+    }
+
+    @Test
+    void testBatchCreateFiles_ProjectNotFound() {
+        when(projectMapper.selectById(testProjectId)).thenReturn(null);
+
+        assertThrows(RuntimeException.class,
+                () -> projectFileService.batchCreateFiles(testProjectId, new ArrayList<>()));
+        verify(projectFileMapper, never()).insertBatch(anyList());
     }
 
     @Test
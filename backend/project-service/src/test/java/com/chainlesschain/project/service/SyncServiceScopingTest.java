@@ -165,6 +165,45 @@ class SyncServiceScopingTest {
         assertEquals(0, resp.getStats().getUpdatedCount());
     }
 
+    @Test
+    void downloadIncremental_serverTimestamp_comesFromDatabaseVisibility_notWallClock() {
+        // A lagging replica has only replayed commits up to visibleUntil; the next cursor must
+        // not run past it, otherwise rows committed on the primary in the lag window are skipped.
+        when(accessGuard.isCallerAuthenticated(any())).thenReturn(false);
+        ReflectionTestUtils.setField(syncService, "watermarkSafetyMarginMs", 5000L);
+        long visibleUntil = System.currentTimeMillis() - 60_000L;
+        when(syncLogMapper.selectVisibleUntilMillis()).thenReturn(visibleUntil);
+        when(projectMapper.selectMaps(any())).thenReturn(new ArrayList<>());
+
+        var resp = syncService.downloadIncremental("projects", 1000L, "dev1", null);
+
+        assertEquals(visibleUntil - 5000L, resp.getServerTimestamp());
+    }
+
+    @Test
+    void downloadIncremental_serverTimestamp_fallsBackToDataAndNeverMovesBack() {
+        when(accessGuard.isCallerAuthenticated(any())).thenReturn(false);
+        ReflectionTestUtils.setField(syncService, "watermarkSafetyMarginMs", 5000L);
+        when(syncLogMapper.selectVisibleUntilMillis()).thenReturn(null);
+        java.time.LocalDateTime updatedAt = java.time.LocalDateTime.of(2026, 1, 1, 12, 0);
+        long updatedAtMillis = updatedAt.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", "r1");
+        row.put("deleted", 0);
+        row.put("createdAt", updatedAt);
+        row.put("updatedAt", updatedAt);
+        when(projectMapper.selectMaps(any())).thenReturn(new ArrayList<>(List.of(row)));
+
+        // Cursor derived from the newest row read, minus the safety margin
+        assertEquals(updatedAtMillis - 5000L,
+            syncService.downloadIncremental("projects", 0L, "dev1", null).getServerTimestamp());
+
+        // Nothing new: the cursor stays where the client already is
+        when(projectMapper.selectMaps(any())).thenReturn(new ArrayList<>());
+        assertEquals(updatedAtMillis,
+            syncService.downloadIncremental("projects", updatedAtMillis, "dev1", null).getServerTimestamp());
+    }
+
     // ==================== upload write-authz (#7 upload side) ====================
 
     @Test
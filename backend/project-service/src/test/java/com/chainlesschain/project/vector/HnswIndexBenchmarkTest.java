@@ -0,0 +1,84 @@
+package com.chainlesschain.project.vector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * HNSW 召回率/延迟基准（默认跳过）
+ *
+ * 运行：mvn test -Dtest=HnswIndexBenchmarkTest -Dbenchmark=true
+ * 可选参数：-Dbenchmark.size=50000 -Dbenchmark.dimension=256 -Dbenchmark.queries=500
+ *         -Dbenchmark.data=clustered|random
+ * 默认使用聚簇数据（更接近真实文本向量的分布）；高维均匀随机数据是 ANN 的最坏情况，
+ * 同等 ef 下召回率明显偏低，需要更大的 ef。
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HnswIndexBenchmarkTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void benchmarkRecallAndLatency() throws Exception {
+        int size = Integer.getInteger("benchmark.size", 50_000);
+        int dimension = Integer.getInteger("benchmark.dimension", 256);
+        int queryCount = Integer.getInteger("benchmark.queries", 500);
+        boolean clustered = !"random".equals(System.getProperty("benchmark.data"));
+        int k = 10;
+        Random random = new Random(42);
+        List<float[]> centers = random.ints(Math.max(1, size / 500))
+                .mapToObj(i -> HnswIndexTest.randomVector(random, dimension)).toList();
+        java.util.function.Supplier<float[]> generator = clustered
+                ? () -> clusteredVector(random, centers)
+                : () -> HnswIndexTest.randomVector(random, dimension);
+
+        try (HnswIndex index = HnswIndex.open(tempDir, dimension, 16, 200, 1L)) {
+            long buildStart = System.nanoTime();
+            for (int i = 0; i < size; i++) {
+                index.add("item-" + i, "user-" + (i % 100), generator.get());
+            }
+            long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+            System.out.printf("build: size=%d, dimension=%d, data=%s, %d ms (%.0f inserts/s)%n",
+                    size, dimension, clustered ? "clustered" : "random", buildMs, size * 1000.0 / Math.max(1, buildMs));
+
+            List<float[]> queries = random.ints(queryCount).mapToObj(i -> generator.get()).toList();
+            report("exact", queries, q -> index.exactSearch(q, k, null));
+            for (int ef : new int[]{16, 32, 64, 128, 256}) {
+                double recall = HnswIndexTest.recall(index, queries, k, ef);
+                System.out.printf("ef=%d recall@%d=%.3f%n", ef, k, recall);
+                report("hnsw ef=" + ef, queries, q -> index.search(q, k, ef, null));
+            }
+            report("hnsw scoped(1 user)", queries, q -> index.search(q, k, 64, List.of("user-7")));
+        }
+    }
+
+    private static float[] clusteredVector(Random random, List<float[]> centers) {
+        float[] center = centers.get(random.nextInt(centers.size()));
+        float[] vector = new float[center.length];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = center[i] + (float) random.nextGaussian() * 0.05f;
+        }
+        HashingEmbeddingProvider.normalize(vector);
+        return vector;
+    }
+
+    private static void report(String label, List<float[]> queries,
+                               java.util.function.Function<float[], List<HnswIndex.SearchHit>> search) {
+        long[] latencies = new long[queries.size()];
+        for (int i = 0; i < queries.size(); i++) {
+            long start = System.nanoTime();
+            search.apply(queries.get(i));
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%s: p50=%.3f ms, p99=%.3f ms%n", label,
+                latencies[latencies.length / 2] / 1e6,
+                latencies[(int) (latencies.length * 0.99)] / 1e6);
+    }
+}
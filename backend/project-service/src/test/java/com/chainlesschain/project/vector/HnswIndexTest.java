@@ -0,0 +1,170 @@
+package com.chainlesschain.project.vector;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HNSW 向量索引测试
+ */
+class HnswIndexTest {
+
+    private static final int DIMENSION = 32;
+
+    @TempDir
+    Path tempDir;
+
+    static float[] randomVector(Random random, int dimension) {
+        float[] vector = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        HashingEmbeddingProvider.normalize(vector);
+        return vector;
+    }
+
+    /**
+     * 近似检索结果与精确扫描结果的重合比例
+     */
+    static double recall(HnswIndex index, List<float[]> queries, int k, int ef) {
+        int hit = 0;
+        for (float[] query : queries) {
+            Set<String> exact = index.exactSearch(query, k, null).stream()
+                    .map(HnswIndex.SearchHit::id).collect(Collectors.toSet());
+            for (HnswIndex.SearchHit approx : index.search(query, k, ef, null)) {
+                if (exact.contains(approx.id())) {
+                    hit++;
+                }
+            }
+        }
+        return (double) hit / (queries.size() * k);
+    }
+
+    @Test
+    void testRecallAgainstExactSearch() throws Exception {
+        Random random = new Random(7);
+        try (HnswIndex index = HnswIndex.open(tempDir, DIMENSION, 16, 200, 1L)) {
+            for (int i = 0; i < 3000; i++) {
+                index.add("item-" + i, "user-" + (i % 10), randomVector(random, DIMENSION));
+            }
+            List<float[]> queries = random.ints(50).mapToObj(i -> randomVector(random, DIMENSION)).toList();
+
+            assertTrue(recall(index, queries, 10, 64) >= 0.9);
+        }
+    }
+
+    @Test
+    void testNearestNeighbourIsItself() throws Exception {
+        Random random = new Random(11);
+        try (HnswIndex index = HnswIndex.open(tempDir, DIMENSION, 8, 100, 1L)) {
+            float[] target = null;
+            for (int i = 0; i < 500; i++) {
+                float[] vector = randomVector(random, DIMENSION);
+                if (i == 123) {
+                    target = vector;
+                }
+                index.add("item-" + i, null, vector);
+            }
+
+            List<HnswIndex.SearchHit> hits = index.search(target, 1, 32, null);
+
+            assertEquals("item-123", hits.get(0).id());
+            assertEquals(1.0f, hits.get(0).score(), 1e-4);
+        }
+    }
+
+    @Test
+    void testScopeFilterOnlyReturnsAllowedScopes() throws Exception {
+        Random random = new Random(3);
+        try (HnswIndex index = HnswIndex.open(tempDir, DIMENSION, 8, 100, 1L)) {
+            for (int i = 0; i < 300; i++) {
+                index.add("item-" + i, "user-" + (i % 3), randomVector(random, DIMENSION));
+            }
+
+            List<HnswIndex.SearchHit> hits = index.search(randomVector(random, DIMENSION), 20, 32, Set.of("user-1"));
+
+            assertEquals(20, hits.size());
+            assertTrue(hits.stream().allMatch(hit -> "user-1".equals(hit.scope())));
+            assertTrue(index.search(randomVector(random, DIMENSION), 5, 32, Set.of("nobody")).isEmpty());
+        }
+    }
+
+    @Test
+    void testReplaceAndRemove() throws Exception {
+        Random random = new Random(5);
+        try (HnswIndex index = HnswIndex.open(tempDir, DIMENSION, 8, 100, 1L)) {
+            float[] original = randomVector(random, DIMENSION);
+            float[] replacement = randomVector(random, DIMENSION);
+            index.add("a", "u", original);
+            index.add("b", "u", randomVector(random, DIMENSION));
+
+            index.add("a", "u", replacement);
+
+            assertEquals(2, index.size());
+            assertEquals("a", index.search(replacement, 1, 16, null).get(0).id());
+            assertTrue(index.remove("a"));
+            assertFalse(index.contains("a"));
+            assertTrue(index.search(replacement, 2, 16, null).stream().noneMatch(hit -> "a".equals(hit.id())));
+            assertTrue(index.deletedRatio() > 0);
+        }
+    }
+
+    @Test
+    void testSaveAndReopen() throws Exception {
+        Random random = new Random(9);
+        float[] probe = randomVector(random, DIMENSION);
+        List<HnswIndex.SearchHit> before;
+        try (HnswIndex index = HnswIndex.open(tempDir, DIMENSION, 8, 100, 1L)) {
+            for (int i = 0; i < 200; i++) {
+                index.add("item-" + i, "user-" + (i % 4), randomVector(random, DIMENSION));
+            }
+            index.remove("item-0");
+            index.save();
+            // 快照之后的写入在重新打开后被丢弃，由调用方按检查点补录
+            index.add("after-checkpoint", "user-0", probe);
+            before = index.exactSearch(probe, 5, null);
+        }
+
+        try (HnswIndex reopened = HnswIndex.open(tempDir, DIMENSION, 8, 100, 1L)) {
+            assertEquals(199, reopened.size());
+            assertFalse(reopened.contains("item-0"));
+            assertFalse(reopened.contains("after-checkpoint"));
+            assertTrue(reopened.getCheckpointMillis() > 0);
+            List<HnswIndex.SearchHit> after = reopened.exactSearch(probe, 4, null);
+            assertEquals(before.subList(1, 5), after);
+        }
+    }
+
+    @Test
+    void testReopenWithDifferentDimensionFails() throws Exception {
+        try (HnswIndex index = HnswIndex.open(tempDir, DIMENSION, 8, 100, 1L)) {
+            index.add("a", null, randomVector(new Random(1), DIMENSION));
+            index.save();
+        }
+
+        assertThrows(IllegalStateException.class, () -> HnswIndex.open(tempDir, DIMENSION * 2, 8, 100, 1L));
+    }
+
+    @Test
+    void testHashingEmbeddingIsDeterministicAndNormalized() {
+        HashingEmbeddingProvider provider = new HashingEmbeddingProvider(DIMENSION);
+
+        float[] first = provider.embed("项目同步 sync conflict");
+        float[] second = provider.embed("项目同步 sync conflict");
+
+        assertArrayEquals(first, second);
+        double norm = 0;
+        for (float v : first) {
+            norm += v * v;
+        }
+        assertEquals(1.0, norm, 1e-5);
+        assertEquals(0f, provider.embed("")[0]);
+    }
+}
@@ -0,0 +1,50 @@
+package com.chainlesschain.community.benchmark;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 基准测试附加的 Bean：SQL 计数插件和按请求汇总计数的过滤器
+ *
+ * 不加 @Configuration，只在 {@link ForumServer} 启动时作为配置源显式注册，避免被业务组件扫描带入。
+ */
+public class BenchmarkConfiguration {
+
+    public static final String OP_HEADER = "X-Benchmark-Op";
+
+    @Bean
+    public QueryCounter queryCounter() {
+        return new QueryCounter();
+    }
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> queryCountingFilter() {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(
+                new OncePerRequestFilter() {
+                    @Override
+                    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                                    FilterChain filterChain) throws ServletException, IOException {
+                        String op = request.getHeader(OP_HEADER);
+                        QueryCounter.drain();
+                        try {
+                            filterChain.doFilter(request, response);
+                        } finally {
+                            long queries = QueryCounter.drain();
+                            if (op != null) {
+                                QueryCounter.record(op, queries);
+                            }
+                        }
+                    }
+                });
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
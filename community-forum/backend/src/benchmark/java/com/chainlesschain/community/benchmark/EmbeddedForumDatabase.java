@@ -0,0 +1,78 @@
+package com.chainlesschain.community.benchmark;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfiguration;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * 基准测试用的内嵌 MariaDB（MySQL 兼容）
+ *
+ * 每次启动使用新的临时数据目录和空闲端口，执行 db/schema.sql 建库建表（含初始数据），
+ * 与生产库使用同一份建表脚本、同一个 MySQL 驱动。
+ */
+public final class EmbeddedForumDatabase implements AutoCloseable {
+
+    public static final String DATABASE = "community_forum";
+
+    private static final String SCHEMA = "db/schema.sql";
+
+    private final DB db;
+    private final int port;
+
+    private EmbeddedForumDatabase(DB db, int port) {
+        this.db = db;
+        this.port = port;
+    }
+
+    public static EmbeddedForumDatabase start() throws Exception {
+        DBConfigurationBuilder builder = DBConfigurationBuilder.newBuilder();
+        builder.setPort(0);
+        builder.addArg("--character-set-server=utf8mb4");
+        builder.addArg("--collation-server=utf8mb4_unicode_ci");
+        builder.addArg("--max-connections=500");
+        if ("root".equals(System.getProperty("user.name"))) {
+            // 容器内常以 root 运行，mariadbd 需要显式指定
+            builder.addArg("--user=root");
+        }
+        DBConfiguration configuration = builder.build();
+        DB db = DB.newEmbeddedDB(configuration);
+        db.start();
+
+        EmbeddedForumDatabase database = new EmbeddedForumDatabase(db, configuration.getPort());
+        try (Connection connection = DriverManager.getConnection(database.serverUrl(), "root", "")) {
+            ScriptUtils.executeSqlScript(connection,
+                    new EncodedResource(new ClassPathResource(SCHEMA), StandardCharsets.UTF_8));
+        }
+        return database;
+    }
+
+    /**
+     * 业务库连接地址（批量语句改写为多行插入，便于生成数据）
+     */
+    public String jdbcUrl() {
+        return "jdbc:mysql://localhost:" + port + "/" + DATABASE
+                + "?useSSL=false&serverTimezone=Asia/Shanghai&characterEncoding=utf8"
+                + "&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true";
+    }
+
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl(), "root", "");
+    }
+
+    private String serverUrl() {
+        return "jdbc:mysql://localhost:" + port + "/?useSSL=false&allowPublicKeyRetrieval=true&characterEncoding=utf8";
+    }
+
+    @Override
+    public void close() throws Exception {
+        db.stop();
+    }
+}
@@ -0,0 +1,308 @@
+package com.chainlesschain.community.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 确定性的论坛数据生成器
+ *
+ * 在 schema.sql 初始数据（4 个分类、10 个标签、管理员和一篇公告）之上生成用户、关注关系、帖子、
+ * 帖子标签和两级回复。所有随机数来自固定种子，时间从固定起点推算，相同参数每次生成的数据完全一致。
+ * 帖子ID随发布时间递增；关注和回复都偏向少数活跃用户与新帖，接近真实论坛的长尾分布。
+ *
+ * 可通过系统属性调整规模：benchmark.seed、benchmark.users、benchmark.posts、
+ * benchmark.replies-per-post、benchmark.follows-per-user。
+ */
+public final class ForumDataGenerator {
+
+    /**
+     * 生成文本使用的词表，搜索基准从中取关键词
+     */
+    public static final List<String> VOCABULARY = List.of(
+            "U盾", "SIMKey", "同步", "知识库", "插件", "备份", "加密", "签名", "证书", "节点",
+            "钱包", "离线", "模型", "向量", "检索", "导入", "导出", "权限", "安装", "升级",
+            "数据库", "索引", "缓存", "日志", "配置", "网络", "代理", "端口", "容器", "镜像",
+            "git", "docker", "ollama", "qdrant", "electron", "vue", "spring", "mysql", "redis", "lucene",
+            "问题", "报错", "崩溃", "卡顿", "内存", "性能", "兼容", "教程", "建议", "反馈");
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final long SPAN_MINUTES = 365L * 24 * 60;
+    private static final int BATCH = 1000;
+    private static final int CATEGORIES = 4;
+    private static final int TAGS = 10;
+    private static final String[] POST_TYPES = {"QUESTION", "DISCUSSION", "DISCUSSION", "FEEDBACK"};
+
+    /**
+     * 生成结果：ID 均为闭区间
+     */
+    public record Dataset(long seed, long firstUserId, long lastUserId, long firstPostId, long lastPostId,
+                          long replies, long follows) {
+
+        public int userCount() {
+            return (int) (lastUserId - firstUserId + 1);
+        }
+
+        public int postCount() {
+            return (int) (lastPostId - firstPostId + 1);
+        }
+    }
+
+    private final long seed;
+    private final int users;
+    private final int posts;
+    private final int repliesPerPost;
+    private final int followsPerUser;
+
+    public ForumDataGenerator(long seed, int users, int posts, int repliesPerPost, int followsPerUser) {
+        this.seed = seed;
+        this.users = users;
+        this.posts = posts;
+        this.repliesPerPost = repliesPerPost;
+        this.followsPerUser = followsPerUser;
+    }
+
+    public static ForumDataGenerator fromSystemProperties() {
+        return new ForumDataGenerator(
+                Long.getLong("benchmark.seed", 20240101L),
+                Integer.getInteger("benchmark.users", 2_000),
+                Integer.getInteger("benchmark.posts", 20_000),
+                Integer.getInteger("benchmark.replies-per-post", 8),
+                Integer.getInteger("benchmark.follows-per-user", 20));
+    }
+
+    public Dataset generate(Connection connection) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            // 各表分批写入，帖子标签等可能先于所引用的帖子提交
+            statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+            long firstUserId = nextId(connection, "users");
+            long firstPostId = nextId(connection, "posts");
+            long firstReplyId = nextId(connection, "replies");
+
+            insertUsers(connection, firstUserId);
+            long follows = insertFollows(connection, random, firstUserId);
+            insertPosts(connection, random, firstUserId, firstPostId);
+            long replies = insertReplies(connection, random, firstUserId, firstPostId, firstReplyId);
+            refreshCounts(connection);
+            connection.commit();
+            statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+
+            return new Dataset(seed, firstUserId, firstUserId + users - 1,
+                    firstPostId, firstPostId + posts - 1, replies, follows);
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void insertUsers(Connection connection, long firstUserId) throws SQLException {
+        String sql = "INSERT INTO users (id, did, username, nickname, avatar, role, points, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, 'USER', 100, ?)";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < users; i++) {
+                long id = firstUserId + i;
+                statement.setLong(1, id);
+                statement.setString(2, "did:bench:" + id);
+                statement.setString(3, "bench" + id);
+                statement.setString(4, "用户" + id);
+                statement.setString(5, "/avatars/" + (id % 16) + ".png");
+                statement.setTimestamp(6, at(SPAN_MINUTES * i / users / 4));
+                addBatch(statement, i);
+            }
+            statement.executeBatch();
+        }
+    }
+
+    /**
+     * 关注关系：被关注者按幂律分布，少数作者拥有大量粉丝（覆盖时间线的推、拉两条路径）
+     */
+    private long insertFollows(Connection connection, SplittableRandom random, long firstUserId) throws SQLException {
+        String sql = "INSERT IGNORE INTO follows (follower_id, following_id, created_at) VALUES (?, ?, ?)";
+        long count = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < users; i++) {
+                long follower = firstUserId + i;
+                for (int f = 0; f < followsPerUser; f++) {
+                    long following = firstUserId + skewed(random, users);
+                    if (following == follower) {
+                        continue;
+                    }
+                    statement.setLong(1, follower);
+                    statement.setLong(2, following);
+                    statement.setTimestamp(3, at(SPAN_MINUTES / 4 + random.nextLong(SPAN_MINUTES / 4)));
+                    addBatch(statement, count++);
+                }
+            }
+            statement.executeBatch();
+        }
+        return count;
+    }
+
+    private void insertPosts(Connection connection, SplittableRandom random, long firstUserId, long firstPostId)
+            throws SQLException {
+        String postSql = "INSERT INTO posts (id, user_id, category_id, title, content, type, status, "
+                + "views_count, likes_count, favorites_count, published_at, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 'PUBLISHED', ?, ?, ?, ?, ?)";
+        String tagSql = "INSERT IGNORE INTO post_tags (post_id, tag_id, created_at) VALUES (?, ?, ?)";
+        try (PreparedStatement postStatement = connection.prepareStatement(postSql);
+             PreparedStatement tagStatement = connection.prepareStatement(tagSql)) {
+            long tagRows = 0;
+            for (int i = 0; i < posts; i++) {
+                long id = firstPostId + i;
+                Timestamp createdAt = postTime(i);
+                int popularity = (int) (Math.pow(random.nextDouble(), 4) * 5_000);
+                postStatement.setLong(1, id);
+                postStatement.setLong(2, firstUserId + skewed(random, users));
+                postStatement.setLong(3, 1 + random.nextInt(CATEGORIES - 1));
+                postStatement.setString(4, sentence(random, 3, 8, ""));
+                postStatement.setString(5, sentence(random, 40, 200, " "));
+                postStatement.setString(6, POST_TYPES[random.nextInt(POST_TYPES.length)]);
+                postStatement.setInt(7, popularity * 20 + random.nextInt(50));
+                postStatement.setInt(8, popularity);
+                postStatement.setInt(9, popularity / 4);
+                postStatement.setTimestamp(10, createdAt);
+                postStatement.setTimestamp(11, createdAt);
+                addBatch(postStatement, i);
+
+                int tags = random.nextInt(4);
+                for (int t = 0; t < tags; t++) {
+                    tagStatement.setLong(1, id);
+                    tagStatement.setLong(2, 1 + random.nextInt(TAGS));
+                    tagStatement.setTimestamp(3, createdAt);
+                    addBatch(tagStatement, tagRows++);
+                }
+            }
+            postStatement.executeBatch();
+            tagStatement.executeBatch();
+        }
+    }
+
+    /**
+     * 回复：每帖回复数为几何分布（均值 benchmark.replies-per-post），约三成是楼中楼
+     */
+    private long insertReplies(Connection connection, SplittableRandom random, long firstUserId, long firstPostId,
+                               long firstReplyId) throws SQLException {
+        String sql = "INSERT INTO replies (id, post_id, user_id, parent_id, reply_to_user_id, content, "
+                + "is_author, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        long nextId = firstReplyId;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            List<long[]> roots = new ArrayList<>();
+            for (int i = 0; i < posts; i++) {
+                long postId = firstPostId + i;
+                long minute = postTime(i).getTime() / 60_000;
+                int count = geometric(random, repliesPerPost);
+                roots.clear();
+                for (int r = 0; r < count; r++) {
+                    long userId = firstUserId + skewed(random, users);
+                    minute += 1 + random.nextInt(180);
+                    long[] parent = roots.isEmpty() || random.nextInt(10) >= 3
+                            ? null : roots.get(random.nextInt(roots.size()));
+                    statement.setLong(1, nextId);
+                    statement.setLong(2, postId);
+                    statement.setLong(3, userId);
+                    if (parent != null) {
+                        statement.setLong(4, parent[0]);
+                        statement.setLong(5, parent[1]);
+                    } else {
+                        statement.setNull(4, java.sql.Types.BIGINT);
+                        statement.setNull(5, java.sql.Types.BIGINT);
+                        roots.add(new long[]{nextId, userId});
+                    }
+                    statement.setString(6, sentence(random, 5, 40, " "));
+                    statement.setInt(7, 0);
+                    statement.setTimestamp(8, new Timestamp(minute * 60_000));
+                    addBatch(statement, nextId - firstReplyId);
+                    nextId++;
+                }
+            }
+            statement.executeBatch();
+        }
+        return nextId - firstReplyId;
+    }
+
+    /**
+     * 按生成的数据回填各计数列和作者回复标记
+     */
+    private static void refreshCounts(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE posts p JOIN (SELECT post_id, COUNT(*) c, MAX(created_at) last_at "
+                    + "FROM replies GROUP BY post_id) r ON r.post_id = p.id "
+                    + "SET p.replies_count = r.c, p.last_reply_at = r.last_at");
+            statement.executeUpdate("UPDATE posts p JOIN replies r ON r.post_id = p.id AND r.user_id = p.user_id "
+                    + "SET r.is_author = 1");
+            statement.executeUpdate("UPDATE users u JOIN (SELECT user_id, COUNT(*) c FROM posts GROUP BY user_id) p "
+                    + "ON p.user_id = u.id SET u.posts_count = p.c");
+            statement.executeUpdate("UPDATE users u JOIN (SELECT user_id, COUNT(*) c FROM replies GROUP BY user_id) r "
+                    + "ON r.user_id = u.id SET u.replies_count = r.c");
+            statement.executeUpdate("UPDATE users u JOIN (SELECT following_id, COUNT(*) c FROM follows "
+                    + "GROUP BY following_id) f ON f.following_id = u.id SET u.followers_count = f.c");
+            statement.executeUpdate("UPDATE users u JOIN (SELECT follower_id, COUNT(*) c FROM follows "
+                    + "GROUP BY follower_id) f ON f.follower_id = u.id SET u.following_count = f.c");
+            statement.executeUpdate("UPDATE categories c JOIN (SELECT category_id, COUNT(*) n FROM posts "
+                    + "WHERE deleted = 0 GROUP BY category_id) p ON p.category_id = c.id SET c.posts_count = p.n");
+            statement.executeUpdate("UPDATE tags t JOIN (SELECT tag_id, COUNT(*) n FROM post_tags GROUP BY tag_id) p "
+                    + "ON p.tag_id = t.id SET t.posts_count = p.n");
+        }
+    }
+
+    private Timestamp postTime(int index) {
+        return at(SPAN_MINUTES / 2 + SPAN_MINUTES / 2 * index / posts);
+    }
+
+    private static Timestamp at(long minutes) {
+        return Timestamp.valueOf(EPOCH.plusMinutes(minutes));
+    }
+
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             var rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * 偏向小下标的幂律分布，[0, bound)
+     */
+    private static long skewed(SplittableRandom random, int bound) {
+        return Math.min(bound - 1, (long) (bound * Math.pow(random.nextDouble(), 3)));
+    }
+
+    private static int geometric(SplittableRandom random, int mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double p = 1.0 / (mean + 1);
+        return (int) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    private static String sentence(SplittableRandom random, int minWords, int maxWords, String separator) {
+        int words = minWords + random.nextInt(maxWords - minWords + 1);
+        StringBuilder builder = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                builder.append(separator);
+            }
+            builder.append(VOCABULARY.get((int) skewed(random, VOCABULARY.size())));
+        }
+        return builder.toString();
+    }
+
+    private static void addBatch(PreparedStatement statement, long index) throws SQLException {
+        statement.addBatch();
+        if ((index + 1) % BATCH == 0) {
+            statement.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.chainlesschain.community.benchmark;
+
+import com.chainlesschain.community.CommunityForumApplication;
+import com.chainlesschain.community.search.SearchIndexService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * 基准测试用的完整论坛后端：内嵌数据库 + 确定性数据 + Spring 上下文（随机端口）
+ *
+ * 使用默认部署的组件（进程内缓存、Lucene 索引），只替换数据源、索引目录和日志级别；
+ * U盾按生产模式验证签名。启动后等待搜索索引从数据库全量重建完成再返回。
+ */
+public final class ForumServer implements AutoCloseable {
+
+    private static final long INDEX_TIMEOUT_MS = 10 * 60 * 1000;
+
+    private final EmbeddedForumDatabase database;
+    private final ForumDataGenerator.Dataset dataset;
+    private final ConfigurableApplicationContext context;
+    private final Path workDir;
+
+    private ForumServer(EmbeddedForumDatabase database, ForumDataGenerator.Dataset dataset,
+                        ConfigurableApplicationContext context, Path workDir) {
+        this.database = database;
+        this.dataset = dataset;
+        this.context = context;
+        this.workDir = workDir;
+    }
+
+    public static ForumServer start() throws Exception {
+        long start = System.currentTimeMillis();
+        EmbeddedForumDatabase database = EmbeddedForumDatabase.start();
+        ForumDataGenerator.Dataset dataset;
+        try (Connection connection = database.connect()) {
+            dataset = ForumDataGenerator.fromSystemProperties().generate(connection);
+        }
+        System.out.printf("seed: users=%d, posts=%d, replies=%d, follows=%d, seed=%d, %d ms%n",
+                dataset.userCount(), dataset.postCount(), dataset.replies(), dataset.follows(),
+                dataset.seed(), System.currentTimeMillis() - start);
+
+        Path workDir = Files.createTempDirectory("forum-benchmark");
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", database.jdbcUrl());
+        properties.put("spring.datasource.username", "root");
+        properties.put("spring.datasource.password", "");
+        properties.put("spring.datasource.hikari.maximum-pool-size",
+                Integer.getInteger("benchmark.db-pool-size", 32));
+        properties.put("server.port", 0);
+        properties.put("search.lucene.index-dir", workDir.resolve("search-index").toString());
+        properties.put("counters.journal-dir", workDir.resolve("counter-journal").toString());
+        properties.put("ukey.dev-mode", false);
+        properties.put("mybatis-plus.configuration.log-impl", "org.apache.ibatis.logging.nologging.NoLoggingImpl");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.chainlesschain.community", "WARN");
+        properties.put("logging.file.name", workDir.resolve("community-forum.log").toString());
+        properties.put("spring.main.banner-mode", "off");
+
+        // 以命令行参数传入，优先级高于 application.yml
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                CommunityForumApplication.class, BenchmarkConfiguration.class)
+                .main(CommunityForumApplication.class)
+                .run(args);
+        ForumServer server = new ForumServer(database, dataset, context, workDir);
+        server.awaitSearchIndex();
+        System.out.printf("forum started on port %d, %d ms%n", server.port(), System.currentTimeMillis() - start);
+        return server;
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public ForumDataGenerator.Dataset dataset() {
+        return dataset;
+    }
+
+    public EmbeddedForumDatabase database() {
+        return database;
+    }
+
+    public int port() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + port() + "/api";
+    }
+
+    private void awaitSearchIndex() throws InterruptedException {
+        SearchIndexService searchIndexService = bean(SearchIndexService.class);
+        if (!searchIndexService.isEnabled()) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + INDEX_TIMEOUT_MS;
+        while (((Number) searchIndexService.getStats().get("lastRebuildAt")).longValue() == 0) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("搜索索引重建超时: " + searchIndexService.getStats());
+            }
+            Thread.sleep(200);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            context.close();
+        } finally {
+            database.close();
+            try (Stream<Path> paths = Files.walk(workDir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
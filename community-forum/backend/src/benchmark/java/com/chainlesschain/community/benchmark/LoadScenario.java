@@ -0,0 +1,240 @@
+package com.chainlesschain.community.benchmark;
+
+import com.chainlesschain.community.util.JwtUtil;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * HTTP 压测场景（闭环并发客户端，按固定比例混合浏览请求）
+ *
+ * 启动内嵌数据库和完整后端，先预热再正式计时，输出每类请求的吞吐、p50/p90/p99/最大延迟、
+ * 错误数和平均每请求 SQL 语句数（由 {@link QueryCounter} 在服务端按请求统计）。
+ *
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.chainlesschain.community.benchmark.LoadScenario
+ * 可选参数（经 -Dbenchmark.jvmArgs 传入）：-Dbenchmark.clients=16 -Dbenchmark.warmup-seconds=15
+ *         -Dbenchmark.duration-seconds=60，以及 {@link ForumDataGenerator} 的数据规模参数
+ */
+public final class LoadScenario {
+
+    /**
+     * 请求类型及其在混合负载中的权重
+     */
+    enum Op {
+        LIST_LATEST(15, false),
+        LIST_HOT(15, false),
+        POST_DETAIL(25, false),
+        REPLIES(20, false),
+        SEARCH(10, false),
+        TIMELINE(15, true);
+
+        final int weight;
+        final boolean authenticated;
+
+        Op(int weight, boolean authenticated) {
+            this.weight = weight;
+            this.authenticated = authenticated;
+        }
+    }
+
+    private final ForumServer server;
+    private final HttpClient httpClient;
+    private final JwtUtil jwtUtil;
+    private final int totalWeight = Arrays.stream(Op.values()).mapToInt(op -> op.weight).sum();
+
+    private LoadScenario(ForumServer server) {
+        this.server = server;
+        this.jwtUtil = server.bean(JwtUtil.class);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = Integer.getInteger("benchmark.clients", 16);
+        int warmupSeconds = Integer.getInteger("benchmark.warmup-seconds", 15);
+        int durationSeconds = Integer.getInteger("benchmark.duration-seconds", 60);
+
+        try (ForumServer server = ForumServer.start()) {
+            LoadScenario scenario = new LoadScenario(server);
+            System.out.printf("warmup: clients=%d, %d s%n", clients, warmupSeconds);
+            scenario.run(clients, warmupSeconds, 1);
+            QueryCounter.reset();
+
+            System.out.printf("measure: clients=%d, %d s%n", clients, durationSeconds);
+            Map<Op, Samples> results = scenario.run(clients, durationSeconds, 2);
+            report(results, durationSeconds, QueryCounter.queriesPerRequest());
+        }
+        System.exit(0);
+    }
+
+    /**
+     * 运行一个阶段，返回各请求类型的延迟样本
+     *
+     * @param phase 参与随机种子，预热与正式计时使用不同的请求序列
+     */
+    private Map<Op, Samples> run(int clients, int seconds, int phase) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Map<Op, Samples>>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                long seed = server.dataset().seed() * 31 + phase * 1_000L + i;
+                futures.add(executor.submit(() -> client(new SplittableRandom(seed), deadline)));
+            }
+            Map<Op, Samples> merged = new EnumMap<>(Op.class);
+            for (Future<Map<Op, Samples>> future : futures) {
+                future.get().forEach((op, samples) -> merged.computeIfAbsent(op, k -> new Samples()).addAll(samples));
+            }
+            return merged;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 单个客户端：一个用户身份，请求完成后立即发出下一个
+     */
+    private Map<Op, Samples> client(SplittableRandom random, long deadline) throws Exception {
+        Map<Op, Samples> samples = new EnumMap<>(Op.class);
+        long userId = server.dataset().firstUserId() + skewed(random, server.dataset().userCount());
+        String token = jwtUtil.generateToken(userId, "bench" + userId, "USER");
+
+        while (System.nanoTime() < deadline) {
+            Op op = pick(random);
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(server.baseUrl() + path(op, random)))
+                    .timeout(Duration.ofSeconds(30))
+                    .header(BenchmarkConfiguration.OP_HEADER, op.name())
+                    .GET();
+            if (op.authenticated) {
+                request.header("Authorization", "Bearer " + token);
+            }
+
+            Samples opSamples = samples.computeIfAbsent(op, k -> new Samples());
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+                opSamples.add(System.nanoTime() - start);
+                if (response.statusCode() != 200 || !response.body().contains("\"code\":200")) {
+                    opSamples.errors++;
+                }
+            } catch (java.io.IOException e) {
+                opSamples.add(System.nanoTime() - start);
+                opSamples.errors++;
+            }
+        }
+        return samples;
+    }
+
+    private String path(Op op, SplittableRandom random) {
+        ForumDataGenerator.Dataset dataset = server.dataset();
+        long postId = dataset.lastPostId() - skewed(random, dataset.postCount());
+        int page = 1 + (int) skewed(random, 5);
+        return switch (op) {
+            case LIST_LATEST -> "/posts?page=" + page + "&pageSize=20";
+            case LIST_HOT -> "/posts?sortBy=hot&page=" + page + "&pageSize=20";
+            case POST_DETAIL -> "/posts/" + postId;
+            case REPLIES -> "/posts/" + postId + "/replies?page=1&pageSize=20";
+            case SEARCH -> "/search/posts?page=1&pageSize=20&keyword=" + URLEncoder.encode(
+                    ForumDataGenerator.VOCABULARY.get((int) skewed(random, ForumDataGenerator.VOCABULARY.size())),
+                    StandardCharsets.UTF_8);
+            case TIMELINE -> "/posts/timeline?pageSize=20";
+        };
+    }
+
+    private Op pick(SplittableRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (Op op : Op.values()) {
+            value -= op.weight;
+            if (value < 0) {
+                return op;
+            }
+        }
+        return Op.values()[0];
+    }
+
+    /**
+     * 偏向小下标的分布，[0, bound)
+     */
+    private static long skewed(SplittableRandom random, int bound) {
+        return Math.min(bound - 1, (long) (bound * Math.pow(random.nextDouble(), 2)));
+    }
+
+    private static void report(Map<Op, Samples> results, int seconds, Map<String, Double> queries) {
+        System.out.printf("%n%-12s %8s %9s %9s %9s %9s %9s %7s %9s%n",
+                "op", "requests", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "max(ms)", "errors", "queries");
+        long totalRequests = 0;
+        Samples all = new Samples();
+        for (Op op : Op.values()) {
+            Samples samples = results.get(op);
+            if (samples == null || samples.size == 0) {
+                continue;
+            }
+            totalRequests += samples.size;
+            all.addAll(samples);
+            printRow(op.name(), samples, seconds, queries.getOrDefault(op.name(), 0.0));
+        }
+        double totalQueries = queries.entrySet().stream()
+                .mapToDouble(e -> e.getValue() * sizeOf(results, e.getKey()))
+                .sum();
+        printRow("TOTAL", all, seconds, totalRequests > 0 ? totalQueries / totalRequests : 0);
+    }
+
+    private static long sizeOf(Map<Op, Samples> results, String op) {
+        Samples samples = results.get(Op.valueOf(op));
+        return samples != null ? samples.size : 0;
+    }
+
+    private static void printRow(String label, Samples samples, int seconds, double queriesPerRequest) {
+        long[] sorted = Arrays.copyOf(samples.values, samples.size);
+        Arrays.sort(sorted);
+        System.out.printf("%-12s %8d %9.1f %9.2f %9.2f %9.2f %9.2f %7d %9.2f%n",
+                label, sorted.length, (double) sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                sorted[sorted.length - 1] / 1e6, samples.errors, queriesPerRequest);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * p) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * 延迟样本（纳秒）
+     */
+    private static final class Samples {
+
+        long[] values = new long[1024];
+        int size;
+        long errors;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+            errors += other.errors;
+        }
+    }
+}
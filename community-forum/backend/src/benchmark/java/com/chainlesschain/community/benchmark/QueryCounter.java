@@ -0,0 +1,68 @@
+package com.chainlesschain.community.benchmark;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SQL 语句计数（MyBatis 插件）
+ *
+ * 每条实际执行的语句（含分页的 count 查询）在执行线程上计数。JMH 基准读取当前线程的计数；
+ * HTTP 压测由 {@link BenchmarkConfiguration} 注册的过滤器按请求头 X-Benchmark-Op 汇总，
+ * 只统计请求线程上的查询，事务提交后的异步任务、定时写回不计入。
+ */
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+public class QueryCounter implements Interceptor {
+
+    private static final ThreadLocal<long[]> THREAD_COUNT = ThreadLocal.withInitial(() -> new long[1]);
+    private static final Map<String, LongAdder[]> REQUESTS = new ConcurrentHashMap<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        THREAD_COUNT.get()[0]++;
+        return invocation.proceed();
+    }
+
+    /**
+     * 返回当前线程自上次调用以来执行的语句数，并清零
+     */
+    public static long drain() {
+        long[] count = THREAD_COUNT.get();
+        long value = count[0];
+        count[0] = 0;
+        return value;
+    }
+
+    /**
+     * 记录一次请求执行的语句数
+     */
+    public static void record(String op, long queries) {
+        LongAdder[] counters = REQUESTS.computeIfAbsent(op, k -> new LongAdder[]{new LongAdder(), new LongAdder()});
+        counters[0].increment();
+        counters[1].add(queries);
+    }
+
+    /**
+     * 各操作的平均每请求语句数
+     */
+    public static Map<String, Double> queriesPerRequest() {
+        Map<String, Double> result = new TreeMap<>();
+        REQUESTS.forEach((op, counters) -> {
+            long requests = counters[0].sum();
+            result.put(op, requests > 0 ? (double) counters[1].sum() / requests : 0);
+        });
+        return result;
+    }
+
+    public static void reset() {
+        REQUESTS.clear();
+    }
+}
@@ -0,0 +1,51 @@
+package com.chainlesschain.community.benchmark.jmh;
+
+import com.chainlesschain.community.benchmark.ForumDataGenerator;
+import com.chainlesschain.community.benchmark.ForumServer;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+/**
+ * 每个 fork 启动一套完整后端（内嵌数据库 + 生成数据 + Spring 上下文），同一 fork 内的基准共用
+ */
+@State(Scope.Benchmark)
+public class ForumState {
+
+    public ForumServer server;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        server = ForumServer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws Exception {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return server.bean(type);
+    }
+
+    public ForumDataGenerator.Dataset dataset() {
+        return server.dataset();
+    }
+
+    /**
+     * 以指定用户身份执行后续调用（只影响当前线程）
+     */
+    public static void signIn(long userId) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                userId, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+}
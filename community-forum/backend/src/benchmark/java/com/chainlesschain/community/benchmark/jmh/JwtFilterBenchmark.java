@@ -0,0 +1,91 @@
+package com.chainlesschain.community.benchmark.jmh;
+
+import com.chainlesschain.community.config.JwtAuthenticationFilter;
+import com.chainlesschain.community.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 认证过滤器：有效 Token（验签结果已缓存）、每次新签发的 Token（需要验签）、签名错误的 Token、无 Token
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    private static final int TOKENS = 1000;
+
+    private JwtAuthenticationFilter filter;
+    private JwtUtil jwtUtil;
+    private String[] tokens;
+    private String[] forgedTokens;
+
+    @Setup(Level.Trial)
+    public void setUp(ForumState forum) {
+        filter = forum.bean(JwtAuthenticationFilter.class);
+        jwtUtil = forum.bean(JwtUtil.class);
+        long firstUserId = forum.dataset().firstUserId();
+        tokens = new String[TOKENS];
+        forgedTokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            long userId = firstUserId + i % forum.dataset().userCount();
+            tokens[i] = jwtUtil.generateToken(userId, "bench" + userId, "USER");
+            // 改动签名中间的一个字符（末位字符的低位可能不参与解码）
+            char[] forged = tokens[i].toCharArray();
+            int pos = forged.length - 10;
+            forged[pos] = forged[pos] == 'A' ? 'B' : 'A';
+            forgedTokens[i] = new String(forged);
+        }
+    }
+
+    @Benchmark
+    public Object cachedToken(Workload workload) throws Exception {
+        return filter(tokens[workload.nextInt(TOKENS)]);
+    }
+
+    @Benchmark
+    public Object freshToken(Workload workload) throws Exception {
+        long userId = workload.userId();
+        return filter(jwtUtil.generateToken(userId, "bench" + userId, "USER"));
+    }
+
+    @Benchmark
+    public Object forgedToken(Workload workload) throws Exception {
+        return filter(forgedTokens[workload.nextInt(TOKENS)]);
+    }
+
+    @Benchmark
+    public Object anonymous() throws Exception {
+        return filter(null);
+    }
+
+    private Object filter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+        request.setRequestURI("/api/posts");
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
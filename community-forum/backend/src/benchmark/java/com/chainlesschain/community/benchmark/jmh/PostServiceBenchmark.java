@@ -0,0 +1,63 @@
+package com.chainlesschain.community.benchmark.jmh;
+
+import com.chainlesschain.community.service.PostService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 帖子列表（最新、热门）与帖子详情
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostServiceBenchmark {
+
+    private PostService postService;
+
+    @Setup(Level.Trial)
+    public void setUp(ForumState forum) {
+        postService = forum.bean(PostService.class);
+    }
+
+    @Benchmark
+    public Object getPostsLatest(Workload workload) {
+        Object result = postService.getPosts(workload.page(5), 20, null, "latest", null);
+        workload.record();
+        return result;
+    }
+
+    @Benchmark
+    public Object getPostsHot(Workload workload) {
+        Object result = postService.getPosts(workload.page(5), 20, null, "hot", null);
+        workload.record();
+        return result;
+    }
+
+    @Benchmark
+    public Object getPostsByCategory(Workload workload) {
+        Object result = postService.getPosts(1, 20, 1L + workload.nextInt(3), "latest", null);
+        workload.record();
+        return result;
+    }
+
+    @Benchmark
+    public Object getPostById(Workload workload) {
+        Object result = postService.getPostById(workload.postId());
+        workload.record();
+        return result;
+    }
+}
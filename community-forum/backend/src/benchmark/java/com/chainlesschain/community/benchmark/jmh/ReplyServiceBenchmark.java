@@ -0,0 +1,49 @@
+package com.chainlesschain.community.benchmark.jmh;
+
+import com.chainlesschain.community.service.ReplyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 帖子回复分页（首页带楼中楼预览；按页码跳页）
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReplyServiceBenchmark {
+
+    private ReplyService replyService;
+
+    @Setup(Level.Trial)
+    public void setUp(ForumState forum) {
+        replyService = forum.bean(ReplyService.class);
+    }
+
+    @Benchmark
+    public Object firstPage(Workload workload) {
+        Object result = replyService.getRepliesByPostId(workload.postId(), null, 1, 20);
+        workload.record();
+        return result;
+    }
+
+    @Benchmark
+    public Object pageByNumber(Workload workload) {
+        Object result = replyService.getRepliesByPostId(workload.postId(), null, workload.page(3), 5);
+        workload.record();
+        return result;
+    }
+}
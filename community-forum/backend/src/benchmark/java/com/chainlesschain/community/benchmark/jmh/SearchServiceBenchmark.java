@@ -0,0 +1,50 @@
+package com.chainlesschain.community.benchmark.jmh;
+
+import com.chainlesschain.community.service.SearchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 帖子搜索（默认 Lucene 索引；-Dbenchmark.jvmArgs="-Dsearch.engine=database" 可对比数据库 LIKE 查询）
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchServiceBenchmark {
+
+    private SearchService searchService;
+
+    @Setup(Level.Trial)
+    public void setUp(ForumState forum) {
+        searchService = forum.bean(SearchService.class);
+    }
+
+    @Benchmark
+    public Object singleTerm(Workload workload) {
+        Object result = searchService.searchPosts(workload.keyword(), null, 1, 20);
+        workload.record();
+        return result;
+    }
+
+    @Benchmark
+    public Object twoTermsInCategory(Workload workload) {
+        Object result = searchService.searchPosts(workload.keyword() + " " + workload.keyword(),
+                1L + workload.nextInt(3), 1, 20);
+        workload.record();
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package com.chainlesschain.community.benchmark.jmh;
+
+import com.chainlesschain.community.common.PageResult;
+import com.chainlesschain.community.common.Result;
+import com.chainlesschain.community.feed.TimelineService;
+import com.chainlesschain.community.service.PostService;
+import com.chainlesschain.community.vo.PostListVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 关注时间线：首页、翻到第二页，以及只取帖子ID（不含帖子组装）
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimelineBenchmark {
+
+    private PostService postService;
+    private TimelineService timelineService;
+
+    @Setup(Level.Trial)
+    public void setUp(ForumState forum) {
+        postService = forum.bean(PostService.class);
+        timelineService = forum.bean(TimelineService.class);
+    }
+
+    @Benchmark
+    public Object firstPage(Workload workload) {
+        ForumState.signIn(workload.userId());
+        Object result = postService.getTimeline(null, 20);
+        workload.record();
+        return result;
+    }
+
+    @Benchmark
+    public Object secondPage(Workload workload) {
+        ForumState.signIn(workload.userId());
+        Result<PageResult<PostListVO>> first = postService.getTimeline(null, 20);
+        String cursor = first.getData() != null ? first.getData().getNextCursor() : null;
+        Object result = cursor != null ? postService.getTimeline(cursor, 20) : first;
+        workload.record();
+        return result;
+    }
+
+    @Benchmark
+    public Object idsOnly(Workload workload) {
+        Object result = timelineService.page(workload.userId(), null, 20);
+        workload.record();
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package com.chainlesschain.community.benchmark.jmh;
+
+import com.chainlesschain.community.service.UKeyVerificationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * U盾生产模式验证：取挑战值 → 设备签名 → 服务端验签（一次性挑战值 + 设备公钥缓存）
+ *
+ * 设备签名在客户端完成，clientSignOnly 单独测量这部分开销，二者之差即服务端成本。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UKeyVerificationBenchmark {
+
+    private static final String DEVICE_ID = "0123456789abcdef";
+    private static final String PIN = "123456";
+
+    private UKeyVerificationService verificationService;
+    private KeyPair keyPair;
+
+    @Setup(Level.Trial)
+    public void setUp(ForumState forum) throws Exception {
+        verificationService = forum.bean(UKeyVerificationService.class);
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+        try (Connection connection = forum.server.database().connect();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO device_keys (device_id, device_type, public_key, status) VALUES (?, 'UKEY', ?, 'active')")) {
+            statement.setString(1, DEVICE_ID);
+            statement.setString(2, Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+            statement.executeUpdate();
+        }
+    }
+
+    @Benchmark
+    public Object verify(Workload workload) throws Exception {
+        String challenge = verificationService.generateChallenge();
+        UKeyVerificationService.VerificationResult result =
+                verificationService.verify(DEVICE_ID, PIN, "UKEY", sign(challenge), challenge);
+        if (!result.isSuccess()) {
+            throw new IllegalStateException(result.getMessage());
+        }
+        workload.record();
+        return result;
+    }
+
+    @Benchmark
+    public Object clientSignOnly() throws Exception {
+        return sign(verificationService.generateChallenge());
+    }
+
+    private String sign(String challenge) throws Exception {
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(challenge.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(signature.sign());
+    }
+}
@@ -0,0 +1,84 @@
+package com.chainlesschain.community.benchmark.jmh;
+
+import com.chainlesschain.community.benchmark.ForumDataGenerator;
+import com.chainlesschain.community.benchmark.QueryCounter;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.SplittableRandom;
+
+/**
+ * 每个基准线程的请求参数和 SQL 计数
+ *
+ * 参数来自按线程编号固定种子的随机数，访问偏向新帖和活跃用户；
+ * 每次调用后调用 {@link #record()}，试验结束时输出平均每次调用执行的语句数。
+ */
+@State(Scope.Thread)
+public class Workload {
+
+    private SplittableRandom random;
+    private ForumDataGenerator.Dataset dataset;
+    private long calls;
+    private long queries;
+
+    @Setup(Level.Trial)
+    public void setUp(ForumState forum, ThreadParams threadParams) {
+        random = new SplittableRandom(forum.dataset().seed() + threadParams.getThreadIndex());
+        dataset = forum.dataset();
+        QueryCounter.drain();
+    }
+
+    @TearDown(Level.Trial)
+    public void report(BenchmarkParams params) {
+        if (calls > 0) {
+            System.out.printf("%n%s: queries/op=%.2f (%d calls)%n",
+                    params.getBenchmark(), (double) queries / calls, calls);
+        }
+    }
+
+    /**
+     * 记录一次调用及其执行的语句数
+     */
+    public void record() {
+        calls++;
+        queries += QueryCounter.drain();
+    }
+
+    /**
+     * 帖子ID，越新的帖子被访问的概率越高
+     */
+    public long postId() {
+        return dataset.lastPostId() - skewed(dataset.postCount());
+    }
+
+    /**
+     * 用户ID，偏向活跃用户
+     */
+    public long userId() {
+        return dataset.firstUserId() + skewed(dataset.userCount());
+    }
+
+    /**
+     * 页码 [1, maxPage]，偏向前几页
+     */
+    public int page(int maxPage) {
+        return 1 + (int) skewed(maxPage);
+    }
+
+    public String keyword() {
+        return ForumDataGenerator.VOCABULARY.get((int) skewed(ForumDataGenerator.VOCABULARY.size()));
+    }
+
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    private long skewed(int bound) {
+        return Math.min(bound - 1, (long) (bound * Math.pow(random.nextDouble(), 2)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.chainlesschain.community.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 缓存存储（Redis 或进程内实现）
+ *
+ * 只提供论坛缓存层需要的最小操作集：字符串键值、计数、互斥锁、有序集合。
+ */
+public interface CacheStore {
+
+    String get(String key);
+
+    void set(String key, String value, Duration ttl);
+
+    void delete(Collection<String> keys);
+
+    boolean exists(String key);
+
+    /**
+     * 删除键并返回删除前是否存在；并发调用时只有一个调用方返回 true，用于一次性令牌
+     */
+    boolean consume(String key);
+
+    /**
+     * 键存在时原子地增加其整数值并返回新值；键不存在时不创建，返回 null
+     */
+    Long incrByIfPresent(String key, long delta);
+
+    /**
+     * 获取互斥锁（SET NX PX 语义），用于缓存重建时防止击穿
+     */
+    boolean tryLock(String key, String token, Duration ttl);
+
+    /**
+     * 仅当锁仍由 token 持有时释放
+     */
+    void unlock(String key, String token);
+
+    void zincrBy(String key, String member, double delta, Duration ttl);
+
+    /**
+     * 批量写入有序集合成员（已存在的覆盖分数）；键没有过期时间时设置 ttl
+     */
+    void zadd(String key, Map<String, Double> members, Duration ttl);
+
+    void zremove(String key, String member);
+
+    /**
+     * 按分数从高到低取 [start, end] 区间的成员
+     */
+    List<String> zrevRange(String key, long start, long end);
+
+    /**
+     * 按分数从高到低取分数严格小于 maxExclusive 的前 limit 个成员
+     */
+    List<String> zrevRangeBelow(String key, double maxExclusive, int limit);
+
+    /**
+     * 只保留分数最高的 maxSize 个成员
+     */
+    void ztrim(String key, int maxSize);
+
+    long zcard(String key);
+
+    /**
+     * 将多个有序集合按成员求和合并到 dest（覆盖原值）
+     */
+    void zunionStore(String dest, Collection<String> keys, Duration ttl);
+
+    /**
+     * 存储类型，用于统计与日志
+     */
+    String type();
+}
@@ -0,0 +1,322 @@
+package com.chainlesschain.community.cache;
+
+import com.chainlesschain.community.counter.CounterKey;
+import com.chainlesschain.community.counter.CounterListener;
+import com.chainlesschain.community.entity.Category;
+import com.chainlesschain.community.entity.Post;
+import com.chainlesschain.community.entity.Tag;
+import com.chainlesschain.community.entity.User;
+import com.chainlesschain.community.mapper.CategoryMapper;
+import com.chainlesschain.community.mapper.PostMapper;
+import com.chainlesschain.community.mapper.TagMapper;
+import com.chainlesschain.community.mapper.UserMapper;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 论坛缓存服务（cache-aside）
+ *
+ * 缓存帖子详情、帖子标签、用户资料、分类列表和热门标签。未命中时只有拿到重建锁的请求查库，
+ * 其余请求短暂等待后读取重建结果；不存在的数据缓存空值；TTL 加随机抖动，避免同时过期。
+ * 写操作在事务提交后显式删除相关键，计数写回数据库后删除对应实体缓存。
+ */
+@Service
+public class ForumCacheService implements CounterListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForumCacheService.class);
+
+    private static final String PREFIX = "forum:cache:";
+    private static final String NULL_VALUE = "null";
+    private static final String CATEGORIES_KEY = PREFIX + "categories:active";
+    private static final String POPULAR_TAGS_KEY = PREFIX + "tags:popular";
+    /** 热门标签缓存的条数，请求数量不超过该值时从缓存截取 */
+    public static final int POPULAR_TAGS_CACHED = 100;
+
+    @Autowired
+    private CacheStore cacheStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Value("${cache.ttl.post-seconds:300}")
+    private long postTtlSeconds;
+
+    @Value("${cache.ttl.user-seconds:600}")
+    private long userTtlSeconds;
+
+    @Value("${cache.ttl.list-seconds:300}")
+    private long listTtlSeconds;
+
+    @Value("${cache.ttl.null-seconds:60}")
+    private long nullTtlSeconds;
+
+    @Value("${cache.lock.wait-ms:500}")
+    private long lockWaitMs;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    public Post getPost(Long id) {
+        return getOrLoad(postKey(id), objectMapper.constructType(Post.class), postTtlSeconds,
+                () -> postMapper.selectById(id));
+    }
+
+    public List<Tag> getPostTags(Long postId) {
+        return getOrLoad(postKey(postId) + ":tags", listOf(Tag.class), postTtlSeconds,
+                () -> tagMapper.findByPostId(postId));
+    }
+
+    public User getUser(Long id) {
+        return getOrLoad(userKey(id), objectMapper.constructType(User.class), userTtlSeconds,
+                () -> userMapper.selectById(id));
+    }
+
+    public List<Category> getActiveCategories() {
+        return getOrLoad(CATEGORIES_KEY, listOf(Category.class), listTtlSeconds,
+                () -> categoryMapper.findAllActive());
+    }
+
+    public Category getCategory(Long id) {
+        if (id == null) {
+            return null;
+        }
+        List<Category> categories = getActiveCategories();
+        for (Category category : categories != null ? categories : List.<Category>of()) {
+            if (id.equals(category.getId())) {
+                return category;
+            }
+        }
+        return categoryMapper.selectById(id);
+    }
+
+    /**
+     * 热门标签（缓存前 POPULAR_TAGS_CACHED 条，按需截取）
+     */
+    public List<Tag> getPopularTags(int limit) {
+        if (limit > POPULAR_TAGS_CACHED) {
+            return tagMapper.findPopularTags(limit);
+        }
+        List<Tag> tags = getOrLoad(POPULAR_TAGS_KEY, listOf(Tag.class), listTtlSeconds,
+                () -> tagMapper.findPopularTags(POPULAR_TAGS_CACHED));
+        if (tags == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(tags.subList(0, Math.min(limit, tags.size())));
+    }
+
+    public void evictPost(Long postId) {
+        evictAfterCommit(List.of(postKey(postId), postKey(postId) + ":tags"));
+    }
+
+    public void evictUser(Long userId) {
+        evictAfterCommit(List.of(userKey(userId)));
+    }
+
+    public void evictCategories() {
+        evictAfterCommit(List.of(CATEGORIES_KEY));
+    }
+
+    public void evictTags() {
+        evictAfterCommit(List.of(POPULAR_TAGS_KEY));
+    }
+
+    /**
+     * 计数写回后，缓存中的计数已落后于数据库，删除对应缓存
+     */
+    @Override
+    public void onFlushed(Set<CounterKey> keys) {
+        Set<String> evict = new HashSet<>();
+        for (CounterKey key : keys) {
+            switch (key.type()) {
+                case POST_VIEWS, POST_REPLIES, POST_LIKES, POST_FAVORITES -> evict.add(postKey(key.id()));
+                case USER_POSTS, USER_REPLIES, USER_FOLLOWERS, USER_FOLLOWING -> evict.add(userKey(key.id()));
+                case TAG_POSTS -> evict.add(POPULAR_TAGS_KEY);
+                case CATEGORY_POSTS -> evict.add(CATEGORIES_KEY);
+                default -> {
+                }
+            }
+        }
+        delete(evict);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("store", cacheStore.type());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("loads", loads.get());
+        stats.put("errors", errors.get());
+        return stats;
+    }
+
+    /**
+     * 读取缓存，未命中时加锁重建；缓存不可用时直接查库
+     */
+    private <T> T getOrLoad(String key, JavaType type, long ttlSeconds, Supplier<T> loader) {
+        String cached = read(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return decode(key, cached, type);
+        }
+        misses.incrementAndGet();
+
+        String lockKey = key + ":lock";
+        String token = UUID.randomUUID().toString();
+        boolean locked = tryLock(lockKey, token);
+        if (!locked) {
+            // 其他请求正在重建：短暂等待其结果，超时后自行查库（不回写）
+            long deadline = System.currentTimeMillis() + lockWaitMs;
+            while (System.currentTimeMillis() < deadline && !Thread.currentThread().isInterrupted()) {
+                sleep(20);
+                cached = read(key);
+                if (cached != null) {
+                    hits.incrementAndGet();
+                    return decode(key, cached, type);
+                }
+            }
+            loads.incrementAndGet();
+            return loader.get();
+        }
+
+        try {
+            loads.incrementAndGet();
+            T value = loader.get();
+            write(key, value, value == null ? nullTtlSeconds : jitter(ttlSeconds));
+            return value;
+        } finally {
+            try {
+                cacheStore.unlock(lockKey, token);
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    private JavaType listOf(Class<?> elementType) {
+        return objectMapper.getTypeFactory().constructCollectionType(List.class, elementType);
+    }
+
+    private String read(String key) {
+        try {
+            return cacheStore.get(key);
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            logger.warn("读取缓存失败: key={}, error={}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private <T> T decode(String key, String cached, JavaType type) {
+        if (NULL_VALUE.equals(cached)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(cached, type);
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            logger.warn("缓存反序列化失败，丢弃: key={}, error={}", key, e.getMessage());
+            delete(Set.of(key));
+            return null;
+        }
+    }
+
+    private void write(String key, Object value, long ttlSeconds) {
+        try {
+            String encoded = value == null ? NULL_VALUE : objectMapper.writeValueAsString(value);
+            cacheStore.set(key, encoded, Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            logger.warn("写入缓存失败: key={}, error={}", key, e.getMessage());
+        }
+    }
+
+    private boolean tryLock(String lockKey, String token) {
+        try {
+            return cacheStore.tryLock(lockKey, token, Duration.ofMillis(Math.max(lockWaitMs * 4, 1000)));
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            // 缓存不可用时按拿到锁处理，直接查库
+            return true;
+        }
+    }
+
+    private void evictAfterCommit(List<String> keys) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    delete(keys);
+                }
+            });
+        } else {
+            delete(keys);
+        }
+    }
+
+    private void delete(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            cacheStore.delete(keys);
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            logger.warn("删除缓存失败: keys={}, error={}", keys, e.getMessage());
+        }
+    }
+
+    private static long jitter(long ttlSeconds) {
+        long spread = Math.max(1, ttlSeconds / 10);
+        return ttlSeconds + ThreadLocalRandom.current().nextLong(spread + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String postKey(Long id) {
+        return PREFIX + "post:" + id;
+    }
+
+    private static String userKey(Long id) {
+        return PREFIX + "user:" + id;
+    }
+}
@@ -0,0 +1,175 @@
+package com.chainlesschain.community.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.chainlesschain.community.counter.CounterListener;
+import com.chainlesschain.community.counter.CounterType;
+import com.chainlesschain.community.entity.Post;
+import com.chainlesschain.community.mapper.PostMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 热门排行服务（热帖、热搜）
+ *
+ * 浏览、点赞、收藏、回复事件按权重实时累加到当天的有序集合，搜索关键词同理；读取时把最近
+ * system.hot-days 天的分桶合并（合并结果短期缓存），无需每次排序全表。
+ */
+@Service
+public class HotRankingService implements CounterListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotRankingService.class);
+
+    private static final String POSTS_PREFIX = "forum:rank:posts:";
+    private static final String SEARCHES_PREFIX = "forum:rank:searches:";
+    private static final String MERGED = "merged";
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int MAX_KEYWORD_LENGTH = 50;
+    private static final int SEED_SIZE = 50;
+
+    @Autowired
+    private CacheStore cacheStore;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Value("${system.hot-days:7}")
+    private int hotDays;
+
+    @Value("${cache.ranking.merge-seconds:60}")
+    private long mergeSeconds;
+
+    @Override
+    public void onIncrement(CounterType type, long id, long delta) {
+        double weight = switch (type) {
+            case POST_VIEWS -> 1;
+            case POST_LIKES -> 3;
+            case POST_FAVORITES -> 4;
+            case POST_REPLIES -> 5;
+            default -> 0;
+        };
+        if (weight != 0) {
+            cacheStore.zincrBy(todayKey(POSTS_PREFIX), String.valueOf(id), weight * delta, bucketTtl());
+        }
+    }
+
+    /**
+     * 记录一次搜索关键词
+     */
+    public void recordSearch(String keyword) {
+        if (keyword == null || keyword.isBlank()) {
+            return;
+        }
+        String normalized = keyword.trim();
+        if (normalized.length() > MAX_KEYWORD_LENGTH) {
+            return;
+        }
+        try {
+            cacheStore.zincrBy(todayKey(SEARCHES_PREFIX), normalized, 1, bucketTtl());
+        } catch (Exception e) {
+            logger.warn("记录搜索关键词失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 热帖ID（按热度从高到低）
+     */
+    public List<Long> topPostIds(int limit) {
+        try {
+            seedPostsIfEmpty();
+            List<Long> ids = new ArrayList<>();
+            for (String member : merged(POSTS_PREFIX, limit)) {
+                ids.add(Long.valueOf(member));
+            }
+            return ids;
+        } catch (Exception e) {
+            logger.warn("读取热帖排行失败: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * 热搜关键词（按次数从高到低）
+     */
+    public List<String> topSearches(int limit) {
+        try {
+            return merged(SEARCHES_PREFIX, limit);
+        } catch (Exception e) {
+            logger.warn("读取热搜排行失败: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * 帖子删除或下架后移出排行
+     */
+    public void removePost(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        try {
+            for (String key : bucketKeys(POSTS_PREFIX)) {
+                cacheStore.zremove(key, String.valueOf(postId));
+            }
+            cacheStore.zremove(POSTS_PREFIX + MERGED, String.valueOf(postId));
+        } catch (Exception e) {
+            logger.warn("移出热帖排行失败: postId={}, error={}", postId, e.getMessage());
+        }
+    }
+
+    private List<String> merged(String prefix, int limit) {
+        String dest = prefix + MERGED;
+        if (!cacheStore.exists(dest)) {
+            cacheStore.zunionStore(dest, bucketKeys(prefix), Duration.ofSeconds(mergeSeconds));
+        }
+        return cacheStore.zrevRange(dest, 0, limit - 1);
+    }
+
+    /**
+     * 冷启动（排行为空）时用浏览数最高的帖子初始化当天分桶，每天最多一次
+     */
+    private void seedPostsIfEmpty() {
+        String today = todayKey(POSTS_PREFIX);
+        if (cacheStore.zcard(today) > 0
+                || !cacheStore.tryLock(POSTS_PREFIX + "seeded", UUID.randomUUID().toString(), Duration.ofDays(1))) {
+            return;
+        }
+        List<Post> posts = postMapper.selectList(new QueryWrapper<Post>()
+                .select("id", "views_count")
+                .eq("deleted", 0)
+                .eq("status", "PUBLISHED")
+                .orderByDesc("views_count")
+                .last("LIMIT " + SEED_SIZE));
+        for (Post post : posts) {
+            double score = post.getViewsCount() != null ? post.getViewsCount() : 0;
+            cacheStore.zincrBy(today, String.valueOf(post.getId()), score, bucketTtl());
+        }
+        cacheStore.delete(List.of(POSTS_PREFIX + MERGED));
+    }
+
+    private List<String> bucketKeys(String prefix) {
+        LocalDate today = LocalDate.now();
+        List<String> keys = new ArrayList<>(hotDays);
+        for (int i = 0; i < Math.max(1, hotDays); i++) {
+            keys.add(prefix + today.minusDays(i).format(DAY));
+        }
+        return keys;
+    }
+
+    private String todayKey(String prefix) {
+        return prefix + LocalDate.now().format(DAY);
+    }
+
+    private Duration bucketTtl() {
+        return Duration.ofDays(Math.max(1, hotDays) + 1L);
+    }
+}
@@ -0,0 +1,205 @@
+package com.chainlesschain.community.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 进程内缓存存储：未启用 Redis 时使用，单实例部署下语义与 Redis 实现一致
+ *
+ * 所有操作在同一把锁下进行；键数量超过上限时按最近最少使用淘汰。
+ */
+public class LocalCacheStore implements CacheStore {
+
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    public LocalCacheStore(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public synchronized String get(String key) {
+        Entry entry = live(key);
+        return entry != null && entry.value instanceof String value ? value : null;
+    }
+
+    @Override
+    public synchronized void set(String key, String value, Duration ttl) {
+        put(key, new Entry(value, expiresAt(ttl)));
+    }
+
+    @Override
+    public synchronized void delete(Collection<String> keys) {
+        keys.forEach(entries::remove);
+    }
+
+    @Override
+    public synchronized boolean exists(String key) {
+        return live(key) != null;
+    }
+
+    @Override
+    public synchronized boolean consume(String key) {
+        return live(key) != null && entries.remove(key) != null;
+    }
+
+    @Override
+    public synchronized Long incrByIfPresent(String key, long delta) {
+        Entry entry = live(key);
+        if (entry == null || !(entry.value instanceof String value)) {
+            return null;
+        }
+        long updated = Long.parseLong(value) + delta;
+        entries.put(key, new Entry(String.valueOf(updated), entry.expiresAt));
+        return updated;
+    }
+
+    @Override
+    public synchronized boolean tryLock(String key, String token, Duration ttl) {
+        if (live(key) != null) {
+            return false;
+        }
+        put(key, new Entry(token, expiresAt(ttl)));
+        return true;
+    }
+
+    @Override
+    public synchronized void unlock(String key, String token) {
+        Entry entry = live(key);
+        if (entry != null && token.equals(entry.value)) {
+            entries.remove(key);
+        }
+    }
+
+    @Override
+    public synchronized void zincrBy(String key, String member, double delta, Duration ttl) {
+        Entry entry = live(key);
+        if (entry == null || !(entry.value instanceof Map)) {
+            entry = new Entry(new HashMap<String, Double>(), expiresAt(ttl));
+            put(key, entry);
+        }
+        zset(entry).merge(member, delta, Double::sum);
+    }
+
+    @Override
+    public synchronized void zadd(String key, Map<String, Double> members, Duration ttl) {
+        Entry entry = live(key);
+        if (entry == null || !(entry.value instanceof Map)) {
+            entry = new Entry(new HashMap<String, Double>(), expiresAt(ttl));
+            put(key, entry);
+        }
+        zset(entry).putAll(members);
+    }
+
+    @Override
+    public synchronized void zremove(String key, String member) {
+        Entry entry = live(key);
+        if (entry != null && entry.value instanceof Map) {
+            zset(entry).remove(member);
+        }
+    }
+
+    @Override
+    public synchronized List<String> zrevRange(String key, long start, long end) {
+        Entry entry = live(key);
+        if (entry == null || !(entry.value instanceof Map) || end < start) {
+            return List.of();
+        }
+        return zset(entry).entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .skip(start)
+                .limit(end - start + 1)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized List<String> zrevRangeBelow(String key, double maxExclusive, int limit) {
+        Entry entry = live(key);
+        if (entry == null || !(entry.value instanceof Map)) {
+            return List.of();
+        }
+        return zset(entry).entrySet().stream()
+                .filter(e -> e.getValue() < maxExclusive)
+                .sorted(Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public synchronized void ztrim(String key, int maxSize) {
+        Entry entry = live(key);
+        if (entry == null || !(entry.value instanceof Map) || zset(entry).size() <= maxSize) {
+            return;
+        }
+        Map<String, Double> zset = zset(entry);
+        zset.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .limit(zset.size() - maxSize)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList())
+                .forEach(zset::remove);
+    }
+
+    @Override
+    public synchronized long zcard(String key) {
+        Entry entry = live(key);
+        return entry != null && entry.value instanceof Map ? zset(entry).size() : 0;
+    }
+
+    @Override
+    public synchronized void zunionStore(String dest, Collection<String> keys, Duration ttl) {
+        Map<String, Double> union = new HashMap<>();
+        for (String key : keys) {
+            Entry entry = live(key);
+            if (entry != null && entry.value instanceof Map) {
+                zset(entry).forEach((member, score) -> union.merge(member, score, Double::sum));
+            }
+        }
+        put(dest, new Entry(union, expiresAt(ttl)));
+    }
+
+    @Override
+    public String type() {
+        return "local";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> zset(Entry entry) {
+        return (Map<String, Double>) entry.value;
+    }
+
+    private Entry live(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    private void put(String key, Entry entry) {
+        entries.put(key, entry);
+        if (entries.size() > maxEntries) {
+            var eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static long expiresAt(Duration ttl) {
+        return ttl == null ? Long.MAX_VALUE : System.currentTimeMillis() + ttl.toMillis();
+    }
+
+    private record Entry(Object value, long expiresAt) {
+    }
+}
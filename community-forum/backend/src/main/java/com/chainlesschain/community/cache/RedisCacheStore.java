@@ -0,0 +1,142 @@
+package com.chainlesschain.community.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 基于 Redis 的缓存存储，多实例共享
+ */
+public class RedisCacheStore implements CacheStore {
+
+    private static final DefaultRedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private static final DefaultRedisScript<Long> INCR_IF_PRESENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 1 then return redis.call('incrby', KEYS[1], ARGV[1]) else return nil end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisCacheStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public String get(String key) {
+        return redisTemplate.opsForValue().get(key);
+    }
+
+    @Override
+    public void set(String key, String value, Duration ttl) {
+        redisTemplate.opsForValue().set(key, value, ttl);
+    }
+
+    @Override
+    public void delete(Collection<String> keys) {
+        if (!keys.isEmpty()) {
+            redisTemplate.delete(keys);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+    }
+
+    @Override
+    public boolean consume(String key) {
+        return Boolean.TRUE.equals(redisTemplate.delete(key));
+    }
+
+    @Override
+    public Long incrByIfPresent(String key, long delta) {
+        return redisTemplate.execute(INCR_IF_PRESENT_SCRIPT, List.of(key), String.valueOf(delta));
+    }
+
+    @Override
+    public boolean tryLock(String key, String token, Duration ttl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, token, ttl));
+    }
+
+    @Override
+    public void unlock(String key, String token) {
+        redisTemplate.execute(UNLOCK_SCRIPT, List.of(key), token);
+    }
+
+    @Override
+    public void zincrBy(String key, String member, double delta, Duration ttl) {
+        redisTemplate.opsForZSet().incrementScore(key, member, delta);
+        if (redisTemplate.getExpire(key) < 0) {
+            redisTemplate.expire(key, ttl);
+        }
+    }
+
+    @Override
+    public void zadd(String key, Map<String, Double> members, Duration ttl) {
+        if (members.isEmpty()) {
+            return;
+        }
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+        members.forEach((member, score) -> tuples.add(ZSetOperations.TypedTuple.of(member, score)));
+        redisTemplate.opsForZSet().add(key, tuples);
+        if (redisTemplate.getExpire(key) < 0) {
+            redisTemplate.expire(key, ttl);
+        }
+    }
+
+    @Override
+    public void zremove(String key, String member) {
+        redisTemplate.opsForZSet().remove(key, member);
+    }
+
+    @Override
+    public List<String> zrevRange(String key, long start, long end) {
+        Set<String> members = redisTemplate.opsForZSet().reverseRange(key, start, end);
+        return members == null ? List.of() : new ArrayList<>(members);
+    }
+
+    @Override
+    public List<String> zrevRangeBelow(String key, double maxExclusive, int limit) {
+        Set<String> members = redisTemplate.opsForZSet().reverseRangeByScore(
+                key, Double.NEGATIVE_INFINITY, Math.nextDown(maxExclusive), 0, limit);
+        return members == null ? List.of() : new ArrayList<>(members);
+    }
+
+    @Override
+    public void ztrim(String key, int maxSize) {
+        redisTemplate.opsForZSet().removeRange(key, 0, -(maxSize + 1L));
+    }
+
+    @Override
+    public long zcard(String key) {
+        Long size = redisTemplate.opsForZSet().zCard(key);
+        return size == null ? 0 : size;
+    }
+
+    @Override
+    public void zunionStore(String dest, Collection<String> keys, Duration ttl) {
+        if (keys.isEmpty()) {
+            redisTemplate.delete(dest);
+            return;
+        }
+        List<String> all = new ArrayList<>(keys);
+        String first = all.remove(0);
+        redisTemplate.opsForZSet().unionAndStore(first, all, dest);
+        redisTemplate.expire(dest, ttl);
+    }
+
+    @Override
+    public String type() {
+        return "redis";
+    }
+}
@@ -17,6 +17,8 @@ public class PageResult<T> {
     private Integer page;
     private Integer pageSize;
     private Integer totalPages;
+    /** 游标分页时的下一页游标，没有更多数据或非游标分页时为 null */
+    private String nextCursor;
 
     public PageResult() {
     }
@@ -0,0 +1,69 @@
+package com.chainlesschain.community.config;
+
+import com.chainlesschain.community.cache.CacheStore;
+import com.chainlesschain.community.cache.LocalCacheStore;
+import com.chainlesschain.community.cache.RedisCacheStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * 缓存存储配置
+ *
+ * Redis 自动配置在启动类中被排除（默认部署不依赖 Redis），开启 cache.redis.enabled 后
+ * 按 spring.redis.* 自行创建连接；否则使用进程内存储。
+ */
+@Configuration
+public class CacheConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "cache.redis.enabled", havingValue = "true")
+    static class RedisStoreConfig {
+
+        @Bean
+        public LettuceConnectionFactory cacheRedisConnectionFactory(
+                @Value("${spring.redis.host:localhost}") String host,
+                @Value("${spring.redis.port:6379}") int port,
+                @Value("${spring.redis.password:}") String password,
+                @Value("${spring.redis.database:0}") int database,
+                @Value("${spring.redis.timeout:5000ms}") Duration timeout) {
+            RedisStandaloneConfiguration server = new RedisStandaloneConfiguration(host, port);
+            server.setDatabase(database);
+            if (StringUtils.hasText(password)) {
+                server.setPassword(password);
+            }
+            LettuceClientConfiguration client = LettuceClientConfiguration.builder()
+                    .commandTimeout(timeout)
+                    .build();
+            return new LettuceConnectionFactory(server, client);
+        }
+
+        @Bean
+        public StringRedisTemplate cacheRedisTemplate(LettuceConnectionFactory cacheRedisConnectionFactory) {
+            return new StringRedisTemplate(cacheRedisConnectionFactory);
+        }
+
+        @Bean
+        public CacheStore cacheStore(StringRedisTemplate cacheRedisTemplate) {
+            return new RedisCacheStore(cacheRedisTemplate);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "cache.redis.enabled", havingValue = "false", matchIfMissing = true)
+    static class LocalStoreConfig {
+
+        @Bean
+        public CacheStore cacheStore(@Value("${cache.local.max-entries:20000}") int maxEntries) {
+            return new LocalCacheStore(maxEntries);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.chainlesschain.community.config;
 
+import com.chainlesschain.community.service.TokenDenylistService;
 import com.chainlesschain.community.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,9 +24,14 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String STREAM_PATH = "/notifications/stream";
+
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenDenylistService tokenDenylistService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -33,13 +39,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String token = extractToken(request);
 
-            if (token != null && !jwtUtil.isTokenExpired(token)) {
-                Long userId = jwtUtil.getUserIdFromToken(token);
-                String username = jwtUtil.getUsernameFromToken(token);
-                String role = jwtUtil.getRoleFromToken(token);
+            JwtUtil.TokenClaims claims = token != null ? jwtUtil.parseToken(token) : null;
+
+            if (claims != null && !tokenDenylistService.isDenied(claims.userId(), claims.issuedAt())) {
+                Long userId = claims.userId();
 
                 // 创建权限列表
-                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + role);
+                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + claims.role());
 
                 // 创建认证对象
                 UsernamePasswordAuthenticationToken authentication =
@@ -62,13 +68,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * 从请求头中提取JWT token
+     * 从请求头中提取JWT token；推送连接（EventSource 无法设置请求头）也可通过 token 参数传递
      */
     private String extractToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7);
         }
+        if (request.getRequestURI().endsWith(STREAM_PATH)) {
+            String token = request.getParameter("token");
+            return StringUtils.hasText(token) ? token : null;
+        }
         return null;
     }
 }
@@ -0,0 +1,44 @@
+package com.chainlesschain.community.config;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import com.chainlesschain.community.search.ElasticsearchSearchEngine;
+import com.chainlesschain.community.search.LuceneSearchEngine;
+import com.chainlesschain.community.search.SearchEngine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 搜索引擎配置
+ *
+ * search.engine 取值：lucene（默认，索引存放在本地目录）、elasticsearch（使用 spring.elasticsearch
+ * 配置的集群）、database（不建索引，沿用数据库 LIKE 查询）。
+ */
+@Configuration
+public class SearchConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "search.engine", havingValue = "lucene", matchIfMissing = true)
+    public SearchEngine luceneSearchEngine(
+            @Value("${search.lucene.index-dir:./data/search-index}") String indexDir) throws IOException {
+        Path path = Paths.get(indexDir);
+        Files.createDirectories(path);
+        return new LuceneSearchEngine(path);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "search.engine", havingValue = "elasticsearch")
+    public SearchEngine elasticsearchSearchEngine(
+            ElasticsearchClient client,
+            @Value("${search.elasticsearch.index-prefix:forum}") String indexPrefix,
+            @Value("${search.elasticsearch.index-analyzer:ik_max_word}") String indexAnalyzer,
+            @Value("${search.elasticsearch.search-analyzer:ik_smart}") String searchAnalyzer) throws IOException {
+        return new ElasticsearchSearchEngine(client, indexPrefix, indexAnalyzer, searchAnalyzer);
+    }
+}
@@ -2,13 +2,16 @@ package com.chainlesschain.community.controller;
 
 import com.chainlesschain.community.common.PageResult;
 import com.chainlesschain.community.common.Result;
+import com.chainlesschain.community.dto.PostModerationRequest;
 import com.chainlesschain.community.entity.Post;
 import com.chainlesschain.community.entity.Report;
 import com.chainlesschain.community.service.AdminService;
+import com.chainlesschain.community.vo.ReportedPostVO;
 import com.chainlesschain.community.vo.UserVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
@@ -122,24 +125,48 @@ public class AdminController {
             @RequestParam(defaultValue = "1") Integer page,
 
             @Parameter(description = "每页数量", example = "20")
-            @RequestParam(defaultValue = "20") Integer pageSize
+            @RequestParam(defaultValue = "20") Integer pageSize,
+
+            @Parameter(description = "分页游标（上一页返回的 nextCursor），传入时忽略页码")
+            @RequestParam(required = false) String cursor
     ) {
-        return adminService.getPendingPosts(page, pageSize);
+        return adminService.getPendingPosts(page, pageSize, cursor);
     }
 
     /**
      * 获取被举报帖子
      */
     @GetMapping("/posts/reported")
-    @Operation(summary = "获取被举报帖子", description = "查询所有被举报的帖子")
-    public Result<PageResult<Post>> getReportedPosts(
+    @Operation(summary = "获取被举报帖子", description = "按最近举报时间查询有待处理举报的帖子，附带举报数、首次/最近举报时间和原因")
+    public Result<PageResult<ReportedPostVO>> getReportedPosts(
             @Parameter(description = "页码", example = "1")
             @RequestParam(defaultValue = "1") Integer page,
 
             @Parameter(description = "每页数量", example = "20")
-            @RequestParam(defaultValue = "20") Integer pageSize
+            @RequestParam(defaultValue = "20") Integer pageSize,
+
+            @Parameter(description = "分页游标（上一页返回的 nextCursor），传入时忽略页码")
+            @RequestParam(required = false) String cursor
     ) {
-        return adminService.getReportedPosts(page, pageSize);
+        return adminService.getReportedPosts(page, pageSize, cursor);
+    }
+
+    /**
+     * 批量审核通过帖子
+     */
+    @PostMapping("/posts/batch/approve")
+    @Operation(summary = "批量审核通过", description = "待审核帖子改为已发布，并驳回这些帖子上的待处理举报")
+    public Result<Map<String, Object>> approvePosts(@Valid @RequestBody PostModerationRequest request) {
+        return adminService.approvePosts(request.getPostIds(), request.getReason());
+    }
+
+    /**
+     * 批量拒绝帖子
+     */
+    @PostMapping("/posts/batch/reject")
+    @Operation(summary = "批量拒绝帖子", description = "删除帖子并通知作者，这些帖子上的待处理举报标记为已处理")
+    public Result<Map<String, Object>> rejectPosts(@Valid @RequestBody PostModerationRequest request) {
+        return adminService.rejectPosts(request.getPostIds(), request.getReason());
     }
 
     /**
@@ -206,9 +233,12 @@ public class AdminController {
             @RequestParam(defaultValue = "20") Integer pageSize,
 
             @Parameter(description = "状态筛选")
-            @RequestParam(required = false) String status
+            @RequestParam(required = false) String status,
+
+            @Parameter(description = "分页游标（上一页返回的 nextCursor），传入时忽略页码")
+            @RequestParam(required = false) String cursor
     ) {
-        return adminService.getReports(page, pageSize, status);
+        return adminService.getReports(page, pageSize, status, cursor);
     }
 
     /**
@@ -228,4 +258,67 @@ public class AdminController {
     ) {
         return adminService.handleReport(id, action, result);
     }
+
+    /**
+     * 获取内容过滤统计
+     */
+    @GetMapping("/content-filter/stats")
+    @Operation(summary = "获取内容过滤统计", description = "词表大小、平均检查耗时及各类内容的放行、限流、敏感词、重复拦截次数")
+    public Result<Map<String, Object>> getContentFilterStats() {
+        return adminService.getContentFilterStats();
+    }
+
+    /**
+     * 重新加载敏感词表
+     */
+    @PostMapping("/content-filter/reload")
+    @Operation(summary = "重新加载敏感词表", description = "立即重新读取内置词表和 content-filter.words-file 指定的外部词表")
+    public Result<Map<String, Object>> reloadContentFilter() {
+        return adminService.reloadContentFilter();
+    }
+
+    /**
+     * 获取计数器写回统计
+     */
+    @GetMapping("/counters/stats")
+    @Operation(summary = "获取计数器写回统计", description = "各类计数的待写回数量、写回延迟及最近一次写回情况")
+    public Result<Map<String, Object>> getCounterStats() {
+        return adminService.getCounterStats();
+    }
+
+    /**
+     * 立即写回计数器
+     */
+    @PostMapping("/counters/flush")
+    @Operation(summary = "立即写回计数器", description = "将内存中累计的浏览、点赞等计数立即写回数据库")
+    public Result<Map<String, Object>> flushCounters() {
+        return adminService.flushCounters();
+    }
+
+    /**
+     * 获取缓存统计
+     */
+    @GetMapping("/cache/stats")
+    @Operation(summary = "获取缓存统计", description = "缓存存储类型及命中、未命中、回源次数")
+    public Result<Map<String, Object>> getCacheStats() {
+        return adminService.getCacheStats();
+    }
+
+    /**
+     * 获取搜索索引统计
+     */
+    @GetMapping("/search/stats")
+    @Operation(summary = "获取搜索索引统计", description = "搜索引擎类型、待同步变更数、重建状态及最近错误")
+    public Result<Map<String, Object>> getSearchStats() {
+        return adminService.getSearchStats();
+    }
+
+    /**
+     * 重建搜索索引
+     */
+    @PostMapping("/search/reindex")
+    @Operation(summary = "重建搜索索引", description = "后台全量重建帖子与用户索引，重建完成后切换到新索引")
+    public Result<Map<String, Object>> rebuildSearchIndex() {
+        return adminService.rebuildSearchIndex();
+    }
 }
@@ -32,6 +32,15 @@ public class AuthController {
         return authService.login(request);
     }
 
+    /**
+     * 获取登录挑战值
+     */
+    @GetMapping("/challenge")
+    @Operation(summary = "获取登录挑战值", description = "生产模式下设备需使用私钥对挑战值签名后登录，挑战值仅可使用一次")
+    public Result<String> getChallenge() {
+        return authService.getChallenge();
+    }
+
     /**
      * 获取当前用户信息
      */
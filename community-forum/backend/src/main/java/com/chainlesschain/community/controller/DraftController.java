@@ -0,0 +1,69 @@
+package com.chainlesschain.community.controller;
+
+import com.chainlesschain.community.common.Result;
+import com.chainlesschain.community.draft.DraftService;
+import com.chainlesschain.community.dto.DraftSaveRequest;
+import com.chainlesschain.community.entity.Draft;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.util.List;
+
+/**
+ * 草稿控制器
+ */
+@RestController
+@RequestMapping("/users/drafts")
+@Tag(name = "草稿管理", description = "帖子草稿的自动保存、查询与删除")
+public class DraftController {
+
+    @Autowired
+    private DraftService draftService;
+
+    /**
+     * 获取草稿列表
+     */
+    @GetMapping
+    @Operation(summary = "获取草稿列表", description = "查询当前用户的所有草稿，按最后保存时间倒序")
+    public Result<List<Draft>> getDrafts() {
+        return draftService.listDrafts();
+    }
+
+    /**
+     * 获取草稿
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "获取草稿", description = "获取草稿的最新内容和版本号")
+    public Result<Draft> getDraft(
+            @Parameter(description = "草稿ID", required = true)
+            @PathVariable Long id
+    ) {
+        return draftService.getDraft(id);
+    }
+
+    /**
+     * 保存草稿
+     */
+    @PostMapping
+    @Operation(summary = "保存草稿", description = "首次保存创建草稿；之后需携带上次返回的版本号，" +
+            "版本不一致（其他窗口已保存）时返回 409")
+    public Result<Draft> saveDraft(@Valid @RequestBody DraftSaveRequest request) {
+        return draftService.save(request);
+    }
+
+    /**
+     * 删除草稿
+     */
+    @DeleteMapping("/{id}")
+    @Operation(summary = "删除草稿", description = "删除指定草稿")
+    public Result<Void> deleteDraft(
+            @Parameter(description = "草稿ID", required = true)
+            @PathVariable Long id
+    ) {
+        return draftService.deleteDraft(id);
+    }
+}
@@ -5,6 +5,7 @@ import com.chainlesschain.community.common.Result;
 import com.chainlesschain.community.dto.MessageSendRequest;
 import com.chainlesschain.community.entity.Message;
 import com.chainlesschain.community.service.MessageService;
+import com.chainlesschain.community.vo.ConversationVO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -21,9 +22,45 @@ import jakarta.validation.Valid;
 @Tag(name = "私信管理", description = "私信的发送、接收、查询等功能")
 public class MessageController {
 
+    /** 每页数量上限 */
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private MessageService messageService;
 
+    /**
+     * 获取收件箱
+     */
+    @GetMapping("/threads")
+    @Operation(summary = "获取会话列表", description = "按最后一条消息倒序列出会话，附带最后一条消息摘要和未读数（游标分页）")
+    public Result<PageResult<ConversationVO>> getInbox(
+            @Parameter(description = "分页游标（上一页返回的 nextCursor）")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "每页数量", example = "20")
+            @RequestParam(defaultValue = "20") Integer pageSize
+    ) {
+        return messageService.getInbox(cursor, clampPageSize(pageSize));
+    }
+
+    /**
+     * 获取与指定用户的会话消息（游标分页）
+     */
+    @GetMapping("/threads/{userId}")
+    @Operation(summary = "获取会话消息（游标分页）", description = "从最新一条开始倒序返回与指定用户的私信")
+    public Result<PageResult<Message>> getThreadMessages(
+            @Parameter(description = "对方用户ID", required = true)
+            @PathVariable Long userId,
+
+            @Parameter(description = "分页游标（上一页返回的 nextCursor）")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "每页数量", example = "50")
+            @RequestParam(defaultValue = "50") Integer pageSize
+    ) {
+        return messageService.getThreadMessages(userId, cursor, clampPageSize(pageSize));
+    }
+
     /**
      * 获取与指定用户的会话消息
      */
@@ -83,4 +120,8 @@ public class MessageController {
     ) {
         return messageService.deleteMessage(id);
     }
+
+    private static int clampPageSize(Integer pageSize) {
+        return Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+    }
 }
@@ -8,7 +8,13 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
 
 /**
  * 通知控制器
@@ -45,6 +51,29 @@ public class NotificationController {
         return notificationService.getUnreadCount();
     }
 
+    /**
+     * 获取通知与私信未读数
+     */
+    @GetMapping("/unread-counts")
+    @Operation(summary = "获取未读数", description = "同时返回未读通知数与未读私信数")
+    public Result<Map<String, Integer>> getUnreadCounts() {
+        return notificationService.getUnreadCounts();
+    }
+
+    /**
+     * 订阅未读数推送
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "订阅未读数推送", description = "SSE 连接，未读数变化时推送 unread 事件；" +
+            "EventSource 无法设置请求头，可通过 token 查询参数传递 JWT")
+    public ResponseEntity<SseEmitter> subscribe() {
+        SseEmitter emitter = notificationService.subscribe();
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     /**
      * 标记通知为已读
      */
@@ -23,6 +23,9 @@ import jakarta.validation.Valid;
 @Tag(name = "帖子管理", description = "帖子的增删改查、点赞、收藏等功能")
 public class PostController {
 
+    /** 每页数量上限 */
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private PostService postService;
 
@@ -42,9 +45,27 @@ public class PostController {
             @RequestParam(required = false) Long categoryId,
 
             @Parameter(description = "排序方式：latest(最新), hot(热门)")
-            @RequestParam(defaultValue = "latest") String sortBy
+            @RequestParam(defaultValue = "latest") String sortBy,
+
+            @Parameter(description = "分页游标（sortBy=hot 时使用上一页返回的 nextCursor）")
+            @RequestParam(required = false) String cursor
     ) {
-        return postService.getPosts(page, pageSize, categoryId, sortBy);
+        return postService.getPosts(page, pageSize, categoryId, sortBy, cursor);
+    }
+
+    /**
+     * 获取关注时间线
+     */
+    @GetMapping("/timeline")
+    @Operation(summary = "获取关注时间线", description = "我关注的用户发布的帖子，按发布时间倒序，游标分页")
+    public Result<PageResult<PostListVO>> getTimeline(
+            @Parameter(description = "分页游标（上一页返回的 nextCursor）")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "每页数量", example = "20")
+            @RequestParam(defaultValue = "20") Integer pageSize
+    ) {
+        return postService.getTimeline(cursor, clampPageSize(pageSize));
     }
 
     /**
@@ -141,4 +162,8 @@ public class PostController {
     ) {
         return postService.unfavoritePost(id);
     }
+
+    private static int clampPageSize(Integer pageSize) {
+        return Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+    }
 }
@@ -21,6 +21,9 @@ import jakarta.validation.Valid;
 @Tag(name = "回复管理", description = "帖子回复的增删改查、点赞等功能")
 public class ReplyController {
 
+    /** 每页数量上限 */
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private ReplyService replyService;
 
@@ -28,18 +31,58 @@ public class ReplyController {
      * 获取帖子的回复列表
      */
     @GetMapping("/posts/{postId}/replies")
-    @Operation(summary = "获取帖子回复列表", description = "分页查询指定帖子的所有回复")
+    @Operation(summary = "获取帖子回复列表", description = "分页查询指定帖子的顶层回复，附带子回复数和最早的几条子回复；" +
+            "传入 cursor 时按游标分页，否则按页码")
     public Result<PageResult<ReplyVO>> getReplies(
             @Parameter(description = "帖子ID", required = true)
             @PathVariable Long postId,
 
+            @Parameter(description = "分页游标（上一页返回的 nextCursor）")
+            @RequestParam(required = false) String cursor,
+
             @Parameter(description = "页码", example = "1")
             @RequestParam(defaultValue = "1") Integer page,
 
             @Parameter(description = "每页数量", example = "20")
             @RequestParam(defaultValue = "20") Integer pageSize
     ) {
-        return replyService.getRepliesByPostId(postId, page, pageSize);
+        return replyService.getRepliesByPostId(postId, cursor, page, clampPageSize(pageSize));
+    }
+
+    /**
+     * 定位回复所在页
+     */
+    @GetMapping("/posts/{postId}/replies/locate/{replyId}")
+    @Operation(summary = "定位回复", description = "返回从指定回复所属顶层回复开始的一页回复，page 为其所在页码")
+    public Result<PageResult<ReplyVO>> locateReply(
+            @Parameter(description = "帖子ID", required = true)
+            @PathVariable Long postId,
+
+            @Parameter(description = "回复ID", required = true)
+            @PathVariable Long replyId,
+
+            @Parameter(description = "每页数量", example = "20")
+            @RequestParam(defaultValue = "20") Integer pageSize
+    ) {
+        return replyService.locateReply(postId, replyId, clampPageSize(pageSize));
+    }
+
+    /**
+     * 获取子回复
+     */
+    @GetMapping("/replies/{id}/children")
+    @Operation(summary = "获取子回复", description = "按时间顺序游标分页查询指定回复的子回复")
+    public Result<PageResult<ReplyVO>> getChildReplies(
+            @Parameter(description = "父回复ID", required = true)
+            @PathVariable Long id,
+
+            @Parameter(description = "分页游标（上一页返回的 nextCursor）")
+            @RequestParam(required = false) String cursor,
+
+            @Parameter(description = "每页数量", example = "20")
+            @RequestParam(defaultValue = "20") Integer pageSize
+    ) {
+        return replyService.getChildReplies(id, cursor, clampPageSize(pageSize));
     }
 
     /**
@@ -101,4 +144,8 @@ public class ReplyController {
     ) {
         return replyService.setBestAnswer(postId, replyId);
     }
+
+    private static int clampPageSize(Integer pageSize) {
+        return Math.min(Math.max(pageSize, 1), MAX_PAGE_SIZE);
+    }
 }
@@ -0,0 +1,15 @@
+package com.chainlesschain.community.counter;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 单个实体的计数增量（批量写回 SQL 参数）
+ */
+@Data
+@AllArgsConstructor
+public class CounterDelta {
+
+    private Long id;
+    private Long delta;
+}
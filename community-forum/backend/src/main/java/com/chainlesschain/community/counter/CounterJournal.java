@@ -0,0 +1,185 @@
+package com.chainlesschain.community.counter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 计数器本地追加日志
+ *
+ * 每个分段（segment）是一个追加写文件，每行一条增量 "TYPE id delta"；写回批次提交前先写
+ * manifest 记录该批次包含哪些分段。重启时：manifest 对应批次已入库则删除其分段，否则分段重放。
+ */
+class CounterJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterJournal.class);
+
+    static final String SEGMENT_SUFFIX = ".log";
+    static final String MANIFEST_SUFFIX = ".manifest";
+
+    private final Path dir;
+
+    CounterJournal(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+    }
+
+    Path getDir() {
+        return dir;
+    }
+
+    Segment openSegment(String name) throws IOException {
+        FileChannel channel = FileChannel.open(dir.resolve(name + SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new Segment(name, channel);
+    }
+
+    List<String> listSegments() throws IOException {
+        return list(SEGMENT_SUFFIX);
+    }
+
+    List<String> listManifests() throws IOException {
+        return list(MANIFEST_SUFFIX);
+    }
+
+    /**
+     * 读取分段中的增量；末尾被截断的半行忽略
+     */
+    Map<CounterKey, Long> readSegment(String name) throws IOException {
+        Map<CounterKey, Long> deltas = new HashMap<>();
+        String content = Files.readString(dir.resolve(name + SEGMENT_SUFFIX), StandardCharsets.UTF_8);
+        // 只有以换行结尾的行才是完整写入的
+        int end = content.lastIndexOf('\n');
+        if (end < 0) {
+            return deltas;
+        }
+        for (String line : content.substring(0, end).split("\n")) {
+            String[] parts = line.trim().split(" ");
+            if (parts.length != 3) {
+                continue;
+            }
+            try {
+                CounterKey key = new CounterKey(CounterType.valueOf(parts[0]), Long.parseLong(parts[1]));
+                deltas.merge(key, Long.parseLong(parts[2]), Long::sum);
+            } catch (IllegalArgumentException e) {
+                logger.warn("跳过无法解析的计数日志行: segment={}, line={}", name, line);
+            }
+        }
+        return deltas;
+    }
+
+    void writeManifest(String flushId, List<String> segments) throws IOException {
+        Path tmp = dir.resolve(flushId + MANIFEST_SUFFIX + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(String.join("\n", segments).getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        Files.move(tmp, dir.resolve(flushId + MANIFEST_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    List<String> readManifest(String flushId) throws IOException {
+        List<String> segments = new ArrayList<>();
+        for (String line : Files.readAllLines(dir.resolve(flushId + MANIFEST_SUFFIX), StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                segments.add(line.trim());
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * 批次已入库：删除其分段与 manifest
+     */
+    void deleteFlushed(String flushId, List<String> segments) {
+        for (String segment : segments) {
+            deleteQuietly(dir.resolve(segment + SEGMENT_SUFFIX));
+        }
+        deleteQuietly(dir.resolve(flushId + MANIFEST_SUFFIX));
+    }
+
+    void deleteManifest(String flushId) {
+        deleteQuietly(dir.resolve(flushId + MANIFEST_SUFFIX));
+    }
+
+    private List<String> list(String suffix) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + suffix)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                names.add(fileName.substring(0, fileName.length() - suffix.length()));
+            }
+        }
+        names.sort(null);
+        return names;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("删除计数日志文件失败: {}", path, e);
+        }
+    }
+
+    /**
+     * 一个打开中的分段：增量先进内存缓冲，sync() 时写盘并 force
+     */
+    static final class Segment {
+
+        private static final int SYNC_THRESHOLD = 64 * 1024;
+
+        private final String name;
+        private final FileChannel channel;
+        private final StringBuilder buffer = new StringBuilder();
+
+        private Segment(String name, FileChannel channel) {
+            this.name = name;
+            this.channel = channel;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        void append(CounterKey key, long delta) throws IOException {
+            buffer.append(key.type().name()).append(' ').append(key.id()).append(' ').append(delta).append('\n');
+            if (buffer.length() >= SYNC_THRESHOLD) {
+                sync();
+            }
+        }
+
+        void sync() throws IOException {
+            if (buffer.length() == 0) {
+                return;
+            }
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+            buffer.setLength(0);
+        }
+
+        void close() throws IOException {
+            try {
+                sync();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.chainlesschain.community.counter;
+
+/**
+ * 计数器键：计数类型 + 实体ID
+ */
+public record CounterKey(CounterType type, long id) {
+}
@@ -0,0 +1,23 @@
+package com.chainlesschain.community.counter;
+
+import java.util.Set;
+
+/**
+ * 计数事件监听器（缓存失效、排行榜等）
+ *
+ * 回调在事务提交后、写回线程中同步执行，实现方应保持轻量且不抛出异常。
+ */
+public interface CounterListener {
+
+    /**
+     * 计数增量已生效（事务已提交）
+     */
+    default void onIncrement(CounterType type, long id, long delta) {
+    }
+
+    /**
+     * 一批计数已写回数据库
+     */
+    default void onFlushed(Set<CounterKey> keys) {
+    }
+}
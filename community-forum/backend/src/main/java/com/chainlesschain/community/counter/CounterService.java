@@ -0,0 +1,557 @@
+package com.chainlesschain.community.counter;
+
+import com.chainlesschain.community.entity.Category;
+import com.chainlesschain.community.entity.Post;
+import com.chainlesschain.community.entity.Reply;
+import com.chainlesschain.community.entity.Tag;
+import com.chainlesschain.community.entity.User;
+import com.chainlesschain.community.mapper.CounterMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 计数器写回服务（浏览数、点赞数、收藏数、回复数、关注数等）
+ *
+ * 增量先累加在按键分段加锁的内存表中，同时追加到本地日志分段并每秒落盘一次；后台按固定间隔把
+ * 所有分段的累计增量合并为按表/列分组的批量 UPDATE，在一个事务中写回 MySQL，并记录批次ID。
+ * 进程崩溃后启动时重放未入库的分段，已入库批次靠 counter_flushes 去重，不会重复累加。
+ * 读取时通过 overlay 方法把尚未写回的增量叠加到实体上，页面显示的计数不受写回延迟影响。
+ */
+@Service
+public class CounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterService.class);
+
+    private static final int APPLY_CHUNK = 500;
+    private static final DateTimeFormatter SEGMENT_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @Autowired
+    private CounterMapper counterMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired(required = false)
+    private List<CounterListener> listeners = List.of();
+
+    @Value("${counters.write-behind:true}")
+    private boolean writeBehind;
+
+    @Value("${counters.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    @Value("${counters.journal-sync-ms:1000}")
+    private long journalSyncMs;
+
+    @Value("${counters.journal-dir:./data/counter-journal}")
+    private String journalDir;
+
+    @Value("${counters.stripes:8}")
+    private int stripeCount;
+
+    @Value("${counters.flush-retention-days:7}")
+    private int flushRetentionDays;
+
+    private final String nodeId = LocalDateTime.now().format(SEGMENT_TIME) + "-"
+            + UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong segmentSeq = new AtomicLong();
+    private final Object flushLock = new Object();
+    /** 已从内存表摘下、尚未确认入库的批次（按生成顺序） */
+    private final List<Batch> pendingBatches = new ArrayList<>();
+    private final Map<CounterType, AtomicLong> flushedTotals = new EnumMap<>(CounterType.class);
+
+    private Stripe[] stripes;
+    private CounterJournal journal;
+    private ScheduledExecutorService scheduler;
+
+    private volatile long lastFlushAt;
+    private volatile long lastFlushMillis;
+    private volatile String lastFlushError;
+
+    @PostConstruct
+    public void init() throws IOException {
+        for (CounterType type : CounterType.values()) {
+            flushedTotals.put(type, new AtomicLong());
+        }
+        if (!writeBehind) {
+            logger.info("计数器写回已关闭，增量直接写库");
+            return;
+        }
+        journal = new CounterJournal(Paths.get(journalDir));
+        stripes = new Stripe[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(i);
+        }
+        recover();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "counter-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::syncJournal, journalSyncMs, journalSyncMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("计数器写回已启动: stripes={}, flushIntervalMs={}, journalDir={}",
+                stripes.length, flushIntervalMs, journal.getDir().toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(flushIntervalMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+        for (Stripe stripe : stripes) {
+            stripe.closeSegment();
+        }
+    }
+
+    /**
+     * 累加计数；处于事务中时在事务提交后生效
+     */
+    public void increment(CounterType type, Long id, long delta) {
+        if (id == null) {
+            return;
+        }
+        incrementAll(type, List.of(id), delta);
+    }
+
+    /**
+     * 对一组ID累加相同增量；未开启写回时合并为一条 UPDATE
+     */
+    public void incrementAll(CounterType type, Collection<Long> ids, long delta) {
+        List<CounterKey> keys = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(id -> new CounterKey(type, id))
+                .toList();
+        if (keys.isEmpty() || delta == 0) {
+            return;
+        }
+        if (!writeBehind) {
+            counterMapper.applyDeltas(type.getTable(), type.getColumn(),
+                    keys.stream().map(key -> new CounterDelta(key.id(), delta)).toList());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    keys.forEach(key -> accept(key, delta));
+                }
+            });
+        } else {
+            keys.forEach(key -> accept(key, delta));
+        }
+    }
+
+    private void accept(CounterKey key, long delta) {
+        if (writeBehind) {
+            stripeFor(key).add(key, delta);
+        } else {
+            notifyFlushed(Set.of(key));
+        }
+        for (CounterListener listener : listeners) {
+            try {
+                listener.onIncrement(key.type(), key.id(), delta);
+            } catch (Exception e) {
+                logger.warn("计数事件处理失败: listener={}, error={}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private void notifyFlushed(Set<CounterKey> keys) {
+        for (CounterListener listener : listeners) {
+            try {
+                listener.onFlushed(keys);
+            } catch (Exception e) {
+                logger.warn("计数写回事件处理失败: listener={}, error={}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 尚未写回数据库的增量
+     *
+     * 与 flush 摘取分段使用同一把锁读取分段与待写回批次，不会在摘取过程中把同一增量算两次或漏算。
+     * 实体与增量分开读取，批次提交与移出待写回列表之间的短暂窗口内叠加结果可能偏差一个批次，下次读取即恢复。
+     */
+    public long pending(CounterType type, Long id) {
+        if (!writeBehind || id == null) {
+            return 0;
+        }
+        CounterKey key = new CounterKey(type, id);
+        synchronized (pendingBatches) {
+            long delta = stripeFor(key).get(key);
+            for (Batch batch : pendingBatches) {
+                delta += batch.deltas.getOrDefault(key, 0L);
+            }
+            return delta;
+        }
+    }
+
+    public Post overlay(Post post) {
+        if (post != null && post.getId() != null) {
+            post.setViewsCount(plus(post.getViewsCount(), pending(CounterType.POST_VIEWS, post.getId())));
+            post.setRepliesCount(plus(post.getRepliesCount(), pending(CounterType.POST_REPLIES, post.getId())));
+            post.setLikesCount(plus(post.getLikesCount(), pending(CounterType.POST_LIKES, post.getId())));
+            post.setFavoritesCount(plus(post.getFavoritesCount(), pending(CounterType.POST_FAVORITES, post.getId())));
+        }
+        return post;
+    }
+
+    public Reply overlay(Reply reply) {
+        if (reply != null && reply.getId() != null) {
+            reply.setLikesCount(plus(reply.getLikesCount(), pending(CounterType.REPLY_LIKES, reply.getId())));
+        }
+        return reply;
+    }
+
+    public User overlay(User user) {
+        if (user != null && user.getId() != null) {
+            user.setPostsCount(plus(user.getPostsCount(), pending(CounterType.USER_POSTS, user.getId())));
+            user.setRepliesCount(plus(user.getRepliesCount(), pending(CounterType.USER_REPLIES, user.getId())));
+            user.setFollowersCount(plus(user.getFollowersCount(), pending(CounterType.USER_FOLLOWERS, user.getId())));
+            user.setFollowingCount(plus(user.getFollowingCount(), pending(CounterType.USER_FOLLOWING, user.getId())));
+        }
+        return user;
+    }
+
+    public Tag overlay(Tag tag) {
+        if (tag != null && tag.getId() != null) {
+            tag.setPostsCount(plus(tag.getPostsCount(), pending(CounterType.TAG_POSTS, tag.getId())));
+        }
+        return tag;
+    }
+
+    public Category overlay(Category category) {
+        if (category != null && category.getId() != null) {
+            category.setPostsCount(plus(category.getPostsCount(), pending(CounterType.CATEGORY_POSTS, category.getId())));
+        }
+        return category;
+    }
+
+    /**
+     * 立即把所有累计增量写回数据库；失败的批次保留在内存并在下次写回时重试
+     */
+    public void flush() {
+        if (!writeBehind) {
+            return;
+        }
+        synchronized (flushLock) {
+            long start = System.currentTimeMillis();
+            List<Batch> batches;
+            synchronized (pendingBatches) {
+                Batch drained = drainStripes();
+                if (drained != null) {
+                    pendingBatches.add(drained);
+                }
+                batches = new ArrayList<>(pendingBatches);
+            }
+            if (batches.isEmpty()) {
+                return;
+            }
+            for (Batch batch : batches) {
+                try {
+                    if (!batch.manifestWritten) {
+                        journal.writeManifest(batch.flushId, batch.segments);
+                        batch.manifestWritten = true;
+                    }
+                    apply(batch);
+                } catch (Exception e) {
+                    lastFlushError = e.getMessage();
+                    throw new IllegalStateException("计数器写回失败: " + e.getMessage(), e);
+                }
+                synchronized (pendingBatches) {
+                    pendingBatches.remove(batch);
+                }
+                journal.deleteFlushed(batch.flushId, batch.segments);
+                batch.deltas.forEach((key, delta) -> flushedTotals.get(key.type()).addAndGet(Math.abs(delta)));
+                notifyFlushed(batch.deltas.keySet());
+            }
+            lastFlushAt = System.currentTimeMillis();
+            lastFlushMillis = lastFlushAt - start;
+            lastFlushError = null;
+        }
+    }
+
+    /**
+     * 写回统计：各计数类型的待写回键数、最老增量的延迟，以及最近一次写回情况
+     */
+    public Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        Map<CounterType, long[]> byType = new EnumMap<>(CounterType.class);
+        if (writeBehind) {
+            for (Stripe stripe : stripes) {
+                stripe.collectStats(byType);
+            }
+            synchronized (pendingBatches) {
+                for (Batch batch : pendingBatches) {
+                    batch.collectStats(byType);
+                }
+            }
+        }
+
+        Map<String, Object> counters = new LinkedHashMap<>();
+        for (CounterType type : CounterType.values()) {
+            long[] stat = byType.get(type);
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("pendingKeys", stat != null ? stat[0] : 0);
+            item.put("lagMillis", stat != null && stat[1] > 0 ? now - stat[1] : 0);
+            item.put("flushedDelta", flushedTotals.get(type).get());
+            counters.put(type.name(), item);
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("writeBehind", writeBehind);
+        stats.put("flushIntervalMs", flushIntervalMs);
+        stats.put("pendingBatches", pendingBatchCount());
+        stats.put("lastFlushAt", lastFlushAt);
+        stats.put("lastFlushMillis", lastFlushMillis);
+        stats.put("lastFlushError", lastFlushError);
+        stats.put("counters", counters);
+        return stats;
+    }
+
+    private int pendingBatchCount() {
+        synchronized (pendingBatches) {
+            return pendingBatches.size();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warn("计数器写回失败，将在下次重试: {}", e.getMessage());
+        }
+    }
+
+    private void syncJournal() {
+        for (Stripe stripe : stripes) {
+            stripe.sync();
+        }
+    }
+
+    private Batch drainStripes() {
+        Batch batch = new Batch("flush-" + nodeId + "-" + segmentSeq.incrementAndGet());
+        for (Stripe stripe : stripes) {
+            stripe.drainTo(batch);
+        }
+        return batch.segments.isEmpty() ? null : batch;
+    }
+
+    private void apply(Batch batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (counterMapper.countFlush(batch.flushId) > 0) {
+                // 上次提交已成功但未来得及清理本地文件
+                return;
+            }
+            Map<CounterType, List<CounterDelta>> grouped = new EnumMap<>(CounterType.class);
+            batch.deltas.forEach((key, delta) -> {
+                if (delta != 0) {
+                    grouped.computeIfAbsent(key.type(), t -> new ArrayList<>()).add(new CounterDelta(key.id(), delta));
+                }
+            });
+            grouped.forEach((type, deltas) -> {
+                // 按ID排序，多实例并发写回时加锁顺序一致
+                deltas.sort(Comparator.comparing(CounterDelta::getId));
+                for (int from = 0; from < deltas.size(); from += APPLY_CHUNK) {
+                    counterMapper.applyDeltas(type.getTable(), type.getColumn(),
+                            deltas.subList(from, Math.min(from + APPLY_CHUNK, deltas.size())));
+                }
+            });
+            counterMapper.insertFlush(batch.flushId, batch.segments.size());
+        });
+    }
+
+    /**
+     * 启动恢复：清理已入库批次的分段，其余分段合并为一个批次重放
+     */
+    private void recover() throws IOException {
+        for (String flushId : journal.listManifests()) {
+            List<String> segments = journal.readManifest(flushId);
+            if (counterMapper.countFlush(flushId) > 0) {
+                journal.deleteFlushed(flushId, segments);
+            } else {
+                journal.deleteManifest(flushId);
+            }
+        }
+
+        List<String> segments = journal.listSegments();
+        if (segments.isEmpty()) {
+            return;
+        }
+        Batch replay = new Batch("replay-" + nodeId);
+        for (String segment : segments) {
+            replay.segments.add(segment);
+            journal.readSegment(segment).forEach((key, delta) -> replay.add(key, delta, System.currentTimeMillis()));
+        }
+        synchronized (pendingBatches) {
+            pendingBatches.add(replay);
+        }
+        logger.info("重放计数日志: segments={}, keys={}", segments.size(), replay.deltas.size());
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warn("计数日志重放失败，将在下次写回时重试: {}", e.getMessage());
+        }
+        cleanupFlushRecords();
+    }
+
+    private void cleanupFlushRecords() {
+        try {
+            counterMapper.deleteFlushesBefore(LocalDateTime.now().minusDays(flushRetentionDays));
+        } catch (Exception e) {
+            logger.warn("清理计数写回记录失败: {}", e.getMessage());
+        }
+    }
+
+    private Stripe stripeFor(CounterKey key) {
+        return stripes[(key.hashCode() & 0x7fffffff) % stripes.length];
+    }
+
+    private static Integer plus(Integer value, long delta) {
+        if (delta == 0) {
+            return value;
+        }
+        return (int) Math.max(0, (value != null ? value : 0) + delta);
+    }
+
+    /**
+     * 一个待写回批次：合并后的增量及其来源分段
+     */
+    private static final class Batch {
+        private final String flushId;
+        private final List<String> segments = new ArrayList<>();
+        private final Map<CounterKey, Long> deltas = new HashMap<>();
+        private final Map<CounterType, Long> oldest = new EnumMap<>(CounterType.class);
+        private boolean manifestWritten;
+
+        private Batch(String flushId) {
+            this.flushId = flushId;
+        }
+
+        private void add(CounterKey key, long delta, long firstAt) {
+            deltas.merge(key, delta, Long::sum);
+            oldest.merge(key.type(), firstAt, Math::min);
+        }
+
+        private void collectStats(Map<CounterType, long[]> byType) {
+            deltas.keySet().forEach(key -> byType.computeIfAbsent(key.type(), t -> new long[2])[0]++);
+            oldest.forEach((type, at) -> {
+                long[] stat = byType.computeIfAbsent(type, t -> new long[2]);
+                stat[1] = stat[1] == 0 ? at : Math.min(stat[1], at);
+            });
+        }
+    }
+
+    /**
+     * 一个分段：内存增量表 + 当前日志分段，所有操作在自身监视器下进行
+     */
+    private final class Stripe {
+        private final int index;
+        private final Map<CounterKey, Long> deltas = new HashMap<>();
+        private final Map<CounterType, Long> oldest = new EnumMap<>(CounterType.class);
+        private CounterJournal.Segment segment;
+
+        private Stripe(int index) {
+            this.index = index;
+        }
+
+        private synchronized void add(CounterKey key, long delta) {
+            try {
+                if (segment == null) {
+                    segment = journal.openSegment("counters-" + nodeId + "-" + index + "-" + segmentSeq.incrementAndGet());
+                }
+                segment.append(key, delta);
+            } catch (IOException e) {
+                // 日志不可写时仍累加到内存，仅失去崩溃恢复保障
+                logger.warn("计数日志写入失败: {}", e.getMessage());
+            }
+            deltas.merge(key, delta, Long::sum);
+            oldest.putIfAbsent(key.type(), System.currentTimeMillis());
+        }
+
+        private synchronized long get(CounterKey key) {
+            return deltas.getOrDefault(key, 0L);
+        }
+
+        private synchronized void sync() {
+            if (segment == null) {
+                return;
+            }
+            try {
+                segment.sync();
+            } catch (IOException e) {
+                logger.warn("计数日志落盘失败: {}", e.getMessage());
+            }
+        }
+
+        private synchronized void drainTo(Batch batch) {
+            if (segment == null) {
+                return;
+            }
+            String name = segment.getName();
+            closeSegment();
+            batch.segments.add(name);
+            deltas.forEach((key, delta) -> batch.deltas.merge(key, delta, Long::sum));
+            oldest.forEach((type, at) -> batch.oldest.merge(type, at, Math::min));
+            deltas.clear();
+            oldest.clear();
+        }
+
+        private synchronized void closeSegment() {
+            if (segment == null) {
+                return;
+            }
+            try {
+                segment.close();
+            } catch (IOException e) {
+                logger.warn("关闭计数日志分段失败: {}", e.getMessage());
+            }
+            segment = null;
+        }
+
+        private synchronized void collectStats(Map<CounterType, long[]> byType) {
+            deltas.keySet().forEach(key -> byType.computeIfAbsent(key.type(), t -> new long[2])[0]++);
+            oldest.forEach((type, at) -> {
+                long[] stat = byType.computeIfAbsent(type, t -> new long[2]);
+                stat[1] = stat[1] == 0 ? at : Math.min(stat[1], at);
+            });
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.chainlesschain.community.counter;
+
+/**
+ * 写回计数器类型：对应实体表中的一个计数列
+ */
+public enum CounterType {
+
+    POST_VIEWS("posts", "views_count"),
+    POST_REPLIES("posts", "replies_count"),
+    POST_LIKES("posts", "likes_count"),
+    POST_FAVORITES("posts", "favorites_count"),
+    REPLY_LIKES("replies", "likes_count"),
+    USER_POSTS("users", "posts_count"),
+    USER_REPLIES("users", "replies_count"),
+    USER_FOLLOWERS("users", "followers_count"),
+    USER_FOLLOWING("users", "following_count"),
+    TAG_POSTS("tags", "posts_count"),
+    CATEGORY_POSTS("categories", "posts_count"),
+    SITE_STATS("site_stats", "stat_value"),
+    DAILY_STATS("daily_stats", "stat_value");
+
+    private final String table;
+    private final String column;
+
+    CounterType(String table, String column) {
+        this.table = table;
+        this.column = column;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+}
@@ -0,0 +1,433 @@
+package com.chainlesschain.community.draft;
+
+import com.chainlesschain.community.common.Result;
+import com.chainlesschain.community.dto.DraftSaveRequest;
+import com.chainlesschain.community.entity.Draft;
+import com.chainlesschain.community.mapper.DraftMapper;
+import com.chainlesschain.community.util.SecurityUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 草稿自动保存
+ *
+ * 编辑器的频繁保存只更新内存中该草稿的最新内容，后台每 drafts.flush-seconds 秒合并写回一次
+ * （多行 UPDATE），同一草稿在一个周期内无论保存多少次只写一行。每次保存携带客户端持有的版本号，
+ * 与当前版本不一致（其他窗口已保存过）时拒绝，写回时数据库也只接受更大的版本。草稿行在首次保存时
+ * 直接插入，写回只更新已存在的行，因此已删除的草稿（包括在其他实例上删除的）不会被写回来。
+ * 草稿的归属与版本缓存在内存中，保存时不查库；每个用户的草稿数受 drafts.max-per-user 限制。
+ * 多实例部署时各实例的版本缓存互不同步：同一草稿在两个实例上交替保存时，版本冲突只能由写回时的
+ * 版本比较发现，较旧的内容被静默丢弃而不是返回 409；在其他实例上删除后，本实例在缓存失效前仍会
+ * 接受保存，但这些内容不会写入。发布帖子后对应草稿在事务提交后删除。
+ */
+@Service
+public class DraftService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DraftService.class);
+
+    private static final int WRITE_BATCH = 200;
+
+    /** 与 tags.name 列长度一致 */
+    private static final int MAX_TAG_LENGTH = 50;
+
+    /** 与 drafts.tags 列长度一致（逗号连接后） */
+    private static final int MAX_TAGS_LENGTH = 500;
+
+    @Autowired
+    private DraftMapper draftMapper;
+
+    @Value("${drafts.flush-seconds:3}")
+    private long flushSeconds;
+
+    @Value("${drafts.max-per-user:20}")
+    private int maxPerUser;
+
+    @Value("${drafts.max-pending:20000}")
+    private int maxPending;
+
+    @Value("${drafts.version-cache-size:50000}")
+    private int versionCacheSize;
+
+    /**
+     * 待写回的最新内容（草稿ID -> 草稿）
+     */
+    private final ConcurrentHashMap<Long, Draft> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 草稿归属与当前版本（草稿ID -> 状态），保存时据此校验
+     */
+    private final ConcurrentHashMap<Long, Known> known = new ConcurrentHashMap<>();
+
+    private final Object flushLock = new Object();
+    private final AtomicLong saves = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong rowsDropped = new AtomicLong();
+    private volatile long lastFlushAt;
+    private volatile long lastFlushMillis;
+    private volatile String lastFlushError;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "draft-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        flushQuietly();
+    }
+
+    /**
+     * 保存草稿：首次保存（或该帖子还没有草稿）时创建，之后只更新内存中的最新内容
+     */
+    public Result<Draft> save(DraftSaveRequest request) {
+        Long currentUserId = SecurityUtil.getCurrentUserId();
+
+        if (currentUserId == null) {
+            return Result.unauthorized();
+        }
+
+        String tagError = validateTags(request.getTags());
+        if (tagError != null) {
+            return Result.error(tagError);
+        }
+
+        Long draftId = request.getId();
+        if (draftId == null && request.getPostId() != null) {
+            Draft existing = draftMapper.selectByUserAndPost(currentUserId, request.getPostId());
+            if (existing != null) {
+                draftId = existing.getId();
+            }
+        }
+        if (draftId == null) {
+            return create(currentUserId, request);
+        }
+
+        Known loaded = load(draftId);
+        if (loaded == null || loaded.deleted() || !loaded.userId().equals(currentUserId)) {
+            return Result.notFound();
+        }
+
+        Draft draft = toDraft(draftId, currentUserId, loaded.postId(), request);
+        boolean[] accepted = new boolean[1];
+        known.compute(draftId, (id, current) -> {
+            Known base = current != null ? current : loaded;
+            if (base.deleted() || !Objects.equals(request.getVersion(), base.version())) {
+                return base;
+            }
+            draft.setVersion(base.version() + 1);
+            pending.put(id, draft);
+            accepted[0] = true;
+            return new Known(base.userId(), base.postId(), draft.getVersion(), false);
+        });
+
+        if (!accepted[0]) {
+            conflicts.incrementAndGet();
+            return Result.error(409, "草稿已在其他窗口更新，请刷新后重试");
+        }
+        saves.incrementAndGet();
+        if (pending.size() >= maxPending) {
+            scheduler.execute(this::flushQuietly);
+        }
+        return Result.success(draft);
+    }
+
+    /**
+     * 当前用户的草稿列表（叠加尚未写回的内容）
+     */
+    public Result<List<Draft>> listDrafts() {
+        Long currentUserId = SecurityUtil.getCurrentUserId();
+
+        if (currentUserId == null) {
+            return Result.unauthorized();
+        }
+
+        List<Draft> drafts = new ArrayList<>();
+        for (Draft draft : draftMapper.selectByUserId(currentUserId)) {
+            drafts.add(pending.getOrDefault(draft.getId(), draft));
+        }
+        drafts.sort(Comparator.comparing(Draft::getUpdatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return Result.success(drafts);
+    }
+
+    /**
+     * 获取草稿（叠加尚未写回的内容）
+     */
+    public Result<Draft> getDraft(Long id) {
+        Long currentUserId = SecurityUtil.getCurrentUserId();
+
+        if (currentUserId == null) {
+            return Result.unauthorized();
+        }
+
+        Draft draft = pending.get(id);
+        if (draft == null) {
+            draft = draftMapper.selectById(id);
+        }
+        if (draft == null || !draft.getUserId().equals(currentUserId)) {
+            return Result.notFound();
+        }
+        return Result.success(draft);
+    }
+
+    /**
+     * 删除草稿
+     */
+    public Result<Void> deleteDraft(Long id) {
+        Long currentUserId = SecurityUtil.getCurrentUserId();
+
+        if (currentUserId == null) {
+            return Result.unauthorized();
+        }
+
+        Known loaded = load(id);
+        if (loaded == null || loaded.deleted() || !loaded.userId().equals(currentUserId)) {
+            return Result.notFound();
+        }
+        discard(id);
+        return Result.success();
+    }
+
+    /**
+     * 帖子发布后删除所用的草稿（事务提交后生效）
+     */
+    public void published(Long userId, Long draftId) {
+        if (draftId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            Known loaded = load(draftId);
+            if (loaded != null && !loaded.deleted() && loaded.userId().equals(userId)) {
+                discard(draftId);
+            }
+        });
+    }
+
+    /**
+     * 帖子修改保存后删除该帖子的编辑草稿（事务提交后生效）
+     */
+    public void postUpdated(Long userId, Long postId) {
+        afterCommit(() -> {
+            Draft draft = draftMapper.selectByUserAndPost(userId, postId);
+            if (draft != null) {
+                discard(draft.getId());
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pending.size());
+        stats.put("knownDrafts", known.size());
+        stats.put("saves", saves.get());
+        stats.put("conflicts", conflicts.get());
+        stats.put("rowsWritten", rowsWritten.get());
+        stats.put("rowsDropped", rowsDropped.get());
+        stats.put("lastFlushAt", lastFlushAt);
+        stats.put("lastFlushMillis", lastFlushMillis);
+        stats.put("lastFlushError", lastFlushError);
+        return stats;
+    }
+
+    /**
+     * 立即写回全部待写回草稿；写入过程中又被保存的草稿保留到下一次
+     *
+     * 一批写入失败时逐行重试：违反约束的行（数据本身有问题，重试也不会成功）丢弃并记录，
+     * 其他错误（如数据库不可用）原样抛出，该批保留到下一次。
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            long start = System.currentTimeMillis();
+            long rowsDroppedBefore = rowsDropped.get();
+            List<Draft> batch = new ArrayList<>(pending.values());
+            for (int from = 0; from < batch.size(); from += WRITE_BATCH) {
+                List<Draft> chunk = batch.subList(from, Math.min(batch.size(), from + WRITE_BATCH));
+                try {
+                    draftMapper.updateBatch(chunk);
+                } catch (DataIntegrityViolationException e) {
+                    writeOneByOne(chunk);
+                    continue;
+                }
+                for (Draft draft : chunk) {
+                    pending.remove(draft.getId(), draft);
+                }
+                rowsWritten.addAndGet(chunk.size());
+            }
+            if (known.size() > versionCacheSize) {
+                known.keySet().removeIf(id -> !pending.containsKey(id));
+            }
+            lastFlushAt = System.currentTimeMillis();
+            lastFlushMillis = lastFlushAt - start;
+            if (rowsDroppedBefore == rowsDropped.get()) {
+                lastFlushError = null;
+            }
+        }
+    }
+
+    private void writeOneByOne(List<Draft> chunk) {
+        for (Draft draft : chunk) {
+            try {
+                draftMapper.updateBatch(List.of(draft));
+                rowsWritten.incrementAndGet();
+            } catch (DataIntegrityViolationException e) {
+                rowsDropped.incrementAndGet();
+                lastFlushError = e.getMessage();
+                logger.error("草稿写回被数据库拒绝，已丢弃: id={}, version={}, error={}",
+                        draft.getId(), draft.getVersion(), e.getMessage());
+            }
+            pending.remove(draft.getId(), draft);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            lastFlushError = e.getMessage();
+            logger.warn("草稿写回失败，将在下次重试: {}", e.getMessage());
+        }
+    }
+
+    private Result<Draft> create(Long userId, DraftSaveRequest request) {
+        if (draftMapper.countByUserId(userId) >= maxPerUser) {
+            return Result.error("草稿数量已达上限（" + maxPerUser + "），请先删除不需要的草稿");
+        }
+
+        Draft draft = toDraft(null, userId, request.getPostId(), request);
+        draft.setVersion(1L);
+        try {
+            draftMapper.insert(draft);
+        } catch (DuplicateKeyException e) {
+            // 同一帖子的编辑草稿已由其他窗口创建
+            conflicts.incrementAndGet();
+            return Result.error(409, "草稿已在其他窗口更新，请刷新后重试");
+        }
+        known.put(draft.getId(), new Known(userId, draft.getPostId(), draft.getVersion(), false));
+        saves.incrementAndGet();
+        return Result.success(draft);
+    }
+
+    /**
+     * 删除草稿：先标记为已删除并丢弃待写回内容，再在写回锁内删除数据库行，避免正在进行的写回把它写回来
+     */
+    private void discard(Long draftId) {
+        known.compute(draftId, (id, current) -> new Known(
+                current != null ? current.userId() : null, current != null ? current.postId() : null, -1L, true));
+        pending.remove(draftId);
+        synchronized (flushLock) {
+            draftMapper.deleteById(draftId);
+        }
+    }
+
+    /**
+     * 草稿的归属与当前版本：优先内存，否则读库（待写回内容的版本比数据库新）
+     */
+    private Known load(Long draftId) {
+        Known cached = known.get(draftId);
+        if (cached != null) {
+            return cached;
+        }
+        Draft draft = draftMapper.selectById(draftId);
+        if (draft == null) {
+            return null;
+        }
+        Draft buffered = pending.get(draftId);
+        long version = buffered != null ? buffered.getVersion() : value(draft.getVersion());
+        Known loaded = new Known(draft.getUserId(), draft.getPostId(), version, false);
+        Known existing = known.putIfAbsent(draftId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private static Draft toDraft(Long id, Long userId, Long postId, DraftSaveRequest request) {
+        Draft draft = new Draft();
+        draft.setId(id);
+        draft.setUserId(userId);
+        draft.setPostId(postId);
+        draft.setTitle(request.getTitle());
+        draft.setContent(request.getContent());
+        draft.setCategoryId(request.getCategoryId());
+        draft.setTags(request.getTags() != null ? String.join(",", request.getTags()) : null);
+        draft.setUpdatedAt(LocalDateTime.now());
+        return draft;
+    }
+
+    /**
+     * 校验标签：逗号连接后存入 drafts.tags，单个标签不能含逗号且不超过标签名长度，连接后不超过列长度
+     *
+     * @return 错误信息，校验通过时为 null
+     */
+    private static String validateTags(List<String> tags) {
+        if (tags == null) {
+            return null;
+        }
+        for (String tag : tags) {
+            if (tag == null || tag.isBlank()) {
+                return "标签不能为空";
+            }
+            if (tag.indexOf(',') >= 0) {
+                return "标签不能包含逗号";
+            }
+            if (tag.length() > MAX_TAG_LENGTH) {
+                return "单个标签长度不能超过" + MAX_TAG_LENGTH + "个字符";
+            }
+        }
+        if (String.join(",", tags).length() > MAX_TAGS_LENGTH) {
+            return "标签总长度不能超过" + MAX_TAGS_LENGTH + "个字符";
+        }
+        return null;
+    }
+
+    private static long value(Long version) {
+        return version != null ? version : 0L;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 草稿归属与版本；deleted 为 true 时表示已删除，之后的保存一律拒绝
+     */
+    private record Known(Long userId, Long postId, long version, boolean deleted) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.chainlesschain.community.dto;
+
+import lombok.Data;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 保存草稿请求DTO
+ */
+@Data
+public class DraftSaveRequest {
+
+    private Long id; // 草稿ID，首次保存为空
+
+    private Long postId; // 编辑已发布帖子时的帖子ID
+
+    private Long version; // 客户端当前持有的版本号，首次保存为空
+
+    @Size(max = 200, message = "标题长度不能超过200个字符")
+    private String title;
+
+    @Size(max = 50000, message = "内容长度不能超过50000个字符")
+    private String content;
+
+    private Long categoryId;
+
+    @Size(max = 10, message = "标签不能超过10个")
+    private List<String> tags;
+}
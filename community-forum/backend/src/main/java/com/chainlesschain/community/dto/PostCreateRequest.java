@@ -26,4 +26,6 @@ public class PostCreateRequest {
     private List<String> tags; // 标签名称列表
 
     private String type; // QUESTION, DISCUSSION, FEEDBACK, ANNOUNCEMENT
+
+    private Long draftId; // 从草稿发布时的草稿ID，发布成功后删除该草稿
 }
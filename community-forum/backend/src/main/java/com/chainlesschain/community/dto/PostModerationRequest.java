@@ -0,0 +1,21 @@
+package com.chainlesschain.community.dto;
+
+import lombok.Data;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * 批量审核帖子请求DTO
+ */
+@Data
+public class PostModerationRequest {
+
+    @NotEmpty(message = "帖子ID不能为空")
+    @Size(max = 100, message = "单次最多处理100个帖子")
+    private List<Long> postIds;
+
+    @Size(max = 500, message = "原因长度不能超过500个字符")
+    private String reason;
+}
@@ -0,0 +1,20 @@
+package com.chainlesschain.community.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import java.time.LocalDate;
+
+/**
+ * 按天汇总的统计值（每日新增用户、新增帖子），主键 = yyyyMMdd × 100 + 指标编号
+ */
+@Data
+@TableName("daily_stats")
+public class DailyStat {
+
+    @TableId(type = IdType.INPUT)
+    private Long id;
+
+    private LocalDate statDate;
+    private String metric;
+    private Long statValue;
+}
@@ -15,10 +15,12 @@ public class Draft {
     private Long id;
 
     private Long userId;
+    private Long postId; // 编辑已发布帖子时的帖子ID，新帖草稿为空
     private String title;
     private String content;
     private Long categoryId;
     private String tags; // 逗号分隔的标签字符串
+    private Long version; // 每次保存加一，用于拒绝过期窗口的覆盖
 
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createdAt;
@@ -0,0 +1,28 @@
+package com.chainlesschain.community.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 私信会话（每对用户一行，user_low_id < user_high_id），随发送、已读、删除在同一事务内更新
+ */
+@Data
+@TableName("message_threads")
+public class MessageThread {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private Long userLowId;
+    private Long userHighId;
+    private Long lastMessageId;
+    private Long lastSenderId;
+    private String lastPreview;
+    private LocalDateTime lastMessageAt;
+    private Integer lowUnread;
+    private Integer highUnread;
+
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.chainlesschain.community.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 搜索索引待同步记录（outbox），与业务写操作同一事务插入
+ */
+@Data
+@TableName("search_outbox")
+public class SearchOutbox {
+
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    private String entityType; // POST, USER
+    private Long entityId;
+
+    @TableField(insertStrategy = FieldStrategy.NEVER)
+    private LocalDateTime createdAt;
+}
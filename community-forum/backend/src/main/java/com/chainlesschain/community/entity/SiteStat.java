@@ -0,0 +1,22 @@
+package com.chainlesschain.community.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 全站统计值（总用户数、总帖子数等），由领域事件增减、定时对账校正
+ */
+@Data
+@TableName("site_stats")
+public class SiteStat {
+
+    @TableId(type = IdType.INPUT)
+    private Long id;
+
+    private String statKey;
+    private Long statValue;
+
+    @TableField(insertStrategy = FieldStrategy.NEVER, updateStrategy = FieldStrategy.NEVER)
+    private LocalDateTime updatedAt;
+}
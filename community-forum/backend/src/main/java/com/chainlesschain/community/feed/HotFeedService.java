@@ -0,0 +1,361 @@
+package com.chainlesschain.community.feed;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.chainlesschain.community.counter.CounterListener;
+import com.chainlesschain.community.counter.CounterService;
+import com.chainlesschain.community.counter.CounterType;
+import com.chainlesschain.community.entity.Post;
+import com.chainlesschain.community.mapper.PostMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 热门帖子列表（sortBy=hot）
+ *
+ * 热度 = log2(1 + 互动分) + (发帖时间 - 基准时间) / 半衰期，互动分为浏览×1、点赞×3、收藏×4、回复×5。
+ * 发帖时间越晚热度越高，每过一个半衰期需要双倍互动才能保持排名，因此排序不随时间推移而变化，
+ * 互动事件只需更新单个帖子的分数。最近 system.hot-days 天的帖子（及置顶帖）按全站和分类分别
+ * 保存在内存有序集合中，游标分页；定时从数据库全量重算，纠正多实例间未同步的增量。
+ */
+@Service
+public class HotFeedService implements CounterListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotFeedService.class);
+
+    /** 分数中时间项的基准（2024-01-01T00:00:00Z），使分数保持在较小范围 */
+    private static final long EPOCH_SECONDS = 1704067200L;
+    private static final int LOAD_PAGE = 1000;
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparing(Entry::pinned).reversed()
+            .thenComparing(Comparator.comparingDouble(Entry::score).reversed())
+            .thenComparing(Comparator.comparingLong(Entry::id).reversed());
+
+    @Autowired
+    private PostMapper postMapper;
+
+    /**
+     * 计数服务创建时会注入全部 CounterListener（包括本类），这里按需获取，避免构造期循环依赖
+     */
+    @Autowired
+    private ObjectProvider<CounterService> counterService;
+
+    @Value("${system.hot-days:7}")
+    private int hotDays;
+
+    @Value("${feed.hot.half-life-hours:12}")
+    private double halfLifeHours;
+
+    @Value("${feed.hot.recompute-seconds:300}")
+    private long recomputeSeconds;
+
+    private volatile Feed feed;
+    private volatile long lastRecomputeAt;
+    private volatile long lastRecomputeMs;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "hot-feed-recompute");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::recomputeQuietly, 0, recomputeSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 读取一页热门帖子ID
+     *
+     * @param cursor 上一页返回的游标；为空时按 page 跳过前面的记录
+     * @return 首次重算完成前返回 null，由调用方退回数据库查询
+     * @throws IllegalArgumentException 游标格式错误
+     */
+    public FeedPage page(Long categoryId, String cursor, int page, int pageSize) {
+        Feed current = feed;
+        if (current == null) {
+            return null;
+        }
+        NavigableSet<Entry> entries = categoryId != null
+                ? current.byCategory.getOrDefault(categoryId, new ConcurrentSkipListSet<>(ORDER))
+                : current.all;
+
+        Iterator<Entry> iterator;
+        if (cursor != null && !cursor.isEmpty()) {
+            iterator = entries.tailSet(decodeCursor(cursor), false).iterator();
+        } else {
+            iterator = entries.iterator();
+            for (long skip = (long) Math.max(0, page - 1) * pageSize; skip > 0 && iterator.hasNext(); skip--) {
+                iterator.next();
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(pageSize);
+        Entry last = null;
+        while (iterator.hasNext() && ids.size() < pageSize) {
+            last = iterator.next();
+            ids.add(last.id());
+        }
+        String nextCursor = last != null && iterator.hasNext() ? encodeCursor(last) : null;
+        return new FeedPage(ids, entries.size(), nextCursor);
+    }
+
+    @Override
+    public void onIncrement(CounterType type, long id, long delta) {
+        double weight = switch (type) {
+            case POST_VIEWS -> 1;
+            case POST_LIKES -> 3;
+            case POST_FAVORITES -> 4;
+            case POST_REPLIES -> 5;
+            default -> 0;
+        };
+        Feed current = feed;
+        if (weight == 0 || current == null) {
+            return;
+        }
+        synchronized (this) {
+            Stat stat = current.stats.get(id);
+            if (stat != null) {
+                stat.engagement = Math.max(0, stat.engagement + weight * delta);
+                current.reposition(stat, score(stat));
+            }
+        }
+    }
+
+    /**
+     * 帖子发布、修改或恢复后更新热门列表（事务提交后生效）
+     */
+    public void upsertPost(Post post) {
+        afterCommit(() -> {
+            Feed current = feed;
+            if (current == null || !"PUBLISHED".equals(post.getStatus())) {
+                return;
+            }
+            Stat stat = toStat(counterService.getObject().overlay(post));
+            if (!stat.pinned && stat.createdSeconds < windowStartSeconds()) {
+                return;
+            }
+            synchronized (this) {
+                current.remove(post.getId());
+                current.add(stat, score(stat));
+            }
+        });
+    }
+
+    /**
+     * 帖子删除或下架后移出热门列表（事务提交后生效）
+     */
+    public void removePost(Long postId) {
+        afterCommit(() -> {
+            Feed current = feed;
+            if (current != null) {
+                synchronized (this) {
+                    current.remove(postId);
+                }
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Feed current = feed;
+        stats.put("ready", current != null);
+        stats.put("posts", current != null ? current.all.size() : 0);
+        stats.put("categories", current != null ? current.byCategory.size() : 0);
+        stats.put("lastRecomputeAt", lastRecomputeAt);
+        stats.put("lastRecomputeMs", lastRecomputeMs);
+        return stats;
+    }
+
+    private void recomputeQuietly() {
+        try {
+            recompute();
+        } catch (Exception e) {
+            logger.warn("热门帖子重算失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从数据库按主键分页读取窗口内的帖子，构建新列表后整体替换
+     */
+    void recompute() {
+        long start = System.currentTimeMillis();
+        LocalDateTime since = LocalDateTime.now().minusDays(Math.max(1, hotDays));
+        Feed next = new Feed();
+        long lastId = 0;
+        while (true) {
+            List<Post> page = postMapper.selectList(new QueryWrapper<Post>()
+                    .select("id", "category_id", "is_pinned", "views_count", "likes_count",
+                            "favorites_count", "replies_count", "created_at")
+                    .eq("status", "PUBLISHED")
+                    .and(w -> w.ge("created_at", since).or().eq("is_pinned", 1))
+                    .gt("id", lastId)
+                    .orderByAsc("id")
+                    .last("LIMIT " + LOAD_PAGE));
+            if (page.isEmpty()) {
+                break;
+            }
+            for (Post post : page) {
+                Stat stat = toStat(counterService.getObject().overlay(post));
+                next.add(stat, score(stat));
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+        synchronized (this) {
+            feed = next;
+        }
+        lastRecomputeAt = System.currentTimeMillis();
+        lastRecomputeMs = lastRecomputeAt - start;
+        logger.debug("热门帖子重算完成: posts={}, 耗时={}ms", next.all.size(), lastRecomputeMs);
+    }
+
+    private double score(Stat stat) {
+        double halfLifeSeconds = Math.max(1, halfLifeHours) * 3600;
+        return Math.log1p(stat.engagement) / Math.log(2) + (stat.createdSeconds - EPOCH_SECONDS) / halfLifeSeconds;
+    }
+
+    private long windowStartSeconds() {
+        return System.currentTimeMillis() / 1000 - Math.max(1, hotDays) * 86400L;
+    }
+
+    private static Stat toStat(Post post) {
+        Stat stat = new Stat();
+        stat.id = post.getId();
+        stat.categoryId = post.getCategoryId();
+        stat.pinned = post.getIsPinned() != null && post.getIsPinned() == 1;
+        stat.engagement = value(post.getViewsCount()) + value(post.getLikesCount()) * 3
+                + value(post.getFavoritesCount()) * 4 + value(post.getRepliesCount()) * 5;
+        stat.createdSeconds = post.getCreatedAt() != null
+                ? post.getCreatedAt().atZone(ZoneId.systemDefault()).toEpochSecond()
+                : System.currentTimeMillis() / 1000;
+        return stat;
+    }
+
+    private static long value(Integer count) {
+        return count != null ? count : 0;
+    }
+
+    private static String encodeCursor(Entry entry) {
+        String raw = (entry.pinned() ? 1 : 0) + ":" + entry.score() + ":" + entry.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Entry decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return new Entry(Long.parseLong(parts[2]), "1".equals(parts[0]), Double.parseDouble(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 一页热门帖子
+     *
+     * @param nextCursor 下一页游标，没有更多数据时为 null
+     */
+    public record FeedPage(List<Long> ids, long total, String nextCursor) {
+    }
+
+    private record Entry(long id, boolean pinned, double score) {
+    }
+
+    private static class Stat {
+        long id;
+        Long categoryId;
+        boolean pinned;
+        double engagement;
+        long createdSeconds;
+        Entry entry;
+    }
+
+    /**
+     * 热门列表快照：全站与各分类的有序集合共享同一组帖子状态；修改在 HotFeedService 锁内进行
+     */
+    private static class Feed {
+        final NavigableSet<Entry> all = new ConcurrentSkipListSet<>(ORDER);
+        final Map<Long, NavigableSet<Entry>> byCategory = new ConcurrentHashMap<>();
+        final Map<Long, Stat> stats = new HashMap<>();
+
+        void add(Stat stat, double score) {
+            stat.entry = new Entry(stat.id, stat.pinned, score);
+            stats.put(stat.id, stat);
+            all.add(stat.entry);
+            if (stat.categoryId != null) {
+                byCategory.computeIfAbsent(stat.categoryId, k -> new ConcurrentSkipListSet<>(ORDER)).add(stat.entry);
+            }
+        }
+
+        void remove(long id) {
+            Stat stat = stats.remove(id);
+            if (stat != null) {
+                detach(stat);
+            }
+        }
+
+        void reposition(Stat stat, double score) {
+            detach(stat);
+            add(stat, score);
+        }
+
+        private void detach(Stat stat) {
+            all.remove(stat.entry);
+            if (stat.categoryId != null) {
+                NavigableSet<Entry> category = byCategory.get(stat.categoryId);
+                if (category != null) {
+                    category.remove(stat.entry);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.chainlesschain.community.feed;
+
+import com.chainlesschain.community.cache.CacheStore;
+import com.chainlesschain.community.counter.CounterService;
+import com.chainlesschain.community.entity.Post;
+import com.chainlesschain.community.entity.User;
+import com.chainlesschain.community.mapper.FollowMapper;
+import com.chainlesschain.community.mapper.PostMapper;
+import com.chainlesschain.community.mapper.UserMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 关注时间线（我关注的人发布的帖子）
+ *
+ * 推拉结合：粉丝数不超过 timeline.push-max-followers 的作者发帖后，帖子ID推送到每个粉丝的收件箱
+ * （缓存中的有序集合，分数为帖子ID，只保留最新 timeline.inbox-size 条）；粉丝更多的作者在读取时
+ * 从数据库拉取，两部分按帖子ID归并后游标分页。收件箱只为近期读过时间线的用户维护，过期或丢失
+ * 后在下次读取时从数据库重建；翻过收件箱保留范围后整体改为数据库查询。
+ */
+@Service
+public class TimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    private static final String INBOX_PREFIX = "forum:timeline:inbox:";
+    private static final String READY_PREFIX = "forum:timeline:ready:";
+    private static final int FOLLOWER_BATCH = 500;
+
+    @Autowired
+    private CacheStore cacheStore;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private FollowMapper followMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Value("${timeline.inbox-size:500}")
+    private int inboxSize;
+
+    @Value("${timeline.push-max-followers:1000}")
+    private int pushMaxFollowers;
+
+    @Value("${timeline.inbox-ttl-hours:72}")
+    private long inboxTtlHours;
+
+    @Value("${timeline.backfill-posts:20}")
+    private int backfillPosts;
+
+    private ExecutorService executor;
+    private final AtomicLong pushed = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private final AtomicLong deepReads = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "timeline-fanout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 读取一页时间线帖子ID
+     *
+     * @param cursor 上一页最后一个帖子ID，为空时从最新开始
+     */
+    public TimelinePage page(Long userId, Long cursor, int pageSize) {
+        ensureInbox(userId);
+        String inboxKey = INBOX_PREFIX + userId;
+        double below = cursor != null ? cursor : Double.POSITIVE_INFINITY;
+
+        List<Long> inbox = toIds(cacheStore.zrevRangeBelow(inboxKey, below, pageSize + 1));
+        List<Long> pulled;
+        if (inbox.size() <= pageSize && cacheStore.zcard(inboxKey) >= inboxSize) {
+            // 已翻过收件箱保留范围，更早的帖子全部从数据库读取
+            deepReads.incrementAndGet();
+            pulled = postMapper.selectFollowedPostIds(userId, null, cursor, pageSize + 1);
+        } else {
+            pulled = postMapper.selectFollowedPostIds(userId, pushMaxFollowers + 1, cursor, pageSize + 1);
+        }
+
+        TreeSet<Long> merged = new TreeSet<>(Comparator.reverseOrder());
+        merged.addAll(inbox);
+        merged.addAll(pulled);
+        List<Long> ids = new ArrayList<>(pageSize);
+        for (Long id : merged) {
+            if (ids.size() == pageSize) {
+                break;
+            }
+            ids.add(id);
+        }
+        String nextCursor = merged.size() > pageSize ? String.valueOf(ids.get(ids.size() - 1)) : null;
+        return new TimelinePage(ids, nextCursor);
+    }
+
+    /**
+     * 帖子发布后推送到粉丝收件箱（事务提交后异步执行）
+     */
+    public void postPublished(Post post) {
+        if (!"PUBLISHED".equals(post.getStatus())) {
+            return;
+        }
+        Long authorId = post.getUserId();
+        Long postId = post.getId();
+        afterCommit(() -> executor.execute(() -> fanOut(authorId, postId)));
+    }
+
+    /**
+     * 关注后把作者最近的帖子补入关注者的收件箱
+     */
+    public void followed(Long followerId, Long authorId) {
+        afterCommit(() -> executor.execute(() -> {
+            try {
+                if (!cacheStore.exists(READY_PREFIX + followerId) || !isPushAuthor(authorId)) {
+                    return;
+                }
+                push(followerId, postMapper.selectRecentIdsByUserId(authorId, backfillPosts));
+            } catch (Exception e) {
+                logger.warn("时间线补入失败: followerId={}, authorId={}, {}", followerId, authorId, e.getMessage());
+            }
+        }));
+    }
+
+    /**
+     * 取消关注后从收件箱移除该作者的帖子
+     */
+    public void unfollowed(Long followerId, Long authorId) {
+        afterCommit(() -> executor.execute(() -> {
+            try {
+                String inboxKey = INBOX_PREFIX + followerId;
+                if (!cacheStore.exists(READY_PREFIX + followerId)) {
+                    return;
+                }
+                for (Long postId : postMapper.selectRecentIdsByUserId(authorId, inboxSize)) {
+                    cacheStore.zremove(inboxKey, String.valueOf(postId));
+                }
+            } catch (Exception e) {
+                logger.warn("时间线移除失败: followerId={}, authorId={}, {}", followerId, authorId, e.getMessage());
+            }
+        }));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inboxSize", inboxSize);
+        stats.put("pushMaxFollowers", pushMaxFollowers);
+        stats.put("pushed", pushed.get());
+        stats.put("rebuilds", rebuilds.get());
+        stats.put("deepReads", deepReads.get());
+        return stats;
+    }
+
+    /**
+     * 收件箱不存在时从数据库重建。先写就绪标记，重建期间推送的帖子直接进入收件箱，不会丢失
+     */
+    private void ensureInbox(Long userId) {
+        String readyKey = READY_PREFIX + userId;
+        if (cacheStore.exists(readyKey)) {
+            return;
+        }
+        Duration ttl = Duration.ofHours(inboxTtlHours);
+        cacheStore.set(readyKey, "1", ttl);
+        String inboxKey = INBOX_PREFIX + userId;
+        cacheStore.delete(List.of(inboxKey));
+        List<Long> ids = postMapper.selectFollowedPostIds(userId, null, null, inboxSize);
+        cacheStore.zadd(inboxKey, scores(ids), ttl);
+        rebuilds.incrementAndGet();
+    }
+
+    private void fanOut(Long authorId, Long postId) {
+        try {
+            if (!isPushAuthor(authorId)) {
+                return;
+            }
+            long afterId = 0;
+            while (true) {
+                List<Long> followers = followMapper.selectFollowerIds(authorId, afterId, FOLLOWER_BATCH);
+                for (Long followerId : followers) {
+                    if (cacheStore.exists(READY_PREFIX + followerId)) {
+                        push(followerId, List.of(postId));
+                    }
+                }
+                if (followers.size() < FOLLOWER_BATCH) {
+                    return;
+                }
+                afterId = followers.get(followers.size() - 1);
+            }
+        } catch (Exception e) {
+            logger.warn("时间线推送失败: authorId={}, postId={}, {}", authorId, postId, e.getMessage());
+        }
+    }
+
+    private void push(Long followerId, List<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return;
+        }
+        String inboxKey = INBOX_PREFIX + followerId;
+        cacheStore.zadd(inboxKey, scores(postIds), Duration.ofHours(inboxTtlHours));
+        cacheStore.ztrim(inboxKey, inboxSize);
+        pushed.addAndGet(postIds.size());
+    }
+
+    /**
+     * 粉丝数（含未写回的增量）不超过阈值的作者走推送
+     */
+    private boolean isPushAuthor(Long authorId) {
+        User author = userMapper.selectById(authorId);
+        if (author == null) {
+            return false;
+        }
+        Integer followers = counterService.overlay(author).getFollowersCount();
+        return followers == null || followers <= pushMaxFollowers;
+    }
+
+    private static Map<String, Double> scores(List<Long> ids) {
+        Map<String, Double> scores = new HashMap<>();
+        for (Long id : ids) {
+            scores.put(String.valueOf(id), id.doubleValue());
+        }
+        return scores;
+    }
+
+    private static List<Long> toIds(List<String> members) {
+        List<Long> ids = new ArrayList<>(members.size());
+        for (String member : members) {
+            ids.add(Long.valueOf(member));
+        }
+        return ids;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 一页时间线
+     *
+     * @param nextCursor 下一页游标，没有更多数据时为 null
+     */
+    public record TimelinePage(List<Long> ids, String nextCursor) {
+    }
+}
@@ -5,7 +5,6 @@ import com.chainlesschain.community.entity.Category;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
-import org.apache.ibatis.annotations.Update;
 
 import java.util.List;
 
@@ -26,10 +25,4 @@ public interface CategoryMapper extends BaseMapper<Category> {
      */
     @Select("SELECT * FROM categories WHERE status = 'ACTIVE' ORDER BY sort_order ASC")
     List<Category> findAllActive();
-
-    /**
-     * 更新帖子数
-     */
-    @Update("UPDATE categories SET posts_count = posts_count + #{increment} WHERE id = #{categoryId}")
-    void incrementPostsCount(@Param("categoryId") Long categoryId, @Param("increment") int increment);
 }
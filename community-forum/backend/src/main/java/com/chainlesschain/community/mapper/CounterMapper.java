@@ -0,0 +1,52 @@
+package com.chainlesschain.community.mapper;
+
+import com.chainlesschain.community.counter.CounterDelta;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 计数器写回Mapper接口
+ *
+ * 表名、列名来自 CounterType 枚举常量，不接受外部输入。
+ */
+@Mapper
+public interface CounterMapper {
+
+    /**
+     * 按ID批量累加计数列（单条 UPDATE ... CASE）
+     */
+    @Update("<script>" +
+            "UPDATE ${table} SET ${column} = ${column} + CASE id " +
+            "<foreach collection='deltas' item='d'>WHEN #{d.id} THEN #{d.delta} </foreach>" +
+            "ELSE 0 END WHERE id IN " +
+            "<foreach collection='deltas' item='d' open='(' separator=',' close=')'>#{d.id}</foreach>" +
+            "</script>")
+    int applyDeltas(@Param("table") String table,
+                    @Param("column") String column,
+                    @Param("deltas") List<CounterDelta> deltas);
+
+    /**
+     * 写回批次是否已提交
+     */
+    @Select("SELECT COUNT(*) FROM counter_flushes WHERE flush_id = #{flushId}")
+    int countFlush(@Param("flushId") String flushId);
+
+    /**
+     * 记录已提交的写回批次（与计数 UPDATE 同一事务）
+     */
+    @Insert("INSERT INTO counter_flushes (flush_id, segments, created_at) VALUES (#{flushId}, #{segments}, NOW())")
+    void insertFlush(@Param("flushId") String flushId, @Param("segments") int segments);
+
+    /**
+     * 清理过期的批次记录
+     */
+    @Delete("DELETE FROM counter_flushes WHERE created_at < #{before}")
+    int deleteFlushesBefore(@Param("before") LocalDateTime before);
+}
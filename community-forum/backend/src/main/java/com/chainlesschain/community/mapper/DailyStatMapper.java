@@ -0,0 +1,48 @@
+package com.chainlesschain.community.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chainlesschain.community.entity.DailyStat;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 每日统计Mapper接口
+ */
+@Mapper
+public interface DailyStatMapper extends BaseMapper<DailyStat> {
+
+    /**
+     * 初始化统计行（已存在的忽略），计数器写回只更新已有行
+     */
+    @Insert("<script>INSERT IGNORE INTO daily_stats (id, stat_date, metric, stat_value) VALUES " +
+            "<foreach collection='stats' item='s' separator=','>(#{s.id}, #{s.statDate}, #{s.metric}, 0)</foreach>" +
+            "</script>")
+    int insertIgnore(@Param("stats") List<DailyStat> stats);
+
+    /**
+     * 对账：写入或覆盖统计值
+     */
+    @Insert("INSERT INTO daily_stats (id, stat_date, metric, stat_value) " +
+            "VALUES (#{s.id}, #{s.statDate}, #{s.metric}, #{s.statValue}) " +
+            "ON DUPLICATE KEY UPDATE stat_value = VALUES(stat_value)")
+    int upsert(@Param("s") DailyStat stat);
+
+    /**
+     * 按天统计新增用户
+     */
+    @Select("SELECT DATE(created_at) AS stat_date, COUNT(*) AS stat_value FROM users " +
+            "WHERE deleted = 0 AND created_at >= #{since} GROUP BY DATE(created_at)")
+    List<DailyStat> countUsersByDay(@Param("since") LocalDateTime since);
+
+    /**
+     * 按天统计新增帖子
+     */
+    @Select("SELECT DATE(created_at) AS stat_date, COUNT(*) AS stat_value FROM posts " +
+            "WHERE deleted = 0 AND created_at >= #{since} GROUP BY DATE(created_at)")
+    List<DailyStat> countPostsByDay(@Param("since") LocalDateTime since);
+}
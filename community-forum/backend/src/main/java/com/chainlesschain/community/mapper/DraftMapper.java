@@ -0,0 +1,43 @@
+package com.chainlesschain.community.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chainlesschain.community.entity.Draft;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * 草稿Mapper接口
+ */
+@Mapper
+public interface DraftMapper extends BaseMapper<Draft> {
+
+    /**
+     * 批量写回草稿：只更新已存在的行，且只有版本号更大的内容覆盖（多实例或重试时旧版本不会回写，
+     * 已删除的草稿不会被重新插入）
+     */
+    @Update("<script>" +
+            "UPDATE drafts d INNER JOIN (" +
+            "<foreach collection='drafts' item='x' separator=' UNION ALL '>" +
+            "SELECT #{x.id} AS id, #{x.title} AS title, #{x.content} AS content, #{x.categoryId} AS category_id, " +
+            "#{x.tags} AS tags, #{x.version} AS version, #{x.updatedAt} AS updated_at" +
+            "</foreach>" +
+            ") v ON d.id = v.id " +
+            "SET d.title = v.title, d.content = v.content, d.category_id = v.category_id, " +
+            "d.tags = v.tags, d.updated_at = v.updated_at, d.version = v.version " +
+            "WHERE v.version &gt; d.version" +
+            "</script>")
+    int updateBatch(@Param("drafts") List<Draft> drafts);
+
+    @Select("SELECT COUNT(*) FROM drafts WHERE user_id = #{userId}")
+    int countByUserId(@Param("userId") Long userId);
+
+    @Select("SELECT * FROM drafts WHERE user_id = #{userId} AND post_id = #{postId}")
+    Draft selectByUserAndPost(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Select("SELECT * FROM drafts WHERE user_id = #{userId} ORDER BY updated_at DESC, id DESC")
+    List<Draft> selectByUserId(@Param("userId") Long userId);
+}
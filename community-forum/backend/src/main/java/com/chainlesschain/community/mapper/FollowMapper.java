@@ -10,6 +10,8 @@ import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.List;
+
 /**
  * 关注Mapper接口
  */
@@ -45,4 +47,13 @@ public interface FollowMapper extends BaseMapper<Follow> {
             "WHERE f.following_id = #{userId} AND u.deleted = 0 " +
             "ORDER BY f.created_at DESC")
     IPage<User> selectFollowers(Page<User> page, @Param("userId") Long userId);
+
+    /**
+     * 按关注者ID顺序分批读取粉丝ID（键集分页）
+     */
+    @Select("SELECT follower_id FROM follows WHERE following_id = #{userId} AND follower_id > #{afterId} " +
+            "ORDER BY follower_id LIMIT #{limit}")
+    List<Long> selectFollowerIds(@Param("userId") Long userId,
+                                 @Param("afterId") long afterId,
+                                 @Param("limit") int limit);
 }
@@ -9,6 +9,8 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.util.List;
+
 /**
  * 私信Mapper接口
  */
@@ -32,6 +34,20 @@ public interface MessageMapper extends BaseMapper<Message> {
                                               @Param("userId1") Long userId1,
                                               @Param("userId2") Long userId2);
 
+    /**
+     * 会话消息游标分页：ID 小于 before 的消息倒序，两个方向分别走 (sender_id, receiver_id, id) 索引
+     */
+    @Select("(SELECT * FROM messages WHERE sender_id = #{userId1} AND receiver_id = #{userId2} " +
+            "AND deleted = 0 AND id < #{before} ORDER BY id DESC LIMIT #{limit}) " +
+            "UNION ALL " +
+            "(SELECT * FROM messages WHERE sender_id = #{userId2} AND receiver_id = #{userId1} " +
+            "AND deleted = 0 AND id < #{before} ORDER BY id DESC LIMIT #{limit}) " +
+            "ORDER BY id DESC LIMIT #{limit}")
+    List<Message> selectThreadMessages(@Param("userId1") Long userId1,
+                                       @Param("userId2") Long userId2,
+                                       @Param("before") long before,
+                                       @Param("limit") int limit);
+
     /**
      * 查询未读消息数
      */
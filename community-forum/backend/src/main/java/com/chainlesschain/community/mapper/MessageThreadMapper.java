@@ -0,0 +1,87 @@
+package com.chainlesschain.community.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chainlesschain.community.entity.MessageThread;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 私信会话Mapper接口
+ */
+@Mapper
+public interface MessageThreadMapper extends BaseMapper<MessageThread> {
+
+    /**
+     * 发送消息后写入或更新会话：最后一条消息只前进不后退（并发发送时按消息ID取最新），接收方未读数加一
+     */
+    @Insert("INSERT INTO message_threads (user_low_id, user_high_id, last_message_id, last_sender_id, " +
+            "last_preview, last_message_at, low_unread, high_unread) " +
+            "VALUES (#{lowId}, #{highId}, #{messageId}, #{senderId}, #{preview}, #{sentAt}, #{lowUnread}, #{highUnread}) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "last_sender_id = IF(last_message_id IS NULL OR VALUES(last_message_id) > last_message_id, " +
+            "VALUES(last_sender_id), last_sender_id), " +
+            "last_preview = IF(last_message_id IS NULL OR VALUES(last_message_id) > last_message_id, " +
+            "VALUES(last_preview), last_preview), " +
+            "last_message_at = IF(last_message_id IS NULL OR VALUES(last_message_id) > last_message_id, " +
+            "VALUES(last_message_at), last_message_at), " +
+            "last_message_id = IF(last_message_id IS NULL OR VALUES(last_message_id) > last_message_id, " +
+            "VALUES(last_message_id), last_message_id), " +
+            "low_unread = low_unread + VALUES(low_unread), " +
+            "high_unread = high_unread + VALUES(high_unread)")
+    int upsertOnSend(@Param("lowId") Long lowId,
+                     @Param("highId") Long highId,
+                     @Param("messageId") Long messageId,
+                     @Param("senderId") Long senderId,
+                     @Param("preview") String preview,
+                     @Param("sentAt") LocalDateTime sentAt,
+                     @Param("lowUnread") int lowUnread,
+                     @Param("highUnread") int highUnread);
+
+    @Select("SELECT * FROM message_threads WHERE user_low_id = #{lowId} AND user_high_id = #{highId}")
+    MessageThread selectByPair(@Param("lowId") Long lowId, @Param("highId") Long highId);
+
+    /**
+     * 收件箱：按最后一条消息ID倒序的游标分页，两个分支分别走 (user_low_id, last_message_id)、
+     * (user_high_id, last_message_id) 索引
+     */
+    @Select("(SELECT * FROM message_threads WHERE user_low_id = #{userId} AND last_message_id < #{before} " +
+            "ORDER BY last_message_id DESC LIMIT #{limit}) " +
+            "UNION ALL " +
+            "(SELECT * FROM message_threads WHERE user_high_id = #{userId} AND last_message_id < #{before} " +
+            "ORDER BY last_message_id DESC LIMIT #{limit}) " +
+            "ORDER BY last_message_id DESC LIMIT #{limit}")
+    List<MessageThread> selectInbox(@Param("userId") Long userId,
+                                    @Param("before") long before,
+                                    @Param("limit") int limit);
+
+    /**
+     * 减少未读数（标记已读、删除未读消息），不低于 0
+     */
+    @Update("UPDATE message_threads SET low_unread = GREATEST(low_unread - #{lowDelta}, 0), " +
+            "high_unread = GREATEST(high_unread - #{highDelta}, 0) " +
+            "WHERE user_low_id = #{lowId} AND user_high_id = #{highId}")
+    int decrementUnread(@Param("lowId") Long lowId,
+                        @Param("highId") Long highId,
+                        @Param("lowDelta") int lowDelta,
+                        @Param("highDelta") int highDelta);
+
+    /**
+     * 最后一条消息被删除后改为指定消息（为 null 时清空）；期间有新消息写入则不覆盖
+     */
+    @Update("UPDATE message_threads SET last_message_id = #{messageId}, last_sender_id = #{senderId}, " +
+            "last_preview = #{preview}, last_message_at = #{sentAt} " +
+            "WHERE user_low_id = #{lowId} AND user_high_id = #{highId} AND last_message_id = #{expectedId}")
+    int replaceLastMessage(@Param("lowId") Long lowId,
+                           @Param("highId") Long highId,
+                           @Param("expectedId") Long expectedId,
+                           @Param("messageId") Long messageId,
+                           @Param("senderId") Long senderId,
+                           @Param("preview") String preview,
+                           @Param("sentAt") LocalDateTime sentAt);
+}
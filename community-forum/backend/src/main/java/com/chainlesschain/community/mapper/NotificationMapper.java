@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.chainlesschain.community.entity.Notification;
+import org.apache.ibatis.annotations.Delete;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
@@ -32,14 +33,21 @@ public interface NotificationMapper extends BaseMapper<Notification> {
     int countUnread(@Param("userId") Long userId);
 
     /**
-     * 标记全部为已读
+     * 标记单条通知为已读（仅未读时更新，返回受影响行数）
      */
-    @Update("UPDATE notifications SET is_read = 1 WHERE user_id = #{userId} AND is_read = 0")
-    int markAllAsRead(@Param("userId") Long userId);
+    @Update("UPDATE notifications SET is_read = 1 WHERE id = #{id} AND is_read = 0")
+    int markAsRead(@Param("id") Long id);
 
     /**
-     * 删除已读通知
+     * 按主键顺序标记一批未读通知为已读，返回本批更新条数
      */
-    @Update("UPDATE notifications SET deleted = 1 WHERE user_id = #{userId} AND is_read = 1")
+    @Update("UPDATE notifications SET is_read = 1 WHERE user_id = #{userId} AND is_read = 0 " +
+            "ORDER BY id LIMIT #{limit}")
+    int markUnreadBatchAsRead(@Param("userId") Long userId, @Param("limit") int limit);
+
+    /**
+     * 删除已读通知（通知表无逻辑删除字段，直接删除）
+     */
+    @Delete("DELETE FROM notifications WHERE user_id = #{userId} AND is_read = 1")
     int deleteReadNotifications(@Param("userId") Long userId);
 }
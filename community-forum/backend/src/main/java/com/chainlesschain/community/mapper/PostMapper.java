@@ -9,6 +9,8 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.util.List;
+
 /**
  * 帖子Mapper接口
  */
@@ -45,28 +47,16 @@ public interface PostMapper extends BaseMapper<Post> {
     IPage<Post> selectPostsByUserId(Page<Post> page, @Param("userId") Long userId);
 
     /**
-     * 更新浏览数
-     */
-    @Update("UPDATE posts SET views_count = views_count + 1 WHERE id = #{postId}")
-    void incrementViewsCount(@Param("postId") Long postId);
-
-    /**
-     * 更新回复数
-     */
-    @Update("UPDATE posts SET replies_count = replies_count + #{increment} WHERE id = #{postId}")
-    void incrementRepliesCount(@Param("postId") Long postId, @Param("increment") int increment);
-
-    /**
-     * 更新点赞数
+     * 按ID查询帖子，包括已逻辑删除的（selectById 会被 @TableLogic 限定为 deleted = 0）
      */
-    @Update("UPDATE posts SET likes_count = likes_count + #{increment} WHERE id = #{postId}")
-    void incrementLikesCount(@Param("postId") Long postId, @Param("increment") int increment);
+    @Select("SELECT * FROM posts WHERE id = #{id}")
+    Post selectIncludingDeleted(@Param("id") Long id);
 
     /**
-     * 更新收藏数
+     * 撤销逻辑删除；返回 0 表示帖子未被删除
      */
-    @Update("UPDATE posts SET favorites_count = favorites_count + #{increment} WHERE id = #{postId}")
-    void incrementFavoritesCount(@Param("postId") Long postId, @Param("increment") int increment);
+    @Update("UPDATE posts SET deleted = 0 WHERE id = #{id} AND deleted = 1")
+    int restoreDeleted(@Param("id") Long id);
 
     /**
      * 设置最佳回复
@@ -79,4 +69,32 @@ public interface PostMapper extends BaseMapper<Post> {
      */
     @Update("UPDATE posts SET last_reply_user_id = #{userId}, last_reply_at = NOW() WHERE id = #{postId}")
     void updateLastReply(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    /**
+     * 查询关注的作者发布的帖子ID，按ID倒序
+     *
+     * @param minFollowers 不为空时只包含粉丝数不少于该值的作者（时间线读时拉取部分）
+     * @param beforeId     不为空时只返回ID小于该值的帖子
+     */
+    @Select("<script>" +
+            "SELECT p.id FROM posts p " +
+            "WHERE p.deleted = 0 AND p.status = 'PUBLISHED' AND p.user_id IN (" +
+            "SELECT f.following_id FROM follows f" +
+            "<if test='minFollowers != null'> INNER JOIN users u ON u.id = f.following_id</if>" +
+            " WHERE f.follower_id = #{userId}" +
+            "<if test='minFollowers != null'> AND u.followers_count &gt;= #{minFollowers}</if>) " +
+            "<if test='beforeId != null'>AND p.id &lt; #{beforeId} </if>" +
+            "ORDER BY p.id DESC LIMIT #{limit}" +
+            "</script>")
+    List<Long> selectFollowedPostIds(@Param("userId") Long userId,
+                                     @Param("minFollowers") Integer minFollowers,
+                                     @Param("beforeId") Long beforeId,
+                                     @Param("limit") int limit);
+
+    /**
+     * 查询作者最近发布的帖子ID，按ID倒序
+     */
+    @Select("SELECT id FROM posts WHERE user_id = #{userId} AND deleted = 0 AND status = 'PUBLISHED' " +
+            "ORDER BY id DESC LIMIT #{limit}")
+    List<Long> selectRecentIdsByUserId(@Param("userId") Long userId, @Param("limit") int limit);
 }
@@ -3,8 +3,13 @@ package com.chainlesschain.community.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.chainlesschain.community.entity.PostTag;
 import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 帖子标签关联Mapper接口
@@ -17,4 +22,26 @@ public interface PostTagMapper extends BaseMapper<PostTag> {
      */
     @Delete("DELETE FROM post_tags WHERE post_id = #{postId}")
     int deleteByPostId(@Param("postId") Long postId);
+
+    /**
+     * 查询帖子当前关联的标签ID
+     */
+    @Select("SELECT tag_id FROM post_tags WHERE post_id = #{postId}")
+    List<Long> selectTagIdsByPostId(@Param("postId") Long postId);
+
+    /**
+     * 批量创建帖子标签关联（已存在的关联被忽略）
+     */
+    @Insert("<script>INSERT IGNORE INTO post_tags (post_id, tag_id, created_at) VALUES " +
+            "<foreach collection='tagIds' item='tagId' separator=','>(#{postId}, #{tagId}, NOW())</foreach>" +
+            "</script>")
+    int insertBatch(@Param("postId") Long postId, @Param("tagIds") Collection<Long> tagIds);
+
+    /**
+     * 删除帖子的指定标签关联
+     */
+    @Delete("<script>DELETE FROM post_tags WHERE post_id = #{postId} AND tag_id IN " +
+            "<foreach collection='tagIds' item='tagId' open='(' separator=',' close=')'>#{tagId}</foreach>" +
+            "</script>")
+    int deleteByPostIdAndTagIds(@Param("postId") Long postId, @Param("tagIds") Collection<Long> tagIds);
 }
@@ -4,11 +4,14 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.chainlesschain.community.entity.Reply;
+import lombok.Data;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -18,24 +21,74 @@ import java.util.List;
 public interface ReplyMapper extends BaseMapper<Reply> {
 
     /**
-     * 根据帖子ID分页查询回复（关联用户信息）
+     * 顶层回复的 (created_at, id) 游标分页，只读索引列（post_id, parent_id, deleted, created_at）；
+     * 有游标时 offset 为 0，无游标时按页码跳过
      */
-    @Select("SELECT r.*, u.nickname AS user_nickname, u.avatar AS user_avatar, u.role AS user_role " +
-            "FROM replies r " +
-            "LEFT JOIN users u ON r.user_id = u.id " +
-            "WHERE r.deleted = 0 AND r.post_id = #{postId} AND r.parent_id IS NULL " +
-            "ORDER BY r.is_best_answer DESC, r.created_at ASC")
-    IPage<Reply> selectRepliesByPostId(Page<Reply> page, @Param("postId") Long postId);
+    @Select("<script>" +
+            "SELECT id, created_at FROM replies " +
+            "WHERE post_id = #{postId} AND parent_id IS NULL AND deleted = 0 " +
+            "<if test='excludeId != null'>AND id &lt;&gt; #{excludeId} </if>" +
+            "<if test='afterAt != null'>AND (created_at &gt; #{afterAt} " +
+            "OR (created_at = #{afterAt} AND id &gt; #{afterId})) </if>" +
+            "ORDER BY created_at ASC, id ASC LIMIT #{limit} OFFSET #{offset}" +
+            "</script>")
+    List<Reply> selectRootKeys(@Param("postId") Long postId,
+                               @Param("excludeId") Long excludeId,
+                               @Param("afterAt") LocalDateTime afterAt,
+                               @Param("afterId") Long afterId,
+                               @Param("offset") long offset,
+                               @Param("limit") int limit);
 
     /**
-     * 根据父回复ID查询子回复
+     * 排在指定位置之前的顶层回复数（定位回复所在页）
      */
-    @Select("SELECT r.*, u.nickname AS user_nickname, u.avatar AS user_avatar " +
-            "FROM replies r " +
-            "LEFT JOIN users u ON r.user_id = u.id " +
-            "WHERE r.deleted = 0 AND r.parent_id = #{parentId} " +
-            "ORDER BY r.created_at ASC")
-    List<Reply> selectChildReplies(@Param("parentId") Long parentId);
+    @Select("<script>" +
+            "SELECT COUNT(*) FROM replies " +
+            "WHERE post_id = #{postId} AND parent_id IS NULL AND deleted = 0 " +
+            "<if test='excludeId != null'>AND id &lt;&gt; #{excludeId} </if>" +
+            "AND (created_at &lt; #{at} OR (created_at = #{at} AND id &lt; #{id}))" +
+            "</script>")
+    long countRootsBefore(@Param("postId") Long postId,
+                          @Param("excludeId") Long excludeId,
+                          @Param("at") LocalDateTime at,
+                          @Param("id") Long id);
+
+    /**
+     * 子回复的 (created_at, id) 游标分页，只读索引列（parent_id, deleted, created_at）
+     */
+    @Select("<script>" +
+            "SELECT id, parent_id, created_at FROM replies " +
+            "WHERE parent_id = #{parentId} AND deleted = 0 " +
+            "<if test='afterAt != null'>AND (created_at &gt; #{afterAt} " +
+            "OR (created_at = #{afterAt} AND id &gt; #{afterId})) </if>" +
+            "ORDER BY created_at ASC, id ASC LIMIT #{limit}" +
+            "</script>")
+    List<Reply> selectChildKeys(@Param("parentId") Long parentId,
+                                @Param("afterAt") LocalDateTime afterAt,
+                                @Param("afterId") Long afterId,
+                                @Param("limit") int limit);
+
+    /**
+     * 每个父回复最早的若干条子回复（每个父回复一个带 LIMIT 的索引查询，结果合并）
+     */
+    @Select("<script>" +
+            "<foreach collection='parentIds' item='pid' separator=' UNION ALL '>" +
+            "(SELECT id, parent_id, created_at FROM replies WHERE parent_id = #{pid} AND deleted = 0 " +
+            "ORDER BY created_at ASC, id ASC LIMIT #{limit})" +
+            "</foreach>" +
+            "</script>")
+    List<Reply> selectChildPreviewKeys(@Param("parentIds") Collection<Long> parentIds, @Param("limit") int limit);
+
+    /**
+     * 各父回复的子回复数
+     */
+    @Select("<script>" +
+            "SELECT parent_id, COUNT(*) AS child_count FROM replies " +
+            "WHERE deleted = 0 AND parent_id IN " +
+            "<foreach collection='parentIds' item='id' open='(' separator=',' close=')'>#{id}</foreach> " +
+            "GROUP BY parent_id" +
+            "</script>")
+    List<ChildCount> countChildren(@Param("parentIds") Collection<Long> parentIds);
 
     /**
      * 根据用户ID分页查询回复
@@ -44,12 +97,6 @@ public interface ReplyMapper extends BaseMapper<Reply> {
             "ORDER BY created_at DESC")
     IPage<Reply> selectRepliesByUserId(Page<Reply> page, @Param("userId") Long userId);
 
-    /**
-     * 更新点赞数
-     */
-    @Update("UPDATE replies SET likes_count = likes_count + #{increment} WHERE id = #{replyId}")
-    void incrementLikesCount(@Param("replyId") Long replyId, @Param("increment") int increment);
-
     /**
      * 设置为最佳答案
      */
@@ -61,4 +108,13 @@ public interface ReplyMapper extends BaseMapper<Reply> {
      */
     @Update("UPDATE replies SET is_best_answer = 0 WHERE post_id = #{postId}")
     void unsetBestAnswer(@Param("postId") Long postId);
+
+    /**
+     * 子回复数（GROUP BY parent_id 的结果行）
+     */
+    @Data
+    class ChildCount {
+        private Long parentId;
+        private Long childCount;
+    }
 }
@@ -4,9 +4,14 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.chainlesschain.community.entity.Report;
+import com.chainlesschain.community.moderation.ReportAggregate;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 举报Mapper接口
@@ -35,4 +40,48 @@ public interface ReportMapper extends BaseMapper<Report> {
     IPage<Report> selectReportsByTarget(Page<Report> page,
                                        @Param("targetType") String targetType,
                                        @Param("targetId") Long targetId);
+
+    /**
+     * 按帖子汇总待处理举报（举报数、首次/最近举报时间、原因），按最近举报倒序
+     *
+     * 只统计未删除的帖子；cursor 为上一页最后一组的 last_report_id，为空时按 offset 跳过
+     */
+    @Select("<script>" +
+            "SELECT r.target_id, COUNT(*) AS report_count, " +
+            "MIN(r.created_at) AS first_reported_at, MAX(r.created_at) AS last_reported_at, " +
+            "MAX(r.id) AS last_report_id, GROUP_CONCAT(DISTINCT r.reason) AS reasons " +
+            "FROM reports r " +
+            "WHERE r.target_type = 'POST' AND r.status = 'PENDING' " +
+            "AND EXISTS (SELECT 1 FROM posts p WHERE p.id = r.target_id AND p.deleted = 0) " +
+            "GROUP BY r.target_id " +
+            "<if test='cursor != null'>HAVING MAX(r.id) &lt; #{cursor} </if>" +
+            "ORDER BY last_report_id DESC " +
+            "LIMIT #{limit}<if test='cursor == null'> OFFSET #{offset}</if>" +
+            "</script>")
+    List<ReportAggregate> selectPendingPostReports(@Param("cursor") Long cursor,
+                                                   @Param("offset") long offset,
+                                                   @Param("limit") int limit);
+
+    /**
+     * 有待处理举报的帖子数
+     */
+    @Select("SELECT COUNT(DISTINCT r.target_id) FROM reports r " +
+            "WHERE r.target_type = 'POST' AND r.status = 'PENDING' " +
+            "AND EXISTS (SELECT 1 FROM posts p WHERE p.id = r.target_id AND p.deleted = 0)")
+    long countPendingReportedPosts();
+
+    /**
+     * 关闭指定帖子上的全部待处理举报
+     *
+     * @return 关闭的举报数
+     */
+    @Update("<script>" +
+            "UPDATE reports SET status = #{status}, handler_id = #{handlerId}, result = #{result} " +
+            "WHERE target_type = 'POST' AND status = 'PENDING' AND target_id IN " +
+            "<foreach collection='postIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</script>")
+    int closePendingPostReports(@Param("postIds") Collection<Long> postIds,
+                                @Param("status") String status,
+                                @Param("handlerId") Long handlerId,
+                                @Param("result") String result);
 }
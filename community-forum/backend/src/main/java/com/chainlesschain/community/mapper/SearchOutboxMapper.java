@@ -0,0 +1,22 @@
+package com.chainlesschain.community.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chainlesschain.community.entity.SearchOutbox;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 搜索索引outbox Mapper接口
+ */
+@Mapper
+public interface SearchOutboxMapper extends BaseMapper<SearchOutbox> {
+
+    /**
+     * 按写入顺序取一批待同步记录
+     */
+    @Select("SELECT * FROM search_outbox ORDER BY id LIMIT #{limit}")
+    List<SearchOutbox> selectBatch(@Param("limit") int limit);
+}
@@ -0,0 +1,31 @@
+package com.chainlesschain.community.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.chainlesschain.community.entity.SiteStat;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
+
+/**
+ * 全站统计Mapper接口
+ */
+@Mapper
+public interface SiteStatMapper extends BaseMapper<SiteStat> {
+
+    /**
+     * 初始化统计行（已存在的忽略），计数器写回只更新已有行
+     */
+    @Insert("<script>INSERT IGNORE INTO site_stats (id, stat_key, stat_value) VALUES " +
+            "<foreach collection='stats' item='s' separator=','>(#{s.id}, #{s.statKey}, 0)</foreach>" +
+            "</script>")
+    int insertIgnore(@Param("stats") List<SiteStat> stats);
+
+    /**
+     * 对账：直接设置统计值
+     */
+    @Update("UPDATE site_stats SET stat_value = #{value} WHERE id = #{id}")
+    int setValue(@Param("id") Long id, @Param("value") long value);
+}
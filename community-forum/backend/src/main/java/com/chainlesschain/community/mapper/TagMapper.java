@@ -2,11 +2,12 @@ package com.chainlesschain.community.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.chainlesschain.community.entity.Tag;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
-import org.apache.ibatis.annotations.Update;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -27,6 +28,30 @@ public interface TagMapper extends BaseMapper<Tag> {
     @Select("SELECT * FROM tags WHERE name = #{name}")
     Tag findByName(@Param("name") String name);
 
+    /**
+     * 按名称批量查询标签ID
+     */
+    @Select("<script>SELECT id, name FROM tags WHERE name IN " +
+            "<foreach collection='names' item='name' open='(' separator=',' close=')'>#{name}</foreach>" +
+            "</script>")
+    List<Tag> selectIdsByNames(@Param("names") Collection<String> names);
+
+    /**
+     * 按名称批量查询标签ID（加共享锁的当前读，可见其他事务刚提交的标签，用于 INSERT IGNORE 之后）
+     */
+    @Select("<script>SELECT id, name FROM tags WHERE name IN " +
+            "<foreach collection='names' item='name' open='(' separator=',' close=')'>#{name}</foreach>" +
+            " LOCK IN SHARE MODE</script>")
+    List<Tag> selectIdsByNamesLocking(@Param("names") Collection<String> names);
+
+    /**
+     * 批量创建标签，名称或 slug 已存在的行被忽略
+     */
+    @Insert("<script>INSERT IGNORE INTO tags (name, slug, posts_count, created_at, updated_at) VALUES " +
+            "<foreach collection='tags' item='t' separator=','>(#{t.name}, #{t.slug}, 0, NOW(), NOW())</foreach>" +
+            "</script>")
+    int insertIgnore(@Param("tags") List<Tag> tags);
+
     /**
      * 查询热门标签
      */
@@ -46,10 +71,4 @@ public interface TagMapper extends BaseMapper<Tag> {
      */
     @Select("SELECT * FROM tags WHERE name LIKE CONCAT('%', #{keyword}, '%') LIMIT 20")
     List<Tag> searchTags(@Param("keyword") String keyword);
-
-    /**
-     * 更新帖子数
-     */
-    @Update("UPDATE tags SET posts_count = posts_count + #{increment} WHERE id = #{tagId}")
-    void incrementPostsCount(@Param("tagId") Long tagId, @Param("increment") int increment);
 }
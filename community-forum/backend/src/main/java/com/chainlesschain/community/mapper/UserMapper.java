@@ -32,20 +32,8 @@ public interface UserMapper extends BaseMapper<User> {
     User findByUsername(@Param("username") String username);
 
     /**
-     * 更新用户统计数
+     * 更新积分和声望
      */
-    @Update("UPDATE users SET posts_count = posts_count + #{increment} WHERE id = #{userId}")
-    void incrementPostsCount(@Param("userId") Long userId, @Param("increment") int increment);
-
-    @Update("UPDATE users SET replies_count = replies_count + #{increment} WHERE id = #{userId}")
-    void incrementRepliesCount(@Param("userId") Long userId, @Param("increment") int increment);
-
-    @Update("UPDATE users SET followers_count = followers_count + #{increment} WHERE id = #{userId}")
-    void incrementFollowersCount(@Param("userId") Long userId, @Param("increment") int increment);
-
-    @Update("UPDATE users SET following_count = following_count + #{increment} WHERE id = #{userId}")
-    void incrementFollowingCount(@Param("userId") Long userId, @Param("increment") int increment);
-
     @Update("UPDATE users SET points = points + #{points} WHERE id = #{userId}")
     void incrementPoints(@Param("userId") Long userId, @Param("points") int points);
 
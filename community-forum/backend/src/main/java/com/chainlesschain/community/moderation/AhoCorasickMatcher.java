@@ -0,0 +1,130 @@
+package com.chainlesschain.community.moderation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aho-Corasick 多模式匹配自动机，构建后只读、线程安全
+ *
+ * 一次扫描即可找出文本中出现的全部词，耗时与文本长度成正比，与词表大小无关。
+ * 词和待匹配文本都应先经过 {@link TextNormalizer} 归一化。
+ */
+public final class AhoCorasickMatcher {
+
+    private final List<Map<Character, Integer>> next = new ArrayList<>();
+    private final int[] fail;
+    /** 以该节点结尾的词（自身或经失败链可达的最长词），没有时为 -1 */
+    private final int[] output;
+    /** 沿失败链下一个有输出的节点，没有时为 -1 */
+    private final int[] outputLink;
+    private final List<String> words = new ArrayList<>();
+
+    public AhoCorasickMatcher(Collection<String> patterns) {
+        next.add(new HashMap<>());
+        List<Integer> terminal = new ArrayList<>();
+        terminal.add(-1);
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                Integer child = next.get(node).get(c);
+                if (child == null) {
+                    child = next.size();
+                    next.get(node).put(c, child);
+                    next.add(new HashMap<>());
+                    terminal.add(-1);
+                }
+                node = child;
+            }
+            if (terminal.get(node) < 0) {
+                terminal.set(node, words.size());
+                words.add(pattern);
+            }
+        }
+
+        int size = next.size();
+        fail = new int[size];
+        output = new int[size];
+        outputLink = new int[size];
+        for (int i = 0; i < size; i++) {
+            output[i] = terminal.get(i);
+            outputLink[i] = -1;
+        }
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : next.get(0).values()) {
+            fail[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : next.get(node).entrySet()) {
+                int child = edge.getValue();
+                int state = fail[node];
+                while (state > 0 && !next.get(state).containsKey(edge.getKey())) {
+                    state = fail[state];
+                }
+                Integer target = next.get(state).get(edge.getKey());
+                fail[child] = target != null && target != child ? target : 0;
+                outputLink[child] = output[fail[child]] >= 0 ? fail[child] : outputLink[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    public int size() {
+        return words.size();
+    }
+
+    /**
+     * 返回文本中出现的第一个词，没有时返回 null
+     */
+    public String findFirst(String text) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            int hit = output[state] >= 0 ? state : outputLink[state];
+            if (hit >= 0) {
+                return words.get(output[hit]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 返回文本中出现的全部词（去重，按首次出现顺序）
+     */
+    public Set<String> findAll(String text) {
+        Set<String> found = new LinkedHashSet<>();
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, text.charAt(i));
+            for (int hit = output[state] >= 0 ? state : outputLink[state]; hit >= 0; hit = outputLink[hit]) {
+                found.add(words.get(output[hit]));
+            }
+        }
+        return found;
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            Integer child = next.get(state).get(c);
+            if (child != null) {
+                return child;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = fail[state];
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.chainlesschain.community.moderation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内容过滤：发帖、回复、私信写入前的同步检查
+ *
+ * 依次进行：按用户滑动窗口限流 → 敏感词匹配（归一化后的 Aho-Corasick 自动机） → 近似重复检测
+ * （最近内容的 SimHash 指纹）。回复和私信只与同一用户自己的近期内容比较，不同用户的相似短回复
+ * 不算重复；帖子与全站近期帖子比较，疑似重复转人工审核。词表由内置词表和可选的外部文件合并，
+ * 外部文件修改后自动重新加载，新自动机构建完成后整体替换，检查过程不加锁。
+ */
+@Service
+public class ContentFilterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentFilterService.class);
+
+    private static final String BUILTIN_WORDS = "content-filter/sensitive-words.txt";
+    private static final int MAX_DISTANCE = 3;
+    /** 未登录写入（理论上不存在）在指纹索引中的发布者 */
+    private static final long ANONYMOUS = -1L;
+
+    /**
+     * 内容类型
+     */
+    public enum ContentKind {
+        POST, REPLY, MESSAGE
+    }
+
+    /**
+     * 检查结论：放行、转人工审核、拒绝
+     */
+    public enum Action {
+        ALLOW, REVIEW, REJECT
+    }
+
+    @Value("${content-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${content-filter.words-file:}")
+    private String wordsFile;
+
+    @Value("${content-filter.reload-seconds:30}")
+    private long reloadSeconds;
+
+    @Value("${content-filter.rate.window-seconds:60}")
+    private long rateWindowSeconds;
+
+    @Value("${content-filter.rate.posts:5}")
+    private int postsPerWindow;
+
+    @Value("${content-filter.rate.replies:20}")
+    private int repliesPerWindow;
+
+    @Value("${content-filter.rate.messages:30}")
+    private int messagesPerWindow;
+
+    @Value("${content-filter.duplicate.recent-size:5000}")
+    private int recentSize;
+
+    @Value("${content-filter.duplicate.min-length:20}")
+    private int duplicateMinLength;
+
+    private volatile AhoCorasickMatcher matcher = new AhoCorasickMatcher(Set.of());
+    private volatile long wordsFileModified = -1;
+    private final Map<ContentKind, SlidingWindowRateLimiter> rateLimiters = new EnumMap<>(ContentKind.class);
+    private final Map<ContentKind, SimHashIndex> recentContent = new EnumMap<>(ContentKind.class);
+    private final Map<ContentKind, Map<String, AtomicLong>> verdicts = new EnumMap<>(ContentKind.class);
+    private final AtomicLong checkNanos = new AtomicLong();
+    private final AtomicLong checks = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        long windowMillis = TimeUnit.SECONDS.toMillis(rateWindowSeconds);
+        rateLimiters.put(ContentKind.POST, new SlidingWindowRateLimiter(postsPerWindow, windowMillis));
+        rateLimiters.put(ContentKind.REPLY, new SlidingWindowRateLimiter(repliesPerWindow, windowMillis));
+        rateLimiters.put(ContentKind.MESSAGE, new SlidingWindowRateLimiter(messagesPerWindow, windowMillis));
+        for (ContentKind kind : ContentKind.values()) {
+            recentContent.put(kind, new SimHashIndex(recentSize));
+            Map<String, AtomicLong> counters = new LinkedHashMap<>();
+            for (String reason : new String[]{"allowed", "rateLimited", "sensitiveWord", "duplicate"}) {
+                counters.put(reason, new AtomicLong());
+            }
+            verdicts.put(kind, counters);
+        }
+        reload();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "content-filter-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::maintain, reloadSeconds, reloadSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 写入前检查（限流、敏感词、近似重复）。每次检查都占用限流窗口；未被拒绝的内容在所处事务提交后
+     * 计入最近内容指纹，事务回滚时归还限流名额（无事务时立即计入）
+     *
+     * @param texts 需要检查的文本（如标题和正文），可包含 null
+     */
+    public Verdict check(ContentKind kind, Long userId, String... texts) {
+        if (!enabled) {
+            return Verdict.ALLOWED;
+        }
+        long start = System.nanoTime();
+        try {
+            if (userId != null && !rateLimiters.get(kind).tryAcquire(userId)) {
+                return count(kind, "rateLimited", new Verdict(Action.REJECT, "操作过于频繁，请稍后再试"));
+            }
+
+            String normalized = normalize(texts);
+
+            String word = matcher.findFirst(normalized);
+            if (word != null) {
+                logger.debug("内容包含敏感词: kind={}, userId={}, word={}", kind, userId, word);
+                return count(kind, "sensitiveWord", new Verdict(Action.REJECT, "内容包含违规词汇，请修改后重试"));
+            }
+
+            boolean checkDuplicate = normalized.length() >= duplicateMinLength;
+            long fingerprint = checkDuplicate ? SimHash.fingerprint(normalized) : 0;
+            long owner = userId != null ? userId : ANONYMOUS;
+            if (kind == ContentKind.POST) {
+                if (checkDuplicate && recentContent.get(kind).containsNear(fingerprint, MAX_DISTANCE, null)) {
+                    recordOnCommit(kind, userId, checkDuplicate, fingerprint, owner);
+                    return count(kind, "duplicate", new Verdict(Action.REVIEW, "内容与近期发布的内容高度相似，已提交审核"));
+                }
+            } else if (checkDuplicate && recentContent.get(kind).containsNear(fingerprint, MAX_DISTANCE, owner)) {
+                return count(kind, "duplicate", new Verdict(Action.REJECT, "请勿重复发送相同内容"));
+            }
+
+            recordOnCommit(kind, userId, checkDuplicate, fingerprint, owner);
+            return count(kind, "allowed", Verdict.ALLOWED);
+        } finally {
+            checkNanos.addAndGet(System.nanoTime() - start);
+            checks.incrementAndGet();
+        }
+    }
+
+    /**
+     * 只检查敏感词（用于编辑已发布的内容）
+     */
+    public Verdict checkWords(String... texts) {
+        if (!enabled) {
+            return Verdict.ALLOWED;
+        }
+        return matcher.findFirst(normalize(texts)) != null
+                ? new Verdict(Action.REJECT, "内容包含违规词汇，请修改后重试")
+                : Verdict.ALLOWED;
+    }
+
+    /**
+     * 重新加载词表（内置词表 + 外部文件）
+     *
+     * @return 加载后的词数
+     */
+    public synchronized int reload() {
+        Set<String> words = new LinkedHashSet<>();
+        try (InputStream in = new ClassPathResource(BUILTIN_WORDS).getInputStream()) {
+            readWords(in, words);
+        } catch (IOException e) {
+            logger.warn("读取内置敏感词表失败: {}", e.getMessage());
+        }
+        Path external = externalWordsFile();
+        if (external != null) {
+            try {
+                wordsFileModified = Files.getLastModifiedTime(external).toMillis();
+                try (InputStream in = Files.newInputStream(external)) {
+                    readWords(in, words);
+                }
+            } catch (IOException e) {
+                logger.warn("读取敏感词文件失败: {}, {}", external, e.getMessage());
+            }
+        }
+        matcher = new AhoCorasickMatcher(words);
+        logger.info("敏感词表已加载: words={}", matcher.size());
+        return matcher.size();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("words", matcher.size());
+        long total = checks.get();
+        stats.put("checks", total);
+        stats.put("avgCheckMicros", total > 0 ? checkNanos.get() / total / 1000.0 : 0);
+        for (ContentKind kind : ContentKind.values()) {
+            Map<String, Object> kindStats = new LinkedHashMap<>();
+            verdicts.get(kind).forEach((reason, count) -> kindStats.put(reason, count.get()));
+            kindStats.put("recentFingerprints", recentContent.get(kind).size());
+            kindStats.put("rateTrackedUsers", rateLimiters.get(kind).trackedUsers());
+            stats.put(kind.name().toLowerCase(), kindStats);
+        }
+        return stats;
+    }
+
+    private void maintain() {
+        try {
+            Path external = externalWordsFile();
+            if (external != null && Files.exists(external)
+                    && Files.getLastModifiedTime(external).toMillis() != wordsFileModified) {
+                reload();
+            }
+            rateLimiters.values().forEach(SlidingWindowRateLimiter::purge);
+        } catch (Exception e) {
+            logger.warn("内容过滤维护任务失败: {}", e.getMessage());
+        }
+    }
+
+    private Path externalWordsFile() {
+        return wordsFile == null || wordsFile.isBlank() ? null : Paths.get(wordsFile);
+    }
+
+    /**
+     * 写入提交后记录指纹；回滚时归还本次占用的限流名额
+     */
+    private void recordOnCommit(ContentKind kind, Long userId, boolean checkDuplicate, long fingerprint, long owner) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (checkDuplicate) {
+                recentContent.get(kind).add(fingerprint, owner);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    if (checkDuplicate) {
+                        recentContent.get(kind).add(fingerprint, owner);
+                    }
+                } else if (userId != null) {
+                    rateLimiters.get(kind).release(userId);
+                }
+            }
+        });
+    }
+
+    private Verdict count(ContentKind kind, String reason, Verdict verdict) {
+        verdicts.get(kind).get(reason).incrementAndGet();
+        return verdict;
+    }
+
+    private static String normalize(String... texts) {
+        StringBuilder builder = new StringBuilder();
+        for (String text : texts) {
+            builder.append(TextNormalizer.normalize(text));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 每行一个词，# 开头为注释
+     */
+    private static void readWords(InputStream in, Set<String> words) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String word = TextNormalizer.normalize(trimmed);
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+    }
+
+    /**
+     * 检查结果
+     *
+     * @param message 未放行时返回给用户的提示
+     */
+    public record Verdict(Action action, String message) {
+
+        public static final Verdict ALLOWED = new Verdict(Action.ALLOW, null);
+
+        public boolean rejected() {
+            return action == Action.REJECT;
+        }
+
+        public boolean needsReview() {
+            return action == Action.REVIEW;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.chainlesschain.community.moderation;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.chainlesschain.community.cache.ForumCacheService;
+import com.chainlesschain.community.cache.HotRankingService;
+import com.chainlesschain.community.common.PageResult;
+import com.chainlesschain.community.entity.Notification;
+import com.chainlesschain.community.entity.Post;
+import com.chainlesschain.community.entity.Report;
+import com.chainlesschain.community.feed.HotFeedService;
+import com.chainlesschain.community.feed.TimelineService;
+import com.chainlesschain.community.mapper.PostMapper;
+import com.chainlesschain.community.mapper.ReportMapper;
+import com.chainlesschain.community.search.SearchIndexService;
+import com.chainlesschain.community.service.NotificationService;
+import com.chainlesschain.community.stats.DashboardStatsService;
+import com.chainlesschain.community.vo.ReportedPostVO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 审核队列
+ *
+ * 待审核帖子、被举报帖子和举报列表都按主键倒序做键集分页：游标为上一页最后一条的ID，
+ * 翻页成本与页码无关。被举报帖子在数据库中按目标聚合（举报数、首次/最近举报时间、原因），
+ * 用 EXISTS 半连接过滤已删除帖子，不再把全部 target_id 读入内存拼 IN 列表。
+ * 批量审核对帖子和举报各执行一条条件更新，缓存、索引、热门列表等副作用按帖子逐个处理。
+ */
+@Service
+public class ModerationQueueService {
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private ReportMapper reportMapper;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ForumCacheService forumCacheService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private HotFeedService hotFeedService;
+
+    @Autowired
+    private HotRankingService hotRankingService;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    /**
+     * 待审核帖子，按ID倒序
+     *
+     * @param cursor 上一页返回的游标；为空时按 page 跳过前面的记录
+     */
+    public PageResult<Post> pendingPosts(Long cursor, int page, int pageSize) {
+        QueryWrapper<Post> wrapper = new QueryWrapper<Post>()
+                .eq("status", "PENDING")
+                .lt(cursor != null, "id", cursor)
+                .orderByDesc("id");
+        long total = postMapper.selectCount(new QueryWrapper<Post>().eq("status", "PENDING"));
+        List<Post> posts = postMapper.selectList(wrapper.last(limit(cursor, page, pageSize)));
+        return toPage(posts, Post::getId, total, page, pageSize);
+    }
+
+    /**
+     * 被举报帖子（附带举报汇总），按最近一次举报倒序
+     */
+    public PageResult<ReportedPostVO> reportedPosts(Long cursor, int page, int pageSize) {
+        long offset = cursor == null ? (long) Math.max(0, page - 1) * pageSize : 0;
+        List<ReportAggregate> aggregates = reportMapper.selectPendingPostReports(cursor, offset, pageSize + 1);
+        boolean hasMore = aggregates.size() > pageSize;
+        if (hasMore) {
+            aggregates = aggregates.subList(0, pageSize);
+        }
+
+        Map<Long, Post> posts = aggregates.isEmpty() ? Map.of() : postMapper.selectBatchIds(
+                        aggregates.stream().map(ReportAggregate::getTargetId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<ReportedPostVO> items = aggregates.stream()
+                .filter(aggregate -> posts.containsKey(aggregate.getTargetId()))
+                .map(aggregate -> toVO(aggregate, posts.get(aggregate.getTargetId())))
+                .collect(Collectors.toList());
+
+        PageResult<ReportedPostVO> result = PageResult.of(items, reportMapper.countPendingReportedPosts(), page, pageSize);
+        if (hasMore) {
+            result.setNextCursor(String.valueOf(aggregates.get(aggregates.size() - 1).getLastReportId()));
+        }
+        return result;
+    }
+
+    /**
+     * 举报列表，按ID倒序
+     */
+    public PageResult<Report> reports(String status, Long cursor, int page, int pageSize) {
+        boolean filtered = status != null && !status.isEmpty();
+        QueryWrapper<Report> wrapper = new QueryWrapper<Report>()
+                .eq(filtered, "status", status)
+                .lt(cursor != null, "id", cursor)
+                .orderByDesc("id");
+        long total = reportMapper.selectCount(new QueryWrapper<Report>().eq(filtered, "status", status));
+        List<Report> reports = reportMapper.selectList(wrapper.last(limit(cursor, page, pageSize)));
+        return toPage(reports, Report::getId, total, page, pageSize);
+    }
+
+    /**
+     * 批量通过：待审核帖子改为已发布，帖子上的待处理举报标记为驳回
+     */
+    @Transactional
+    public Map<String, Object> approvePosts(Collection<Long> postIds, Long handlerId, String reason) {
+        List<Post> posts = loadPosts(postIds);
+        List<Long> pendingIds = posts.stream()
+                .filter(post -> "PENDING".equals(post.getStatus()))
+                .map(Post::getId)
+                .collect(Collectors.toList());
+
+        int published = 0;
+        if (!pendingIds.isEmpty()) {
+            published = postMapper.update(null, new UpdateWrapper<Post>()
+                    .set("status", "PUBLISHED")
+                    .in("id", pendingIds)
+                    .eq("status", "PENDING"));
+        }
+        for (Post post : posts) {
+            if (pendingIds.contains(post.getId())) {
+                dashboardStatsService.postStatusChanged("PENDING", "PUBLISHED");
+                post.setStatus("PUBLISHED");
+                forumCacheService.evictPost(post.getId());
+                searchIndexService.enqueuePost(post.getId());
+                hotFeedService.upsertPost(post);
+                timelineService.postPublished(post);
+            }
+        }
+
+        int reportsClosed = closeReports(posts, "REJECTED", handlerId, reason != null ? reason : "审核通过");
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("processed", posts.size());
+        result.put("published", published);
+        result.put("reportsClosed", reportsClosed);
+        return result;
+    }
+
+    /**
+     * 批量拒绝：逻辑删除帖子并通知作者，帖子上的待处理举报标记为已处理
+     */
+    @Transactional
+    public Map<String, Object> rejectPosts(Collection<Long> postIds, Long handlerId, String reason) {
+        List<Post> posts = loadPosts(postIds);
+        int removed = posts.isEmpty() ? 0
+                : postMapper.deleteBatchIds(posts.stream().map(Post::getId).collect(Collectors.toList()));
+
+        for (Post post : posts) {
+            dashboardStatsService.postRemoved(post.getStatus());
+            forumCacheService.evictPost(post.getId());
+            searchIndexService.enqueuePost(post.getId());
+            hotFeedService.removePost(post.getId());
+            hotRankingService.removePost(post.getId());
+
+            Notification notification = new Notification();
+            notification.setUserId(post.getUserId());
+            notification.setSenderId(handlerId);
+            notification.setType("SYSTEM");
+            notification.setTitle("帖子审核未通过");
+            notification.setContent("您的帖子「" + post.getTitle() + "」未通过审核" +
+                    (reason != null ? "，原因：" + reason : ""));
+            notification.setLink("/posts/" + post.getId());
+            notification.setIsRead(0);
+            notificationService.send(notification);
+        }
+
+        int reportsClosed = closeReports(posts, "RESOLVED", handlerId, reason != null ? reason : "帖子已删除");
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("processed", posts.size());
+        result.put("removed", removed);
+        result.put("reportsClosed", reportsClosed);
+        return result;
+    }
+
+    /**
+     * 解析游标（上一页最后一条记录的ID）
+     *
+     * @throws IllegalArgumentException 游标格式错误
+     */
+    public static Long parseCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+
+    private List<Post> loadPosts(Collection<Long> postIds) {
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(postIds);
+        return ids.isEmpty() ? List.of() : postMapper.selectBatchIds(ids);
+    }
+
+    private int closeReports(List<Post> posts, String status, Long handlerId, String result) {
+        if (posts.isEmpty()) {
+            return 0;
+        }
+        int closed = reportMapper.closePendingPostReports(
+                posts.stream().map(Post::getId).collect(Collectors.toList()), status, handlerId, result);
+        dashboardStatsService.pendingReportsClosed(closed);
+        return closed;
+    }
+
+    private static String limit(Long cursor, int page, int pageSize) {
+        if (cursor != null) {
+            return "LIMIT " + (pageSize + 1);
+        }
+        return "LIMIT " + (pageSize + 1) + " OFFSET " + (long) Math.max(0, page - 1) * pageSize;
+    }
+
+    private static <T> PageResult<T> toPage(List<T> rows, Function<T, Long> id, long total, int page, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        PageResult<T> result = PageResult.of(items, total, page, pageSize);
+        if (hasMore) {
+            result.setNextCursor(String.valueOf(id.apply(items.get(items.size() - 1))));
+        }
+        return result;
+    }
+
+    private static ReportedPostVO toVO(ReportAggregate aggregate, Post post) {
+        ReportedPostVO vo = new ReportedPostVO();
+        vo.setPost(post);
+        vo.setReportCount(aggregate.getReportCount());
+        vo.setFirstReportedAt(aggregate.getFirstReportedAt());
+        vo.setLastReportedAt(aggregate.getLastReportedAt());
+        vo.setReasons(aggregate.getReasons() != null
+                ? Arrays.asList(aggregate.getReasons().split(","))
+                : List.of());
+        return vo;
+    }
+}
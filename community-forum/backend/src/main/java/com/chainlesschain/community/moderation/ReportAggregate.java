@@ -0,0 +1,20 @@
+package com.chainlesschain.community.moderation;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 同一目标的待处理举报汇总（GROUP BY target_id 的结果行）
+ */
+@Data
+public class ReportAggregate {
+    private Long targetId;
+    private Long reportCount;
+    private LocalDateTime firstReportedAt;
+    private LocalDateTime lastReportedAt;
+    /** 该目标最新一条举报的ID，作为分页游标 */
+    private Long lastReportId;
+    /** 逗号分隔的举报原因（去重） */
+    private String reasons;
+}
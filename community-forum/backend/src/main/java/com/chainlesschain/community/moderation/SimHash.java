@@ -0,0 +1,54 @@
+package com.chainlesschain.community.moderation;
+
+/**
+ * 64 位 SimHash 指纹
+ *
+ * 以归一化文本的相邻两字（字符二元组）为特征，内容只改动少量字词时指纹的汉明距离也很小，
+ * 可用于识别换几个字重复发布的垃圾内容。
+ */
+public final class SimHash {
+
+    private SimHash() {
+    }
+
+    public static long fingerprint(String normalized) {
+        int[] weights = new int[64];
+        int length = normalized.length();
+        if (length == 0) {
+            return 0;
+        }
+        if (length == 1) {
+            add(weights, hash(normalized.charAt(0), '\0'));
+        }
+        for (int i = 0; i + 1 < length; i++) {
+            add(weights, hash(normalized.charAt(i), normalized.charAt(i + 1)));
+        }
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void add(int[] weights, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += (hash >>> bit & 1) != 0 ? 1 : -1;
+        }
+    }
+
+    /**
+     * 两个字符组合后做 64 位混淆（SplitMix64 终结函数）
+     */
+    private static long hash(char first, char second) {
+        long z = ((long) first << 16 | second) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
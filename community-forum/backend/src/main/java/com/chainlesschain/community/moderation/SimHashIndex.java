@@ -0,0 +1,90 @@
+package com.chainlesschain.community.moderation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 最近内容的 SimHash 指纹索引，容量固定，超出后淘汰最早的指纹
+ *
+ * 指纹按 16 位分为 4 段分别建索引：汉明距离不超过 3 的两个指纹至少有一段完全相同，
+ * 因此查询只需比较与任一段相同的候选，而不必遍历全部指纹。每个指纹记录发布者，
+ * 查询可限定为同一发布者。
+ */
+public class SimHashIndex {
+
+    private static final int BANDS = 4;
+
+    private final int capacity;
+    private final ArrayDeque<Entry> order = new ArrayDeque<>();
+    private final Map<Integer, List<Entry>> buckets = new HashMap<>();
+
+    public SimHashIndex(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * 是否存在汉明距离不超过 maxDistance（最大为 3）的指纹
+     *
+     * @param owner 只比较该发布者的指纹；null 表示不限
+     */
+    public synchronized boolean containsNear(long fingerprint, int maxDistance, Long owner) {
+        for (int band = 0; band < BANDS; band++) {
+            List<Entry> candidates = buckets.get(bandKey(fingerprint, band));
+            if (candidates == null) {
+                continue;
+            }
+            for (Entry candidate : candidates) {
+                if ((owner == null || candidate.owner == owner)
+                        && SimHash.distance(candidate.fingerprint, fingerprint) <= maxDistance) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public synchronized void add(long fingerprint, long owner) {
+        Entry entry = new Entry(fingerprint, owner);
+        order.addLast(entry);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(fingerprint, band), k -> new ArrayList<>(2)).add(entry);
+        }
+        if (order.size() > capacity) {
+            Entry eldest = order.pollFirst();
+            for (int band = 0; band < BANDS; band++) {
+                int key = bandKey(eldest.fingerprint, band);
+                List<Entry> bucket = buckets.get(key);
+                if (bucket != null) {
+                    bucket.remove(eldest);
+                    if (bucket.isEmpty()) {
+                        buckets.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return order.size();
+    }
+
+    private static int bandKey(long fingerprint, int band) {
+        return band << 16 | (int) (fingerprint >>> (band * 16) & 0xFFFF);
+    }
+
+    /**
+     * 指纹与发布者；按引用比较，同一指纹多次加入时各自淘汰
+     */
+    private static final class Entry {
+        private final long fingerprint;
+        private final long owner;
+
+        private Entry(long fingerprint, long owner) {
+            this.fingerprint = fingerprint;
+            this.owner = owner;
+        }
+    }
+}
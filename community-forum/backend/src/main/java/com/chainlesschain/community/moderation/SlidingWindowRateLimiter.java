@@ -0,0 +1,78 @@
+package com.chainlesschain.community.moderation;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按用户的滑动窗口限流（进程内）
+ *
+ * 每个用户保存窗口内的操作时间戳，窗口内次数达到上限时拒绝；空闲用户由 {@link #purge()} 清理。
+ */
+public class SlidingWindowRateLimiter {
+
+    private final int limit;
+    private final long windowMillis;
+    private final Map<Long, ArrayDeque<Long>> windows = new ConcurrentHashMap<>();
+
+    public SlidingWindowRateLimiter(int limit, long windowMillis) {
+        this.limit = limit;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * 窗口内未达上限时记录一次操作并返回 true
+     */
+    public boolean tryAcquire(Long userId) {
+        if (limit <= 0) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        ArrayDeque<Long> window = windows.computeIfAbsent(userId, k -> new ArrayDeque<>());
+        synchronized (window) {
+            evict(window, now);
+            if (window.size() >= limit) {
+                return false;
+            }
+            window.addLast(now);
+            return true;
+        }
+    }
+
+    /**
+     * 撤销该用户最近一次记录的操作（操作最终未生效时调用）
+     */
+    public void release(Long userId) {
+        ArrayDeque<Long> window = windows.get(userId);
+        if (window == null) {
+            return;
+        }
+        synchronized (window) {
+            window.pollLast();
+        }
+    }
+
+    /**
+     * 清理窗口内已没有记录的用户
+     */
+    public void purge() {
+        long now = System.currentTimeMillis();
+        windows.entrySet().removeIf(entry -> {
+            ArrayDeque<Long> window = entry.getValue();
+            synchronized (window) {
+                evict(window, now);
+                return window.isEmpty();
+            }
+        });
+    }
+
+    public int trackedUsers() {
+        return windows.size();
+    }
+
+    private void evict(ArrayDeque<Long> window, long now) {
+        while (!window.isEmpty() && window.peekFirst() <= now - windowMillis) {
+            window.pollFirst();
+        }
+    }
+}
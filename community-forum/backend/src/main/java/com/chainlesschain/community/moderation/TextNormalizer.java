@@ -0,0 +1,31 @@
+package com.chainlesschain.community.moderation;
+
+import java.text.Normalizer;
+
+/**
+ * 内容过滤前的文本归一化
+ *
+ * NFKC 把全角字母数字、兼容字符（如 ①、ｆ）折叠为标准形式，再转小写，并去掉空白、标点、符号和
+ * 零宽字符，使"加 微 信"、"ＱＱ"、"V-X"这类插入分隔符或换写的变体与词表原词一致。
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        StringBuilder builder = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); ) {
+            int codePoint = folded.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                builder.appendCodePoint(Character.toLowerCase(codePoint));
+            }
+        }
+        return builder.toString();
+    }
+}
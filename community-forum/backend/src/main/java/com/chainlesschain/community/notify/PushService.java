@@ -0,0 +1,90 @@
+package com.chainlesschain.community.notify;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 服务端推送（SSE）
+ *
+ * 维护本实例上各用户的推送连接，同一用户可有多个连接（多标签页、多设备）。发送失败的连接
+ * 直接移除，客户端（EventSource）会自动重连。
+ */
+@Service
+public class PushService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PushService.class);
+
+    @Value("${unread.sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * 建立推送连接
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitters.compute(userId, (k, set) -> {
+            Set<SseEmitter> userEmitters = set != null ? set : new CopyOnWriteArraySet<>();
+            userEmitters.add(emitter);
+            return userEmitters;
+        });
+        Runnable remove = () -> remove(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    /**
+     * 向用户的所有连接发送事件
+     */
+    public void send(Long userId, String event, Object data) {
+        Set<SseEmitter> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters) {
+            try {
+                emitter.send(SseEmitter.event().name(event).data(data));
+                sent.incrementAndGet();
+            } catch (IOException | IllegalStateException e) {
+                dropped.incrementAndGet();
+                logger.debug("推送失败，移除连接: userId={}, error={}", userId, e.getMessage());
+                remove(userId, emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    public Set<Long> connectedUserIds() {
+        return emitters.keySet();
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "users", emitters.size(),
+                "connections", emitters.values().stream().mapToInt(Set::size).sum(),
+                "sent", sent.get(),
+                "dropped", dropped.get());
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (k, set) -> {
+            set.remove(emitter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
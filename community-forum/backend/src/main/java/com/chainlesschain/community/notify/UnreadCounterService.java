@@ -0,0 +1,205 @@
+package com.chainlesschain.community.notify;
+
+import com.chainlesschain.community.cache.CacheStore;
+import com.chainlesschain.community.mapper.MessageMapper;
+import com.chainlesschain.community.mapper.NotificationMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 未读数服务（通知、私信）
+ *
+ * 每个用户的未读数缓存在 CacheStore 中，未命中时按数据库统计一次；之后新增、已读、删除在事务
+ * 提交后原子增减缓存值（键不存在时不创建，避免与统计结果交错），并推送给在线连接。缓存设有过期
+ * 时间，过期后重新统计，兜底并发或多实例下可能产生的偏差。
+ */
+@Service
+public class UnreadCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadCounterService.class);
+
+    private static final String PREFIX = "forum:unread:";
+    private static final String EVENT_UNREAD = "unread";
+
+    public enum UnreadType {
+        NOTIFICATIONS,
+        MESSAGES
+    }
+
+    @Autowired
+    private CacheStore cacheStore;
+
+    @Autowired
+    private NotificationMapper notificationMapper;
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    @Autowired
+    private PushService pushService;
+
+    @Value("${unread.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${unread.sse.resync-seconds:30}")
+    private long resyncSeconds;
+
+    private ScheduledExecutorService scheduler;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "unread-push-resync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::resyncQuietly, resyncSeconds, resyncSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public int getUnread(Long userId, UnreadType type) {
+        String key = key(userId, type);
+        try {
+            String cached = cacheStore.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return (int) Math.max(0, Long.parseLong(cached));
+            }
+        } catch (Exception e) {
+            logger.warn("读取未读数缓存失败: key={}, error={}", key, e.getMessage());
+        }
+
+        loads.incrementAndGet();
+        int count = type == UnreadType.NOTIFICATIONS
+                ? notificationMapper.countUnread(userId)
+                : messageMapper.countUnread(userId);
+        try {
+            cacheStore.set(key, String.valueOf(count), Duration.ofSeconds(ttlSeconds));
+        } catch (Exception e) {
+            logger.warn("写入未读数缓存失败: key={}, error={}", key, e.getMessage());
+        }
+        return count;
+    }
+
+    public Map<String, Integer> getUnreadCounts(Long userId) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("notifications", getUnread(userId, UnreadType.NOTIFICATIONS));
+        counts.put("messages", getUnread(userId, UnreadType.MESSAGES));
+        return counts;
+    }
+
+    /**
+     * 调整未读数（事务提交后生效并推送）
+     */
+    public void adjust(Long userId, UnreadType type, long delta) {
+        if (userId == null || delta == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            String key = key(userId, type);
+            try {
+                Long updated = cacheStore.incrByIfPresent(key, delta);
+                if (updated != null && updated < 0) {
+                    cacheStore.delete(List.of(key));
+                }
+            } catch (Exception e) {
+                logger.warn("更新未读数缓存失败: key={}, error={}", key, e.getMessage());
+            }
+            push(userId);
+        });
+    }
+
+    /**
+     * 批量变更后丢弃缓存值，下次读取时重新统计
+     */
+    public void reset(Long userId, UnreadType type) {
+        afterCommit(() -> {
+            try {
+                cacheStore.delete(List.of(key(userId, type)));
+            } catch (Exception e) {
+                logger.warn("删除未读数缓存失败: userId={}, error={}", userId, e.getMessage());
+            }
+            push(userId);
+        });
+    }
+
+    /**
+     * 建立推送连接，并立即推送当前未读数
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = pushService.subscribe(userId);
+        push(userId);
+        return emitter;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("store", cacheStore.type());
+        stats.put("hits", hits.get());
+        stats.put("loads", loads.get());
+        stats.put("push", pushService.getStats());
+        return stats;
+    }
+
+    private void push(Long userId) {
+        if (!pushService.connectedUserIds().contains(userId)) {
+            return;
+        }
+        try {
+            pushService.send(userId, EVENT_UNREAD, getUnreadCounts(userId));
+        } catch (Exception e) {
+            logger.warn("推送未读数失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 定时向在线用户重发未读数：兼作心跳，及时清理断开的连接，并同步其他实例上产生的变更
+     */
+    private void resyncQuietly() {
+        for (Long userId : pushService.connectedUserIds()) {
+            push(userId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String key(Long userId, UnreadType type) {
+        return PREFIX + type.name().toLowerCase() + ":" + userId;
+    }
+}
@@ -0,0 +1,297 @@
+package com.chainlesschain.community.search;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.mapping.TypeMapping;
+import co.elastic.clients.elasticsearch._types.query_dsl.FieldValueFactorModifier;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionBoostMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.search.CompletionSuggestOption;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.Suggestion;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Elasticsearch 搜索引擎
+ *
+ * 帖子、用户各一个别名（{prefix}_posts / {prefix}_users）指向带时间戳的物理索引，全量重建时
+ * 写入新索引后原子切换别名。中文分词默认使用 IK（索引 ik_max_word、查询 ik_smart），未安装
+ * IK 插件时可改为 smartcn 或 cjk。排序使用 function_score：文本得分 × ln(2 + 热度)。
+ */
+public class ElasticsearchSearchEngine implements SearchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElasticsearchSearchEngine.class);
+
+    private final ElasticsearchClient client;
+    private final String postsAlias;
+    private final String usersAlias;
+    private final String indexAnalyzer;
+    private final String searchAnalyzer;
+
+    public ElasticsearchSearchEngine(ElasticsearchClient client, String indexPrefix,
+                                     String indexAnalyzer, String searchAnalyzer) throws IOException {
+        this.client = client;
+        this.postsAlias = indexPrefix + "_posts";
+        this.usersAlias = indexPrefix + "_users";
+        this.indexAnalyzer = indexAnalyzer;
+        this.searchAnalyzer = searchAnalyzer;
+        ensureIndex(postsAlias, postMapping());
+        ensureIndex(usersAlias, userMapping());
+    }
+
+    @Override
+    public String name() {
+        return "elasticsearch";
+    }
+
+    @Override
+    public void upsertPosts(List<PostDocument> documents) throws IOException {
+        bulk(documents.stream().map(d -> indexOp(postsAlias, d.id(), toSource(d))).toList());
+    }
+
+    @Override
+    public void deletePosts(Collection<Long> ids) throws IOException {
+        bulk(ids.stream().map(id -> deleteOp(postsAlias, id)).toList());
+    }
+
+    @Override
+    public void upsertUsers(List<UserDocument> documents) throws IOException {
+        bulk(documents.stream().map(d -> indexOp(usersAlias, d.id(), toSource(d))).toList());
+    }
+
+    @Override
+    public void deleteUsers(Collection<Long> ids) throws IOException {
+        bulk(ids.stream().map(id -> deleteOp(usersAlias, id)).toList());
+    }
+
+    @Override
+    public SearchHits searchPosts(String keyword, Long categoryId, int page, int pageSize) throws IOException {
+        Query text = Query.of(q -> q.multiMatch(m -> m
+                .query(keyword)
+                .fields("title^3", "content")
+                .type(TextQueryType.BestFields)
+                .operator(Operator.And)));
+        Query query = Query.of(q -> q.bool(b -> {
+            b.must(text);
+            if (categoryId != null) {
+                b.filter(f -> f.term(t -> t.field("categoryId").value(FieldValue.of(categoryId))));
+            }
+            return b;
+        }));
+        return search(postsAlias, query, page, pageSize);
+    }
+
+    @Override
+    public SearchHits searchUsers(String keyword, int page, int pageSize) throws IOException {
+        Query query = Query.of(q -> q.multiMatch(m -> m
+                .query(keyword)
+                .fields("nickname^3", "username^2", "bio^0.5")
+                .type(TextQueryType.BestFields)
+                .operator(Operator.And)));
+        return search(usersAlias, query, page, pageSize);
+    }
+
+    @Override
+    public List<String> suggestTitles(String prefix, int limit) throws IOException {
+        SearchResponse<Void> response = client.search(s -> s
+                .index(postsAlias)
+                .source(src -> src.fetch(false))
+                .suggest(sg -> sg.suggesters("title", fs -> fs
+                        .prefix(prefix.trim())
+                        .completion(c -> c.field("suggest").size(limit).skipDuplicates(true)))),
+                Void.class);
+
+        Set<String> titles = new LinkedHashSet<>();
+        List<Suggestion<Void>> suggestions = response.suggest().getOrDefault("title", List.of());
+        for (Suggestion<Void> suggestion : suggestions) {
+            for (CompletionSuggestOption<Void> option : suggestion.completion().options()) {
+                titles.add(option.text());
+            }
+        }
+        return new ArrayList<>(titles);
+    }
+
+    @Override
+    public long countPosts() throws IOException {
+        return client.count(c -> c.index(postsAlias)).count();
+    }
+
+    @Override
+    public Rebuild beginRebuild() throws IOException {
+        String newPosts = physicalName(postsAlias);
+        String newUsers = physicalName(usersAlias);
+        createIndex(newPosts, postMapping(), null);
+        createIndex(newUsers, userMapping(), null);
+
+        return new Rebuild() {
+            @Override
+            public void addPosts(List<PostDocument> documents) throws IOException {
+                bulk(documents.stream().map(d -> indexOp(newPosts, d.id(), toSource(d))).toList());
+            }
+
+            @Override
+            public void addUsers(List<UserDocument> documents) throws IOException {
+                bulk(documents.stream().map(d -> indexOp(newUsers, d.id(), toSource(d))).toList());
+            }
+
+            @Override
+            public void commit() throws IOException {
+                swapAlias(postsAlias, newPosts);
+                swapAlias(usersAlias, newUsers);
+            }
+
+            @Override
+            public void abort() {
+                try {
+                    client.indices().delete(d -> d.index(newPosts, newUsers));
+                } catch (IOException e) {
+                    logger.warn("删除未完成的重建索引失败: {}", e.getMessage());
+                }
+            }
+        };
+    }
+
+    private SearchHits search(String index, Query text, int page, int pageSize) throws IOException {
+        int from = Math.max(0, (page - 1) * pageSize);
+        SearchResponse<Void> response = client.search(s -> s
+                .index(index)
+                .from(from)
+                .size(pageSize)
+                .trackTotalHits(t -> t.enabled(true))
+                .source(src -> src.fetch(false))
+                .query(q -> q.functionScore(fs -> fs
+                        .query(text)
+                        .functions(f -> f.fieldValueFactor(v -> v
+                                .field("popularity")
+                                .modifier(FieldValueFactorModifier.Ln2p)
+                                .missing(0.0)))
+                        .boostMode(FunctionBoostMode.Multiply))),
+                Void.class);
+
+        List<Long> ids = new ArrayList<>();
+        for (Hit<Void> hit : response.hits().hits()) {
+            ids.add(Long.valueOf(hit.id()));
+        }
+        long total = response.hits().total() != null ? response.hits().total().value() : ids.size();
+        return new SearchHits(ids, total);
+    }
+
+    private void bulk(List<BulkOperation> operations) throws IOException {
+        if (operations.isEmpty()) {
+            return;
+        }
+        BulkResponse response = client.bulk(b -> b.operations(operations));
+        if (response.errors()) {
+            String reason = response.items().stream()
+                    .filter(item -> item.error() != null)
+                    .map(item -> item.id() + ": " + item.error().reason())
+                    .findFirst()
+                    .orElse("unknown");
+            throw new IOException("Elasticsearch 批量写入部分失败: " + reason);
+        }
+    }
+
+    private static BulkOperation indexOp(String index, long id, Map<String, Object> source) {
+        return BulkOperation.of(o -> o.index(i -> i.index(index).id(String.valueOf(id)).document(source)));
+    }
+
+    private static BulkOperation deleteOp(String index, long id) {
+        return BulkOperation.of(o -> o.delete(d -> d.index(index).id(String.valueOf(id))));
+    }
+
+    private static Map<String, Object> toSource(PostDocument post) {
+        Map<String, Object> source = new HashMap<>();
+        source.put("title", post.title());
+        source.put("content", post.content());
+        source.put("categoryId", post.categoryId());
+        source.put("userId", post.userId());
+        source.put("popularity", post.popularity());
+        source.put("createdAt", post.createdAt());
+        if (post.title() != null && !post.title().isBlank()) {
+            source.put("suggest", Map.of("input", List.of(post.title()), "weight",
+                    (int) Math.min(Integer.MAX_VALUE, Math.max(1, post.popularity()))));
+        }
+        return source;
+    }
+
+    private static Map<String, Object> toSource(UserDocument user) {
+        Map<String, Object> source = new HashMap<>();
+        source.put("username", user.username());
+        source.put("nickname", user.nickname());
+        source.put("bio", user.bio());
+        source.put("popularity", user.popularity());
+        return source;
+    }
+
+    private TypeMapping postMapping() {
+        return TypeMapping.of(m -> m
+                .properties("title", p -> p.text(t -> t.analyzer(indexAnalyzer).searchAnalyzer(searchAnalyzer)))
+                .properties("content", p -> p.text(t -> t.analyzer(indexAnalyzer).searchAnalyzer(searchAnalyzer)))
+                .properties("categoryId", p -> p.long_(l -> l))
+                .properties("userId", p -> p.long_(l -> l))
+                .properties("popularity", p -> p.long_(l -> l))
+                .properties("createdAt", p -> p.date(d -> d.format("epoch_millis")))
+                .properties("suggest", p -> p.completion(c -> c)));
+    }
+
+    private TypeMapping userMapping() {
+        return TypeMapping.of(m -> m
+                .properties("username", p -> p.text(t -> t.analyzer(indexAnalyzer).searchAnalyzer(searchAnalyzer)))
+                .properties("nickname", p -> p.text(t -> t.analyzer(indexAnalyzer).searchAnalyzer(searchAnalyzer)))
+                .properties("bio", p -> p.text(t -> t.analyzer(indexAnalyzer).searchAnalyzer(searchAnalyzer)))
+                .properties("popularity", p -> p.long_(l -> l)));
+    }
+
+    private void ensureIndex(String alias, TypeMapping mapping) throws IOException {
+        if (client.indices().exists(e -> e.index(alias)).value()) {
+            return;
+        }
+        createIndex(physicalName(alias), mapping, alias);
+        logger.info("已创建搜索索引: alias={}", alias);
+    }
+
+    private void createIndex(String name, TypeMapping mapping, String alias) throws IOException {
+        client.indices().create(c -> {
+            c.index(name)
+                    .settings(IndexSettings.of(s -> s.numberOfShards("1").numberOfReplicas("1")))
+                    .mappings(mapping);
+            if (alias != null) {
+                c.aliases(alias, a -> a);
+            }
+            return c;
+        });
+    }
+
+    private void swapAlias(String alias, String newIndex) throws IOException {
+        Set<String> oldIndices = client.indices().getAlias(g -> g.name(alias)).result().keySet();
+        client.indices().updateAliases(u -> {
+            for (String old : oldIndices) {
+                u.actions(a -> a.remove(r -> r.index(old).alias(alias)));
+            }
+            return u.actions(a -> a.add(ad -> ad.index(newIndex).alias(alias)));
+        });
+        for (String old : oldIndices) {
+            client.indices().delete(d -> d.index(old));
+        }
+    }
+
+    private static String physicalName(String alias) {
+        return alias + "_" + System.currentTimeMillis();
+    }
+}
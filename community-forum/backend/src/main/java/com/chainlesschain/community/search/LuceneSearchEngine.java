@@ -0,0 +1,345 @@
+package com.chainlesschain.community.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.cn.smart.SmartChineseAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.QueryBuilder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 内嵌 Lucene 搜索引擎（单实例部署或测试环境）
+ *
+ * 帖子与用户存于同一索引，以 type 字段区分；中文使用 SmartChineseAnalyzer 分词。排序先取文本
+ * 相关度最高的一个窗口，再按 score × (1 + w·ln(1 + 热度)) 重排后分页。
+ */
+public class LuceneSearchEngine implements SearchEngine, AutoCloseable {
+
+    private static final String F_UID = "uid";
+    private static final String F_TYPE = "type";
+    private static final String F_ID = "id";
+    private static final String F_CATEGORY = "categoryId";
+    private static final String F_TITLE = "title";
+    private static final String F_TITLE_PREFIX = "titlePrefix";
+    private static final String F_CONTENT = "content";
+    private static final String F_USERNAME = "username";
+    private static final String F_NICKNAME = "nickname";
+    private static final String F_BIO = "bio";
+    private static final String F_POPULARITY = "popularity";
+
+    private static final String TYPE_POST = "post";
+    private static final String TYPE_USER = "user";
+
+    /** 重排窗口：在文本相关度前 N 条中混合热度排序 */
+    private static final int RERANK_WINDOW = 200;
+    private static final double POPULARITY_WEIGHT = 0.1;
+
+    private final Directory directory;
+    private final Analyzer analyzer = new SmartChineseAnalyzer();
+    private final QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+    /** 写操作互斥；全量重建期间持有，避免增量刷新暴露半成品索引 */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    public LuceneSearchEngine(Path indexDir) throws IOException {
+        this.directory = FSDirectory.open(indexDir);
+        open();
+    }
+
+    private void open() throws IOException {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        writer.commit();
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @Override
+    public String name() {
+        return "lucene";
+    }
+
+    @Override
+    public void upsertPosts(List<PostDocument> documents) throws IOException {
+        write(() -> {
+            for (PostDocument document : documents) {
+                writer.updateDocument(new Term(F_UID, uid(TYPE_POST, document.id())), toDocument(document));
+            }
+        });
+    }
+
+    @Override
+    public void deletePosts(Collection<Long> ids) throws IOException {
+        write(() -> {
+            for (Long id : ids) {
+                writer.deleteDocuments(new Term(F_UID, uid(TYPE_POST, id)));
+            }
+        });
+    }
+
+    @Override
+    public void upsertUsers(List<UserDocument> documents) throws IOException {
+        write(() -> {
+            for (UserDocument document : documents) {
+                writer.updateDocument(new Term(F_UID, uid(TYPE_USER, document.id())), toDocument(document));
+            }
+        });
+    }
+
+    @Override
+    public void deleteUsers(Collection<Long> ids) throws IOException {
+        write(() -> {
+            for (Long id : ids) {
+                writer.deleteDocuments(new Term(F_UID, uid(TYPE_USER, id)));
+            }
+        });
+    }
+
+    @Override
+    public SearchHits searchPosts(String keyword, Long categoryId, int page, int pageSize) throws IOException {
+        BooleanQuery.Builder text = new BooleanQuery.Builder();
+        addField(text, F_TITLE, keyword, 3f);
+        addField(text, F_CONTENT, keyword, 1f);
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(F_TYPE, TYPE_POST)), BooleanClause.Occur.FILTER)
+                .add(text.setMinimumNumberShouldMatch(1).build(), BooleanClause.Occur.MUST);
+        if (categoryId != null) {
+            query.add(new TermQuery(new Term(F_CATEGORY, String.valueOf(categoryId))), BooleanClause.Occur.FILTER);
+        }
+        return search(query.build(), page, pageSize);
+    }
+
+    @Override
+    public SearchHits searchUsers(String keyword, int page, int pageSize) throws IOException {
+        BooleanQuery.Builder text = new BooleanQuery.Builder();
+        addField(text, F_NICKNAME, keyword, 3f);
+        addField(text, F_USERNAME, keyword, 2f);
+        addField(text, F_BIO, keyword, 0.5f);
+
+        Query query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(F_TYPE, TYPE_USER)), BooleanClause.Occur.FILTER)
+                .add(text.setMinimumNumberShouldMatch(1).build(), BooleanClause.Occur.MUST)
+                .build();
+        return search(query, page, pageSize);
+    }
+
+    @Override
+    public List<String> suggestTitles(String prefix, int limit) throws IOException {
+        Query query = new BooleanQuery.Builder()
+                .add(new TermQuery(new Term(F_TYPE, TYPE_POST)), BooleanClause.Occur.FILTER)
+                .add(new PrefixQuery(new Term(F_TITLE_PREFIX, prefix.trim().toLowerCase(Locale.ROOT))),
+                        BooleanClause.Occur.MUST)
+                .build();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(query, limit * 2,
+                    new Sort(new SortField(F_POPULARITY, SortField.Type.LONG, true)));
+            Set<String> titles = new LinkedHashSet<>();
+            for (ScoreDoc hit : top.scoreDocs) {
+                titles.add(searcher.storedFields().document(hit.doc).get(F_TITLE));
+                if (titles.size() >= limit) {
+                    break;
+                }
+            }
+            return new ArrayList<>(titles);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    @Override
+    public long countPosts() throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return searcher.count(new TermQuery(new Term(F_TYPE, TYPE_POST)));
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    @Override
+    public Rebuild beginRebuild() throws IOException {
+        writeLock.lock();
+        try {
+            writer.deleteAll();
+        } catch (IOException | RuntimeException e) {
+            writeLock.unlock();
+            throw e;
+        }
+        return new Rebuild() {
+            @Override
+            public void addPosts(List<PostDocument> documents) throws IOException {
+                for (PostDocument document : documents) {
+                    writer.addDocument(toDocument(document));
+                }
+            }
+
+            @Override
+            public void addUsers(List<UserDocument> documents) throws IOException {
+                for (UserDocument document : documents) {
+                    writer.addDocument(toDocument(document));
+                }
+            }
+
+            @Override
+            public void commit() throws IOException {
+                try {
+                    writer.commit();
+                    searcherManager.maybeRefresh();
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+
+            @Override
+            public void abort() {
+                try {
+                    // rollback 会关闭 writer，需要重新打开
+                    searcherManager.close();
+                    writer.rollback();
+                    open();
+                } catch (IOException e) {
+                    throw new IllegalStateException("Lucene 索引回滚失败", e);
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private SearchHits search(Query query, int page, int pageSize) throws IOException {
+        int offset = Math.max(0, (page - 1) * pageSize);
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            int total = searcher.count(query);
+            if (total == 0 || offset >= total) {
+                return new SearchHits(List.of(), total);
+            }
+            TopDocs top = searcher.search(query, Math.max(offset + pageSize, RERANK_WINDOW));
+
+            List<Scored> scored = new ArrayList<>(top.scoreDocs.length);
+            for (ScoreDoc hit : top.scoreDocs) {
+                Document document = searcher.storedFields().document(hit.doc);
+                long popularity = document.getField(F_POPULARITY).numericValue().longValue();
+                double blended = hit.score * (1 + POPULARITY_WEIGHT * Math.log1p(Math.max(0, popularity)));
+                scored.add(new Scored(Long.parseLong(document.get(F_ID)), blended));
+            }
+            scored.sort(Comparator.comparingDouble(Scored::score).reversed());
+
+            List<Long> ids = scored.stream()
+                    .skip(offset)
+                    .limit(pageSize)
+                    .map(Scored::id)
+                    .toList();
+            return new SearchHits(ids, total);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private void addField(BooleanQuery.Builder builder, String field, String keyword, float boost) {
+        Query query = queryBuilder.createBooleanQuery(field, keyword, BooleanClause.Occur.MUST);
+        if (query != null) {
+            builder.add(new BoostQuery(query, boost), BooleanClause.Occur.SHOULD);
+        }
+    }
+
+    private void write(IndexAction action) throws IOException {
+        writeLock.lock();
+        try {
+            action.run();
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static Document toDocument(PostDocument post) {
+        Document document = base(TYPE_POST, post.id(), post.popularity());
+        if (post.categoryId() != null) {
+            document.add(new StringField(F_CATEGORY, String.valueOf(post.categoryId()), Field.Store.NO));
+        }
+        String title = post.title() != null ? post.title() : "";
+        document.add(new TextField(F_TITLE, title, Field.Store.YES));
+        document.add(new StringField(F_TITLE_PREFIX, title.toLowerCase(Locale.ROOT), Field.Store.NO));
+        document.add(new TextField(F_CONTENT, post.content() != null ? post.content() : "", Field.Store.NO));
+        return document;
+    }
+
+    private static Document toDocument(UserDocument user) {
+        Document document = base(TYPE_USER, user.id(), user.popularity());
+        document.add(new TextField(F_USERNAME, user.username() != null ? user.username() : "", Field.Store.NO));
+        document.add(new TextField(F_NICKNAME, user.nickname() != null ? user.nickname() : "", Field.Store.NO));
+        document.add(new TextField(F_BIO, user.bio() != null ? user.bio() : "", Field.Store.NO));
+        return document;
+    }
+
+    private static Document base(String type, long id, long popularity) {
+        Document document = new Document();
+        document.add(new StringField(F_UID, uid(type, id), Field.Store.NO));
+        document.add(new StringField(F_TYPE, type, Field.Store.NO));
+        document.add(new StoredField(F_ID, String.valueOf(id)));
+        document.add(new NumericDocValuesField(F_POPULARITY, popularity));
+        document.add(new StoredField(F_POPULARITY, popularity));
+        return document;
+    }
+
+    private static String uid(String type, long id) {
+        return type + ":" + id;
+    }
+
+    @FunctionalInterface
+    private interface IndexAction {
+        void run() throws IOException;
+    }
+
+    private record Scored(long id, double score) {
+    }
+}
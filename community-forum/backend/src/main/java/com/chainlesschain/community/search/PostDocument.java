@@ -0,0 +1,10 @@
+package com.chainlesschain.community.search;
+
+/**
+ * 帖子索引文档
+ *
+ * @param popularity 热度（点赞、回复、浏览加权），用于与文本相关度混合排序
+ */
+public record PostDocument(long id, String title, String content, Long categoryId, Long userId,
+                           long popularity, long createdAt) {
+}
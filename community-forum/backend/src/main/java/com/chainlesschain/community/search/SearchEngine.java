@@ -0,0 +1,53 @@
+package com.chainlesschain.community.search;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 搜索引擎（Elasticsearch 或内嵌 Lucene 实现）
+ *
+ * 只存放检索所需字段，结果返回实体ID，由调用方回表组装视图。
+ */
+public interface SearchEngine {
+
+    String name();
+
+    void upsertPosts(List<PostDocument> documents) throws IOException;
+
+    void deletePosts(Collection<Long> ids) throws IOException;
+
+    void upsertUsers(List<UserDocument> documents) throws IOException;
+
+    void deleteUsers(Collection<Long> ids) throws IOException;
+
+    SearchHits searchPosts(String keyword, Long categoryId, int page, int pageSize) throws IOException;
+
+    SearchHits searchUsers(String keyword, int page, int pageSize) throws IOException;
+
+    /**
+     * 按标题前缀给出搜索建议
+     */
+    List<String> suggestTitles(String prefix, int limit) throws IOException;
+
+    /**
+     * 索引中的帖子数（用于判断是否需要初始化全量索引）
+     */
+    long countPosts() throws IOException;
+
+    /**
+     * 开始全量重建：新数据写入独立的副本，commit 时原子替换，期间查询仍走旧索引
+     */
+    Rebuild beginRebuild() throws IOException;
+
+    interface Rebuild {
+
+        void addPosts(List<PostDocument> documents) throws IOException;
+
+        void addUsers(List<UserDocument> documents) throws IOException;
+
+        void commit() throws IOException;
+
+        void abort();
+    }
+}
@@ -0,0 +1,13 @@
+package com.chainlesschain.community.search;
+
+import java.util.List;
+
+/**
+ * 一页搜索结果：按相关度排序的实体ID与命中总数
+ */
+public record SearchHits(List<Long> ids, long total) {
+
+    public static SearchHits empty() {
+        return new SearchHits(List.of(), 0);
+    }
+}
@@ -0,0 +1,377 @@
+package com.chainlesschain.community.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.chainlesschain.community.counter.CounterKey;
+import com.chainlesschain.community.counter.CounterListener;
+import com.chainlesschain.community.entity.Post;
+import com.chainlesschain.community.entity.SearchOutbox;
+import com.chainlesschain.community.entity.User;
+import com.chainlesschain.community.mapper.PostMapper;
+import com.chainlesschain.community.mapper.SearchOutboxMapper;
+import com.chainlesschain.community.mapper.UserMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 搜索索引同步服务
+ *
+ * 帖子、用户的写操作在同一事务内插入 search_outbox；后台线程按顺序取出、回表读取最新数据后
+ * 写入搜索引擎，成功后删除 outbox 记录，失败则下次重试。计数写回后只刷新热度，不经过 outbox。
+ * 全量重建与增量同步在同一线程串行执行，重建期间产生的 outbox 记录在重建完成后应用到新索引。
+ */
+@Service
+public class SearchIndexService implements CounterListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    public static final String TYPE_POST = "POST";
+    public static final String TYPE_USER = "USER";
+
+    private static final int REBUILD_PAGE = 500;
+
+    @Autowired(required = false)
+    private SearchEngine searchEngine;
+
+    @Autowired
+    private SearchOutboxMapper outboxMapper;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Value("${search.outbox.poll-ms:2000}")
+    private long pollMs;
+
+    @Value("${search.outbox.batch-size:200}")
+    private int batchSize;
+
+    private ScheduledExecutorService executor;
+    private final Set<Long> popularityRefreshPosts = ConcurrentHashMap.newKeySet();
+    private final Set<Long> popularityRefreshUsers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicLong indexed = new AtomicLong();
+    private volatile long lastRebuildAt;
+    private volatile String lastError;
+
+    @PostConstruct
+    public void init() {
+        if (searchEngine == null) {
+            logger.info("未配置搜索引擎，搜索使用数据库 LIKE 查询");
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "search-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::rebuildIfEmpty);
+        executor.scheduleWithFixedDelay(this::drainQuietly, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return searchEngine != null;
+    }
+
+    public SearchEngine getEngine() {
+        return searchEngine;
+    }
+
+    /**
+     * 登记帖子变更（需在业务事务内调用）
+     */
+    public void enqueuePost(Long postId) {
+        enqueue(TYPE_POST, postId);
+    }
+
+    /**
+     * 登记用户变更（需在业务事务内调用）
+     */
+    public void enqueueUser(Long userId) {
+        enqueue(TYPE_USER, userId);
+    }
+
+    /**
+     * 计数写回后刷新对应文档的热度
+     */
+    @Override
+    public void onFlushed(Set<CounterKey> keys) {
+        if (searchEngine == null) {
+            return;
+        }
+        for (CounterKey key : keys) {
+            switch (key.type()) {
+                case POST_VIEWS, POST_LIKES, POST_REPLIES, POST_FAVORITES -> popularityRefreshPosts.add(key.id());
+                case USER_FOLLOWERS -> popularityRefreshUsers.add(key.id());
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * 提交全量重建任务
+     *
+     * @return false 表示已有重建在进行或未启用搜索引擎
+     */
+    public boolean requestRebuild() {
+        if (searchEngine == null || !rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                rebuild();
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("engine", searchEngine != null ? searchEngine.name() : "database");
+        if (searchEngine != null) {
+            stats.put("outboxPending", outboxMapper.selectCount(null));
+            stats.put("indexed", indexed.get());
+            stats.put("rebuilding", rebuilding.get());
+            stats.put("lastRebuildAt", lastRebuildAt);
+            stats.put("lastError", lastError);
+        }
+        return stats;
+    }
+
+    private void enqueue(String type, Long id) {
+        if (searchEngine == null || id == null) {
+            return;
+        }
+        SearchOutbox row = new SearchOutbox();
+        row.setEntityType(type);
+        row.setEntityId(id);
+        outboxMapper.insert(row);
+    }
+
+    private void drainQuietly() {
+        try {
+            drain();
+            refreshPopularity();
+            lastError = null;
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            logger.warn("搜索索引同步失败，将在下次重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 处理 outbox，直到取空
+     */
+    private void drain() throws Exception {
+        while (true) {
+            List<SearchOutbox> rows = outboxMapper.selectBatch(batchSize);
+            if (rows.isEmpty()) {
+                return;
+            }
+            Set<Long> postIds = new LinkedHashSet<>();
+            Set<Long> userIds = new LinkedHashSet<>();
+            for (SearchOutbox row : rows) {
+                if (TYPE_POST.equals(row.getEntityType())) {
+                    postIds.add(row.getEntityId());
+                } else if (TYPE_USER.equals(row.getEntityType())) {
+                    userIds.add(row.getEntityId());
+                }
+            }
+            syncPosts(postIds);
+            syncUsers(userIds);
+            outboxMapper.deleteBatchIds(rows.stream().map(SearchOutbox::getId).collect(Collectors.toList()));
+            if (rows.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void refreshPopularity() throws Exception {
+        List<Long> posts = takeAll(popularityRefreshPosts);
+        List<Long> users = takeAll(popularityRefreshUsers);
+        try {
+            syncPosts(posts);
+            syncUsers(users);
+        } catch (Exception e) {
+            popularityRefreshPosts.addAll(posts);
+            popularityRefreshUsers.addAll(users);
+            throw e;
+        }
+    }
+
+    /**
+     * 回表读取最新数据：已发布的帖子、正常状态的用户写入索引，其余移出索引
+     */
+    private void syncPosts(Collection<Long> ids) throws Exception {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, Post> posts = postMapper.selectBatchIds(ids).stream()
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        List<PostDocument> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (Long id : ids) {
+            Post post = posts.get(id);
+            if (post != null && "PUBLISHED".equals(post.getStatus())) {
+                upserts.add(toDocument(post));
+            } else {
+                deletes.add(id);
+            }
+        }
+        searchEngine.upsertPosts(upserts);
+        searchEngine.deletePosts(deletes);
+        indexed.addAndGet(upserts.size());
+    }
+
+    private void syncUsers(Collection<Long> ids) throws Exception {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, User> users = userMapper.selectBatchIds(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<UserDocument> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (Long id : ids) {
+            User user = users.get(id);
+            if (user != null && "NORMAL".equals(user.getStatus())) {
+                upserts.add(toDocument(user));
+            } else {
+                deletes.add(id);
+            }
+        }
+        searchEngine.upsertUsers(upserts);
+        searchEngine.deleteUsers(deletes);
+        indexed.addAndGet(upserts.size());
+    }
+
+    private void rebuildIfEmpty() {
+        try {
+            if (searchEngine.countPosts() == 0 && postMapper.selectCount(null) > 0) {
+                rebuilding.set(true);
+                try {
+                    rebuild();
+                } finally {
+                    rebuilding.set(false);
+                }
+            }
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            logger.warn("检查搜索索引失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 全量重建：按主键分页读取全部已发布帖子与正常用户
+     */
+    private void rebuild() {
+        long start = System.currentTimeMillis();
+        SearchEngine.Rebuild rebuild;
+        try {
+            rebuild = searchEngine.beginRebuild();
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            logger.error("开始重建搜索索引失败", e);
+            return;
+        }
+        try {
+            long posts = 0;
+            long lastId = 0;
+            while (true) {
+                List<Post> page = postMapper.selectList(new QueryWrapper<Post>()
+                        .eq("status", "PUBLISHED")
+                        .gt("id", lastId)
+                        .orderByAsc("id")
+                        .last("LIMIT " + REBUILD_PAGE));
+                if (page.isEmpty()) {
+                    break;
+                }
+                rebuild.addPosts(page.stream().map(SearchIndexService::toDocument).collect(Collectors.toList()));
+                posts += page.size();
+                lastId = page.get(page.size() - 1).getId();
+            }
+
+            long users = 0;
+            lastId = 0;
+            while (true) {
+                List<User> page = userMapper.selectList(new QueryWrapper<User>()
+                        .eq("status", "NORMAL")
+                        .gt("id", lastId)
+                        .orderByAsc("id")
+                        .last("LIMIT " + REBUILD_PAGE));
+                if (page.isEmpty()) {
+                    break;
+                }
+                rebuild.addUsers(page.stream().map(SearchIndexService::toDocument).collect(Collectors.toList()));
+                users += page.size();
+                lastId = page.get(page.size() - 1).getId();
+            }
+
+            rebuild.commit();
+            lastRebuildAt = System.currentTimeMillis();
+            logger.info("搜索索引重建完成: engine={}, posts={}, users={}, 耗时={}ms",
+                    searchEngine.name(), posts, users, lastRebuildAt - start);
+        } catch (Exception e) {
+            rebuild.abort();
+            lastError = e.getMessage();
+            logger.error("搜索索引重建失败", e);
+        }
+    }
+
+    private static List<Long> takeAll(Set<Long> ids) {
+        List<Long> taken = new ArrayList<>(ids);
+        taken.forEach(ids::remove);
+        return taken;
+    }
+
+    static PostDocument toDocument(Post post) {
+        long popularity = value(post.getLikesCount()) * 3 + value(post.getFavoritesCount()) * 4
+                + value(post.getRepliesCount()) * 5 + value(post.getViewsCount());
+        long createdAt = post.getCreatedAt() != null
+                ? post.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0;
+        return new PostDocument(post.getId(), post.getTitle(), post.getContent(), post.getCategoryId(),
+                post.getUserId(), popularity, createdAt);
+    }
+
+    static UserDocument toDocument(User user) {
+        return new UserDocument(user.getId(), user.getUsername(), user.getNickname(), user.getBio(),
+                value(user.getFollowersCount()));
+    }
+
+    private static long value(Integer count) {
+        return count != null ? count : 0;
+    }
+}
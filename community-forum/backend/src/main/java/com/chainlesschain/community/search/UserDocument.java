@@ -0,0 +1,9 @@
+package com.chainlesschain.community.search;
+
+/**
+ * 用户索引文档
+ *
+ * @param popularity 热度（粉丝数），用于与文本相关度混合排序
+ */
+public record UserDocument(long id, String username, String nickname, String bio, long popularity) {
+}
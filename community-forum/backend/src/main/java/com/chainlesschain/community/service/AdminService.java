@@ -2,22 +2,36 @@ package com.chainlesschain.community.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.chainlesschain.community.cache.ForumCacheService;
+import com.chainlesschain.community.cache.HotRankingService;
 import com.chainlesschain.community.common.PageResult;
 import com.chainlesschain.community.common.Result;
+import com.chainlesschain.community.counter.CounterService;
+import com.chainlesschain.community.counter.CounterType;
+import com.chainlesschain.community.draft.DraftService;
 import com.chainlesschain.community.entity.Notification;
 import com.chainlesschain.community.entity.Post;
 import com.chainlesschain.community.entity.Reply;
 import com.chainlesschain.community.entity.Report;
 import com.chainlesschain.community.entity.User;
 import com.chainlesschain.community.mapper.*;
+import com.chainlesschain.community.feed.HotFeedService;
+import com.chainlesschain.community.feed.TimelineService;
+import com.chainlesschain.community.moderation.ContentFilterService;
+import com.chainlesschain.community.moderation.ModerationQueueService;
+import com.chainlesschain.community.notify.UnreadCounterService;
+import com.chainlesschain.community.search.SearchIndexService;
+import com.chainlesschain.community.stats.DashboardStatsService;
+import com.chainlesschain.community.util.JwtUtil;
 import com.chainlesschain.community.util.SecurityUtil;
+import com.chainlesschain.community.vo.ReportedPostVO;
 import com.chainlesschain.community.vo.UserVO;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -44,7 +58,49 @@ public class AdminService {
     private ReportMapper reportMapper;
 
     @Autowired
-    private NotificationMapper notificationMapper;
+    private NotificationService notificationService;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private ForumCacheService forumCacheService;
+
+    @Autowired
+    private HotRankingService hotRankingService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private HotFeedService hotFeedService;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private ModerationQueueService moderationQueueService;
+
+    @Autowired
+    private UKeyVerificationService ukeyVerificationService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private ContentFilterService contentFilterService;
+
+    @Autowired
+    private TokenDenylistService tokenDenylistService;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private DraftService draftService;
 
     /**
      * 获取仪表盘统计数据
@@ -54,40 +110,7 @@ public class AdminService {
             return Result.forbidden();
         }
 
-        Map<String, Object> stats = new HashMap<>();
-
-        // 用户统计
-        QueryWrapper<User> userWrapper = new QueryWrapper<>();
-        userWrapper.eq("deleted", 0);
-        long totalUsers = userMapper.selectCount(userWrapper);
-        stats.put("totalUsers", totalUsers);
-
-        // 今日新增用户
-        userWrapper = new QueryWrapper<>();
-        userWrapper.eq("deleted", 0)
-                .apply("DATE(created_at) = CURDATE()");
-        long todayUsers = userMapper.selectCount(userWrapper);
-        stats.put("todayUsers", todayUsers);
-
-        // 帖子统计
-        QueryWrapper<Post> postWrapper = new QueryWrapper<>();
-        postWrapper.eq("deleted", 0);
-        long totalPosts = postMapper.selectCount(postWrapper);
-        stats.put("totalPosts", totalPosts);
-
-        // 待审核帖子
-        postWrapper = new QueryWrapper<>();
-        postWrapper.eq("deleted", 0).eq("status", "PENDING");
-        long pendingPosts = postMapper.selectCount(postWrapper);
-        stats.put("pendingPosts", pendingPosts);
-
-        // 举报统计
-        QueryWrapper<Report> reportWrapper = new QueryWrapper<>();
-        reportWrapper.eq("status", "PENDING");
-        long pendingReports = reportMapper.selectCount(reportWrapper);
-        stats.put("pendingReports", pendingReports);
-
-        return Result.success(stats);
+        return Result.success(dashboardStatsService.getDashboard());
     }
 
     /**
@@ -148,6 +171,9 @@ public class AdminService {
 
         user.setStatus("BANNED");
         userMapper.updateById(user);
+        forumCacheService.evictUser(user.getId());
+        searchIndexService.enqueueUser(user.getId());
+        tokenDenylistService.deny(user.getId());
 
         return Result.success();
     }
@@ -169,6 +195,9 @@ public class AdminService {
 
         user.setStatus("NORMAL");
         userMapper.updateById(user);
+        forumCacheService.evictUser(user.getId());
+        searchIndexService.enqueueUser(user.getId());
+        tokenDenylistService.allow(user.getId());
 
         return Result.success();
     }
@@ -193,8 +222,11 @@ public class AdminService {
         }
 
         // 逻辑删除
-        user.setDeleted(1);
-        userMapper.updateById(user);
+        dashboardStatsService.userRemoved();
+        userMapper.deleteById(user.getId());
+        forumCacheService.evictUser(user.getId());
+        searchIndexService.enqueueUser(user.getId());
+        tokenDenylistService.deny(user.getId());
 
         return Result.success();
     }
@@ -220,6 +252,7 @@ public class AdminService {
 
         user.setRole(role);
         userMapper.updateById(user);
+        forumCacheService.evictUser(user.getId());
 
         return Result.success();
     }
@@ -227,66 +260,33 @@ public class AdminService {
     /**
      * 获取待审核帖子
      */
-    public Result<PageResult<Post>> getPendingPosts(Integer page, Integer pageSize) {
+    public Result<PageResult<Post>> getPendingPosts(Integer page, Integer pageSize, String cursor) {
         if (!SecurityUtil.isAdmin()) {
             return Result.forbidden();
         }
 
-        QueryWrapper<Post> wrapper = new QueryWrapper<>();
-        wrapper.eq("deleted", 0)
-                .eq("status", "PENDING")
-                .orderByDesc("created_at");
-
-        Page<Post> pageParam = new Page<>(page, pageSize);
-        postMapper.selectPage(pageParam, wrapper);
-
-        PageResult<Post> pageResult = PageResult.of(
-                pageParam.getRecords(),
-                pageParam.getTotal(),
-                page,
-                pageSize
-        );
-
-        return Result.success(pageResult);
+        try {
+            return Result.success(moderationQueueService.pendingPosts(
+                    ModerationQueueService.parseCursor(cursor), page, pageSize));
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        }
     }
 
     /**
-     * 获取被举报帖子
+     * 获取被举报帖子（附带举报数、首次/最近举报时间和原因）
      */
-    public Result<PageResult<Post>> getReportedPosts(Integer page, Integer pageSize) {
+    public Result<PageResult<ReportedPostVO>> getReportedPosts(Integer page, Integer pageSize, String cursor) {
         if (!SecurityUtil.isAdmin()) {
             return Result.forbidden();
         }
 
-        // 查询有待处理举报的帖子
-        QueryWrapper<Report> reportWrapper = new QueryWrapper<>();
-        reportWrapper.select("DISTINCT target_id")
-                .eq("target_type", "POST")
-                .eq("status", "PENDING");
-
-        List<Report> reports = reportMapper.selectList(reportWrapper);
-        List<Long> postIds = reports.stream().map(Report::getTargetId).collect(Collectors.toList());
-
-        if (postIds.isEmpty()) {
-            return Result.success(PageResult.of(List.of(), 0L, page, pageSize));
+        try {
+            return Result.success(moderationQueueService.reportedPosts(
+                    ModerationQueueService.parseCursor(cursor), page, pageSize));
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
         }
-
-        QueryWrapper<Post> wrapper = new QueryWrapper<>();
-        wrapper.in("id", postIds)
-                .eq("deleted", 0)
-                .orderByDesc("created_at");
-
-        Page<Post> pageParam = new Page<>(page, pageSize);
-        postMapper.selectPage(pageParam, wrapper);
-
-        PageResult<Post> pageResult = PageResult.of(
-                pageParam.getRecords(),
-                pageParam.getTotal(),
-                page,
-                pageSize
-        );
-
-        return Result.success(pageResult);
     }
 
     /**
@@ -304,8 +304,13 @@ public class AdminService {
             return Result.notFound();
         }
 
+        dashboardStatsService.postStatusChanged(post.getStatus(), "PUBLISHED");
         post.setStatus("PUBLISHED");
         postMapper.updateById(post);
+        forumCacheService.evictPost(post.getId());
+        searchIndexService.enqueuePost(post.getId());
+        hotFeedService.upsertPost(post);
+        timelineService.postPublished(post);
 
         return Result.success();
     }
@@ -326,8 +331,12 @@ public class AdminService {
         }
 
         // 逻辑删除
-        post.setDeleted(1);
-        postMapper.updateById(post);
+        dashboardStatsService.postRemoved(post.getStatus());
+        postMapper.deleteById(post.getId());
+        forumCacheService.evictPost(post.getId());
+        searchIndexService.enqueuePost(post.getId());
+        hotFeedService.removePost(post.getId());
+        hotRankingService.removePost(post.getId());
 
         // 发送通知给帖子作者
         Notification notification = new Notification();
@@ -339,7 +348,7 @@ public class AdminService {
                 (reason != null ? "，原因：" + reason : ""));
         notification.setLink("/posts/" + postId);
         notification.setIsRead(0);
-        notificationMapper.insert(notification);
+        notificationService.send(notification);
 
         return Result.success();
     }
@@ -360,8 +369,12 @@ public class AdminService {
         }
 
         // 逻辑删除
-        post.setDeleted(1);
-        postMapper.updateById(post);
+        dashboardStatsService.postRemoved(post.getStatus());
+        postMapper.deleteById(post.getId());
+        forumCacheService.evictPost(post.getId());
+        searchIndexService.enqueuePost(post.getId());
+        hotFeedService.removePost(post.getId());
+        hotRankingService.removePost(post.getId());
 
         return Result.success();
     }
@@ -375,15 +388,26 @@ public class AdminService {
             return Result.forbidden();
         }
 
-        Post post = postMapper.selectById(postId);
+        Post post = postMapper.selectIncludingDeleted(postId);
 
         if (post == null) {
             return Result.notFound();
         }
 
+        // 逻辑删除列不会被 updateById 写入，单独撤销；按实际影响行数判断是否从删除中恢复。
+        // 删除时已从待审核数中扣除，恢复为已发布只需加回总数
+        if (postMapper.restoreDeleted(postId) > 0) {
+            dashboardStatsService.postRestored();
+        } else {
+            dashboardStatsService.postStatusChanged(post.getStatus(), "PUBLISHED");
+        }
         post.setDeleted(0);
         post.setStatus("PUBLISHED");
         postMapper.updateById(post);
+        forumCacheService.evictPost(post.getId());
+        searchIndexService.enqueuePost(post.getId());
+        hotFeedService.upsertPost(post);
+        timelineService.postPublished(post);
 
         return Result.success();
     }
@@ -391,29 +415,17 @@ public class AdminService {
     /**
      * 获取举报列表
      */
-    public Result<PageResult<Report>> getReports(Integer page, Integer pageSize, String status) {
+    public Result<PageResult<Report>> getReports(Integer page, Integer pageSize, String status, String cursor) {
         if (!SecurityUtil.isAdmin()) {
             return Result.forbidden();
         }
 
-        Page<Report> pageParam = new Page<>(page, pageSize);
-
-        if (status != null && !status.isEmpty()) {
-            reportMapper.selectReportsByStatus(pageParam, status);
-        } else {
-            QueryWrapper<Report> wrapper = new QueryWrapper<>();
-            wrapper.orderByDesc("created_at");
-            reportMapper.selectPage(pageParam, wrapper);
+        try {
+            return Result.success(moderationQueueService.reports(
+                    status, ModerationQueueService.parseCursor(cursor), page, pageSize));
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
         }
-
-        PageResult<Report> pageResult = PageResult.of(
-                pageParam.getRecords(),
-                pageParam.getTotal(),
-                page,
-                pageSize
-        );
-
-        return Result.success(pageResult);
     }
 
     /**
@@ -433,6 +445,7 @@ public class AdminService {
 
         Long handlerId = SecurityUtil.getCurrentUserId();
 
+        dashboardStatsService.reportStatusChanged(report.getStatus(), "RESOLVED");
         report.setStatus("RESOLVED");
         report.setHandlerId(handlerId);
         report.setResult(result);
@@ -445,9 +458,9 @@ public class AdminService {
             } else if ("REPLY".equals(report.getTargetType())) {
                 // 逻辑删除回复
                 Reply reply = replyMapper.selectById(report.getTargetId());
-                if (reply != null && reply.getDeleted() == 0) {
-                    reply.setDeleted(1);
-                    replyMapper.updateById(reply);
+                if (reply != null && replyMapper.deleteById(reply.getId()) > 0) {
+                    counterService.increment(CounterType.POST_REPLIES, reply.getPostId(), -1);
+                    counterService.increment(CounterType.USER_REPLIES, reply.getUserId(), -1);
                 }
             } else if ("USER".equals(report.getTargetType())) {
                 // 封禁被举报用户
@@ -458,12 +471,127 @@ public class AdminService {
         return Result.success();
     }
 
+    /**
+     * 批量审核通过帖子
+     */
+    public Result<Map<String, Object>> approvePosts(List<Long> postIds, String reason) {
+        if (!SecurityUtil.isAdmin()) {
+            return Result.forbidden();
+        }
+
+        return Result.success(moderationQueueService.approvePosts(
+                postIds, SecurityUtil.getCurrentUserId(), reason));
+    }
+
+    /**
+     * 批量拒绝帖子
+     */
+    public Result<Map<String, Object>> rejectPosts(List<Long> postIds, String reason) {
+        if (!SecurityUtil.isAdmin()) {
+            return Result.forbidden();
+        }
+
+        return Result.success(moderationQueueService.rejectPosts(
+                postIds, SecurityUtil.getCurrentUserId(), reason));
+    }
+
+    /**
+     * 获取内容过滤统计
+     */
+    public Result<Map<String, Object>> getContentFilterStats() {
+        if (!SecurityUtil.isAdmin()) {
+            return Result.forbidden();
+        }
+        return Result.success(contentFilterService.getStats());
+    }
+
+    /**
+     * 重新加载敏感词表
+     */
+    public Result<Map<String, Object>> reloadContentFilter() {
+        if (!SecurityUtil.isAdmin()) {
+            return Result.forbidden();
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("words", contentFilterService.reload());
+        return Result.success(result);
+    }
+
+    /**
+     * 获取计数器写回统计
+     */
+    public Result<Map<String, Object>> getCounterStats() {
+        if (!SecurityUtil.isAdmin()) {
+            return Result.forbidden();
+        }
+        return Result.success(counterService.getStats());
+    }
+
+    /**
+     * 获取缓存统计
+     */
+    public Result<Map<String, Object>> getCacheStats() {
+        if (!SecurityUtil.isAdmin()) {
+            return Result.forbidden();
+        }
+        Map<String, Object> stats = new LinkedHashMap<>(forumCacheService.getStats());
+        stats.put("hotFeed", hotFeedService.getStats());
+        stats.put("unread", unreadCounterService.getStats());
+        stats.put("ukey", ukeyVerificationService.getStats());
+        stats.put("timeline", timelineService.getStats());
+        stats.put("jwt", jwtUtil.getStats());
+        stats.put("tokenDenylist", tokenDenylistService.getStats());
+        stats.put("drafts", draftService.getStats());
+        return Result.success(stats);
+    }
+
+    /**
+     * 立即写回所有待写回计数
+     */
+    public Result<Map<String, Object>> flushCounters() {
+        if (!SecurityUtil.isAdmin()) {
+            return Result.forbidden();
+        }
+        try {
+            counterService.flush();
+        } catch (IllegalStateException e) {
+            return Result.error(e.getMessage());
+        }
+        return Result.success(counterService.getStats());
+    }
+
+    /**
+     * 获取搜索索引统计
+     */
+    public Result<Map<String, Object>> getSearchStats() {
+        if (!SecurityUtil.isAdmin()) {
+            return Result.forbidden();
+        }
+        return Result.success(searchIndexService.getStats());
+    }
+
+    /**
+     * 全量重建搜索索引（后台执行）
+     */
+    public Result<Map<String, Object>> rebuildSearchIndex() {
+        if (!SecurityUtil.isAdmin()) {
+            return Result.forbidden();
+        }
+        if (!searchIndexService.isEnabled()) {
+            return Result.error("未启用搜索引擎");
+        }
+        if (!searchIndexService.requestRebuild()) {
+            return Result.error("搜索索引正在重建");
+        }
+        return Result.success(searchIndexService.getStats());
+    }
+
     /**
      * 转换User为UserVO
      */
     private UserVO convertUserToVO(User user) {
         UserVO vo = new UserVO();
-        BeanUtils.copyProperties(user, vo);
+        BeanUtils.copyProperties(counterService.overlay(user), vo);
         return vo;
     }
 }
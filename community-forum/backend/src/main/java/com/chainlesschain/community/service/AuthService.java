@@ -1,9 +1,12 @@
 package com.chainlesschain.community.service;
 
+import com.chainlesschain.community.cache.ForumCacheService;
 import com.chainlesschain.community.common.Result;
 import com.chainlesschain.community.dto.LoginRequest;
 import com.chainlesschain.community.entity.User;
 import com.chainlesschain.community.mapper.UserMapper;
+import com.chainlesschain.community.search.SearchIndexService;
+import com.chainlesschain.community.stats.DashboardStatsService;
 import com.chainlesschain.community.util.JwtUtil;
 import com.chainlesschain.community.util.SecurityUtil;
 import com.chainlesschain.community.vo.LoginVO;
@@ -24,6 +27,15 @@ public class AuthService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private ForumCacheService forumCacheService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
     @Autowired
     private JwtUtil jwtUtil;
 
@@ -60,6 +72,7 @@ public class AuthService {
                 // 更新最后登录时间
                 user.setLastLoginAt(LocalDateTime.now());
                 userMapper.updateById(user);
+                forumCacheService.evictUser(user.getId());
             }
 
             // 3. 检查用户状态
@@ -105,9 +118,18 @@ public class AuthService {
         user.setLastLoginAt(LocalDateTime.now());
 
         userMapper.insert(user);
+        searchIndexService.enqueueUser(user.getId());
+        dashboardStatsService.userRegistered();
         return user;
     }
 
+    /**
+     * 获取登录挑战值（生产模式下设备需对其签名，一次有效）
+     */
+    public Result<String> getChallenge() {
+        return Result.success(ukeyVerificationService.generateChallenge());
+    }
+
     /**
      * 获取当前用户信息
      */
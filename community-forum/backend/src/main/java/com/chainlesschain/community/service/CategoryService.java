@@ -1,6 +1,8 @@
 package com.chainlesschain.community.service;
 
+import com.chainlesschain.community.cache.ForumCacheService;
 import com.chainlesschain.community.common.Result;
+import com.chainlesschain.community.counter.CounterService;
 import com.chainlesschain.community.entity.Category;
 import com.chainlesschain.community.mapper.CategoryMapper;
 import com.chainlesschain.community.vo.CategoryVO;
@@ -20,11 +22,17 @@ public class CategoryService {
     @Autowired
     private CategoryMapper categoryMapper;
 
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private ForumCacheService forumCacheService;
+
     /**
      * 获取所有分类
      */
     public Result<List<CategoryVO>> getAllCategories() {
-        List<Category> categories = categoryMapper.findAllActive();
+        List<Category> categories = forumCacheService.getActiveCategories();
 
         List<CategoryVO> voList = categories.stream()
                 .map(this::convertToVO)
@@ -64,7 +72,7 @@ public class CategoryService {
      */
     private CategoryVO convertToVO(Category category) {
         CategoryVO vo = new CategoryVO();
-        BeanUtils.copyProperties(category, vo);
+        BeanUtils.copyProperties(counterService.overlay(category), vo);
         return vo;
     }
 }
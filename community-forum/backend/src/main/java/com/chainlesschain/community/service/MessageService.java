@@ -5,18 +5,33 @@ import com.chainlesschain.community.common.PageResult;
 import com.chainlesschain.community.common.Result;
 import com.chainlesschain.community.dto.MessageSendRequest;
 import com.chainlesschain.community.entity.Message;
+import com.chainlesschain.community.entity.MessageThread;
 import com.chainlesschain.community.entity.User;
 import com.chainlesschain.community.mapper.MessageMapper;
+import com.chainlesschain.community.mapper.MessageThreadMapper;
 import com.chainlesschain.community.mapper.UserMapper;
+import com.chainlesschain.community.moderation.ContentFilterService;
+import com.chainlesschain.community.notify.UnreadCounterService;
+import com.chainlesschain.community.notify.UnreadCounterService.UnreadType;
 import com.chainlesschain.community.util.SecurityUtil;
+import com.chainlesschain.community.vo.ConversationVO;
+import com.chainlesschain.community.vo.UserVO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 私信服务
+ *
+ * 每对用户的会话汇总（最后一条消息、双方未读数）保存在 message_threads 中，发送、已读、删除时
+ * 在同一事务内更新；收件箱和会话消息按ID游标分页，不扫描用户的全部消息。
  */
 @Service
 public class MessageService {
@@ -27,6 +42,95 @@ public class MessageService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private ContentFilterService contentFilterService;
+
+    @Autowired
+    private MessageThreadMapper messageThreadMapper;
+
+    private static final int PREVIEW_LENGTH = 100;
+
+    /**
+     * 获取收件箱（会话列表，按最后一条消息倒序）
+     *
+     * @param cursor 上一页返回的游标，为空时从最新开始
+     */
+    public Result<PageResult<ConversationVO>> getInbox(String cursor, Integer pageSize) {
+        Long currentUserId = SecurityUtil.getCurrentUserId();
+
+        if (currentUserId == null) {
+            return Result.unauthorized();
+        }
+
+        Long before;
+        try {
+            before = parseCursor(cursor);
+        } catch (NumberFormatException e) {
+            return Result.error("无效的分页游标");
+        }
+
+        List<MessageThread> threads = messageThreadMapper.selectInbox(
+                currentUserId, before != null ? before : Long.MAX_VALUE, pageSize + 1);
+        boolean hasMore = threads.size() > pageSize;
+        if (hasMore) {
+            threads = threads.subList(0, pageSize);
+        }
+
+        List<Long> peerIds = threads.stream()
+                .map(t -> peerOf(t, currentUserId))
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, User> peers = peerIds.isEmpty() ? Map.of() : userMapper.selectBatchIds(peerIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<ConversationVO> items = new ArrayList<>(threads.size());
+        for (MessageThread thread : threads) {
+            items.add(toConversationVO(thread, currentUserId, peers.get(peerOf(thread, currentUserId))));
+        }
+
+        PageResult<ConversationVO> pageResult = PageResult.of(items, (long) items.size(), 1, pageSize);
+        if (hasMore) {
+            pageResult.setNextCursor(String.valueOf(threads.get(threads.size() - 1).getLastMessageId()));
+        }
+        return Result.success(pageResult);
+    }
+
+    /**
+     * 获取与指定用户的会话消息（按消息ID倒序的游标分页）
+     *
+     * @param cursor 上一页返回的游标，为空时从最新一条开始
+     */
+    public Result<PageResult<Message>> getThreadMessages(Long userId, String cursor, Integer pageSize) {
+        Long currentUserId = SecurityUtil.getCurrentUserId();
+
+        if (currentUserId == null) {
+            return Result.unauthorized();
+        }
+
+        Long before;
+        try {
+            before = parseCursor(cursor);
+        } catch (NumberFormatException e) {
+            return Result.error("无效的分页游标");
+        }
+
+        List<Message> messages = messageMapper.selectThreadMessages(
+                currentUserId, userId, before != null ? before : Long.MAX_VALUE, pageSize + 1);
+        boolean hasMore = messages.size() > pageSize;
+        if (hasMore) {
+            messages = messages.subList(0, pageSize);
+        }
+
+        PageResult<Message> pageResult = PageResult.of(messages, (long) messages.size(), 1, pageSize);
+        if (hasMore) {
+            pageResult.setNextCursor(String.valueOf(messages.get(messages.size() - 1).getId()));
+        }
+        return Result.success(pageResult);
+    }
+
     /**
      * 获取与指定用户的会话消息
      */
@@ -77,6 +181,12 @@ public class MessageService {
             return Result.error("接收者不存在");
         }
 
+        ContentFilterService.Verdict verdict = contentFilterService.check(
+                ContentFilterService.ContentKind.MESSAGE, currentUserId, request.getContent());
+        if (verdict.action() != ContentFilterService.Action.ALLOW) {
+            return Result.error(verdict.message());
+        }
+
         // 创建消息
         Message message = new Message();
         message.setSenderId(currentUserId);
@@ -85,6 +195,14 @@ public class MessageService {
         message.setIsRead(0);
 
         messageMapper.insert(message);
+        unreadCounterService.adjust(message.getReceiverId(), UnreadType.MESSAGES, 1);
+
+        long lowId = Math.min(currentUserId, message.getReceiverId());
+        long highId = Math.max(currentUserId, message.getReceiverId());
+        boolean receiverIsLow = message.getReceiverId() == lowId;
+        messageThreadMapper.upsertOnSend(lowId, highId, message.getId(), currentUserId,
+                preview(message.getContent()), sentAt(message),
+                receiverIsLow ? 1 : 0, receiverIsLow ? 0 : 1);
 
         return Result.success(message);
     }
@@ -99,9 +217,7 @@ public class MessageService {
             return Result.unauthorized();
         }
 
-        int count = messageMapper.countUnread(currentUserId);
-
-        return Result.success(count);
+        return Result.success(unreadCounterService.getUnread(currentUserId, UnreadType.MESSAGES));
     }
 
     /**
@@ -115,7 +231,11 @@ public class MessageService {
             return Result.unauthorized();
         }
 
-        messageMapper.markConversationAsRead(currentUserId, userId);
+        int updated = messageMapper.markConversationAsRead(currentUserId, userId);
+        unreadCounterService.adjust(currentUserId, UnreadType.MESSAGES, -updated);
+        if (updated > 0) {
+            decrementThreadUnread(currentUserId, userId, updated);
+        }
 
         return Result.success();
     }
@@ -143,9 +263,81 @@ public class MessageService {
         }
 
         // 逻辑删除
-        message.setDeleted(1);
-        messageMapper.updateById(message);
+        messageMapper.deleteById(id);
+        if (Integer.valueOf(0).equals(message.getIsRead())) {
+            unreadCounterService.adjust(message.getReceiverId(), UnreadType.MESSAGES, -1);
+            decrementThreadUnread(message.getReceiverId(), message.getSenderId(), 1);
+        }
+        refreshLastMessage(message);
 
         return Result.success();
     }
+
+    /**
+     * 减少 receiverId 一方在会话中的未读数
+     */
+    private void decrementThreadUnread(Long receiverId, Long peerId, int delta) {
+        long lowId = Math.min(receiverId, peerId);
+        long highId = Math.max(receiverId, peerId);
+        boolean receiverIsLow = receiverId == lowId;
+        messageThreadMapper.decrementUnread(lowId, highId, receiverIsLow ? delta : 0, receiverIsLow ? 0 : delta);
+    }
+
+    /**
+     * 删除的是会话最后一条消息时，改为剩余消息中最新的一条
+     */
+    private void refreshLastMessage(Message deleted) {
+        long lowId = Math.min(deleted.getSenderId(), deleted.getReceiverId());
+        long highId = Math.max(deleted.getSenderId(), deleted.getReceiverId());
+        MessageThread thread = messageThreadMapper.selectByPair(lowId, highId);
+        if (thread == null || !deleted.getId().equals(thread.getLastMessageId())) {
+            return;
+        }
+        List<Message> latest = messageMapper.selectThreadMessages(lowId, highId, Long.MAX_VALUE, 1);
+        Message last = latest.isEmpty() ? null : latest.get(0);
+        messageThreadMapper.replaceLastMessage(lowId, highId, deleted.getId(),
+                last != null ? last.getId() : null,
+                last != null ? last.getSenderId() : null,
+                last != null ? preview(last.getContent()) : null,
+                last != null ? last.getCreatedAt() : null);
+    }
+
+    private static ConversationVO toConversationVO(MessageThread thread, Long currentUserId, User peer) {
+        ConversationVO vo = new ConversationVO();
+        vo.setThreadId(thread.getId());
+        vo.setLastMessageId(thread.getLastMessageId());
+        vo.setLastSenderId(thread.getLastSenderId());
+        vo.setLastPreview(thread.getLastPreview());
+        vo.setLastMessageAt(thread.getLastMessageAt());
+        vo.setUnreadCount(currentUserId.equals(thread.getUserLowId())
+                ? thread.getLowUnread() : thread.getHighUnread());
+        if (peer != null) {
+            UserVO peerVO = new UserVO();
+            peerVO.setId(peer.getId());
+            peerVO.setUsername(peer.getUsername());
+            peerVO.setNickname(peer.getNickname());
+            peerVO.setAvatar(peer.getAvatar());
+            vo.setPeer(peerVO);
+        }
+        return vo;
+    }
+
+    private static Long peerOf(MessageThread thread, Long userId) {
+        return userId.equals(thread.getUserLowId()) ? thread.getUserHighId() : thread.getUserLowId();
+    }
+
+    private static String preview(String content) {
+        if (content == null || content.codePointCount(0, content.length()) <= PREVIEW_LENGTH) {
+            return content;
+        }
+        return content.substring(0, content.offsetByCodePoints(0, PREVIEW_LENGTH));
+    }
+
+    private static LocalDateTime sentAt(Message message) {
+        return message.getCreatedAt() != null ? message.getCreatedAt() : LocalDateTime.now();
+    }
+
+    private static Long parseCursor(String cursor) {
+        return cursor != null && !cursor.isEmpty() ? Long.valueOf(cursor) : null;
+    }
 }
@@ -7,15 +7,20 @@ import com.chainlesschain.community.entity.Notification;
 import com.chainlesschain.community.entity.User;
 import com.chainlesschain.community.mapper.NotificationMapper;
 import com.chainlesschain.community.mapper.UserMapper;
+import com.chainlesschain.community.notify.UnreadCounterService;
+import com.chainlesschain.community.notify.UnreadCounterService.UnreadType;
 import com.chainlesschain.community.util.SecurityUtil;
 import com.chainlesschain.community.vo.NotificationVO;
 import com.chainlesschain.community.vo.UserVO;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +35,25 @@ public class NotificationService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Value("${unread.mark-read-batch-size:500}")
+    private int markReadBatchSize;
+
+    /**
+     * 发送通知（在调用方事务内写入，提交后更新接收者未读数并推送）
+     */
+    public void send(Notification notification) {
+        if (notification.getIsRead() == null) {
+            notification.setIsRead(0);
+        }
+        notificationMapper.insert(notification);
+        if (notification.getIsRead() == 0) {
+            unreadCounterService.adjust(notification.getUserId(), UnreadType.NOTIFICATIONS, 1);
+        }
+    }
+
     /**
      * 分页查询通知列表
      */
@@ -62,9 +86,33 @@ public class NotificationService {
             return Result.unauthorized();
         }
 
-        int count = notificationMapper.countUnread(currentUserId);
+        return Result.success(unreadCounterService.getUnread(currentUserId, UnreadType.NOTIFICATIONS));
+    }
+
+    /**
+     * 获取通知与私信未读数
+     */
+    public Result<Map<String, Integer>> getUnreadCounts() {
+        Long currentUserId = SecurityUtil.getCurrentUserId();
+
+        if (currentUserId == null) {
+            return Result.unauthorized();
+        }
+
+        return Result.success(unreadCounterService.getUnreadCounts(currentUserId));
+    }
 
-        return Result.success(count);
+    /**
+     * 订阅未读数推送（SSE），未登录时返回 null
+     */
+    public SseEmitter subscribe() {
+        Long currentUserId = SecurityUtil.getCurrentUserId();
+
+        if (currentUserId == null) {
+            return null;
+        }
+
+        return unreadCounterService.subscribe(currentUserId);
     }
 
     /**
@@ -88,16 +136,18 @@ public class NotificationService {
             return Result.forbidden();
         }
 
-        notification.setIsRead(1);
-        notificationMapper.updateById(notification);
+        if (notificationMapper.markAsRead(id) > 0) {
+            unreadCounterService.adjust(currentUserId, UnreadType.NOTIFICATIONS, -1);
+        }
 
         return Result.success();
     }
 
     /**
      * 标记全部为已读
+     *
+     * 分批更新，每批单独提交，避免一次性锁住大量行
      */
-    @Transactional
     public Result<Void> markAllAsRead() {
         Long currentUserId = SecurityUtil.getCurrentUserId();
 
@@ -105,7 +155,11 @@ public class NotificationService {
             return Result.unauthorized();
         }
 
-        notificationMapper.markAllAsRead(currentUserId);
+        int updated;
+        do {
+            updated = notificationMapper.markUnreadBatchAsRead(currentUserId, markReadBatchSize);
+        } while (updated >= markReadBatchSize);
+        unreadCounterService.reset(currentUserId, UnreadType.NOTIFICATIONS);
 
         return Result.success();
     }
@@ -132,6 +186,9 @@ public class NotificationService {
         }
 
         notificationMapper.deleteById(id);
+        if (Integer.valueOf(0).equals(notification.getIsRead())) {
+            unreadCounterService.adjust(currentUserId, UnreadType.NOTIFICATIONS, -1);
+        }
 
         return Result.success();
     }
@@ -1,12 +1,22 @@
 package com.chainlesschain.community.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.chainlesschain.community.cache.ForumCacheService;
+import com.chainlesschain.community.cache.HotRankingService;
 import com.chainlesschain.community.common.PageResult;
 import com.chainlesschain.community.common.Result;
+import com.chainlesschain.community.counter.CounterService;
+import com.chainlesschain.community.counter.CounterType;
+import com.chainlesschain.community.draft.DraftService;
 import com.chainlesschain.community.dto.PostCreateRequest;
 import com.chainlesschain.community.dto.PostUpdateRequest;
 import com.chainlesschain.community.entity.*;
+import com.chainlesschain.community.feed.HotFeedService;
+import com.chainlesschain.community.feed.TimelineService;
 import com.chainlesschain.community.mapper.*;
+import com.chainlesschain.community.moderation.ContentFilterService;
+import com.chainlesschain.community.search.SearchIndexService;
+import com.chainlesschain.community.stats.DashboardStatsService;
 import com.chainlesschain.community.util.SecurityUtil;
 import com.chainlesschain.community.vo.PostListVO;
 import com.chainlesschain.community.vo.PostVO;
@@ -19,7 +29,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -37,9 +52,6 @@ public class PostService {
     @Autowired
     private CategoryMapper categoryMapper;
 
-    @Autowired
-    private TagMapper tagMapper;
-
     @Autowired
     private PostTagMapper postTagMapper;
 
@@ -49,11 +61,61 @@ public class PostService {
     @Autowired
     private FavoriteMapper favoriteMapper;
 
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private ViewHydrator viewHydrator;
+
+    @Autowired
+    private ForumCacheService forumCacheService;
+
+    @Autowired
+    private HotRankingService hotRankingService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private HotFeedService hotFeedService;
+
+    @Autowired
+    private TagResolver tagResolver;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private ContentFilterService contentFilterService;
+
+    @Autowired
+    private DraftService draftService;
+
     /**
      * 分页查询帖子列表
+     *
+     * sortBy=hot 时从内存热门列表读取，支持游标分页；其余按最新排序查库
      */
     public Result<PageResult<PostListVO>> getPosts(Integer page, Integer pageSize,
-                                                    Long categoryId, String sortBy) {
+                                                    Long categoryId, String sortBy, String cursor) {
+        if ("hot".equalsIgnoreCase(sortBy)) {
+            HotFeedService.FeedPage feedPage;
+            try {
+                feedPage = hotFeedService.page(categoryId, cursor, page, pageSize);
+            } catch (IllegalArgumentException e) {
+                return Result.error(e.getMessage());
+            }
+            if (feedPage != null) {
+                PageResult<PostListVO> pageResult = PageResult.of(
+                        convertToListVOs(loadPostsInOrder(feedPage.ids())), feedPage.total(), page, pageSize);
+                pageResult.setNextCursor(feedPage.nextCursor());
+                return Result.success(pageResult);
+            }
+        }
+
         Page<Post> pageParam = new Page<>(page, pageSize);
 
         // 根据分类查询
@@ -63,32 +125,55 @@ public class PostService {
             postMapper.selectPostsWithDetails(pageParam);
         }
 
-        List<PostListVO> voList = pageParam.getRecords().stream().map(this::convertToListVO).collect(Collectors.toList());
+        List<PostListVO> voList = convertToListVOs(pageParam.getRecords());
 
         PageResult<PostListVO> pageResult = PageResult.of(voList, pageParam.getTotal(), page, pageSize);
 
         return Result.success(pageResult);
     }
 
+    /**
+     * 关注时间线：我关注的用户发布的帖子，按发布倒序游标分页
+     */
+    public Result<PageResult<PostListVO>> getTimeline(String cursor, Integer pageSize) {
+        Long userId = SecurityUtil.getCurrentUserId();
+        if (userId == null) {
+            return Result.unauthorized();
+        }
+
+        Long before;
+        try {
+            before = cursor != null && !cursor.isEmpty() ? Long.valueOf(cursor) : null;
+        } catch (NumberFormatException e) {
+            return Result.error("无效的分页游标");
+        }
+
+        TimelineService.TimelinePage timelinePage = timelineService.page(userId, before, pageSize);
+        List<PostListVO> voList = convertToListVOs(loadPostsInOrder(timelinePage.ids()));
+        PageResult<PostListVO> pageResult = PageResult.of(voList, (long) voList.size(), 1, pageSize);
+        pageResult.setNextCursor(timelinePage.nextCursor());
+        return Result.success(pageResult);
+    }
+
     /**
      * 获取帖子详情
      */
     @Transactional
     public Result<PostVO> getPostById(Long id) {
-        Post post = postMapper.selectById(id);
+        Post post = forumCacheService.getPost(id);
 
         if (post == null || post.getDeleted() == 1) {
             return Result.notFound();
         }
 
         // 增加浏览数
-        postMapper.incrementViewsCount(id);
+        counterService.increment(CounterType.POST_VIEWS, id, 1);
 
         // 转换为VO
         PostVO postVO = convertToVO(post);
 
         // 查询标签
-        List<Tag> tags = tagMapper.findByPostId(id);
+        List<Tag> tags = forumCacheService.getPostTags(id);
         postVO.setTags(tags.stream().map(this::convertTagToVO).collect(Collectors.toList()));
 
         // 查询当前用户是否点赞和收藏
@@ -118,6 +203,13 @@ public class PostService {
             return Result.error("分类不存在");
         }
 
+        // 内容过滤：违规直接拒绝，疑似重复转人工审核
+        ContentFilterService.Verdict verdict = contentFilterService.check(
+                ContentFilterService.ContentKind.POST, currentUserId, request.getTitle(), request.getContent());
+        if (verdict.rejected()) {
+            return Result.error(verdict.message());
+        }
+
         // 创建帖子
         Post post = new Post();
         post.setUserId(currentUserId);
@@ -125,21 +217,26 @@ public class PostService {
         post.setContent(request.getContent());
         post.setCategoryId(request.getCategoryId());
         post.setType(request.getType() != null ? request.getType() : "DISCUSSION");
-        post.setStatus("PUBLISHED");
+        post.setStatus(verdict.needsReview() ? "PENDING" : "PUBLISHED");
         post.setPublishedAt(LocalDateTime.now());
 
         postMapper.insert(post);
+        searchIndexService.enqueuePost(post.getId());
+        hotFeedService.upsertPost(post);
+        timelineService.postPublished(post);
+        dashboardStatsService.postCreated(post.getStatus());
+        draftService.published(currentUserId, request.getDraftId());
 
         // 处理标签
         if (request.getTags() != null && !request.getTags().isEmpty()) {
-            handlePostTags(post.getId(), request.getTags());
+            addPostTags(post.getId(), tagResolver.resolve(request.getTags()));
         }
 
         // 更新用户帖子数
-        userMapper.incrementPostsCount(currentUserId, 1);
+        counterService.increment(CounterType.USER_POSTS, currentUserId, 1);
 
         // 更新分类帖子数
-        categoryMapper.incrementPostsCount(request.getCategoryId(), 1);
+        counterService.increment(CounterType.CATEGORY_POSTS, request.getCategoryId(), 1);
 
         return Result.success(convertToVO(post));
     }
@@ -166,6 +263,11 @@ public class PostService {
             return Result.forbidden();
         }
 
+        ContentFilterService.Verdict verdict = contentFilterService.checkWords(request.getTitle(), request.getContent());
+        if (verdict.rejected()) {
+            return Result.error(verdict.message());
+        }
+
         // 更新字段
         if (request.getTitle() != null) {
             post.setTitle(request.getTitle());
@@ -184,9 +286,12 @@ public class PostService {
 
         // 更新标签
         if (request.getTags() != null) {
-            postTagMapper.deleteByPostId(id);
-            handlePostTags(id, request.getTags());
+            replacePostTags(id, request.getTags());
         }
+        forumCacheService.evictPost(id);
+        searchIndexService.enqueuePost(id);
+        hotFeedService.upsertPost(post);
+        draftService.postUpdated(currentUserId, id);
 
         return Result.success(convertToVO(post));
     }
@@ -214,14 +319,18 @@ public class PostService {
         }
 
         // 逻辑删除
-        post.setDeleted(1);
-        postMapper.updateById(post);
+        dashboardStatsService.postRemoved(post.getStatus());
+        postMapper.deleteById(id);
+        forumCacheService.evictPost(id);
+        searchIndexService.enqueuePost(id);
+        hotRankingService.removePost(id);
+        hotFeedService.removePost(id);
 
         // 更新用户帖子数
-        userMapper.incrementPostsCount(post.getUserId(), -1);
+        counterService.increment(CounterType.USER_POSTS, post.getUserId(), -1);
 
         // 更新分类帖子数
-        categoryMapper.incrementPostsCount(post.getCategoryId(), -1);
+        counterService.increment(CounterType.CATEGORY_POSTS, post.getCategoryId(), -1);
 
         return Result.success();
     }
@@ -255,7 +364,7 @@ public class PostService {
         likeMapper.insert(like);
 
         // 更新帖子点赞数
-        postMapper.incrementLikesCount(id, 1);
+        counterService.increment(CounterType.POST_LIKES, id, 1);
 
         return Result.success();
     }
@@ -276,7 +385,7 @@ public class PostService {
 
         if (deleted > 0) {
             // 更新帖子点赞数
-            postMapper.incrementLikesCount(id, -1);
+            counterService.increment(CounterType.POST_LIKES, id, -1);
         }
 
         return Result.success();
@@ -310,7 +419,7 @@ public class PostService {
         favoriteMapper.insert(favorite);
 
         // 更新帖子收藏数
-        postMapper.incrementFavoritesCount(id, 1);
+        counterService.increment(CounterType.POST_FAVORITES, id, 1);
 
         return Result.success();
     }
@@ -331,46 +440,50 @@ public class PostService {
 
         if (deleted > 0) {
             // 更新帖子收藏数
-            postMapper.incrementFavoritesCount(id, -1);
+            counterService.increment(CounterType.POST_FAVORITES, id, -1);
         }
 
         return Result.success();
     }
 
     /**
-     * 处理帖子标签
+     * 关联标签：一条多行插入，标签帖子数合并累加
      */
-    private void handlePostTags(Long postId, List<String> tagNames) {
-        for (String tagName : tagNames) {
-            // 查找或创建标签
-            Tag tag = tagMapper.findByName(tagName);
-            if (tag == null) {
-                tag = new Tag();
-                tag.setName(tagName);
-                tag.setSlug(tagName.toLowerCase().replace(" ", "-"));
-                tagMapper.insert(tag);
-            }
+    private void addPostTags(Long postId, List<Long> tagIds) {
+        if (tagIds.isEmpty()) {
+            return;
+        }
+        postTagMapper.insertBatch(postId, tagIds);
+        counterService.incrementAll(CounterType.TAG_POSTS, tagIds, 1);
+    }
+
+    /**
+     * 按集合差异更新标签：只删除移除的关联、只插入新增的关联，并相应调整标签帖子数
+     */
+    private void replacePostTags(Long postId, List<String> tagNames) {
+        Set<Long> target = new LinkedHashSet<>(tagResolver.resolve(tagNames));
+        Set<Long> current = new LinkedHashSet<>(postTagMapper.selectTagIdsByPostId(postId));
 
-            // 创建关联
-            PostTag postTag = new PostTag();
-            postTag.setPostId(postId);
-            postTag.setTagId(tag.getId());
-            postTagMapper.insert(postTag);
+        List<Long> removed = current.stream().filter(tagId -> !target.contains(tagId)).collect(Collectors.toList());
+        List<Long> added = target.stream().filter(tagId -> !current.contains(tagId)).collect(Collectors.toList());
 
-            // 更新标签帖子数
-            tagMapper.incrementPostsCount(tag.getId(), 1);
+        if (!removed.isEmpty()) {
+            postTagMapper.deleteByPostIdAndTagIds(postId, removed);
+            counterService.incrementAll(CounterType.TAG_POSTS, removed, -1);
         }
+        addPostTags(postId, added);
     }
 
     /**
      * 转换为PostVO
      */
     private PostVO convertToVO(Post post) {
+        counterService.overlay(post);
         PostVO vo = new PostVO();
         BeanUtils.copyProperties(post, vo);
 
         // 查询用户信息
-        User user = userMapper.selectById(post.getUserId());
+        User user = counterService.overlay(forumCacheService.getUser(post.getUserId()));
         if (user != null) {
             UserVO userVO = new UserVO();
             BeanUtils.copyProperties(user, userVO);
@@ -378,7 +491,7 @@ public class PostService {
         }
 
         // 查询分类信息
-        Category category = categoryMapper.selectById(post.getCategoryId());
+        Category category = forumCacheService.getCategory(post.getCategoryId());
         if (category != null) {
             vo.setCategory(convertCategoryToVO(category));
         }
@@ -387,34 +500,53 @@ public class PostService {
     }
 
     /**
-     * 转换为PostListVO（精简版）
+     * 按给定ID顺序读取帖子，跳过已删除或未发布的
      */
-    private PostListVO convertToListVO(Post post) {
-        PostListVO vo = new PostListVO();
-        BeanUtils.copyProperties(post, vo);
+    private List<Post> loadPostsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Post> posts = postMapper.selectBatchIds(ids).stream()
+                .filter(post -> "PUBLISHED".equals(post.getStatus()))
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        return ids.stream().map(posts::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
 
-        // 查询并设置用户信息
-        User user = userMapper.selectById(post.getUserId());
-        if (user != null) {
-            vo.setUserId(user.getId());
-            vo.setUserNickname(user.getNickname());
-            vo.setUserAvatar(user.getAvatar());
-        }
+    private List<PostListVO> convertToListVOs(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, User> users = viewHydrator.loadUsers(posts.stream().map(Post::getUserId).collect(Collectors.toList()));
+        Map<Long, Category> categories = viewHydrator.loadCategories(
+                posts.stream().map(Post::getCategoryId).collect(Collectors.toList()));
+        Map<Long, List<Tag>> tagsByPost = viewHydrator.loadTagsByPostIds(
+                posts.stream().map(Post::getId).collect(Collectors.toList()));
+
+        List<PostListVO> voList = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            PostListVO vo = new PostListVO();
+            BeanUtils.copyProperties(counterService.overlay(post), vo);
+
+            User user = users.get(post.getUserId());
+            if (user != null) {
+                vo.setUserId(user.getId());
+                vo.setUserNickname(user.getNickname());
+                vo.setUserAvatar(user.getAvatar());
+            }
 
-        // 查询并设置分类信息
-        Category category = categoryMapper.selectById(post.getCategoryId());
-        if (category != null) {
-            vo.setCategoryName(category.getName());
-            vo.setCategorySlug(category.getSlug());
-        }
+            Category category = categories.get(post.getCategoryId());
+            if (category != null) {
+                vo.setCategoryName(category.getName());
+                vo.setCategorySlug(category.getSlug());
+            }
 
-        // 查询并设置标签信息
-        List<Tag> tags = tagMapper.findByPostId(post.getId());
-        if (tags != null && !tags.isEmpty()) {
-            vo.setTagNames(tags.stream().map(Tag::getName).collect(Collectors.toList()));
+            List<Tag> tags = tagsByPost.get(post.getId());
+            if (tags != null && !tags.isEmpty()) {
+                vo.setTagNames(tags.stream().map(Tag::getName).collect(Collectors.toList()));
+            }
+            voList.add(vo);
         }
-
-        return vo;
+        return voList;
     }
 
     /**
@@ -422,7 +554,7 @@ public class PostService {
      */
     private com.chainlesschain.community.vo.CategoryVO convertCategoryToVO(Category category) {
         com.chainlesschain.community.vo.CategoryVO vo = new com.chainlesschain.community.vo.CategoryVO();
-        BeanUtils.copyProperties(category, vo);
+        BeanUtils.copyProperties(counterService.overlay(category), vo);
         return vo;
     }
 
@@ -431,7 +563,7 @@ public class PostService {
      */
     private TagVO convertTagToVO(Tag tag) {
         TagVO vo = new TagVO();
-        BeanUtils.copyProperties(tag, vo);
+        BeanUtils.copyProperties(counterService.overlay(tag), vo);
         return vo;
     }
 }
@@ -1,24 +1,40 @@
 package com.chainlesschain.community.service;
 
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.chainlesschain.community.cache.ForumCacheService;
 import com.chainlesschain.community.common.PageResult;
 import com.chainlesschain.community.common.Result;
+import com.chainlesschain.community.counter.CounterService;
+import com.chainlesschain.community.counter.CounterType;
 import com.chainlesschain.community.dto.ReplyCreateRequest;
 import com.chainlesschain.community.entity.*;
 import com.chainlesschain.community.mapper.*;
+import com.chainlesschain.community.moderation.ContentFilterService;
 import com.chainlesschain.community.util.SecurityUtil;
 import com.chainlesschain.community.vo.ReplyVO;
 import com.chainlesschain.community.vo.UserVO;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * 回复服务
+ *
+ * 回复列表只分页顶层回复，游标为 (created_at, id)，先在覆盖索引上取出一页ID再批量回表；
+ * 子回复按父回复分组，列表中只带子回复数和最早几条，其余通过子回复接口按同样的游标展开。
  */
 @Service
 public class ReplyService {
@@ -36,31 +52,142 @@ public class ReplyService {
     private LikeMapper likeMapper;
 
     @Autowired
-    private NotificationMapper notificationMapper;
+    private NotificationService notificationService;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private ViewHydrator viewHydrator;
+
+    @Autowired
+    private ForumCacheService forumCacheService;
+
+    @Autowired
+    private ContentFilterService contentFilterService;
 
     /**
-     * 分页查询帖子的回复列表
+     * 每条顶层回复随列表返回的子回复条数，其余通过子回复接口展开
      */
-    public Result<PageResult<ReplyVO>> getRepliesByPostId(Long postId, Integer page, Integer pageSize) {
+    @Value("${system.reply-children-preview:3}")
+    private int childrenPreview;
+
+    private static final int MAX_LOCATE_DEPTH = 32;
+
+    /**
+     * 查询帖子的顶层回复（按 (created_at, id) 游标分页），每条附带子回复数和最早的几条子回复
+     *
+     * 第一页置顶最佳答案（若为顶层回复），其余页不再重复出现。total 为帖子回复总数（含子回复）。
+     *
+     * @param cursor 上一页返回的游标；为空时按 page 跳过前面的记录
+     */
+    public Result<PageResult<ReplyVO>> getRepliesByPostId(Long postId, String cursor, Integer page, Integer pageSize) {
         // 验证帖子是否存在
-        Post post = postMapper.selectById(postId);
+        Post post = forumCacheService.getPost(postId);
         if (post == null || post.getDeleted() == 1) {
             return Result.notFound();
         }
 
-        Page<Reply> pageParam = new Page<>(page, pageSize);
-        replyMapper.selectRepliesByPostId(pageParam, postId);
+        ReplyCursor after;
+        try {
+            after = ReplyCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        }
 
-        List<ReplyVO> voList = pageParam.getRecords().stream().map(reply -> {
-            ReplyVO vo = convertToVO(reply);
-            // 查询子回复
-            List<Reply> children = replyMapper.selectChildReplies(reply.getId());
-            vo.setChildren(children.stream().map(this::convertToVO).collect(Collectors.toList()));
-            return vo;
-        }).collect(Collectors.toList());
+        Long bestId = post.getBestReplyId();
+        long offset = after == null ? (long) Math.max(0, page - 1) * pageSize : 0;
+        List<Reply> keys = replyMapper.selectRootKeys(postId, bestId,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null, offset, pageSize + 1);
 
-        PageResult<ReplyVO> pageResult = PageResult.of(voList, pageParam.getTotal(), page, pageSize);
+        Reply pinned = null;
+        if (after == null && page <= 1 && bestId != null) {
+            Reply best = replyMapper.selectById(bestId);
+            if (best != null && best.getParentId() == null && postId.equals(best.getPostId())) {
+                pinned = best;
+            }
+        }
 
+        PageResult<ReplyVO> pageResult = buildRootPage(pinned, keys, null, post, page, pageSize);
+        return Result.success(pageResult);
+    }
+
+    /**
+     * 按 (created_at, id) 游标分页查询某条回复的子回复（展开更多）
+     */
+    public Result<PageResult<ReplyVO>> getChildReplies(Long parentId, String cursor, Integer pageSize) {
+        Reply parent = replyMapper.selectById(parentId);
+        if (parent == null || parent.getDeleted() == 1) {
+            return Result.notFound();
+        }
+
+        ReplyCursor after;
+        try {
+            after = ReplyCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return Result.error(e.getMessage());
+        }
+
+        List<Reply> keys = replyMapper.selectChildKeys(parentId,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null, pageSize + 1);
+        boolean hasMore = keys.size() > pageSize;
+        if (hasMore) {
+            keys = keys.subList(0, pageSize);
+        }
+
+        List<Reply> children = loadInOrder(ids(keys));
+        Map<Long, Long> childCounts = countChildren(ids(children));
+        Hydration hydration = hydrate(children);
+        List<ReplyVO> voList = children.stream()
+                .map(child -> convertToVO(child, hydration, childCounts))
+                .collect(Collectors.toList());
+
+        long total = countChildren(List.of(parentId)).getOrDefault(parentId, 0L);
+        PageResult<ReplyVO> pageResult = PageResult.of(voList, total, 1, pageSize);
+        if (hasMore) {
+            pageResult.setNextCursor(ReplyCursor.of(keys.get(keys.size() - 1)).encode());
+        }
+        return Result.success(pageResult);
+    }
+
+    /**
+     * 定位回复：返回以其所属顶层回复为起点的一页，page 为该顶层回复按页码分页时所在的页
+     *
+     * 目标是子回复且不在预览中时，附加到所属顶层回复的子回复列表末尾。
+     */
+    public Result<PageResult<ReplyVO>> locateReply(Long postId, Long replyId, Integer pageSize) {
+        Post post = forumCacheService.getPost(postId);
+        if (post == null || post.getDeleted() == 1) {
+            return Result.notFound();
+        }
+
+        Reply target = replyMapper.selectById(replyId);
+        if (target == null || target.getDeleted() == 1 || !postId.equals(target.getPostId())) {
+            return Result.notFound();
+        }
+
+        Reply root = target;
+        for (int depth = 0; root.getParentId() != null && depth < MAX_LOCATE_DEPTH; depth++) {
+            Reply parent = replyMapper.selectById(root.getParentId());
+            if (parent == null || parent.getDeleted() == 1) {
+                return Result.notFound();
+            }
+            root = parent;
+        }
+
+        Long bestId = post.getBestReplyId();
+        if (root.getId().equals(bestId)) {
+            // 最佳答案置顶在第一页
+            return getRepliesByPostId(postId, null, 1, pageSize);
+        }
+
+        long before = replyMapper.countRootsBefore(postId, bestId, root.getCreatedAt(), root.getId());
+        List<Reply> keys = new ArrayList<>(pageSize + 1);
+        keys.add(root);
+        keys.addAll(replyMapper.selectRootKeys(postId, bestId, root.getCreatedAt(), root.getId(), 0, pageSize));
+
+        int page = (int) (before / pageSize) + 1;
+        PageResult<ReplyVO> pageResult = buildRootPage(null, keys, target != root ? target : null, post, page, pageSize);
         return Result.success(pageResult);
     }
 
@@ -89,6 +216,12 @@ public class ReplyService {
             }
         }
 
+        ContentFilterService.Verdict verdict = contentFilterService.check(
+                ContentFilterService.ContentKind.REPLY, currentUserId, request.getContent());
+        if (verdict.action() != ContentFilterService.Action.ALLOW) {
+            return Result.error(verdict.message());
+        }
+
         // 创建回复
         Reply reply = new Reply();
         reply.setPostId(request.getPostId());
@@ -101,11 +234,12 @@ public class ReplyService {
         replyMapper.insert(reply);
 
         // 更新帖子回复数和最后回复信息
-        postMapper.incrementRepliesCount(request.getPostId(), 1);
+        counterService.increment(CounterType.POST_REPLIES, request.getPostId(), 1);
         postMapper.updateLastReply(request.getPostId(), currentUserId);
+        forumCacheService.evictPost(request.getPostId());
 
         // 更新用户回复数
-        userMapper.incrementRepliesCount(currentUserId, 1);
+        counterService.increment(CounterType.USER_REPLIES, currentUserId, 1);
 
         // 创建通知（通知帖子作者）
         if (!post.getUserId().equals(currentUserId)) {
@@ -138,14 +272,13 @@ public class ReplyService {
         }
 
         // 逻辑删除
-        reply.setDeleted(1);
-        replyMapper.updateById(reply);
+        replyMapper.deleteById(id);
 
         // 更新帖子回复数
-        postMapper.incrementRepliesCount(reply.getPostId(), -1);
+        counterService.increment(CounterType.POST_REPLIES, reply.getPostId(), -1);
 
         // 更新用户回复数
-        userMapper.incrementRepliesCount(reply.getUserId(), -1);
+        counterService.increment(CounterType.USER_REPLIES, reply.getUserId(), -1);
 
         return Result.success();
     }
@@ -179,7 +312,7 @@ public class ReplyService {
         likeMapper.insert(like);
 
         // 更新回复点赞数
-        replyMapper.incrementLikesCount(id, 1);
+        counterService.increment(CounterType.REPLY_LIKES, id, 1);
 
         return Result.success();
     }
@@ -200,7 +333,7 @@ public class ReplyService {
 
         if (deleted > 0) {
             // 更新回复点赞数
-            replyMapper.incrementLikesCount(id, -1);
+            counterService.increment(CounterType.REPLY_LIKES, id, -1);
         }
 
         return Result.success();
@@ -242,6 +375,7 @@ public class ReplyService {
 
         // 更新帖子的最佳答案ID
         postMapper.setBestReply(postId, replyId);
+        forumCacheService.evictPost(postId);
 
         return Result.success();
     }
@@ -259,27 +393,151 @@ public class ReplyService {
         notification.setLink("/posts/" + post.getId());
         notification.setIsRead(0);
 
-        notificationMapper.insert(notification);
+        notificationService.send(notification);
+    }
+
+    /**
+     * 组装一页顶层回复：回复、子回复预览各一次批量查询，子回复数一次分组查询
+     *
+     * @param keys   顶层回复（至少包含 id、created_at），多取一条用于判断是否还有下一页
+     * @param target 需要确保出现在所属顶层回复子回复列表中的回复，可为 null
+     */
+    private PageResult<ReplyVO> buildRootPage(Reply pinned, List<Reply> keys, Reply target,
+                                              Post post, int page, int pageSize) {
+        boolean hasMore = keys.size() > pageSize;
+        if (hasMore) {
+            keys = keys.subList(0, pageSize);
+        }
+
+        List<Long> rootIds = new ArrayList<>();
+        if (pinned != null) {
+            rootIds.add(pinned.getId());
+        }
+        rootIds.addAll(ids(keys));
+
+        List<Reply> previewKeys = rootIds.isEmpty()
+                ? List.of() : replyMapper.selectChildPreviewKeys(rootIds, childrenPreview);
+        List<Long> loadIds = new ArrayList<>(rootIds);
+        loadIds.addAll(ids(previewKeys));
+        if (target != null && !loadIds.contains(target.getId())) {
+            loadIds.add(target.getId());
+        }
+        Map<Long, Reply> loaded = loadInOrder(loadIds).stream()
+                .collect(Collectors.toMap(Reply::getId, Function.identity()));
+
+        Map<Long, List<Reply>> childrenByParent = new HashMap<>();
+        for (Reply key : previewKeys) {
+            Reply child = loaded.get(key.getId());
+            if (child != null) {
+                childrenByParent.computeIfAbsent(child.getParentId(), k -> new ArrayList<>()).add(child);
+            }
+        }
+        if (target != null && loaded.containsKey(target.getId()) && !ids(previewKeys).contains(target.getId())) {
+            // 目标所在的顶层回复是本页第一条
+            childrenByParent.computeIfAbsent(rootIds.get(0), k -> new ArrayList<>()).add(loaded.get(target.getId()));
+        }
+
+        List<Long> counted = new ArrayList<>(rootIds);
+        childrenByParent.values().forEach(children -> children.forEach(child -> counted.add(child.getId())));
+        Map<Long, Long> childCounts = countChildren(counted);
+        Hydration hydration = hydrate(new ArrayList<>(loaded.values()));
+
+        List<ReplyVO> voList = new ArrayList<>(rootIds.size());
+        for (Long rootId : rootIds) {
+            Reply reply = loaded.get(rootId);
+            if (reply == null) {
+                continue;
+            }
+            ReplyVO vo = convertToVO(reply, hydration, childCounts);
+            vo.setChildren(childrenByParent.getOrDefault(rootId, List.of()).stream()
+                    .map(child -> convertToVO(child, hydration, childCounts))
+                    .collect(Collectors.toList()));
+            voList.add(vo);
+        }
+
+        Integer repliesCount = counterService.overlay(post).getRepliesCount();
+        PageResult<ReplyVO> pageResult = PageResult.of(voList,
+                repliesCount != null ? repliesCount.longValue() : 0L, page, pageSize);
+        if (hasMore) {
+            pageResult.setNextCursor(ReplyCursor.of(keys.get(keys.size() - 1)).encode());
+        }
+        return pageResult;
+    }
+
+    /**
+     * 按给定顺序批量读取回复（已删除的跳过）
+     */
+    private List<Reply> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Reply> byId = replyMapper.selectBatchIds(ids).stream()
+                .collect(Collectors.toMap(Reply::getId, Function.identity()));
+        List<Reply> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Reply reply = byId.get(id);
+            if (reply != null) {
+                ordered.add(reply);
+            }
+        }
+        return ordered;
+    }
+
+    private Map<Long, Long> countChildren(List<Long> parentIds) {
+        if (parentIds.isEmpty()) {
+            return Map.of();
+        }
+        return replyMapper.countChildren(parentIds).stream()
+                .collect(Collectors.toMap(ReplyMapper.ChildCount::getParentId, ReplyMapper.ChildCount::getChildCount));
+    }
+
+    private static List<Long> ids(List<Reply> replies) {
+        return replies.stream().map(Reply::getId).collect(Collectors.toList());
     }
 
     /**
      * 转换为ReplyVO
      */
     private ReplyVO convertToVO(Reply reply) {
+        return convertToVO(reply, hydrate(List.of(reply)));
+    }
+
+    private ReplyVO convertToVO(Reply reply, Hydration hydration, Map<Long, Long> childCounts) {
+        ReplyVO vo = convertToVO(reply, hydration);
+        vo.setChildCount(childCounts.getOrDefault(reply.getId(), 0L).intValue());
+        return vo;
+    }
+
+    /**
+     * 批量查询回复关联的用户与当前用户点赞状态
+     */
+    private Hydration hydrate(List<Reply> replies) {
+        List<Long> userIds = new ArrayList<>();
+        for (Reply reply : replies) {
+            userIds.add(reply.getUserId());
+            userIds.add(reply.getReplyToUserId());
+        }
+        Long currentUserId = SecurityUtil.getCurrentUserId();
+        Set<Long> liked = viewHydrator.loadLikedTargetIds(currentUserId, "REPLY",
+                replies.stream().map(Reply::getId).collect(Collectors.toList()));
+        return new Hydration(viewHydrator.loadUsers(userIds), liked, currentUserId != null);
+    }
+
+    private ReplyVO convertToVO(Reply reply, Hydration hydration) {
         ReplyVO vo = new ReplyVO();
-        BeanUtils.copyProperties(reply, vo);
+        BeanUtils.copyProperties(counterService.overlay(reply), vo);
 
-        // 查询用户信息
-        User user = userMapper.selectById(reply.getUserId());
+        // 回复者信息
+        User user = hydration.users().get(reply.getUserId());
         if (user != null) {
             UserVO userVO = new UserVO();
             BeanUtils.copyProperties(user, userVO);
             vo.setUser(userVO);
         }
 
-        // 查询被回复者信息
+        // 被回复者信息
         if (reply.getReplyToUserId() != null) {
-            User replyToUser = userMapper.selectById(reply.getReplyToUserId());
+            User replyToUser = hydration.users().get(reply.getReplyToUserId());
             if (replyToUser != null) {
                 UserVO replyToUserVO = new UserVO();
                 BeanUtils.copyProperties(replyToUser, replyToUserVO);
@@ -287,12 +545,51 @@ public class ReplyService {
             }
         }
 
-        // 查询当前用户是否点赞
-        Long currentUserId = SecurityUtil.getCurrentUserId();
-        if (currentUserId != null) {
-            vo.setLiked(likeMapper.checkUserLiked(currentUserId, "REPLY", reply.getId()) > 0);
+        // 当前用户是否点赞
+        if (hydration.loggedIn()) {
+            vo.setLiked(hydration.likedReplyIds().contains(reply.getId()));
         }
 
         return vo;
     }
+
+    /**
+     * 一页回复的批量查询结果
+     */
+    private record Hydration(Map<Long, User> users, Set<Long> likedReplyIds, boolean loggedIn) {
+    }
+
+    /**
+     * 回复分页游标：上一页最后一条的 (created_at, id)
+     */
+    private record ReplyCursor(LocalDateTime createdAt, Long id) {
+
+        static ReplyCursor of(Reply reply) {
+            return new ReplyCursor(reply.getCreatedAt(), reply.getId());
+        }
+
+        String encode() {
+            String raw = id + "|" + createdAt;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @throws IllegalArgumentException 游标格式错误
+         */
+        static ReplyCursor decode(String cursor) {
+            if (cursor == null || cursor.isEmpty()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("无效的分页游标");
+                }
+                return new ReplyCursor(LocalDateTime.parse(parts[1]), Long.valueOf(parts[0]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("无效的分页游标", e);
+            }
+        }
+    }
 }
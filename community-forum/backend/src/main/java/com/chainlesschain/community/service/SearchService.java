@@ -2,35 +2,61 @@ package com.chainlesschain.community.service;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.chainlesschain.community.cache.ForumCacheService;
+import com.chainlesschain.community.cache.HotRankingService;
 import com.chainlesschain.community.common.PageResult;
 import com.chainlesschain.community.common.Result;
 import com.chainlesschain.community.entity.Post;
 import com.chainlesschain.community.entity.User;
 import com.chainlesschain.community.mapper.PostMapper;
 import com.chainlesschain.community.mapper.UserMapper;
+import com.chainlesschain.community.search.SearchHits;
+import com.chainlesschain.community.search.SearchIndexService;
 import com.chainlesschain.community.vo.PostListVO;
 import com.chainlesschain.community.vo.UserVO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * 搜索服务
+ *
+ * 已配置搜索引擎时通过全文索引检索（按相关度与热度排序），命中的ID回表读取实体；
+ * 未配置或索引不可用时退回数据库 LIKE 查询。
  */
 @Service
 public class SearchService {
 
+    private static final Logger logger = LoggerFactory.getLogger(SearchService.class);
+
+    private static final int HOT_SEARCH_SIZE = 10;
+    private static final int SUGGESTION_SIZE = 10;
+
     @Autowired
     private PostMapper postMapper;
 
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private ForumCacheService forumCacheService;
+
+    @Autowired
+    private HotRankingService hotRankingService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
     /**
      * 全局搜索
      */
@@ -39,6 +65,8 @@ public class SearchService {
             return Result.error("搜索关键词不能为空");
         }
 
+        hotRankingService.recordSearch(keyword);
+
         Map<String, Object> resultMap = new HashMap<>();
 
         // 搜索帖子（最多5条）
@@ -60,6 +88,17 @@ public class SearchService {
             return Result.error("搜索关键词不能为空");
         }
 
+        hotRankingService.recordSearch(keyword);
+
+        SearchHits hits = searchIndex(() -> searchIndexService.getEngine()
+                .searchPosts(keyword.trim(), categoryId, page, pageSize));
+        if (hits != null) {
+            List<PostListVO> voList = loadPosts(hits.ids()).stream()
+                    .map(this::convertPostToListVO)
+                    .collect(Collectors.toList());
+            return Result.success(PageResult.of(voList, hits.total(), page, pageSize));
+        }
+
         QueryWrapper<Post> wrapper = new QueryWrapper<>();
         wrapper.eq("deleted", 0)
                 .eq("status", "PUBLISHED")
@@ -91,6 +130,15 @@ public class SearchService {
             return Result.error("搜索关键词不能为空");
         }
 
+        SearchHits hits = searchIndex(() -> searchIndexService.getEngine()
+                .searchUsers(keyword.trim(), page, pageSize));
+        if (hits != null) {
+            List<UserVO> voList = loadUsers(hits.ids()).stream()
+                    .map(this::convertUserToVO)
+                    .collect(Collectors.toList());
+            return Result.success(PageResult.of(voList, hits.total(), page, pageSize));
+        }
+
         QueryWrapper<User> wrapper = new QueryWrapper<>();
         wrapper.eq("deleted", 0)
                 .and(w -> w.like("nickname", keyword).or().like("username", keyword))
@@ -112,24 +160,26 @@ public class SearchService {
      * 获取热门搜索
      */
     public Result<List<String>> getHotSearches() {
-        // 基于热门帖子标题生成热搜关键词（无Redis，使用DB查询）
-        QueryWrapper<Post> wrapper = new QueryWrapper<>();
-        wrapper.select("title")
-                .eq("deleted", 0)
-                .eq("status", "PUBLISHED")
-                .orderByDesc("views_count")
-                .last("LIMIT 10");
-
-        List<Post> hotPosts = postMapper.selectList(wrapper);
-        List<String> hotSearches = new java.util.ArrayList<>(hotPosts.stream()
-                .map(Post::getTitle)
-                .collect(Collectors.toList()));
+        // 优先取热搜关键词排行，不足时用热帖标题补充
+        List<String> hotSearches = new ArrayList<>(hotRankingService.topSearches(HOT_SEARCH_SIZE));
+        if (hotSearches.size() < HOT_SEARCH_SIZE) {
+            for (Long postId : hotRankingService.topPostIds(HOT_SEARCH_SIZE * 2)) {
+                Post post = forumCacheService.getPost(postId);
+                if (post == null || !"PUBLISHED".equals(post.getStatus()) || hotSearches.contains(post.getTitle())) {
+                    continue;
+                }
+                hotSearches.add(post.getTitle());
+                if (hotSearches.size() >= HOT_SEARCH_SIZE) {
+                    break;
+                }
+            }
+        }
 
         // 如果热帖不足，补充默认关键词
         if (hotSearches.size() < 5) {
             List<String> defaults = List.of("ChainlessChain", "区块链", "AI", "去中心化", "U盾");
             for (String d : defaults) {
-                if (!hotSearches.contains(d) && hotSearches.size() < 10) {
+                if (!hotSearches.contains(d) && hotSearches.size() < HOT_SEARCH_SIZE) {
                     hotSearches.add(d);
                 }
             }
@@ -146,13 +196,19 @@ public class SearchService {
             return Result.success(List.of());
         }
 
+        List<String> indexed = searchIndex(() -> searchIndexService.getEngine()
+                .suggestTitles(keyword, SUGGESTION_SIZE));
+        if (indexed != null) {
+            return Result.success(indexed);
+        }
+
         // 搜索帖子标题（最多10条）
         QueryWrapper<Post> wrapper = new QueryWrapper<>();
         wrapper.select("DISTINCT title")
                 .eq("deleted", 0)
                 .eq("status", "PUBLISHED")
                 .like("title", keyword)
-                .last("LIMIT 10");
+                .last("LIMIT " + SUGGESTION_SIZE);
 
         List<Post> posts = postMapper.selectList(wrapper);
         List<String> suggestions = posts.stream()
@@ -166,6 +222,12 @@ public class SearchService {
      * 内部方法：搜索帖子
      */
     private List<Post> searchPostsInternal(String keyword, Integer page, Integer pageSize) {
+        SearchHits hits = searchIndex(() -> searchIndexService.getEngine()
+                .searchPosts(keyword.trim(), null, page, pageSize));
+        if (hits != null) {
+            return loadPosts(hits.ids());
+        }
+
         QueryWrapper<Post> wrapper = new QueryWrapper<>();
         wrapper.eq("deleted", 0)
                 .eq("status", "PUBLISHED")
@@ -180,6 +242,12 @@ public class SearchService {
      * 内部方法：搜索用户
      */
     private List<User> searchUsersInternal(String keyword, Integer page, Integer pageSize) {
+        SearchHits hits = searchIndex(() -> searchIndexService.getEngine()
+                .searchUsers(keyword.trim(), page, pageSize));
+        if (hits != null) {
+            return loadUsers(hits.ids());
+        }
+
         QueryWrapper<User> wrapper = new QueryWrapper<>();
         wrapper.eq("deleted", 0)
                 .and(w -> w.like("nickname", keyword).or().like("username", keyword))
@@ -189,6 +257,43 @@ public class SearchService {
         return userMapper.selectList(wrapper);
     }
 
+    /**
+     * 查询搜索引擎；未启用或查询失败时返回 null，由调用方退回数据库查询
+     */
+    private <T> T searchIndex(IndexQuery<T> query) {
+        if (!searchIndexService.isEnabled()) {
+            return null;
+        }
+        try {
+            return query.run();
+        } catch (Exception e) {
+            logger.warn("搜索引擎查询失败，退回数据库查询: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 按搜索结果顺序回表读取帖子，跳过索引尚未同步的已删除/未发布帖子
+     */
+    private List<Post> loadPosts(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Post> posts = postMapper.selectBatchIds(ids).stream()
+                .filter(post -> "PUBLISHED".equals(post.getStatus()))
+                .collect(Collectors.toMap(Post::getId, Function.identity()));
+        return ids.stream().map(posts::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private List<User> loadUsers(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, User> users = userMapper.selectBatchIds(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream().map(users::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     /**
      * 转换Post为PostListVO
      */
@@ -206,4 +311,9 @@ public class SearchService {
         BeanUtils.copyProperties(user, vo);
         return vo;
     }
+
+    @FunctionalInterface
+    private interface IndexQuery<T> {
+        T run() throws Exception;
+    }
 }
@@ -0,0 +1,190 @@
+package com.chainlesschain.community.service;
+
+import com.chainlesschain.community.entity.Tag;
+import com.chainlesschain.community.mapper.TagMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 标签批量解析服务
+ *
+ * 把一组标签名解析为标签ID：先查进程内 名称→ID 缓存，未命中的用一条 IN 查询取回，仍不存在的
+ * 用一条多行 INSERT IGNORE 创建后再以加锁的当前读查一次。并发发帖创建同名标签时由唯一索引去重，
+ * INSERT IGNORE 会等待对方事务结束，当前读能看到对方已提交的标签（REPEATABLE READ 下普通快照读看不到）。
+ * 缓存只在事务提交后写入，回滚的标签ID不会进入缓存；标签创建后ID不变，且应用内没有删除标签的入口，
+ * 缓存无需失效。
+ */
+@Service
+public class TagResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagResolver.class);
+
+    /** 与 tags.name / tags.slug 列长度一致 */
+    private static final int MAX_NAME_LENGTH = 50;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Value("${system.tag-cache-size:10000}")
+    private int cacheSize;
+
+    private final Map<String, Long> idsByName = new ConcurrentHashMap<>();
+
+    /**
+     * 解析标签名（去除首尾空白，忽略大小写去重，保持输入顺序），返回标签ID列表
+     */
+    public List<Long> resolve(Collection<String> tagNames) {
+        Map<String, String> names = normalize(tagNames);
+        if (names.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<String, Long> ids = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String key : names.keySet()) {
+            Long id = idsByName.get(key);
+            if (id != null) {
+                ids.put(key, id);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            ids.putAll(load(missing, names));
+            List<String> absent = missing.stream().filter(key -> !ids.containsKey(key)).toList();
+            if (!absent.isEmpty()) {
+                tagMapper.insertIgnore(absent.stream().map(key -> newTag(names.get(key), slug(names.get(key)))).toList());
+                ids.putAll(loadCurrent(absent, names));
+
+                // slug 与已有标签冲突而被忽略的，改用带哈希后缀的 slug 再插入一次
+                List<String> conflicted = absent.stream().filter(key -> !ids.containsKey(key)).toList();
+                if (!conflicted.isEmpty()) {
+                    tagMapper.insertIgnore(conflicted.stream()
+                            .map(key -> newTag(names.get(key), suffixedSlug(names.get(key))))
+                            .toList());
+                    ids.putAll(loadCurrent(conflicted, names));
+                }
+            }
+            Map<String, Long> resolved = new HashMap<>();
+            for (String key : missing) {
+                Long id = ids.get(key);
+                if (id != null) {
+                    resolved.put(key, id);
+                } else {
+                    logger.warn("标签创建失败，已忽略: name={}", names.get(key));
+                }
+            }
+            rememberAfterCommit(resolved);
+        }
+
+        List<Long> ordered = new ArrayList<>(names.size());
+        for (String key : names.keySet()) {
+            Long id = ids.get(key);
+            if (id != null && !ordered.contains(id)) {
+                ordered.add(id);
+            }
+        }
+        return ordered;
+    }
+
+    private Map<String, Long> load(List<String> keys, Map<String, String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Tag tag : tagMapper.selectIdsByNames(keys.stream().map(names::get).toList())) {
+            ids.put(key(tag.getName()), tag.getId());
+        }
+        return ids;
+    }
+
+    private Map<String, Long> loadCurrent(List<String> keys, Map<String, String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        for (Tag tag : tagMapper.selectIdsByNamesLocking(keys.stream().map(names::get).toList())) {
+            ids.put(key(tag.getName()), tag.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * 处于事务中时在提交后写入缓存（无事务时立即写入）
+     */
+    private void rememberAfterCommit(Map<String, Long> resolved) {
+        if (resolved.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    resolved.forEach(TagResolver.this::remember);
+                }
+            });
+        } else {
+            resolved.forEach(this::remember);
+        }
+    }
+
+    private void remember(String name, Long id) {
+        if (idsByName.size() >= cacheSize) {
+            idsByName.clear();
+        }
+        idsByName.put(name, id);
+    }
+
+    /**
+     * 规范化标签名，返回 小写键→原始名称
+     */
+    private static Map<String, String> normalize(Collection<String> tagNames) {
+        Map<String, String> names = new LinkedHashMap<>();
+        if (tagNames == null) {
+            return names;
+        }
+        for (String tagName : tagNames) {
+            if (tagName == null) {
+                continue;
+            }
+            String name = tagName.trim();
+            if (!name.isEmpty() && name.length() <= MAX_NAME_LENGTH) {
+                names.putIfAbsent(key(name), name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 标签名比较键：与数据库默认排序规则一致，不区分大小写
+     */
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static Tag newTag(String name, String slug) {
+        Tag tag = new Tag();
+        tag.setName(name);
+        tag.setSlug(slug);
+        return tag;
+    }
+
+    private static String slug(String name) {
+        return name.toLowerCase(Locale.ROOT).replace(" ", "-");
+    }
+
+    private static String suffixedSlug(String name) {
+        String suffix = "-" + Integer.toHexString(name.hashCode());
+        String base = slug(name);
+        return base.substring(0, Math.min(base.length(), MAX_NAME_LENGTH - suffix.length())) + suffix;
+    }
+}
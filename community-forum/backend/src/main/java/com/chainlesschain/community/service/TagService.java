@@ -1,6 +1,8 @@
 package com.chainlesschain.community.service;
 
+import com.chainlesschain.community.cache.ForumCacheService;
 import com.chainlesschain.community.common.Result;
+import com.chainlesschain.community.counter.CounterService;
 import com.chainlesschain.community.entity.Tag;
 import com.chainlesschain.community.mapper.TagMapper;
 import com.chainlesschain.community.vo.TagVO;
@@ -20,6 +22,12 @@ public class TagService {
     @Autowired
     private TagMapper tagMapper;
 
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private ForumCacheService forumCacheService;
+
     /**
      * 获取热门标签
      */
@@ -28,7 +36,7 @@ public class TagService {
             limit = 20;
         }
 
-        List<Tag> tags = tagMapper.findPopularTags(limit);
+        List<Tag> tags = forumCacheService.getPopularTags(limit);
 
         List<TagVO> voList = tags.stream()
                 .map(this::convertToVO)
@@ -81,7 +89,7 @@ public class TagService {
      */
     private TagVO convertToVO(Tag tag) {
         TagVO vo = new TagVO();
-        BeanUtils.copyProperties(tag, vo);
+        BeanUtils.copyProperties(counterService.overlay(tag), vo);
         return vo;
     }
 }
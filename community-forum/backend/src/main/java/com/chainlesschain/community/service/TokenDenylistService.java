@@ -0,0 +1,142 @@
+package com.chainlesschain.community.service;
+
+import com.chainlesschain.community.cache.CacheStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token 拒绝名单（封禁、删除的用户）
+ *
+ * 封禁时在缓存中记录封禁时间，有效期等于 Token 有效期；此前签发的该用户 Token 一律拒绝，
+ * 到期后这些 Token 本身也已过期。请求路径上只查本地结果，每个用户最多每隔
+ * jwt.denylist.local-ttl-seconds 秒读一次缓存，不访问数据库；其他实例上的封禁最迟在此时间后生效。
+ */
+@Service
+public class TokenDenylistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenylistService.class);
+
+    private static final String DENIED_PREFIX = "forum:auth:denied:";
+
+    @Autowired
+    private CacheStore cacheStore;
+
+    @Value("${jwt.expiration}")
+    private long expirationMs;
+
+    @Value("${jwt.denylist.local-ttl-seconds:5}")
+    private long localTtlSeconds;
+
+    @Value("${jwt.denylist.local-max-size:10000}")
+    private int localMaxSize;
+
+    /**
+     * 本地查询结果（用户ID -> 封禁时间，0 表示未封禁）
+     */
+    private final ConcurrentHashMap<Long, Lookup> lookups = new ConcurrentHashMap<>();
+
+    private final AtomicLong denied = new AtomicLong();
+    private final AtomicLong storeReads = new AtomicLong();
+
+    /**
+     * 拒绝该用户此前签发的全部 Token（事务提交后生效）
+     */
+    public void deny(Long userId) {
+        afterCommit(() -> {
+            long now = System.currentTimeMillis();
+            cacheStore.set(DENIED_PREFIX + userId, String.valueOf(now), Duration.ofMillis(expirationMs));
+            lookups.put(userId, new Lookup(now, now));
+        });
+    }
+
+    /**
+     * 解除拒绝（事务提交后生效）
+     */
+    public void allow(Long userId) {
+        afterCommit(() -> {
+            cacheStore.delete(List.of(DENIED_PREFIX + userId));
+            lookups.remove(userId);
+        });
+    }
+
+    /**
+     * 判断 Token 是否已被拒绝
+     *
+     * @param issuedAt Token 签发时间（毫秒）
+     */
+    public boolean isDenied(Long userId, long issuedAt) {
+        if (userId == null) {
+            return false;
+        }
+        long deniedAt = deniedAt(userId);
+        if (deniedAt > 0 && issuedAt <= deniedAt) {
+            denied.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("localEntries", lookups.size());
+        stats.put("storeReads", storeReads.get());
+        stats.put("denied", denied.get());
+        return stats;
+    }
+
+    private long deniedAt(Long userId) {
+        long now = System.currentTimeMillis();
+        Lookup cached = lookups.get(userId);
+        if (cached != null && now - cached.checkedAt() < localTtlSeconds * 1000) {
+            return cached.deniedAt();
+        }
+
+        long deniedAt;
+        try {
+            storeReads.incrementAndGet();
+            String value = cacheStore.get(DENIED_PREFIX + userId);
+            deniedAt = value != null ? Long.parseLong(value) : 0L;
+        } catch (Exception e) {
+            // 缓存不可用时沿用上次结果
+            logger.warn("读取 Token 拒绝名单失败: userId={}, {}", userId, e.getMessage());
+            return cached != null ? cached.deniedAt() : 0L;
+        }
+
+        if (lookups.size() >= localMaxSize) {
+            lookups.values().removeIf(l -> now - l.checkedAt() >= localTtlSeconds * 1000);
+            if (lookups.size() >= localMaxSize) {
+                lookups.clear();
+            }
+        }
+        lookups.put(userId, new Lookup(deniedAt, now));
+        return deniedAt;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Lookup(long deniedAt, long checkedAt) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.chainlesschain.community.service;
 
+import com.chainlesschain.community.cache.CacheStore;
 import com.chainlesschain.community.mapper.DeviceKeyMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,9 +11,12 @@ import org.slf4j.LoggerFactory;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * U盾/SIMKey验证服务
@@ -20,15 +24,36 @@ import java.util.concurrent.ConcurrentHashMap;
  * 支持两种验证模式：
  * 1. 开发模式：接受任何有效格式的设备ID和PIN
  * 2. 生产模式：验证设备签名（需要设备公钥）
+ *
+ * 生产模式下挑战值由 {@link #generateChallenge()} 签发并存入缓存，验证时一次性消费，重放或过期的
+ * 挑战值在验签前即被拒绝。数据库中的设备公钥按设备ID缓存（容量上限 + 过期时间），吊销后最迟在
+ * 过期时间后失效；通过 {@link #registerDevicePublicKey} 注册的公钥只在本进程内存中，不过期、不淘汰。
+ * Signature 实例按线程复用，避免每次登录重复查找安全提供者。
  */
 @Service
 public class UKeyVerificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(UKeyVerificationService.class);
 
+    private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+    private static final String CHALLENGE_KEY_PREFIX = "forum:ukey:challenge:";
+
+    private static final ThreadLocal<Signature> VERIFIERS = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance(SIGNATURE_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     @Autowired(required = false)
     private DeviceKeyMapper deviceKeyMapper;
 
+    @Autowired
+    private CacheStore cacheStore;
+
     /**
      * 开发模式标志
      * 生产环境必须设置为 false
@@ -43,10 +68,36 @@ public class UKeyVerificationService {
     private String defaultPin;
 
     /**
-     * 设备公钥缓存（设备ID -> 公钥）
-     * 生产环境应从数据库或安全存储加载
+     * 挑战值有效期
      */
-    private final Map<String, PublicKey> devicePublicKeys = new ConcurrentHashMap<>();
+    @Value("${ukey.challenge-ttl-seconds:120}")
+    private long challengeTtlSeconds;
+
+    /**
+     * 设备公钥缓存容量上限
+     */
+    @Value("${ukey.key-cache.max-size:10000}")
+    private int keyCacheMaxSize;
+
+    /**
+     * 设备公钥缓存过期时间；数据库中的吊销最迟在此时间后生效
+     */
+    @Value("${ukey.key-cache.ttl-seconds:300}")
+    private long keyCacheTtlSeconds;
+
+    /**
+     * 设备公钥缓存（设备ID -> 公钥），按最近最少使用淘汰
+     */
+    private final LinkedHashMap<String, CachedKey> devicePublicKeys = new LinkedHashMap<>(256, 0.75f, true);
+
+    /**
+     * 运行期注册的设备公钥（设备ID -> 公钥），未持久化，优先于数据库
+     */
+    private final Map<String, PublicKey> registeredKeys = new ConcurrentHashMap<>();
+
+    private final AtomicLong keyCacheHits = new AtomicLong();
+    private final AtomicLong keyCacheMisses = new AtomicLong();
+    private final AtomicLong rejectedChallenges = new AtomicLong();
 
     /**
      * 验证U盾/SIMKey登录
@@ -124,15 +175,16 @@ public class UKeyVerificationService {
             return VerificationResult.failure("缺少挑战值");
         }
 
+        // 挑战值只能使用一次，重放或过期的直接拒绝
+        if (!cacheStore.consume(CHALLENGE_KEY_PREFIX + challenge)) {
+            rejectedChallenges.incrementAndGet();
+            return VerificationResult.failure("挑战值无效或已过期");
+        }
+
         // 获取设备公钥
-        PublicKey publicKey = devicePublicKeys.get(deviceId);
+        PublicKey publicKey = getDevicePublicKey(deviceId);
         if (publicKey == null) {
-            // 尝试从数据库加载
-            publicKey = loadDevicePublicKey(deviceId);
-            if (publicKey == null) {
-                return VerificationResult.failure("未注册的设备");
-            }
-            devicePublicKeys.put(deviceId, publicKey);
+            return VerificationResult.failure("未注册的设备");
         }
 
         // 验证签名
@@ -206,19 +258,60 @@ public class UKeyVerificationService {
     }
 
     /**
-     * 验证签名
+     * 验证签名（复用当前线程的 Signature 实例）
      */
     private boolean verifySignature(String data, String signatureBase64, PublicKey publicKey)
             throws Exception {
         byte[] signatureBytes = Base64.getDecoder().decode(signatureBase64);
 
-        Signature sig = Signature.getInstance("SHA256withRSA");
+        Signature sig = VERIFIERS.get();
         sig.initVerify(publicKey);
         sig.update(data.getBytes(StandardCharsets.UTF_8));
 
         return sig.verify(signatureBytes);
     }
 
+    /**
+     * 获取设备公钥：运行期注册的优先，其次读缓存，未命中或已过期时从数据库加载
+     */
+    private PublicKey getDevicePublicKey(String deviceId) {
+        PublicKey registered = registeredKeys.get(deviceId);
+        if (registered != null) {
+            return registered;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (devicePublicKeys) {
+            CachedKey cached = devicePublicKeys.get(deviceId);
+            if (cached != null && cached.expiresAt > now) {
+                keyCacheHits.incrementAndGet();
+                return cached.publicKey;
+            }
+        }
+        keyCacheMisses.incrementAndGet();
+
+        PublicKey publicKey = loadDevicePublicKey(deviceId);
+        if (publicKey != null) {
+            cacheKey(deviceId, publicKey);
+        } else {
+            synchronized (devicePublicKeys) {
+                devicePublicKeys.remove(deviceId);
+            }
+        }
+        return publicKey;
+    }
+
+    private void cacheKey(String deviceId, PublicKey publicKey) {
+        synchronized (devicePublicKeys) {
+            devicePublicKeys.put(deviceId,
+                    new CachedKey(publicKey, System.currentTimeMillis() + keyCacheTtlSeconds * 1000));
+            if (devicePublicKeys.size() > keyCacheMaxSize) {
+                var eldest = devicePublicKeys.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
     /**
      * 注册设备公钥（用于首次设备绑定）
      */
@@ -228,17 +321,34 @@ public class UKeyVerificationService {
         KeyFactory keyFactory = KeyFactory.getInstance("RSA");
         PublicKey publicKey = keyFactory.generatePublic(spec);
 
-        devicePublicKeys.put(deviceId, publicKey);
+        registeredKeys.put(deviceId, publicKey);
         logger.info("[UKey] 设备公钥已注册 - deviceId: {}", deviceId);
     }
 
     /**
-     * 生成挑战值
+     * 生成挑战值，在有效期内可用于一次登录
      */
     public String generateChallenge() {
         byte[] bytes = new byte[32];
-        new SecureRandom().nextBytes(bytes);
-        return Base64.getEncoder().encodeToString(bytes);
+        RANDOM.nextBytes(bytes);
+        String challenge = Base64.getEncoder().encodeToString(bytes);
+        cacheStore.set(CHALLENGE_KEY_PREFIX + challenge, "1", Duration.ofSeconds(challengeTtlSeconds));
+        return challenge;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (devicePublicKeys) {
+            stats.put("cachedKeys", devicePublicKeys.size());
+        }
+        stats.put("registeredKeys", registeredKeys.size());
+        stats.put("keyCacheHits", keyCacheHits.get());
+        stats.put("keyCacheMisses", keyCacheMisses.get());
+        stats.put("rejectedChallenges", rejectedChallenges.get());
+        return stats;
+    }
+
+    private record CachedKey(PublicKey publicKey, long expiresAt) {
     }
 
     /**
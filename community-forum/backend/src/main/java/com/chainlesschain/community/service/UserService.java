@@ -1,15 +1,20 @@
 package com.chainlesschain.community.service;
 
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.chainlesschain.community.cache.ForumCacheService;
 import com.chainlesschain.community.common.PageResult;
 import com.chainlesschain.community.common.Result;
+import com.chainlesschain.community.counter.CounterService;
+import com.chainlesschain.community.counter.CounterType;
 import com.chainlesschain.community.dto.UserUpdateRequest;
 import com.chainlesschain.community.entity.Favorite;
 import com.chainlesschain.community.entity.Follow;
 import com.chainlesschain.community.entity.Post;
 import com.chainlesschain.community.entity.Reply;
 import com.chainlesschain.community.entity.User;
+import com.chainlesschain.community.feed.TimelineService;
 import com.chainlesschain.community.mapper.*;
+import com.chainlesschain.community.search.SearchIndexService;
 import com.chainlesschain.community.util.SecurityUtil;
 import com.chainlesschain.community.vo.PostListVO;
 import com.chainlesschain.community.vo.UserVO;
@@ -44,13 +49,25 @@ public class UserService {
     private FavoriteMapper favoriteMapper;
 
     @Autowired
-    private NotificationMapper notificationMapper;
+    private NotificationService notificationService;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private ForumCacheService forumCacheService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private TimelineService timelineService;
 
     /**
      * 获取用户信息
      */
     public Result<UserVO> getUserById(Long id) {
-        User user = userMapper.selectById(id);
+        User user = forumCacheService.getUser(id);
 
         if (user == null || user.getDeleted() == 1) {
             return Result.notFound();
@@ -96,6 +113,8 @@ public class UserService {
         }
 
         userMapper.updateById(user);
+        forumCacheService.evictUser(currentUserId);
+        searchIndexService.enqueueUser(currentUserId);
 
         return Result.success(convertToVO(user));
     }
@@ -175,8 +194,9 @@ public class UserService {
         followMapper.insert(follow);
 
         // 更新关注数和粉丝数
-        userMapper.incrementFollowingCount(currentUserId, 1);
-        userMapper.incrementFollowersCount(userId, 1);
+        counterService.increment(CounterType.USER_FOLLOWING, currentUserId, 1);
+        counterService.increment(CounterType.USER_FOLLOWERS, userId, 1);
+        timelineService.followed(currentUserId, userId);
 
         // 创建通知
         createFollowNotification(userId, currentUserId);
@@ -200,8 +220,9 @@ public class UserService {
 
         if (deleted > 0) {
             // 更新关注数和粉丝数
-            userMapper.incrementFollowingCount(currentUserId, -1);
-            userMapper.incrementFollowersCount(userId, -1);
+            counterService.increment(CounterType.USER_FOLLOWING, currentUserId, -1);
+            counterService.increment(CounterType.USER_FOLLOWERS, userId, -1);
+            timelineService.unfollowed(currentUserId, userId);
         }
 
         return Result.success();
@@ -309,7 +330,7 @@ public class UserService {
         notification.setLink("/users/" + followerId);
         notification.setIsRead(0);
 
-        notificationMapper.insert(notification);
+        notificationService.send(notification);
     }
 
     /**
@@ -317,7 +338,7 @@ public class UserService {
      */
     private UserVO convertToVO(User user) {
         UserVO vo = new UserVO();
-        BeanUtils.copyProperties(user, vo);
+        BeanUtils.copyProperties(counterService.overlay(user), vo);
         return vo;
     }
 
@@ -326,7 +347,7 @@ public class UserService {
      */
     private PostListVO convertPostToListVO(Post post) {
         PostListVO vo = new PostListVO();
-        BeanUtils.copyProperties(post, vo);
+        BeanUtils.copyProperties(counterService.overlay(post), vo);
         return vo;
     }
 }
@@ -0,0 +1,139 @@
+package com.chainlesschain.community.service;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.chainlesschain.community.counter.CounterService;
+import com.chainlesschain.community.entity.Category;
+import com.chainlesschain.community.entity.Like;
+import com.chainlesschain.community.entity.PostTag;
+import com.chainlesschain.community.entity.Tag;
+import com.chainlesschain.community.entity.User;
+import com.chainlesschain.community.mapper.CategoryMapper;
+import com.chainlesschain.community.mapper.LikeMapper;
+import com.chainlesschain.community.mapper.PostTagMapper;
+import com.chainlesschain.community.mapper.TagMapper;
+import com.chainlesschain.community.mapper.UserMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 视图批量装配服务
+ *
+ * 列表页先收集整页的关联ID，再按类型各用一条 IN 查询取回用户、分类、标签和点赞状态，
+ * 由调用方在内存中组装 VO，避免逐条查询。
+ */
+@Service
+public class ViewHydrator {
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private TagMapper tagMapper;
+
+    @Autowired
+    private PostTagMapper postTagMapper;
+
+    @Autowired
+    private LikeMapper likeMapper;
+
+    @Autowired
+    private CounterService counterService;
+
+    /**
+     * 批量查询用户（已叠加未写回的计数）
+     */
+    public Map<Long, User> loadUsers(Collection<Long> userIds) {
+        Set<Long> ids = distinct(userIds);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userMapper.selectBatchIds(ids)) {
+            users.put(user.getId(), counterService.overlay(user));
+        }
+        return users;
+    }
+
+    /**
+     * 批量查询分类
+     */
+    public Map<Long, Category> loadCategories(Collection<Long> categoryIds) {
+        Set<Long> ids = distinct(categoryIds);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Category> categories = new HashMap<>();
+        for (Category category : categoryMapper.selectBatchIds(ids)) {
+            categories.put(category.getId(), counterService.overlay(category));
+        }
+        return categories;
+    }
+
+    /**
+     * 批量查询帖子的标签：帖子ID -> 标签列表（按关联创建顺序）
+     */
+    public Map<Long, List<Tag>> loadTagsByPostIds(Collection<Long> postIds) {
+        Set<Long> ids = distinct(postIds);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        List<PostTag> links = postTagMapper.selectList(new QueryWrapper<PostTag>()
+                .in("post_id", ids)
+                .orderByAsc("id"));
+        if (links.isEmpty()) {
+            return Map.of();
+        }
+
+        Set<Long> tagIds = links.stream().map(PostTag::getTagId).collect(Collectors.toSet());
+        Map<Long, Tag> tags = tagMapper.selectBatchIds(tagIds).stream()
+                .collect(Collectors.toMap(Tag::getId, tag -> tag));
+
+        Map<Long, List<Tag>> result = new HashMap<>();
+        for (PostTag link : links) {
+            Tag tag = tags.get(link.getTagId());
+            if (tag != null) {
+                result.computeIfAbsent(link.getPostId(), k -> new ArrayList<>()).add(tag);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量查询用户已点赞的目标ID
+     */
+    public Set<Long> loadLikedTargetIds(Long userId, String targetType, Collection<Long> targetIds) {
+        Set<Long> ids = distinct(targetIds);
+        if (userId == null || ids.isEmpty()) {
+            return Set.of();
+        }
+        return likeMapper.selectList(new QueryWrapper<Like>()
+                        .select("target_id")
+                        .eq("user_id", userId)
+                        .eq("target_type", targetType)
+                        .in("target_id", ids))
+                .stream()
+                .map(Like::getTargetId)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static Set<Long> distinct(Collection<Long> ids) {
+        if (ids == null) {
+            return Set.of();
+        }
+        return ids.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
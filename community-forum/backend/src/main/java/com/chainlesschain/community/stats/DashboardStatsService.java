@@ -0,0 +1,307 @@
+package com.chainlesschain.community.stats;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.chainlesschain.community.counter.CounterService;
+import com.chainlesschain.community.counter.CounterType;
+import com.chainlesschain.community.entity.DailyStat;
+import com.chainlesschain.community.entity.Post;
+import com.chainlesschain.community.entity.Report;
+import com.chainlesschain.community.entity.SiteStat;
+import com.chainlesschain.community.entity.User;
+import com.chainlesschain.community.mapper.DailyStatMapper;
+import com.chainlesschain.community.mapper.PostMapper;
+import com.chainlesschain.community.mapper.ReportMapper;
+import com.chainlesschain.community.mapper.SiteStatMapper;
+import com.chainlesschain.community.mapper.UserMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 仪表盘统计服务
+ *
+ * 总量与每日新增以统计行的形式保存在 site_stats / daily_stats 中，业务操作通过计数器写回增减
+ * （与帖子、用户计数共用批量写回和崩溃恢复）；读取仪表盘只按主键取固定数量的行，与表大小无关。
+ * 定时对账用 COUNT 校正累计偏差（如直接改库、多实例并发），同时预建次日的每日统计行。
+ */
+@Service
+public class DashboardStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStatsService.class);
+
+    private static final DateTimeFormatter DAY_ID = DateTimeFormatter.BASIC_ISO_DATE;
+
+    @Autowired
+    private CounterService counterService;
+
+    @Autowired
+    private SiteStatMapper siteStatMapper;
+
+    @Autowired
+    private DailyStatMapper dailyStatMapper;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private ReportMapper reportMapper;
+
+    @Value("${stats.reconcile-minutes:30}")
+    private long reconcileMinutes;
+
+    @Value("${stats.reconcile-days:2}")
+    private int reconcileDays;
+
+    @Value("${stats.backfill-days:30}")
+    private int backfillDays;
+
+    @Value("${stats.dashboard-days:7}")
+    private int dashboardDays;
+
+    private ScheduledExecutorService scheduler;
+    private volatile long lastReconcileAt;
+    private volatile boolean backfilled;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dashboard-stats-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reconcileQuietly, 0, reconcileMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // ---------- 领域事件（处于事务中时随事务提交生效） ----------
+
+    public void userRegistered() {
+        record(SiteMetric.TOTAL_USERS, 1);
+        record(SiteMetric.NEW_USERS, 1);
+    }
+
+    public void userRemoved() {
+        record(SiteMetric.TOTAL_USERS, -1);
+    }
+
+    public void postCreated(String status) {
+        record(SiteMetric.TOTAL_POSTS, 1);
+        record(SiteMetric.NEW_POSTS, 1);
+        if ("PENDING".equals(status)) {
+            record(SiteMetric.PENDING_POSTS, 1);
+        }
+    }
+
+    public void postRemoved(String status) {
+        record(SiteMetric.TOTAL_POSTS, -1);
+        if ("PENDING".equals(status)) {
+            record(SiteMetric.PENDING_POSTS, -1);
+        }
+    }
+
+    public void postRestored() {
+        record(SiteMetric.TOTAL_POSTS, 1);
+    }
+
+    /**
+     * 帖子状态变更（如审核通过）
+     */
+    public void postStatusChanged(String from, String to) {
+        if ("PENDING".equals(from) && !"PENDING".equals(to)) {
+            record(SiteMetric.PENDING_POSTS, -1);
+        } else if (!"PENDING".equals(from) && "PENDING".equals(to)) {
+            record(SiteMetric.PENDING_POSTS, 1);
+        }
+    }
+
+    /**
+     * 举报状态变更（如处理完成）
+     */
+    public void reportStatusChanged(String from, String to) {
+        if ("PENDING".equals(from) && !"PENDING".equals(to)) {
+            record(SiteMetric.PENDING_REPORTS, -1);
+        } else if (!"PENDING".equals(from) && "PENDING".equals(to)) {
+            record(SiteMetric.PENDING_REPORTS, 1);
+        }
+    }
+
+    /**
+     * 批量关闭待处理举报
+     */
+    public void pendingReportsClosed(int count) {
+        if (count > 0) {
+            record(SiteMetric.PENDING_REPORTS, -count);
+        }
+    }
+
+    /**
+     * 仪表盘统计：固定数量的主键查询，叠加尚未写回的增量
+     */
+    public Map<String, Object> getDashboard() {
+        Map<Long, Long> totals = siteStatMapper.selectList(null).stream()
+                .collect(Collectors.toMap(SiteStat::getId, s -> s.getStatValue() != null ? s.getStatValue() : 0L));
+
+        LocalDate today = LocalDate.now();
+        List<Long> dailyIds = new ArrayList<>();
+        for (int i = dashboardDays - 1; i >= 0; i--) {
+            LocalDate day = today.minusDays(i);
+            dailyIds.add(dailyId(day, SiteMetric.NEW_USERS));
+            dailyIds.add(dailyId(day, SiteMetric.NEW_POSTS));
+        }
+        Map<Long, Long> daily = dailyStatMapper.selectBatchIds(dailyIds).stream()
+                .collect(Collectors.toMap(DailyStat::getId, s -> s.getStatValue() != null ? s.getStatValue() : 0L));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalUsers", total(totals, SiteMetric.TOTAL_USERS));
+        stats.put("todayUsers", dailyValue(daily, today, SiteMetric.NEW_USERS));
+        stats.put("totalPosts", total(totals, SiteMetric.TOTAL_POSTS));
+        stats.put("todayPosts", dailyValue(daily, today, SiteMetric.NEW_POSTS));
+        stats.put("pendingPosts", total(totals, SiteMetric.PENDING_POSTS));
+        stats.put("pendingReports", total(totals, SiteMetric.PENDING_REPORTS));
+
+        List<Map<String, Object>> trend = new ArrayList<>();
+        for (int i = dashboardDays - 1; i >= 0; i--) {
+            LocalDate day = today.minusDays(i);
+            Map<String, Object> point = new LinkedHashMap<>();
+            point.put("date", day.toString());
+            point.put("newUsers", dailyValue(daily, day, SiteMetric.NEW_USERS));
+            point.put("newPosts", dailyValue(daily, day, SiteMetric.NEW_POSTS));
+            trend.add(point);
+        }
+        stats.put("daily", trend);
+        stats.put("reconciledAt", lastReconcileAt);
+        return stats;
+    }
+
+    private void reconcileQuietly() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.warn("仪表盘统计对账失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 对账：按 COUNT 结果校正统计值。写入值扣除尚未写回的增量，写回后恰好等于实际数量
+     */
+    void reconcile() {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        ensureRows(today);
+
+        setTotal(SiteMetric.TOTAL_USERS, userMapper.selectCount(new QueryWrapper<User>().eq("deleted", 0)));
+        setTotal(SiteMetric.TOTAL_POSTS, postMapper.selectCount(new QueryWrapper<Post>().eq("deleted", 0)));
+        setTotal(SiteMetric.PENDING_POSTS, postMapper.selectCount(new QueryWrapper<Post>()
+                .eq("deleted", 0).eq("status", "PENDING")));
+        setTotal(SiteMetric.PENDING_REPORTS, reportMapper.selectCount(new QueryWrapper<Report>()
+                .eq("status", "PENDING")));
+
+        int days = backfilled ? Math.max(1, reconcileDays) : Math.max(1, backfillDays);
+        LocalDate since = today.minusDays(days - 1L);
+        setDaily(SiteMetric.NEW_USERS, since, today, dailyStatMapper.countUsersByDay(since.atStartOfDay()));
+        setDaily(SiteMetric.NEW_POSTS, since, today, dailyStatMapper.countPostsByDay(since.atStartOfDay()));
+        backfilled = true;
+
+        lastReconcileAt = System.currentTimeMillis();
+        logger.debug("仪表盘统计对账完成: days={}, 耗时={}ms", days, lastReconcileAt - start);
+    }
+
+    /**
+     * 预建统计行：计数器写回只更新已有行，当天和次日的行需提前存在
+     */
+    private void ensureRows(LocalDate today) {
+        siteStatMapper.insertIgnore(Arrays.stream(SiteMetric.values())
+                .filter(metric -> !metric.isDaily())
+                .map(metric -> {
+                    SiteStat stat = new SiteStat();
+                    stat.setId((long) metric.getCode());
+                    stat.setStatKey(metric.name());
+                    return stat;
+                })
+                .toList());
+
+        List<DailyStat> daily = new ArrayList<>();
+        for (LocalDate day : List.of(today, today.plusDays(1))) {
+            for (SiteMetric metric : SiteMetric.values()) {
+                if (metric.isDaily()) {
+                    daily.add(dailyRow(day, metric, 0));
+                }
+            }
+        }
+        dailyStatMapper.insertIgnore(daily);
+    }
+
+    private void setTotal(SiteMetric metric, long count) {
+        long id = metric.getCode();
+        siteStatMapper.setValue(id, count - counterService.pending(CounterType.SITE_STATS, id));
+    }
+
+    private void setDaily(SiteMetric metric, LocalDate since, LocalDate until, List<DailyStat> counts) {
+        Map<LocalDate, Long> byDay = new HashMap<>();
+        for (DailyStat count : counts) {
+            byDay.put(count.getStatDate(), count.getStatValue());
+        }
+        for (LocalDate day = since; !day.isAfter(until); day = day.plusDays(1)) {
+            long id = dailyId(day, metric);
+            long count = byDay.getOrDefault(day, 0L);
+            dailyStatMapper.upsert(dailyRow(day, metric, count - counterService.pending(CounterType.DAILY_STATS, id)));
+        }
+    }
+
+    private void record(SiteMetric metric, long delta) {
+        if (metric.isDaily()) {
+            counterService.increment(CounterType.DAILY_STATS, dailyId(LocalDate.now(), metric), delta);
+        } else {
+            counterService.increment(CounterType.SITE_STATS, (long) metric.getCode(), delta);
+        }
+    }
+
+    private long total(Map<Long, Long> totals, SiteMetric metric) {
+        long id = metric.getCode();
+        return Math.max(0, totals.getOrDefault(id, 0L) + counterService.pending(CounterType.SITE_STATS, id));
+    }
+
+    private long dailyValue(Map<Long, Long> daily, LocalDate day, SiteMetric metric) {
+        long id = dailyId(day, metric);
+        return Math.max(0, daily.getOrDefault(id, 0L) + counterService.pending(CounterType.DAILY_STATS, id));
+    }
+
+    private static DailyStat dailyRow(LocalDate day, SiteMetric metric, long value) {
+        DailyStat stat = new DailyStat();
+        stat.setId(dailyId(day, metric));
+        stat.setStatDate(day);
+        stat.setMetric(metric.name());
+        stat.setStatValue(value);
+        return stat;
+    }
+
+    private static long dailyId(LocalDate day, SiteMetric metric) {
+        return Long.parseLong(day.format(DAY_ID)) * 100 + metric.getCode();
+    }
+}
@@ -0,0 +1,32 @@
+package com.chainlesschain.community.stats;
+
+/**
+ * 仪表盘统计指标
+ *
+ * code 写入统计表主键，已发布后不可修改；daily 为 true 的指标按天汇总到 daily_stats。
+ */
+public enum SiteMetric {
+
+    TOTAL_USERS(1, false),
+    TOTAL_POSTS(2, false),
+    PENDING_POSTS(3, false),
+    PENDING_REPORTS(4, false),
+    NEW_USERS(11, true),
+    NEW_POSTS(12, true);
+
+    private final int code;
+    private final boolean daily;
+
+    SiteMetric(int code, boolean daily) {
+        this.code = code;
+        this.daily = daily;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public boolean isDaily() {
+        return daily;
+    }
+}
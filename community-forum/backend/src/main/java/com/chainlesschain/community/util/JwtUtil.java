@@ -1,19 +1,30 @@
 package com.chainlesschain.community.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * JWT工具类
+ *
+ * 签名密钥与解析器只构建一次。parseToken 验签一次后返回全部声明，并按 Token 的 SHA-256 摘要
+ * 缓存到过期时间，同一 Token 的后续请求不再验签。
  */
 @Component
 public class JwtUtil {
@@ -24,6 +35,26 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    private SecretKey signKey;
+    private JwtParser parser;
+
+    /**
+     * 已验证的 Token（摘要 -> 声明）
+     */
+    private final ConcurrentHashMap<String, TokenClaims> verifiedTokens = new ConcurrentHashMap<>();
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        signKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signKey).build();
+    }
+
     /**
      * 生成JWT Token
      */
@@ -51,6 +82,58 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * 验证Token并一次取出全部声明
+     *
+     * @return Token 无效或已过期时返回 null
+     */
+    public TokenClaims parseToken(String token) {
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+        TokenClaims cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                cacheHits.incrementAndGet();
+                return cached;
+            }
+            verifiedTokens.remove(digest);
+        }
+        cacheMisses.incrementAndGet();
+
+        Claims claims;
+        try {
+            claims = getAllClaimsFromToken(token);
+        } catch (Exception e) {
+            return null;
+        }
+        if (claims.getExpiration() == null || claims.getExpiration().getTime() <= now) {
+            return null;
+        }
+        TokenClaims parsed = new TokenClaims(
+                claims.get("userId", Long.class),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+                claims.getExpiration().getTime());
+
+        if (verifiedTokens.size() >= cacheMaxSize) {
+            verifiedTokens.values().removeIf(c -> c.expiresAt() <= now);
+            if (verifiedTokens.size() >= cacheMaxSize) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(digest, parsed);
+        return parsed;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedTokens", verifiedTokens.size());
+        stats.put("cacheHits", cacheHits.get());
+        stats.put("cacheMisses", cacheMisses.get());
+        return stats;
+    }
+
     /**
      * 从Token中获取用户ID
      */
@@ -78,11 +161,7 @@ public class JwtUtil {
      * 从Token中获取所有声明
      */
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /**
@@ -113,7 +192,24 @@ public class JwtUtil {
      * 获取签名密钥
      */
     private SecretKey getSignKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signKey;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Token 中的声明
+     *
+     * @param issuedAt  签发时间（毫秒）
+     * @param expiresAt 过期时间（毫秒）
+     */
+    public record TokenClaims(Long userId, String username, String role, long issuedAt, long expiresAt) {
     }
 }
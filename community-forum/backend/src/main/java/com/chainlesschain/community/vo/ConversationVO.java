@@ -0,0 +1,19 @@
+package com.chainlesschain.community.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 私信会话VO（收件箱列表项）
+ */
+@Data
+public class ConversationVO {
+    private Long threadId;
+    private UserVO peer;
+    private Long lastMessageId;
+    private Long lastSenderId;
+    private String lastPreview;
+    private LocalDateTime lastMessageAt;
+    private Integer unreadCount;
+}
@@ -26,5 +26,6 @@ public class ReplyVO {
 
     // 扩展字段
     private Boolean liked; // 当前用户是否点赞
-    private List<ReplyVO> children; // 子回复列表
+    private List<ReplyVO> children; // 子回复列表（预览）
+    private Integer childCount; // 子回复数
 }
@@ -0,0 +1,19 @@
+package com.chainlesschain.community.vo;
+
+import com.chainlesschain.community.entity.Post;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 被举报帖子VO（附带待处理举报汇总）
+ */
+@Data
+public class ReportedPostVO {
+    private Post post;
+    private Long reportCount;
+    private LocalDateTime firstReportedAt;
+    private LocalDateTime lastReportedAt;
+    private List<String> reasons;
+}
@@ -0,0 +1,12 @@
+-- 计数器写回：新增写回批次表（已有库升级用）
+
+USE community_forum;
+
+CREATE TABLE IF NOT EXISTS `counter_flushes` (
+  `flush_id` VARCHAR(100) PRIMARY KEY COMMENT '写回批次ID',
+  `segments` INT NOT NULL DEFAULT 0 COMMENT '包含的本地日志分段数',
+  `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '提交时间',
+  INDEX idx_created_at (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='计数器写回批次表';
+
+SELECT 'counter_flushes table created successfully' AS message;
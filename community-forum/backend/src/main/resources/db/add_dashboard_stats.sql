@@ -0,0 +1,20 @@
+-- 仪表盘统计：新增全站统计表与每日统计表（已有库升级用，首次对账时回填数据）
+
+USE community_forum;
+
+CREATE TABLE IF NOT EXISTS `site_stats` (
+  `id` BIGINT PRIMARY KEY COMMENT '指标编号',
+  `stat_key` VARCHAR(50) NOT NULL UNIQUE COMMENT '指标名称',
+  `stat_value` BIGINT NOT NULL DEFAULT 0 COMMENT '统计值',
+  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='全站统计表';
+
+CREATE TABLE IF NOT EXISTS `daily_stats` (
+  `id` BIGINT PRIMARY KEY COMMENT '日期与指标编号',
+  `stat_date` DATE NOT NULL COMMENT '统计日期',
+  `metric` VARCHAR(30) NOT NULL COMMENT '指标名称',
+  `stat_value` BIGINT NOT NULL DEFAULT 0 COMMENT '统计值',
+  INDEX idx_stat_date (`stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='每日统计表';
+
+SELECT 'site_stats and daily_stats tables created successfully' AS message;
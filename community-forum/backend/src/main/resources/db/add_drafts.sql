@@ -0,0 +1,21 @@
+-- 草稿自动保存：新增草稿表（已有库升级用）
+
+USE community_forum;
+
+CREATE TABLE IF NOT EXISTS `drafts` (
+  `id` BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '草稿ID',
+  `user_id` BIGINT NOT NULL COMMENT '用户ID',
+  `post_id` BIGINT COMMENT '编辑的帖子ID（新帖草稿为空）',
+  `title` VARCHAR(200) COMMENT '标题',
+  `content` MEDIUMTEXT COMMENT '内容',
+  `category_id` BIGINT COMMENT '分类ID',
+  `tags` VARCHAR(500) COMMENT '逗号分隔的标签',
+  `version` BIGINT NOT NULL DEFAULT 1 COMMENT '版本号',
+  `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '最后保存时间',
+  FOREIGN KEY (`user_id`) REFERENCES `users`(`id`) ON DELETE CASCADE,
+  UNIQUE KEY uk_user_post (`user_id`, `post_id`),
+  INDEX idx_user_updated (`user_id`, `updated_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='草稿表';
+
+SELECT 'drafts table created successfully' AS message;
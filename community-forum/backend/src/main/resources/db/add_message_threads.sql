@@ -0,0 +1,76 @@
+-- 私信会话：新增会话汇总表与会话消息索引，并按消息ID分批回填已有私信（已有库升级用）
+-- 请在部署新版本前、停止写入私信期间执行；回填按 10000 条消息一批提交，可重复执行（会先清空会话表）
+
+USE community_forum;
+
+ALTER TABLE `messages` ADD INDEX idx_pair_id (`sender_id`, `receiver_id`, `id`);
+
+CREATE TABLE IF NOT EXISTS `message_threads` (
+  `id` BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '会话ID',
+  `user_low_id` BIGINT NOT NULL COMMENT '参与者（较小的用户ID）',
+  `user_high_id` BIGINT NOT NULL COMMENT '参与者（较大的用户ID）',
+  `last_message_id` BIGINT COMMENT '最后一条消息ID',
+  `last_sender_id` BIGINT COMMENT '最后一条消息发送者ID',
+  `last_preview` VARCHAR(200) COMMENT '最后一条消息摘要',
+  `last_message_at` DATETIME COMMENT '最后一条消息时间',
+  `low_unread` INT NOT NULL DEFAULT 0 COMMENT 'user_low_id 的未读数',
+  `high_unread` INT NOT NULL DEFAULT 0 COMMENT 'user_high_id 的未读数',
+  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  UNIQUE KEY uk_pair (`user_low_id`, `user_high_id`),
+  INDEX idx_low_last (`user_low_id`, `last_message_id`),
+  INDEX idx_high_last (`user_high_id`, `last_message_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='私信会话表';
+
+DROP PROCEDURE IF EXISTS backfill_message_threads;
+
+DELIMITER //
+CREATE PROCEDURE backfill_message_threads()
+BEGIN
+  DECLARE batch_size BIGINT DEFAULT 10000;
+  DECLARE from_id BIGINT DEFAULT 0;
+  DECLARE max_id BIGINT;
+
+  TRUNCATE TABLE message_threads;
+  SELECT COALESCE(MAX(id), 0) INTO max_id FROM messages;
+
+  -- 第一步：按消息ID区间汇总每对用户的最新消息ID与双方未读数
+  WHILE from_id < max_id DO
+    START TRANSACTION;
+    INSERT INTO message_threads (user_low_id, user_high_id, last_message_id, low_unread, high_unread)
+    SELECT LEAST(sender_id, receiver_id),
+           GREATEST(sender_id, receiver_id),
+           MAX(id),
+           SUM(is_read = 0 AND receiver_id < sender_id),
+           SUM(is_read = 0 AND receiver_id > sender_id)
+    FROM messages
+    WHERE id > from_id AND id <= from_id + batch_size AND deleted = 0
+    GROUP BY LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id)
+    ON DUPLICATE KEY UPDATE
+      last_message_id = GREATEST(last_message_id, VALUES(last_message_id)),
+      low_unread = low_unread + VALUES(low_unread),
+      high_unread = high_unread + VALUES(high_unread);
+    COMMIT;
+    SET from_id = from_id + batch_size;
+  END WHILE;
+
+  -- 第二步：按会话ID分批补全最后一条消息的发送者、摘要和时间
+  SET from_id = 0;
+  SELECT COALESCE(MAX(id), 0) INTO max_id FROM message_threads;
+  WHILE from_id < max_id DO
+    START TRANSACTION;
+    UPDATE message_threads t
+    JOIN messages m ON m.id = t.last_message_id
+    SET t.last_sender_id = m.sender_id,
+        t.last_preview = LEFT(m.content, 100),
+        t.last_message_at = m.created_at
+    WHERE t.id > from_id AND t.id <= from_id + batch_size;
+    COMMIT;
+    SET from_id = from_id + batch_size;
+  END WHILE;
+END //
+DELIMITER ;
+
+CALL backfill_message_threads();
+DROP PROCEDURE backfill_message_threads;
+
+SELECT 'message_threads table created and backfilled successfully' AS message;
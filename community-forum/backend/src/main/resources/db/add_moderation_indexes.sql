@@ -0,0 +1,9 @@
+-- 审核队列：帖子状态增加 PENDING，新增待审核、待处理举报的组合索引（已有库升级用）
+
+USE community_forum;
+
+ALTER TABLE `posts` MODIFY `status` ENUM('DRAFT', 'PENDING', 'PUBLISHED', 'CLOSED', 'DELETED') DEFAULT 'PUBLISHED' COMMENT '状态';
+ALTER TABLE `posts` ADD INDEX idx_status_deleted (`status`, `deleted`);
+ALTER TABLE `reports` ADD INDEX idx_pending_target (`target_type`, `status`, `target_id`, `created_at`, `reason`);
+
+SELECT 'moderation indexes created successfully' AS message;
@@ -0,0 +1,10 @@
+-- 回复树：新增顶层回复与子回复的 (created_at, id) 游标分页覆盖索引（已有库升级用）
+-- InnoDB 二级索引隐含主键 id，游标条件与 ORDER BY created_at, id 均可在索引内完成
+
+USE community_forum;
+
+ALTER TABLE `replies`
+  ADD INDEX idx_post_root_created (`post_id`, `parent_id`, `deleted`, `created_at`),
+  ADD INDEX idx_parent_created (`parent_id`, `deleted`, `created_at`);
+
+SELECT 'reply tree indexes created successfully' AS message;
@@ -0,0 +1,13 @@
+-- 搜索索引：新增索引变更表（已有库升级用）
+
+USE community_forum;
+
+CREATE TABLE IF NOT EXISTS `search_outbox` (
+  `id` BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '变更ID',
+  `entity_type` VARCHAR(20) NOT NULL COMMENT '实体类型：POST/USER',
+  `entity_id` BIGINT NOT NULL COMMENT '实体ID',
+  `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  INDEX idx_entity (`entity_type`, `entity_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='搜索索引变更表';
+
+SELECT 'search_outbox table created successfully' AS message;
@@ -0,0 +1,7 @@
+-- 关注时间线：新增按被关注者分批读取粉丝的组合索引（已有库升级用）
+
+USE community_forum;
+
+ALTER TABLE `follows` ADD INDEX idx_following_follower (`following_id`, `follower_id`);
+
+SELECT 'timeline indexes created successfully' AS message;
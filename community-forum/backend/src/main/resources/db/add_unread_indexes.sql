@@ -0,0 +1,8 @@
+-- 未读数：新增按用户统计、批量标记未读记录的组合索引（已有库升级用）
+
+USE community_forum;
+
+ALTER TABLE `notifications` ADD INDEX idx_user_unread (`user_id`, `is_read`);
+ALTER TABLE `messages` ADD INDEX idx_receiver_unread (`receiver_id`, `is_read`);
+
+SELECT 'unread indexes created successfully' AS message;
@@ -76,7 +76,7 @@ CREATE TABLE `posts` (
   `content` LONGTEXT NOT NULL COMMENT '内容(Markdown)',
   `content_html` LONGTEXT COMMENT '内容(HTML)',
   `type` ENUM('QUESTION', 'DISCUSSION', 'FEEDBACK', 'ANNOUNCEMENT') DEFAULT 'DISCUSSION' COMMENT '类型',
-  `status` ENUM('DRAFT', 'PUBLISHED', 'CLOSED', 'DELETED') DEFAULT 'PUBLISHED' COMMENT '状态',
+  `status` ENUM('DRAFT', 'PENDING', 'PUBLISHED', 'CLOSED', 'DELETED') DEFAULT 'PUBLISHED' COMMENT '状态',
   `is_pinned` TINYINT DEFAULT 0 COMMENT '是否置顶',
   `is_featured` TINYINT DEFAULT 0 COMMENT '是否精华',
   `is_closed` TINYINT DEFAULT 0 COMMENT '是否关闭',
@@ -98,6 +98,7 @@ CREATE TABLE `posts` (
   INDEX idx_category_id (`category_id`),
   INDEX idx_type (`type`),
   INDEX idx_status (`status`),
+  INDEX idx_status_deleted (`status`, `deleted`),
   INDEX idx_is_pinned (`is_pinned`),
   INDEX idx_is_featured (`is_featured`),
   INDEX idx_views_count (`views_count`),
@@ -141,6 +142,8 @@ CREATE TABLE `replies` (
   INDEX idx_post_id (`post_id`),
   INDEX idx_user_id (`user_id`),
   INDEX idx_parent_id (`parent_id`),
+  INDEX idx_post_root_created (`post_id`, `parent_id`, `deleted`, `created_at`),
+  INDEX idx_parent_created (`parent_id`, `deleted`, `created_at`),
   INDEX idx_created_at (`created_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='回复表';
 
@@ -179,7 +182,8 @@ CREATE TABLE `follows` (
   FOREIGN KEY (`following_id`) REFERENCES `users`(`id`) ON DELETE CASCADE,
   UNIQUE KEY uk_follower_following (`follower_id`, `following_id`),
   INDEX idx_follower_id (`follower_id`),
-  INDEX idx_following_id (`following_id`)
+  INDEX idx_following_id (`following_id`),
+  INDEX idx_following_follower (`following_id`, `follower_id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='关注表';
 
 -- 通知表
@@ -197,6 +201,7 @@ CREATE TABLE `notifications` (
   FOREIGN KEY (`sender_id`) REFERENCES `users`(`id`) ON DELETE SET NULL,
   INDEX idx_user_id (`user_id`),
   INDEX idx_is_read (`is_read`),
+  INDEX idx_user_unread (`user_id`, `is_read`),
   INDEX idx_created_at (`created_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='通知表';
 
@@ -213,9 +218,45 @@ CREATE TABLE `messages` (
   FOREIGN KEY (`receiver_id`) REFERENCES `users`(`id`) ON DELETE CASCADE,
   INDEX idx_sender_id (`sender_id`),
   INDEX idx_receiver_id (`receiver_id`),
+  INDEX idx_receiver_unread (`receiver_id`, `is_read`),
+  INDEX idx_pair_id (`sender_id`, `receiver_id`, `id`),
   INDEX idx_created_at (`created_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='私信表';
 
+-- 草稿表
+CREATE TABLE `drafts` (
+  `id` BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '草稿ID',
+  `user_id` BIGINT NOT NULL COMMENT '用户ID',
+  `post_id` BIGINT COMMENT '编辑的帖子ID（新帖草稿为空）',
+  `title` VARCHAR(200) COMMENT '标题',
+  `content` MEDIUMTEXT COMMENT '内容',
+  `category_id` BIGINT COMMENT '分类ID',
+  `tags` VARCHAR(500) COMMENT '逗号分隔的标签',
+  `version` BIGINT NOT NULL DEFAULT 1 COMMENT '版本号',
+  `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '最后保存时间',
+  FOREIGN KEY (`user_id`) REFERENCES `users`(`id`) ON DELETE CASCADE,
+  UNIQUE KEY uk_user_post (`user_id`, `post_id`),
+  INDEX idx_user_updated (`user_id`, `updated_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='草稿表';
+
+-- 私信会话表（每对用户一行，user_low_id < user_high_id）
+CREATE TABLE `message_threads` (
+  `id` BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '会话ID',
+  `user_low_id` BIGINT NOT NULL COMMENT '参与者（较小的用户ID）',
+  `user_high_id` BIGINT NOT NULL COMMENT '参与者（较大的用户ID）',
+  `last_message_id` BIGINT COMMENT '最后一条消息ID',
+  `last_sender_id` BIGINT COMMENT '最后一条消息发送者ID',
+  `last_preview` VARCHAR(200) COMMENT '最后一条消息摘要',
+  `last_message_at` DATETIME COMMENT '最后一条消息时间',
+  `low_unread` INT NOT NULL DEFAULT 0 COMMENT 'user_low_id 的未读数',
+  `high_unread` INT NOT NULL DEFAULT 0 COMMENT 'user_high_id 的未读数',
+  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  UNIQUE KEY uk_pair (`user_low_id`, `user_high_id`),
+  INDEX idx_low_last (`user_low_id`, `last_message_id`),
+  INDEX idx_high_last (`user_high_id`, `last_message_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='私信会话表';
+
 -- 报告表
 CREATE TABLE `reports` (
   `id` BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '报告ID',
@@ -231,6 +272,7 @@ CREATE TABLE `reports` (
   `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
   FOREIGN KEY (`user_id`) REFERENCES `users`(`id`) ON DELETE CASCADE,
   INDEX idx_status (`status`),
+  INDEX idx_pending_target (`target_type`, `status`, `target_id`, `created_at`, `reason`),
   INDEX idx_created_at (`created_at`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='举报表';
 
@@ -300,3 +342,37 @@ CREATE TABLE `device_keys` (
   INDEX idx_user_id (`user_id`),
   INDEX idx_status (`status`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='设备公钥表';
+
+-- 计数器写回批次表（计数写回与批次记录同一事务提交，用于崩溃重放去重）
+CREATE TABLE `counter_flushes` (
+  `flush_id` VARCHAR(100) PRIMARY KEY COMMENT '写回批次ID',
+  `segments` INT NOT NULL DEFAULT 0 COMMENT '包含的本地日志分段数',
+  `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '提交时间',
+  INDEX idx_created_at (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='计数器写回批次表';
+
+-- 搜索索引变更表（与业务写操作同一事务插入，后台同步到搜索引擎后删除）
+CREATE TABLE `search_outbox` (
+  `id` BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '变更ID',
+  `entity_type` VARCHAR(20) NOT NULL COMMENT '实体类型：POST/USER',
+  `entity_id` BIGINT NOT NULL COMMENT '实体ID',
+  `created_at` DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+  INDEX idx_entity (`entity_type`, `entity_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='搜索索引变更表';
+
+-- 全站统计表（总量由领域事件经计数器写回增减，定时对账校正）
+CREATE TABLE `site_stats` (
+  `id` BIGINT PRIMARY KEY COMMENT '指标编号',
+  `stat_key` VARCHAR(50) NOT NULL UNIQUE COMMENT '指标名称',
+  `stat_value` BIGINT NOT NULL DEFAULT 0 COMMENT '统计值',
+  `updated_at` DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='全站统计表';
+
+-- 每日统计表（主键为 yyyyMMdd × 100 + 指标编号，当天与次日的行预先创建）
+CREATE TABLE `daily_stats` (
+  `id` BIGINT PRIMARY KEY COMMENT '日期与指标编号',
+  `stat_date` DATE NOT NULL COMMENT '统计日期',
+  `metric` VARCHAR(30) NOT NULL COMMENT '指标名称',
+  `stat_value` BIGINT NOT NULL DEFAULT 0 COMMENT '统计值',
+  INDEX idx_stat_date (`stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='每日统计表';
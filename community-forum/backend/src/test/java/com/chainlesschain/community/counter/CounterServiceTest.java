@@ -0,0 +1,211 @@
+package com.chainlesschain.community.counter;
+
+import com.chainlesschain.community.entity.Post;
+import com.chainlesschain.community.mapper.CounterMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * 计数器写回服务测试：批量写回、日志重放与写回期间的叠加读取
+ */
+class CounterServiceTest {
+
+    @TempDir
+    Path journalDir;
+
+    private CounterMapper counterMapper;
+    /** 模拟数据库中的计数值 */
+    private final Map<String, Long> database = new ConcurrentHashMap<>();
+    private final List<CounterService> services = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        counterMapper = mock(CounterMapper.class);
+        when(counterMapper.applyDeltas(anyString(), anyString(), anyList())).thenAnswer(invocation -> {
+            String column = invocation.getArgument(0) + "." + invocation.getArgument(1);
+            List<CounterDelta> deltas = invocation.getArgument(2);
+            deltas.forEach(d -> database.merge(column + "#" + d.getId(), d.getDelta(), Long::sum));
+            return deltas.size();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(CounterService::shutdown);
+    }
+
+    @Test
+    void flushWritesMergedDeltasInOneBatchAndClearsJournal() throws Exception {
+        CounterService service = start();
+        service.increment(CounterType.POST_VIEWS, 1L, 1);
+        service.increment(CounterType.POST_VIEWS, 1L, 1);
+        service.incrementAll(CounterType.POST_VIEWS, List.of(1L, 2L), 3);
+        service.increment(CounterType.USER_POSTS, 7L, -1);
+
+        assertEquals(5, service.pending(CounterType.POST_VIEWS, 1L));
+
+        service.flush();
+
+        assertEquals(5L, database.get("posts.views_count#1"));
+        assertEquals(3L, database.get("posts.views_count#2"));
+        assertEquals(-1L, database.get("users.posts_count#7"));
+        verify(counterMapper, times(2)).applyDeltas(anyString(), anyString(), anyList());
+        verify(counterMapper).insertFlush(startsWith("flush-"), anyInt());
+        assertEquals(0, service.pending(CounterType.POST_VIEWS, 1L));
+        assertEquals(List.of(), journalFiles());
+    }
+
+    @Test
+    void failedFlushKeepsDeltasPendingAndRetries() throws Exception {
+        CounterService service = start();
+        service.increment(CounterType.POST_LIKES, 1L, 2);
+        doThrow(new RuntimeException("db down")).doNothing()
+                .when(counterMapper).insertFlush(anyString(), anyInt());
+
+        assertThrows(IllegalStateException.class, service::flush);
+        assertEquals(2, service.pending(CounterType.POST_LIKES, 1L));
+
+        database.clear();
+        service.flush();
+
+        assertEquals(2L, database.get("posts.likes_count#1"));
+        assertEquals(0, service.pending(CounterType.POST_LIKES, 1L));
+    }
+
+    @Test
+    void journalIsReplayedAfterCrash() throws Exception {
+        CounterService crashed = start();
+        crashed.increment(CounterType.POST_REPLIES, 3L, 1);
+        crashed.increment(CounterType.POST_REPLIES, 3L, 1);
+        ReflectionTestUtils.invokeMethod(crashed, "syncJournal");
+        // 进程崩溃：不写回、不关闭
+        services.remove(crashed);
+        verify(counterMapper, never()).applyDeltas(anyString(), anyString(), anyList());
+
+        start();
+
+        assertEquals(2L, database.get("posts.replies_count#3"));
+        verify(counterMapper).insertFlush(startsWith("replay-"), eq(1));
+        assertEquals(List.of(), journalFiles());
+    }
+
+    @Test
+    void committedBatchIsNotReplayedTwice() throws Exception {
+        CounterService crashed = start();
+        crashed.increment(CounterType.POST_REPLIES, 3L, 1);
+        // 批次已提交，但进程在清理本地日志之前退出
+        doThrow(new RuntimeException("crash after commit")).when(counterMapper).insertFlush(anyString(), anyInt());
+        assertThrows(IllegalStateException.class, crashed::flush);
+        services.remove(crashed);
+        reset(counterMapper);
+        when(counterMapper.countFlush(anyString())).thenReturn(1);
+
+        start();
+
+        verify(counterMapper, never()).applyDeltas(anyString(), anyString(), anyList());
+        assertEquals(List.of(), journalFiles());
+    }
+
+    @Test
+    void pendingDuringFlushNeverCountsDeltaTwice() throws Exception {
+        CounterService service = start();
+        // 写回一直失败：增量始终留在内存（分段或待写回批次），pending 必须恰好等于累加总数
+        when(counterMapper.countFlush(anyString())).thenThrow(new RuntimeException("db down"));
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread flusher = new Thread(() -> {
+            while (running.get()) {
+                try {
+                    service.flush();
+                } catch (IllegalStateException expected) {
+                    // 保留批次，下次重试
+                }
+            }
+        });
+        flusher.start();
+        int mismatches = 0;
+        try {
+            for (int count = 1; count <= 2000; count++) {
+                service.increment(CounterType.POST_VIEWS, 1L, 1);
+                if (service.pending(CounterType.POST_VIEWS, 1L) != count) {
+                    mismatches++;
+                }
+            }
+        } finally {
+            running.set(false);
+            flusher.join();
+        }
+        assertEquals(0, mismatches);
+
+        reset(counterMapper);
+        when(counterMapper.applyDeltas(anyString(), anyString(), anyList())).thenAnswer(invocation -> {
+            List<CounterDelta> deltas = invocation.getArgument(2);
+            deltas.forEach(d -> database.merge("posts.views_count#" + d.getId(), d.getDelta(), Long::sum));
+            return deltas.size();
+        });
+        service.flush();
+
+        assertEquals(2000L, database.get("posts.views_count#1"));
+        assertEquals(0, service.pending(CounterType.POST_VIEWS, 1L));
+    }
+
+    @Test
+    void overlayAddsPendingDeltas() {
+        CounterService service = start();
+        service.increment(CounterType.POST_VIEWS, 1L, 4);
+        service.increment(CounterType.POST_LIKES, 1L, -2);
+        Post post = new Post();
+        post.setId(1L);
+        post.setViewsCount(10);
+        post.setLikesCount(1);
+
+        service.overlay(post);
+
+        assertEquals(14, post.getViewsCount());
+        assertEquals(0, post.getLikesCount());
+    }
+
+    private CounterService start() {
+        CounterService service = new CounterService();
+        ReflectionTestUtils.setField(service, "counterMapper", counterMapper);
+        ReflectionTestUtils.setField(service, "transactionTemplate",
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(service, "writeBehind", true);
+        // 定时写回间隔足够长，测试中只由显式调用触发
+        ReflectionTestUtils.setField(service, "flushIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(service, "journalSyncMs", 3_600_000L);
+        ReflectionTestUtils.setField(service, "journalDir", journalDir.toString());
+        ReflectionTestUtils.setField(service, "stripeCount", 4);
+        ReflectionTestUtils.setField(service, "flushRetentionDays", 7);
+        try {
+            service.init();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        services.add(service);
+        return service;
+    }
+
+    private List<String> journalFiles() throws Exception {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.map(p -> p.getFileName().toString()).sorted().toList();
+        }
+    }
+}